@@ -0,0 +1,80 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import com.recipecart.database.MapEntitySaveAndLoader.LockingMode;
+import com.recipecart.entities.Recipe;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * This class measures how recipe searches and recipe saves affect each other in each LockingMode.
+ * In the searchWhileSaving group, one thread keeps saving recipes while four threads keep searching
+ * them; saveWithoutSearches is the saving thread alone, for comparison. Both report the sampled
+ * latencies (including percentiles) of each operation.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ConcurrentSearchBenchmark {
+    private static final int NUM_WORDS = 200, WORDS_PER_NAME = 4;
+
+    @Param public LockingMode lockingMode;
+
+    @Param("20000")
+    public int numRecipes;
+
+    private MapEntitySaveAndLoader saveAndLoader;
+
+    @Setup
+    public void setUp() {
+        saveAndLoader = new MapEntitySaveAndLoader(lockingMode);
+        Random rand = new Random(0);
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < numRecipes; i++) {
+            recipes.add(generateRecipe(i, rand));
+        }
+        saveAndLoader.updateRecipes(recipes);
+    }
+
+    @Benchmark
+    @Group("searchWhileSaving")
+    @GroupThreads(4)
+    public Set<Recipe> search() {
+        return saveAndLoader.searchRecipes(
+                Set.of("word" + ThreadLocalRandom.current().nextInt(NUM_WORDS)));
+    }
+
+    @Benchmark
+    @Group("searchWhileSaving")
+    @GroupThreads(1)
+    public void save() {
+        saveRandomRecipe();
+    }
+
+    @Benchmark
+    public void saveWithoutSearches() {
+        saveRandomRecipe();
+    }
+
+    private void saveRandomRecipe() {
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        saveAndLoader.updateRecipes(
+                Collections.singletonList(generateRecipe(rand.nextInt(numRecipes), rand)));
+    }
+
+    private static Recipe generateRecipe(int index, Random rand) {
+        StringBuilder presentationName = new StringBuilder();
+        for (int i = 0; i < WORDS_PER_NAME; i++) {
+            presentationName.append("word").append(rand.nextInt(NUM_WORDS)).append(' ');
+        }
+        return new Recipe.Builder()
+                .setName("recipe-" + index)
+                .setPresentationName(presentationName.toString().trim())
+                .build();
+    }
+}
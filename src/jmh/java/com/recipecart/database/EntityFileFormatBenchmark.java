@@ -0,0 +1,161 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Recipe;
+import com.recipecart.entities.Tag;
+import com.recipecart.entities.User;
+import com.recipecart.utils.Utils;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * This class compares the save and load times of the binary entity file format (EntityFileCodec)
+ * against the Java-serialized format it replaced, for a generated catalog of numRecipes recipes.
+ * The size of the saved catalog in each format is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EntityFileFormatBenchmark {
+    private static final int NUM_TAGS = 200,
+            NUM_INGREDIENTS = 2000,
+            TAGS_PER_RECIPE = 4,
+            INGREDIENTS_PER_RECIPE = 8,
+            RECIPES_PER_USER = 10;
+
+    /** This enum is a format that entity files can be saved in. */
+    public enum Format {
+        JAVA_SERIALIZATION {
+            @Override
+            void write(FileEntitySaveAndLoader.EntityFile file, OutputStream stream)
+                    throws IOException {
+                ObjectOutputStream objectWriter = new ObjectOutputStream(stream);
+                objectWriter.writeObject(file);
+                objectWriter.flush();
+            }
+
+            @Override
+            FileEntitySaveAndLoader.EntityFile read(InputStream stream)
+                    throws IOException, ClassNotFoundException {
+                return (FileEntitySaveAndLoader.EntityFile)
+                        new ObjectInputStream(stream).readObject();
+            }
+        },
+        BINARY {
+            @Override
+            void write(FileEntitySaveAndLoader.EntityFile file, OutputStream stream)
+                    throws IOException {
+                EntityFileCodec.write(file, stream);
+            }
+
+            @Override
+            FileEntitySaveAndLoader.EntityFile read(InputStream stream) throws IOException {
+                return EntityFileCodec.read(stream);
+            }
+        };
+
+        abstract void write(FileEntitySaveAndLoader.EntityFile file, OutputStream stream)
+                throws IOException;
+
+        abstract FileEntitySaveAndLoader.EntityFile read(InputStream stream)
+                throws IOException, ClassNotFoundException;
+    }
+
+    @Param public Format format;
+
+    @Param("100000")
+    public int numRecipes;
+
+    private FileEntitySaveAndLoader.EntityFile file;
+    private byte[] saved;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = generateEntityFile(numRecipes, new Random(0));
+        saved = save().toByteArray();
+        System.out.printf("%n%s: %,d bytes%n", format, saved.length);
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream save() throws IOException {
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        format.write(file, outStream);
+        return outStream;
+    }
+
+    @Benchmark
+    public FileEntitySaveAndLoader.EntityFile load() throws IOException, ClassNotFoundException {
+        return format.read(new ByteArrayInputStream(saved));
+    }
+
+    private static FileEntitySaveAndLoader.EntityFile generateEntityFile(
+            int numRecipes, Random rand) {
+        Map<String, Tag> tags = new HashMap<>();
+        for (int i = 0; i < NUM_TAGS; i++) {
+            tags.put("tag " + i, new Tag("tag " + i));
+        }
+        List<Tag> tagList = new ArrayList<>(tags.values());
+
+        Map<String, Ingredient> ingredients = new HashMap<>();
+        for (int i = 0; i < NUM_INGREDIENTS; i++) {
+            String ingredientName = "ingredient " + i;
+            ingredients.put(
+                    ingredientName,
+                    new Ingredient(ingredientName, "grams", "https://example.com/" + i + ".png"));
+        }
+        List<Ingredient> ingredientList = new ArrayList<>(ingredients.values());
+
+        Map<String, Recipe> recipes = new HashMap<>();
+        List<Recipe> recipeList = new ArrayList<>();
+        for (int i = 0; i < numRecipes; i++) {
+            Set<Tag> recipeTags = new HashSet<>();
+            for (int j = 0; j < TAGS_PER_RECIPE; j++) {
+                recipeTags.add(tagList.get(rand.nextInt(tagList.size())));
+            }
+            Map<Ingredient, Double> required = new HashMap<>();
+            for (int j = 0; j < INGREDIENTS_PER_RECIPE; j++) {
+                required.put(
+                        ingredientList.get(rand.nextInt(ingredientList.size())),
+                        (double) rand.nextInt(500));
+            }
+            Recipe recipe =
+                    new Recipe.Builder()
+                            .setName("recipe " + i)
+                            .setPresentationName("Recipe number " + i)
+                            .setAuthorUsername("user " + i / RECIPES_PER_USER)
+                            .setPrepTime(rand.nextInt(60))
+                            .setCookTime(rand.nextInt(120))
+                            .setNumServings(1 + rand.nextInt(8))
+                            .setDirections(List.of("Combine everything.", "Cook until done."))
+                            .setTags(recipeTags)
+                            .setRequiredIngredients(required)
+                            .build();
+            recipes.put(recipe.getName(), recipe);
+            recipeList.add(recipe);
+        }
+
+        Map<String, User> users = new HashMap<>();
+        for (int i = 0; i < numRecipes / RECIPES_PER_USER; i++) {
+            User user =
+                    new User.Builder()
+                            .setUsername("user " + i)
+                            .setEmailAddress("user" + i + "@example.com")
+                            .setAuthoredRecipes(
+                                    recipeList.subList(
+                                            i * RECIPES_PER_USER, (i + 1) * RECIPES_PER_USER))
+                            .setSavedRecipes(
+                                    List.of(recipeList.get(rand.nextInt(recipeList.size()))))
+                            .build();
+            users.put(user.getUsername(), user);
+        }
+
+        return new FileEntitySaveAndLoader.EntityFile(
+                tags, ingredients, Utils.toRecipeFormMap(recipes), Utils.toUserFormMap(users));
+    }
+}
@@ -0,0 +1,85 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Recipe;
+import com.recipecart.entities.Tag;
+import java.util.*;
+
+/**
+ * This class reports how much heap a large catalog of recipes takes up when saved with and without
+ * interning their Tags and Ingredients. Each generated recipe gets its own copies of its Tags and
+ * Ingredients (and of their strings), like recipes built from separately parsed requests do. Since
+ * it measures retained heap rather than time, it isn't a JMH benchmark; run it with the
+ * interningHeapReport Gradle task, optionally passing in the number of recipes to generate (e.g.
+ * --args=50000).
+ */
+public class EntityInterningHeapReport {
+    private static final int NUM_TAGS = 200,
+            NUM_INGREDIENTS = 2000,
+            TAGS_PER_RECIPE = 4,
+            INGREDIENTS_PER_RECIPE = 8;
+
+    public static void main(String[] args) {
+        int numRecipes = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        long before = usedHeap();
+        MapEntitySaveAndLoader withoutInterning = new MapEntitySaveAndLoader();
+        for (Recipe recipe : generateRecipes(numRecipes)) {
+            // bypasses the EntitySaver methods, which intern
+            withoutInterning.getSavedRecipes().put(recipe.getName(), recipe);
+        }
+        long withoutInterningBytes = usedHeap() - before;
+
+        before = usedHeap();
+        MapEntitySaveAndLoader withInterning = new MapEntitySaveAndLoader();
+        withInterning.updateRecipes(generateRecipes(numRecipes));
+        long withInterningBytes = usedHeap() - before;
+
+        System.out.println("Recipes: " + numRecipes);
+        System.out.printf("%-20s %,d bytes%n", "Without interning", withoutInterningBytes);
+        System.out.printf("%-20s %,d bytes%n", "With interning", withInterningBytes);
+
+        // keeps both savers reachable until they've been measured
+        System.out.printf(
+                "(%d recipes saved, %d canonical instances)%n",
+                withoutInterning.getSavedRecipes().size(), withInterning.getInterner().size());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static List<Recipe> generateRecipes(int numRecipes) {
+        Random rand = new Random(0);
+        List<Recipe> recipes = new ArrayList<>();
+        for (int i = 0; i < numRecipes; i++) {
+            Set<Tag> tags = new HashSet<>();
+            for (int j = 0; j < TAGS_PER_RECIPE; j++) {
+                tags.add(new Tag("tag " + rand.nextInt(NUM_TAGS)));
+            }
+            Map<Ingredient, Double> required = new HashMap<>();
+            for (int j = 0; j < INGREDIENTS_PER_RECIPE; j++) {
+                int ingredient = rand.nextInt(NUM_INGREDIENTS);
+                required.put(
+                        new Ingredient(
+                                "ingredient " + ingredient,
+                                new String("grams"),
+                                "https://example.com/" + ingredient + ".png"),
+                        (double) rand.nextInt(500));
+            }
+            recipes.add(
+                    new Recipe.Builder()
+                            .setName("recipe " + i)
+                            .setPresentationName("Recipe number " + i)
+                            .setTags(tags)
+                            .setRequiredIngredients(required)
+                            .build());
+        }
+        return recipes;
+    }
+}
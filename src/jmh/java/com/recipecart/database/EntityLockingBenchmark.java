@@ -0,0 +1,78 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import com.recipecart.database.MapEntitySaveAndLoader.LockingMode;
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.User;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * This class measures the throughput of a MapEntitySaveAndLoader under concurrent updates to
+ * different users (each adding an ingredient onto a user's shopping list, through computeUser),
+ * mixed with reads of users, in each LockingMode. The share of operations that are updates is
+ * updatePercent; pass JMH's -t option to change the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Threads(8)
+@Fork(1)
+public class EntityLockingBenchmark {
+    private static final int NUM_USERS = 10_000, NUM_INGREDIENTS = 500, SHOPPING_LIST_SIZE = 50;
+
+    @Param public LockingMode lockingMode;
+
+    @Param("50")
+    public int updatePercent;
+
+    private List<Ingredient> ingredients;
+    private MapEntitySaveAndLoader saveAndLoader;
+
+    @Setup
+    public void setUp() {
+        ingredients = new ArrayList<>();
+        for (int i = 0; i < NUM_INGREDIENTS; i++) {
+            ingredients.add(new Ingredient("ingredient " + i, "grams", null));
+        }
+
+        saveAndLoader = new MapEntitySaveAndLoader(lockingMode);
+        Random rand = new Random(0);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < NUM_USERS; i++) {
+            Map<Ingredient, Double> shoppingList = new HashMap<>();
+            for (int j = 0; j < SHOPPING_LIST_SIZE; j++) {
+                shoppingList.put(ingredients.get(rand.nextInt(NUM_INGREDIENTS)), 1.0);
+            }
+            users.add(
+                    new User.Builder()
+                            .setUsername("user " + i)
+                            .setShoppingList(shoppingList)
+                            .build());
+        }
+        saveAndLoader.updateIngredients(ingredients);
+        saveAndLoader.updateUsers(users);
+    }
+
+    @Benchmark
+    public Object updateOrReadUser() throws IOException {
+        ThreadLocalRandom rand = ThreadLocalRandom.current();
+        String username = "user " + rand.nextInt(NUM_USERS);
+        if (rand.nextInt(100) >= updatePercent) {
+            return saveAndLoader.getUsersByNames(Collections.singletonList(username));
+        }
+        Ingredient toAdd = ingredients.get(rand.nextInt(NUM_INGREDIENTS));
+        return saveAndLoader.computeUser(
+                username,
+                (user) -> {
+                    Map<Ingredient, Double> shoppingList = new HashMap<>(user.getShoppingList());
+                    shoppingList.merge(toAdd, 1.0, Double::sum);
+                    return new User.Builder(user).setShoppingList(shoppingList).build();
+                });
+    }
+}
@@ -0,0 +1,122 @@
+/* (C)2023 */
+package com.recipecart.entities;
+
+import com.recipecart.utils.Utils;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * This class times the hash-heavy entity operations behind the shopping-list and bookmark commands:
+ * adding a recipe's ingredients onto a shopping list, rebuilding a User with one more bookmarked
+ * (and rated) recipe, and looking up one of a user's ratings, for users with recipesPerUser saved
+ * and rated recipes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EntityHashingBenchmark {
+    private static final int NUM_INGREDIENTS = 2000,
+            INGREDIENTS_PER_RECIPE = 12,
+            DIRECTIONS_PER_RECIPE = 10,
+            SHOPPING_LIST_SIZE = 200,
+            NUM_OTHER_RECIPES = 1000;
+
+    @Param("500")
+    public int recipesPerUser;
+
+    private List<Recipe> recipes; // the user's recipes, followed by recipes the user doesn't have
+    private User user;
+    private int nextRecipe = 0, nextOtherRecipe = 0;
+
+    @Setup
+    public void setUp() {
+        Random rand = new Random(0);
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < NUM_INGREDIENTS; i++) {
+            String ingredientName = "ingredient " + i;
+            ingredients.add(
+                    new Ingredient(ingredientName, "grams", "https://example.com/" + i + ".png"));
+        }
+        recipes = new ArrayList<>();
+        for (int i = 0; i < recipesPerUser + NUM_OTHER_RECIPES; i++) {
+            recipes.add(generateRecipe(i, ingredients, rand));
+        }
+
+        Map<Ingredient, Double> shoppingList = new HashMap<>();
+        for (int i = 0; i < SHOPPING_LIST_SIZE; i++) {
+            shoppingList.put(ingredients.get(rand.nextInt(NUM_INGREDIENTS)), 1.0);
+        }
+        Map<Recipe, Double> ratings = new HashMap<>();
+        for (Recipe recipe : recipes.subList(0, recipesPerUser)) {
+            ratings.put(recipe, (double) rand.nextInt(5));
+        }
+        user =
+                new User.Builder()
+                        .setUsername("user")
+                        .setSavedRecipes(recipes.subList(0, recipesPerUser))
+                        .setRatedRecipes(ratings)
+                        .setShoppingList(shoppingList)
+                        .build();
+    }
+
+    private Recipe nextRecipe() {
+        Recipe recipe = recipes.get(nextRecipe);
+        nextRecipe = (nextRecipe + 1) % recipes.size();
+        return recipe;
+    }
+
+    // a recipe the user doesn't have yet
+    private Recipe nextOtherRecipe() {
+        Recipe recipe = recipes.get(recipesPerUser + nextOtherRecipe);
+        nextOtherRecipe = (nextOtherRecipe + 1) % NUM_OTHER_RECIPES;
+        return recipe;
+    }
+
+    @Benchmark
+    public User addToShoppingList() {
+        return new User.Builder(user)
+                .setShoppingList(
+                        Utils.addMaps(
+                                user.getShoppingList(), nextRecipe().getRequiredIngredients()))
+                .build();
+    }
+
+    @Benchmark
+    public User bookmarkAndRate() {
+        Recipe recipe = nextOtherRecipe();
+        Set<String> saved = new LinkedHashSet<>(user.getSavedRecipeNames());
+        saved.add(recipe.getName());
+        Map<String, Double> rated = new HashMap<>(user.getRecipeRatings());
+        rated.put(recipe.getName(), 5.0);
+        return new User.Builder(user).setSavedRecipeNames(saved).setRecipeRatings(rated).build();
+    }
+
+    @Benchmark
+    public Double lookUpRating() {
+        return user.getRatingOf(nextRecipe().getName());
+    }
+
+    private static Recipe generateRecipe(int index, List<Ingredient> ingredients, Random rand) {
+        List<String> directions = new ArrayList<>();
+        for (int i = 0; i < DIRECTIONS_PER_RECIPE; i++) {
+            directions.add("Step " + i + ": combine everything and cook until it's done.");
+        }
+        Map<Ingredient, Double> required = new HashMap<>();
+        for (int i = 0; i < INGREDIENTS_PER_RECIPE; i++) {
+            required.put(ingredients.get(rand.nextInt(ingredients.size())), 1.0);
+        }
+        return new Recipe.Builder()
+                .setName("recipe " + index)
+                .setPresentationName("Recipe number " + index)
+                .setAuthorUsername("author")
+                .setNumServings(1 + rand.nextInt(8))
+                .setDirections(directions)
+                .setTags(Set.of(new Tag("tag " + rand.nextInt(100))))
+                .setRequiredIngredients(required)
+                .build();
+    }
+}
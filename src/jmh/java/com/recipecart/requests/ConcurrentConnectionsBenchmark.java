@@ -0,0 +1,125 @@
+/* (C)2023 */
+package com.recipecart.requests;
+
+import static spark.Spark.awaitInitialization;
+import static spark.Spark.awaitStop;
+import static spark.Spark.stop;
+
+import com.recipecart.database.MapEntitySaveAndLoader;
+import com.recipecart.entities.User;
+import com.recipecart.execution.EntityCommander;
+import com.recipecart.execution.EntityCommander.ExecutorMode;
+import com.recipecart.storage.EntityStorage;
+import com.recipecart.utils.VirtualThreads;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * This class measures the throughput of the HTTP server at increasing numbers of concurrent
+ * connections, each of which gets a user through "/users/:user" per operation. Loading users blocks
+ * for a while, like it would when loading from a database, so the server's throughput depends on
+ * how many requests it can have waiting at once. With threads "pool", requests are taken and
+ * commands are executed on the web server's default thread pool; with "virtual", both are done on
+ * virtual threads (which needs Java 21 or later). Multiply the score by numConnections for the
+ * requests per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 1, time = 5)
+@Fork(1) // the web server can only be started once per process, so each trial needs its own fork
+public class ConcurrentConnectionsBenchmark {
+    private static final int PORT = 7655, NUM_USERS = 1000, LOAD_LATENCY_MILLIS = 20;
+
+    @Param({"pool", "virtual"})
+    public String threads;
+
+    @Param({"10", "100", "1000", "2000", "5000"})
+    public int numConnections;
+
+    private HttpClient client;
+    private final AtomicLong errors = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        boolean virtual = threads.equals("virtual");
+        if (virtual && !VirtualThreads.isSupported()) {
+            throw new IllegalStateException("Virtual threads need Java 21 or later to run");
+        }
+
+        SlowLoader saveAndLoader = new SlowLoader();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < NUM_USERS; i++) {
+            users.add(new User.Builder().setUsername("user" + i).build());
+        }
+        saveAndLoader.updateUsers(users);
+        EntityCommander commander =
+                virtual
+                        ? new EntityCommander(
+                                new EntityStorage(saveAndLoader, saveAndLoader),
+                                ExecutorMode.VIRTUAL,
+                                Integer.MAX_VALUE)
+                        : new EntityCommander(new EntityStorage(saveAndLoader, saveAndLoader));
+        new HttpRequestHandler(commander, new JwtValidator(), PORT, virtual).startHandler();
+        awaitInitialization();
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        stop();
+        awaitStop();
+        System.out.printf("%nFailed requests: %d%n", errors.get());
+    }
+
+    // sends one request on each connection at once, and waits for all of them to finish
+    @Benchmark
+    public void getUserOnEachConnection() {
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
+        for (int i = 0; i < numConnections; i++) {
+            requests.add(getRandomUser());
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private CompletableFuture<Void> getRandomUser() {
+        String username = "user" + ThreadLocalRandom.current().nextInt(NUM_USERS);
+        URI uri = URI.create("http://localhost:" + PORT + "/users/" + username);
+        HttpRequest request =
+                HttpRequest.newBuilder(uri).header("Accept", "application/json").build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle(
+                        (response, e) -> {
+                            if (e != null || response.statusCode() != HttpRequestHandler.OK) {
+                                errors.incrementAndGet();
+                            }
+                            return null;
+                        });
+    }
+
+    // loading users blocks for a while, like loading from a database would
+    private static class SlowLoader extends MapEntitySaveAndLoader {
+        @Override
+        public @NotNull List<@NotNull User> getUsersByNames(
+                @NotNull List<@NotNull String> usernames) throws IOException {
+            try {
+                Thread.sleep(LOAD_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.getUsersByNames(usernames);
+        }
+    }
+}
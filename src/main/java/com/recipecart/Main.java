@@ -5,7 +5,10 @@ import static spark.Spark.awaitStop;
 import static spark.Spark.stop;
 
 import com.recipecart.database.FileEntitySaveAndLoader;
+import com.recipecart.database.FileEntitySaveAndLoader.AutosaveMode;
+import com.recipecart.database.MapEntitySaveAndLoader.LockingMode;
 import com.recipecart.execution.EntityCommander;
+import com.recipecart.execution.EntityCommander.ExecutorMode;
 import com.recipecart.requests.HttpRequestHandler;
 import com.recipecart.requests.JwtValidator;
 import com.recipecart.storage.EntityLoader;
@@ -13,6 +16,7 @@ import com.recipecart.storage.EntitySaver;
 import com.recipecart.storage.EntityStorage;
 import com.recipecart.utils.CommandLineArguments;
 import com.recipecart.utils.Utils;
+import com.recipecart.utils.VirtualThreads;
 import java.io.File;
 import java.io.IOException;
 import java.util.Scanner;
@@ -34,6 +38,7 @@ import java.util.Scanner;
  */
 public class Main {
     public static final String SERVER_STOP_STRING = "quit";
+    private static final long COMMAND_SHUTDOWN_TIMEOUT_MILLIS = 10_000;
 
     /**
      * Starts up the backend server. Initializes the EntityStorage (which currently uses the
@@ -46,21 +51,47 @@ public class Main {
      * @throws IOException if an error occurs when loading entities from file
      * @throws ClassNotFoundException if an error occurs with finding a class when deserializing the
      *     file entities are stored in
+     * @throws InterruptedException if interrupted while waiting for commands to finish executing
+     *     when stopping the server
      */
-    public static void main(String[] args) throws IOException, ClassNotFoundException {
+    public static void main(String[] args)
+            throws IOException, ClassNotFoundException, InterruptedException {
         CommandLineArguments commandArgs = new CommandLineArguments(args);
         checkArgumentsValidity(commandArgs);
         checkHelp(commandArgs);
+        checkVirtualThreadsSupport(commandArgs);
 
         FileEntitySaveAndLoader saveAndLoader =
-                initSaveAndLoader(
-                        commandArgs.getFilename(),
-                        commandArgs.isAutosave(),
-                        commandArgs.getUpdatesPerAutosave(),
-                        commandArgs.isMockData());
-        initHandler(saveAndLoader, saveAndLoader, commandArgs.getPort());
+                commandArgs.isJournal()
+                        ? initJournalingSaveAndLoader(
+                                commandArgs.getFilename(),
+                                commandArgs.getUpdatesPerCompaction(),
+                                commandArgs.isSyncJournal(),
+                                getLockingMode(commandArgs),
+                                commandArgs.isMockData())
+                        : initSaveAndLoader(
+                                commandArgs.getFilename(),
+                                commandArgs.isAutosave(),
+                                commandArgs.getUpdatesPerAutosave(),
+                                commandArgs.isBackgroundAutosave(),
+                                commandArgs.isLazyLoad()
+                                        ? commandArgs.getLazyLoadCacheSize()
+                                        : null,
+                                getLockingMode(commandArgs),
+                                commandArgs.isMockData());
+        EntityCommander commander =
+                initHandler(
+                        saveAndLoader,
+                        saveAndLoader,
+                        getExecutorMode(commandArgs),
+                        commandArgs.getExecutorThreads(),
+                        commandArgs.isVirtualThreads(),
+                        commandArgs.getPort());
         listenForStopString(
-                saveAndLoader, !commandArgs.isDisableFinalSave(), commandArgs.getFilename());
+                saveAndLoader,
+                commander,
+                !commandArgs.isDisableFinalSave(),
+                commandArgs.getFilename());
     }
 
     private static void checkArgumentsValidity(CommandLineArguments commandArgs) {
@@ -77,8 +108,40 @@ public class Main {
         }
     }
 
+    private static void checkVirtualThreadsSupport(CommandLineArguments commandArgs) {
+        if (commandArgs.isVirtualThreads() && !VirtualThreads.isSupported()) {
+            System.err.println("Virtual threads need Java 21 or later to run");
+            System.exit(1);
+        }
+    }
+
+    private static LockingMode getLockingMode(CommandLineArguments commandArgs) {
+        if (commandArgs.isCopyOnWrite()) {
+            return LockingMode.COPY_ON_WRITE;
+        }
+        return commandArgs.isStripedLocks() ? LockingMode.STRIPED : LockingMode.GLOBAL;
+    }
+
+    private static ExecutorMode getExecutorMode(CommandLineArguments commandArgs) {
+        if (commandArgs.isVirtualThreads()) {
+            return ExecutorMode.VIRTUAL;
+        }
+        if (commandArgs.isFixedExecutor()) {
+            return ExecutorMode.FIXED;
+        }
+        return commandArgs.isWorkStealingExecutor()
+                ? ExecutorMode.WORK_STEALING
+                : ExecutorMode.DIRECT;
+    }
+
     private static FileEntitySaveAndLoader initSaveAndLoader(
-            String filename, boolean autosave, int updatesPerAutosave, boolean mockData)
+            String filename,
+            boolean autosave,
+            int updatesPerAutosave,
+            boolean backgroundAutosave,
+            Integer lazyLoadCacheSize,
+            LockingMode lockingMode,
+            boolean mockData)
             throws IOException, ClassNotFoundException {
         if (autosave && updatesPerAutosave <= 0) {
             throw new IllegalArgumentException(
@@ -87,12 +150,21 @@ public class Main {
 
         FileEntitySaveAndLoader saveAndLoader;
         if (autosave) {
-            saveAndLoader = new FileEntitySaveAndLoader(filename, updatesPerAutosave);
+            saveAndLoader =
+                    new FileEntitySaveAndLoader(
+                            filename,
+                            updatesPerAutosave,
+                            backgroundAutosave
+                                    ? AutosaveMode.BACKGROUND_SNAPSHOT
+                                    : AutosaveMode.SNAPSHOT,
+                            lockingMode);
         } else {
-            saveAndLoader = new FileEntitySaveAndLoader();
+            saveAndLoader = new FileEntitySaveAndLoader(lockingMode);
         }
 
-        if (new File(filename).exists()) {
+        if (new File(filename).exists() && lazyLoadCacheSize != null) {
+            saveAndLoader.loadMapped(filename, lazyLoadCacheSize);
+        } else if (new File(filename).exists()) {
             saveAndLoader.load(filename);
         }
         if (mockData) {
@@ -101,18 +173,54 @@ public class Main {
         return saveAndLoader;
     }
 
-    private static void initHandler(EntitySaver saver, EntityLoader loader, int port) {
+    private static FileEntitySaveAndLoader initJournalingSaveAndLoader(
+            String filename,
+            int updatesPerCompaction,
+            boolean syncJournal,
+            LockingMode lockingMode,
+            boolean mockData)
+            throws IOException, ClassNotFoundException {
+        if (updatesPerCompaction <= 0) {
+            throw new IllegalArgumentException(
+                    "Journaling enabled, but invalid updatesPerCompaction argument");
+        }
+
+        FileEntitySaveAndLoader saveAndLoader =
+                new FileEntitySaveAndLoader(
+                        filename,
+                        updatesPerCompaction,
+                        syncJournal ? AutosaveMode.SYNCED_JOURNAL : AutosaveMode.JOURNAL,
+                        lockingMode);
+        saveAndLoader.loadAutosave();
+        if (mockData) {
+            Utils.putInMockData(saveAndLoader);
+        }
+        return saveAndLoader;
+    }
+
+    private static EntityCommander initHandler(
+            EntitySaver saver,
+            EntityLoader loader,
+            ExecutorMode executorMode,
+            int executorThreads,
+            boolean virtualThreads,
+            int port) {
         EntityStorage storage = new EntityStorage(saver, loader);
-        EntityCommander commander = new EntityCommander(storage);
+        EntityCommander commander = new EntityCommander(storage, executorMode, executorThreads);
         JwtValidator validator = new JwtValidator();
-        HttpRequestHandler requestHandler = new HttpRequestHandler(commander, validator, port);
+        HttpRequestHandler requestHandler =
+                new HttpRequestHandler(commander, validator, port, virtualThreads);
 
         requestHandler.startHandler();
+        return commander;
     }
 
     private static void listenForStopString(
-            FileEntitySaveAndLoader saveAndLoader, boolean save, String filename)
-            throws IOException {
+            FileEntitySaveAndLoader saveAndLoader,
+            EntityCommander commander,
+            boolean save,
+            String filename)
+            throws IOException, InterruptedException {
         if (save && filename == null) {
             throw new IllegalArgumentException("Saving enabled, but filename is null");
         }
@@ -125,7 +233,10 @@ public class Main {
         while (sc.hasNextLine()) {
             if (sc.nextLine().equals(SERVER_STOP_STRING)) {
                 stop();
-                if (save) {
+                commander.shutdown(COMMAND_SHUTDOWN_TIMEOUT_MILLIS);
+                if (save && saveAndLoader.isJournaling()) {
+                    saveAndLoader.compactJournal();
+                } else if (save) {
                     saveAndLoader.save(filename);
                 }
                 awaitStop();
@@ -0,0 +1,856 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Tag;
+import com.recipecart.utils.RecipeForm;
+import com.recipecart.utils.UserForm;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class reads and writes the binary format of entity files. A file starts with a header (a
+ * magic number and a format version), followed by a dictionary of every distinct string in the
+ * file, followed by the tags, ingredients, recipes, and users. Every string (names, units,
+ * directions, etc.) is written once in the dictionary and referenced everywhere else by its index,
+ * so the names of entities referenced by many others take up four bytes per reference. Nullable
+ * values are written with a marker: -1 for null strings and collections, and a boolean flag before
+ * nullable numbers. Everything is read and written through a buffer over an NIO channel. When the
+ * entity file being written has records in a mapped entity file, they're copied from it without
+ * being decoded (see RecordCopier).
+ */
+final class EntityFileCodec {
+    static final int MAGIC = 0x52435346; // "RCSF"
+    static final int VERSION = 1;
+
+    private static final int NULL_REFERENCE = -1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private EntityFileCodec() {}
+
+    /**
+     * Checks whether the given stream starts with this format's header, without consuming it.
+     *
+     * @param stream the stream to check
+     * @return true if the stream starts with the magic number of this format; false otherwise
+     * @throws IOException if there's an error with reading from the stream.
+     */
+    static boolean hasHeader(@NotNull BufferedInputStream stream) throws IOException {
+        stream.mark(Integer.BYTES);
+        try {
+            return new DataInputStream(stream).readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            stream.reset();
+        }
+    }
+
+    /**
+     * Writes the given entity file to the given stream.
+     *
+     * @param file the entity file to write
+     * @param stream the stream to write to
+     * @throws IOException if there's an error with writing to the stream.
+     */
+    static void write(
+            @NotNull FileEntitySaveAndLoader.EntityFile file, @NotNull OutputStream stream)
+            throws IOException {
+        // The first pass only fills in the dictionary, so that it can be written before the body.
+        StringTable table = new StringTable();
+        MappedSnapshot mappedRecords = file.getMappedRecords();
+        RecordCopier copier =
+                mappedRecords != null ? new RecordCopier(mappedRecords, table) : null;
+        writeBody(file, new Output(null), table, copier);
+
+        Output output = new Output(Channels.newChannel(stream));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        writeDictionary(table, output);
+        writeBody(file, output, table, copier);
+        output.flush();
+    }
+
+    private static void writeDictionary(StringTable table, Output output) throws IOException {
+        output.writeInt(table.strings.size());
+        for (String string : table.strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.writeBytes(bytes);
+        }
+    }
+
+    /**
+     * Reads an entity file from the given stream.
+     *
+     * @param stream the stream to read from
+     * @return the entity file that was read
+     * @throws IOException if there's an error with reading from the stream, or if the stream
+     *     isn't in this format (or is in an unsupported version of it).
+     */
+    static @NotNull FileEntitySaveAndLoader.EntityFile read(@NotNull InputStream stream)
+            throws IOException {
+        Input input = new Input(Channels.newChannel(stream));
+        readHeader(input);
+        Reader reader = readDictionary(input);
+
+        Map<String, Tag> tags = reader.readTags();
+        Map<String, Ingredient> ingredients = reader.readIngredients();
+
+        int numRecipes = input.readInt();
+        Map<String, RecipeForm> recipes = new HashMap<>(capacityFor(numRecipes));
+        for (int i = 0; i < numRecipes; i++) {
+            recipes.put(reader.readString(), reader.readRecipeForm());
+        }
+
+        int numUsers = input.readInt();
+        Map<String, UserForm> users = new HashMap<>(capacityFor(numUsers));
+        for (int i = 0; i < numUsers; i++) {
+            users.put(reader.readString(), reader.readUserForm());
+        }
+
+        return new FileEntitySaveAndLoader.EntityFile(tags, ingredients, recipes, users);
+    }
+
+    // reads a dictionary, and returns a reader of the entities after it
+    private static Reader readDictionary(Input input) throws IOException {
+        String[] strings = new String[input.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = input.readUtf8(input.readInt());
+        }
+        return new Reader(
+                input,
+                (index) -> {
+                    if (index < 0 || index >= strings.length) {
+                        throw new IOException("Invalid string reference: " + index);
+                    }
+                    return strings[index];
+                });
+    }
+
+    /**
+     * Writes the entities of the given journal record to the given stream: a dictionary of their
+     * strings, followed by the entities, encoded as they are in entity files (tags and ingredients
+     * are written without their keys).
+     *
+     * @param record the journal record whose entities to write
+     * @param stream the stream to write to
+     * @throws IOException if there's an error with writing to the stream.
+     */
+    static void writeJournalEntities(
+            @NotNull EntityJournal.Record record, @NotNull OutputStream stream)
+            throws IOException {
+        StringTable table = new StringTable();
+        writeJournalEntities(record, new Output(null), table);
+
+        Output output = new Output(Channels.newChannel(stream));
+        writeDictionary(table, output);
+        writeJournalEntities(record, output, table);
+        output.flush();
+    }
+
+    private static void writeJournalEntities(
+            EntityJournal.Record record, Output output, StringTable table) throws IOException {
+        Writer writer = new Writer(output, table);
+        output.writeInt(record.getEntities().size());
+        for (Object entity : record.getEntities()) {
+            switch (record.getType()) {
+                case TAG:
+                    writer.writeString(((Tag) entity).getName());
+                    break;
+                case INGREDIENT:
+                    Ingredient ingredient = (Ingredient) entity;
+                    writer.writeString(ingredient.getName());
+                    writer.writeString(ingredient.getUnits());
+                    writer.writeString(ingredient.getImageUri());
+                    break;
+                case RECIPE:
+                    writer.writeRecipeForm((RecipeForm) entity);
+                    break;
+                case USER:
+                    writer.writeUserForm((UserForm) entity);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Reads the entities of a journal record, as written by writeJournalEntities.
+     *
+     * @param type the type of the record's entities
+     * @param buffer the buffer holding the record's entities, from its position to its limit
+     * @return the entities of the record: Tags, Ingredients, RecipeForms, or UserForms, by type
+     * @throws IOException if the entities end unexpectedly, or have invalid string references.
+     */
+    static @NotNull List<?> readJournalEntities(
+            @NotNull EntityJournal.EntityType type, @NotNull ByteBuffer buffer)
+            throws IOException {
+        Input input = new Input(buffer);
+        Reader reader = readDictionary(input);
+        int numEntities = input.readInt();
+        List<Object> entities = new ArrayList<>(Math.max(numEntities, 0));
+        for (int i = 0; i < numEntities; i++) {
+            switch (type) {
+                case TAG:
+                    entities.add(new Tag(reader.readString()));
+                    break;
+                case INGREDIENT:
+                    entities.add(
+                            new Ingredient(
+                                    reader.readString(), reader.readString(), reader.readString()));
+                    break;
+                case RECIPE:
+                    entities.add(reader.readRecipeForm());
+                    break;
+                case USER:
+                    entities.add(reader.readUserForm());
+                    break;
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Reads this format's header from the given input.
+     *
+     * @param input the input to read from, positioned at the start of an entity file
+     * @throws IOException if the input doesn't start with this format's header, or if the header
+     *     is for an unsupported version of this format.
+     */
+    static void readHeader(@NotNull Input input) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not an entity file");
+        }
+        int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported entity file version: " + version);
+        }
+    }
+
+    static int capacityFor(int size) {
+        return (int) (size / 0.75f) + 1;
+    }
+
+    private static void writeBody(
+            FileEntitySaveAndLoader.EntityFile file,
+            Output output,
+            StringTable table,
+            @Nullable RecordCopier copier)
+            throws IOException {
+        Writer writer = new Writer(output, table);
+
+        output.writeInt(file.getTags().size());
+        for (Map.Entry<String, Tag> entry : file.getTags().entrySet()) {
+            writer.writeString(entry.getKey());
+            writer.writeString(entry.getValue().getName());
+        }
+
+        output.writeInt(file.getIngredients().size());
+        for (Map.Entry<String, Ingredient> entry : file.getIngredients().entrySet()) {
+            writer.writeString(entry.getKey());
+            writer.writeString(entry.getValue().getName());
+            writer.writeString(entry.getValue().getUnits());
+            writer.writeString(entry.getValue().getImageUri());
+        }
+
+        List<String> copiedRecipes =
+                copier != null ? copier.getUnreplacedRecipes(file.getRecipeForms()) : List.of();
+        output.writeInt(file.getRecipeForms().size() + copiedRecipes.size());
+        for (Map.Entry<String, RecipeForm> entry : file.getRecipeForms().entrySet()) {
+            writer.writeString(entry.getKey());
+            writer.writeRecipeForm(entry.getValue());
+        }
+        for (String name : copiedRecipes) {
+            writer.writeString(name);
+            copier.copyRecipe(name, output);
+        }
+
+        List<String> copiedUsers =
+                copier != null ? copier.getUnreplacedUsers(file.getUserForms()) : List.of();
+        output.writeInt(file.getUserForms().size() + copiedUsers.size());
+        for (Map.Entry<String, UserForm> entry : file.getUserForms().entrySet()) {
+            writer.writeString(entry.getKey());
+            writer.writeUserForm(entry.getValue());
+        }
+        for (String username : copiedUsers) {
+            writer.writeString(username);
+            copier.copyUser(username, output);
+        }
+    }
+
+    /**
+     * This class buffers the values written to a channel. If there's no channel, the values are
+     * discarded instead.
+     */
+    private static final class Output {
+        private final @Nullable WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        Output(@Nullable WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        private void ensureRemaining(int numBytes) throws IOException {
+            if (buffer.remaining() < numBytes) {
+                flush();
+            }
+        }
+
+        void writeInt(int value) throws IOException {
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void writeDouble(double value) throws IOException {
+            ensureRemaining(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        void writeBoolean(boolean value) throws IOException {
+            ensureRemaining(1);
+            buffer.put((byte) (value ? 1 : 0));
+        }
+
+        void writeBytes(byte[] bytes) throws IOException {
+            int offset = 0;
+            while (offset < bytes.length) {
+                ensureRemaining(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (channel != null && buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * This class buffers the values read from a channel. It can also read straight from buffers
+     * that hold a whole entity file (such as memory-mapped segments of one), in which case it can
+     * seek to any position in the file.
+     */
+    static final class Input {
+        /** The most bytes that a single value read from an input takes. */
+        static final int MAX_VALUE_BYTES = Double.BYTES;
+
+        private final @Nullable ReadableByteChannel channel;
+        private final ByteBuffer @Nullable [] segments; // null for inputs that read from a channel
+        private final long segmentStride;
+        private ByteBuffer buffer;
+        private long bufferStart = 0; // the position in the file of the buffer's start
+
+        Input(@NotNull ReadableByteChannel channel) {
+            this.channel = channel;
+            this.segments = null;
+            this.segmentStride = 0;
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.flip();
+        }
+
+        Input(@NotNull ByteBuffer file) {
+            this(new ByteBuffer[] {file}, Long.MAX_VALUE);
+        }
+
+        /**
+         * Creates an input that reads from a file held by several buffers, each of which starts
+         * segmentStride bytes into the file after the one before it. Each buffer but the last must
+         * also hold the first MAX_VALUE_BYTES bytes of the next one, so that no value read is
+         * split across buffers.
+         *
+         * @param segments the buffers holding the file, in order
+         * @param segmentStride how many bytes into the file each buffer starts after the one
+         *     before it
+         */
+        Input(@NotNull ByteBuffer @NotNull [] segments, long segmentStride) {
+            this.channel = null;
+            this.segments = segments;
+            this.segmentStride = segmentStride;
+            this.buffer = segments[0].duplicate();
+        }
+
+        /** @return the position in the file (only for inputs that read from a whole file) */
+        long position() {
+            return bufferStart + buffer.position();
+        }
+
+        /** Moves to the given position in the file (only for inputs that read from a whole file) */
+        void seek(long position) {
+            assert segments != null;
+            int segment = (int) Math.min(position / segmentStride, segments.length - 1);
+            long start = segment * segmentStride;
+            if (start != bufferStart) {
+                buffer = segments[segment].duplicate();
+                bufferStart = start;
+            }
+            buffer.position(Math.toIntExact(position - start));
+        }
+
+        private void ensureRemaining(int numBytes) throws IOException {
+            if (buffer.remaining() >= numBytes) {
+                return;
+            }
+            if (segments != null) {
+                seek(position()); // moves to the next segment, if reading into its overlap
+                if (buffer.remaining() >= numBytes) {
+                    return;
+                }
+            }
+            if (channel == null) {
+                throw new EOFException("Entity file ended unexpectedly");
+            }
+            buffer.compact();
+            while (buffer.position() < numBytes) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException("Entity file ended unexpectedly");
+                }
+            }
+            buffer.flip();
+        }
+
+        int readInt() throws IOException {
+            ensureRemaining(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        double readDouble() throws IOException {
+            ensureRemaining(Double.BYTES);
+            return buffer.getDouble();
+        }
+
+        boolean readBoolean() throws IOException {
+            ensureRemaining(1);
+            return buffer.get() != 0;
+        }
+
+        String readUtf8(int numBytes) throws IOException {
+            if (numBytes < 0) {
+                throw new IOException("Invalid string length: " + numBytes);
+            }
+            if (buffer.hasArray() && numBytes <= buffer.capacity()) {
+                ensureRemaining(numBytes);
+                String string =
+                        new String(
+                                buffer.array(),
+                                buffer.arrayOffset() + buffer.position(),
+                                numBytes,
+                                StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + numBytes);
+                return string;
+            }
+            byte[] bytes = new byte[numBytes];
+            int offset = 0;
+            while (offset < numBytes) {
+                ensureRemaining(1);
+                int length = Math.min(buffer.remaining(), numBytes - offset);
+                buffer.get(bytes, offset, length);
+                offset += length;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        void skip(int numBytes) throws IOException {
+            while (numBytes > 0) {
+                ensureRemaining(1);
+                int length = Math.min(buffer.remaining(), numBytes);
+                buffer.position(buffer.position() + length);
+                numBytes -= length;
+            }
+        }
+    }
+
+    /** This class resolves the string references of an entity file. */
+    interface Dictionary {
+        /**
+         * @param index a (non-null) string reference
+         * @return the string the reference refers to
+         * @throws IOException if the reference is invalid, or if there's an error with reading the
+         *     string.
+         */
+        @NotNull String get(int index) throws IOException;
+    }
+
+    /** This class assigns each distinct string an index in the dictionary. */
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        int indexOf(@Nullable String string) {
+            if (string == null) {
+                return NULL_REFERENCE;
+            }
+            return indexes.computeIfAbsent(
+                    string,
+                    (s) -> {
+                        strings.add(s);
+                        return strings.size() - 1;
+                    });
+        }
+    }
+
+    private static final class Writer {
+        private final Output output;
+        private final StringTable table;
+
+        Writer(Output output, StringTable table) {
+            this.output = output;
+            this.table = table;
+        }
+
+        void writeString(@Nullable String string) throws IOException {
+            output.writeInt(table.indexOf(string));
+        }
+
+        void writeNullableInt(@Nullable Integer value) throws IOException {
+            output.writeBoolean(value != null);
+            if (value != null) {
+                output.writeInt(value);
+            }
+        }
+
+        void writeNullableDouble(@Nullable Double value) throws IOException {
+            output.writeBoolean(value != null);
+            if (value != null) {
+                output.writeDouble(value);
+            }
+        }
+
+        void writeStrings(@Nullable Collection<String> strings) throws IOException {
+            if (strings == null) {
+                output.writeInt(NULL_REFERENCE);
+                return;
+            }
+            output.writeInt(strings.size());
+            for (String string : strings) {
+                writeString(string);
+            }
+        }
+
+        void writeAmounts(@Nullable Map<String, Double> amounts) throws IOException {
+            if (amounts == null) {
+                output.writeInt(NULL_REFERENCE);
+                return;
+            }
+            output.writeInt(amounts.size());
+            for (Map.Entry<String, Double> entry : amounts.entrySet()) {
+                writeString(entry.getKey());
+                writeNullableDouble(entry.getValue());
+            }
+        }
+
+        void writeRecipeForm(RecipeForm form) throws IOException {
+            writeString(form.getName());
+            writeString(form.getPresentationName());
+            writeString(form.getAuthorUsername());
+            writeNullableInt(form.getPrepTime());
+            writeNullableInt(form.getCookTime());
+            writeString(form.getImageUri());
+            writeNullableInt(form.getNumServings());
+            output.writeDouble(form.getAvgRating());
+            output.writeInt(form.getNumRatings());
+            writeStrings(form.getDirections());
+            writeStrings(form.getTagNames());
+            writeAmounts(form.getRequiredIngredients());
+        }
+
+        void writeUserForm(UserForm form) throws IOException {
+            writeString(form.getUsername());
+            writeString(form.getEmailAddress());
+            writeStrings(form.getAuthoredRecipes());
+            writeStrings(form.getSavedRecipes());
+            writeAmounts(form.getRatedRecipes());
+            writeStrings(form.getOwnedIngredients());
+            writeAmounts(form.getShoppingList());
+        }
+    }
+
+    /**
+     * This class copies the records of recipes and users from a mapped entity file into the file
+     * being written, without decoding them into forms: the records are copied value by value, and
+     * only their string references are rewritten to refer to the written file's dictionary. Each
+     * string of the mapped file's dictionary is decoded at most once per written file.
+     */
+    private static final class RecordCopier {
+        private static final int UNASSIGNED = -2;
+
+        private final MappedSnapshot source;
+        private final StringTable table;
+        private final int[] rewrittenReferences; // by the mapped file's references
+
+        RecordCopier(MappedSnapshot source, StringTable table) {
+            this.source = source;
+            this.table = table;
+            this.rewrittenReferences = new int[source.getNumStrings()];
+            Arrays.fill(rewrittenReferences, UNASSIGNED);
+        }
+
+        // the names of the mapped file's recipes that aren't replaced by the given forms
+        List<String> getUnreplacedRecipes(Map<String, RecipeForm> replacements) {
+            return getUnreplaced(source.getRecipeNames(), replacements);
+        }
+
+        // the usernames of the mapped file's users that aren't replaced by the given forms
+        List<String> getUnreplacedUsers(Map<String, UserForm> replacements) {
+            return getUnreplaced(source.getUsernames(), replacements);
+        }
+
+        private static List<String> getUnreplaced(Set<String> keys, Map<String, ?> replacements) {
+            List<String> unreplaced = new ArrayList<>();
+            for (String key : keys) {
+                if (!replacements.containsKey(key)) {
+                    unreplaced.add(key);
+                }
+            }
+            return unreplaced;
+        }
+
+        void copyRecipe(String name, Output output) throws IOException {
+            Input input = source.getRecipeRecord(name);
+            if (input == null) {
+                throw new IOException("Mapped recipe not found: " + name);
+            }
+            copyString(input, output);
+            copyString(input, output);
+            copyString(input, output);
+            copyNullableInt(input, output);
+            copyNullableInt(input, output);
+            copyString(input, output);
+            copyNullableInt(input, output);
+            output.writeDouble(input.readDouble());
+            output.writeInt(input.readInt());
+            copyStrings(input, output);
+            copyStrings(input, output);
+            copyAmounts(input, output);
+        }
+
+        void copyUser(String username, Output output) throws IOException {
+            Input input = source.getUserRecord(username);
+            if (input == null) {
+                throw new IOException("Mapped user not found: " + username);
+            }
+            copyString(input, output);
+            copyString(input, output);
+            copyStrings(input, output);
+            copyStrings(input, output);
+            copyAmounts(input, output);
+            copyStrings(input, output);
+            copyAmounts(input, output);
+        }
+
+        private void copyString(Input input, Output output) throws IOException {
+            int reference = input.readInt();
+            if (reference == NULL_REFERENCE) {
+                output.writeInt(NULL_REFERENCE);
+                return;
+            }
+            if (reference < 0 || reference >= rewrittenReferences.length) {
+                throw new IOException("Invalid string reference: " + reference);
+            }
+            if (rewrittenReferences[reference] == UNASSIGNED) {
+                rewrittenReferences[reference] = table.indexOf(source.getString(reference));
+            }
+            output.writeInt(rewrittenReferences[reference]);
+        }
+
+        private static void copyNullableInt(Input input, Output output) throws IOException {
+            boolean present = input.readBoolean();
+            output.writeBoolean(present);
+            if (present) {
+                output.writeInt(input.readInt());
+            }
+        }
+
+        private static void copyNullableDouble(Input input, Output output) throws IOException {
+            boolean present = input.readBoolean();
+            output.writeBoolean(present);
+            if (present) {
+                output.writeDouble(input.readDouble());
+            }
+        }
+
+        private void copyStrings(Input input, Output output) throws IOException {
+            int size = input.readInt();
+            output.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                copyString(input, output);
+            }
+        }
+
+        private void copyAmounts(Input input, Output output) throws IOException {
+            int size = input.readInt();
+            output.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                copyString(input, output);
+                copyNullableDouble(input, output);
+            }
+        }
+    }
+
+    /** This class reads the entities of an entity file, after its header and dictionary. */
+    static final class Reader {
+        private final Input input;
+        private final Dictionary dictionary;
+
+        Reader(@NotNull Input input, @NotNull Dictionary dictionary) {
+            this.input = input;
+            this.dictionary = dictionary;
+        }
+
+        @Nullable String readString() throws IOException {
+            int index = input.readInt();
+            return index == NULL_REFERENCE ? null : dictionary.get(index);
+        }
+
+        Map<String, Tag> readTags() throws IOException {
+            int numTags = input.readInt();
+            Map<String, Tag> tags = new HashMap<>(capacityFor(numTags));
+            for (int i = 0; i < numTags; i++) {
+                tags.put(readString(), new Tag(readString()));
+            }
+            return tags;
+        }
+
+        Map<String, Ingredient> readIngredients() throws IOException {
+            int numIngredients = input.readInt();
+            Map<String, Ingredient> ingredients = new HashMap<>(capacityFor(numIngredients));
+            for (int i = 0; i < numIngredients; i++) {
+                ingredients.put(
+                        readString(), new Ingredient(readString(), readString(), readString()));
+            }
+            return ingredients;
+        }
+
+        private void skipNullableNumber(int numBytes) throws IOException {
+            if (input.readBoolean()) {
+                input.skip(numBytes);
+            }
+        }
+
+        private void skipStrings() throws IOException {
+            int size = input.readInt();
+            if (size != NULL_REFERENCE) {
+                input.skip(size * Integer.BYTES);
+            }
+        }
+
+        private void skipAmounts() throws IOException {
+            int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                input.skip(Integer.BYTES);
+                skipNullableNumber(Double.BYTES);
+            }
+        }
+
+        void skipRecipeForm() throws IOException {
+            input.skip(3 * Integer.BYTES);
+            skipNullableNumber(Integer.BYTES);
+            skipNullableNumber(Integer.BYTES);
+            input.skip(Integer.BYTES);
+            skipNullableNumber(Integer.BYTES);
+            input.skip(Double.BYTES + Integer.BYTES);
+            skipStrings();
+            skipStrings();
+            skipAmounts();
+        }
+
+        // reads only the fields that recipes are indexed by, skipping the rest of the recipe form
+        @NotNull RecipeAttributeIndex.Attributes readRecipeAttributes() throws IOException {
+            input.skip(3 * Integer.BYTES);
+            Integer prepTime = readNullableInt();
+            Integer cookTime = readNullableInt();
+            input.skip(Integer.BYTES);
+            Integer numServings = readNullableInt();
+            double avgRating = input.readDouble();
+            input.skip(Integer.BYTES);
+            skipStrings();
+            Set<String> tagNames = readStrings(new HashSet<>());
+            Map<String, Double> requiredIngredients = readAmounts();
+            return new RecipeAttributeIndex.Attributes(
+                    requiredIngredients != null ? requiredIngredients.keySet() : Set.of(),
+                    tagNames != null ? tagNames : Set.of(),
+                    prepTime,
+                    cookTime,
+                    numServings,
+                    avgRating);
+        }
+
+        void skipUserForm() throws IOException {
+            input.skip(2 * Integer.BYTES);
+            skipStrings();
+            skipStrings();
+            skipAmounts();
+            skipStrings();
+            skipAmounts();
+        }
+
+        @Nullable Integer readNullableInt() throws IOException {
+            return input.readBoolean() ? input.readInt() : null;
+        }
+
+        @Nullable Double readNullableDouble() throws IOException {
+            return input.readBoolean() ? input.readDouble() : null;
+        }
+
+        <C extends Collection<String>> @Nullable C readStrings(C strings) throws IOException {
+            int size = input.readInt();
+            if (size == NULL_REFERENCE) {
+                return null;
+            }
+            for (int i = 0; i < size; i++) {
+                strings.add(readString());
+            }
+            return strings;
+        }
+
+        @Nullable Map<String, Double> readAmounts() throws IOException {
+            int size = input.readInt();
+            if (size == NULL_REFERENCE) {
+                return null;
+            }
+            Map<String, Double> amounts = new HashMap<>(capacityFor(size));
+            for (int i = 0; i < size; i++) {
+                amounts.put(readString(), readNullableDouble());
+            }
+            return amounts;
+        }
+
+        RecipeForm readRecipeForm() throws IOException {
+            return new RecipeForm(
+                    readString(),
+                    readString(),
+                    readString(),
+                    readNullableInt(),
+                    readNullableInt(),
+                    readString(),
+                    readNullableInt(),
+                    input.readDouble(),
+                    input.readInt(),
+                    readStrings(new ArrayList<>()),
+                    readStrings(new HashSet<>()),
+                    readAmounts());
+        }
+
+        UserForm readUserForm() throws IOException {
+            return new UserForm(
+                    readString(),
+                    readString(),
+                    readStrings(new ArrayList<>()),
+                    readStrings(new ArrayList<>()),
+                    readAmounts(),
+                    readStrings(new HashSet<>()),
+                    readAmounts());
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Recipe;
+import com.recipecart.entities.Tag;
+import com.recipecart.entities.User;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class canonicalizes Tags and Ingredients (and the strings in them), so that all the saved
+ * entities that have equal Tags or Ingredients share one instance of each. Recipes and Users are
+ * canonicalized by rebuilding them with canonical Tags and Ingredients, which is skipped if they
+ * already have only canonical ones. Canonical instances are only weakly held, so ones that no
+ * saved entity uses anymore can still be garbage-collected. This class is thread-safe.
+ */
+final class EntityInterner {
+    private final Pool<String> strings = new Pool<>();
+    private final Pool<Tag> tags = new Pool<>();
+    private final Pool<Ingredient> ingredients = new Pool<>();
+
+    /**
+     * @param tag the Tag to canonicalize
+     * @return the canonical Tag equal to the given Tag
+     */
+    @NotNull Tag intern(@NotNull Tag tag) {
+        Tag canonical = tags.get(tag);
+        if (canonical != null) {
+            return canonical;
+        }
+        String name = intern(tag.getName());
+        return tags.add(name == tag.getName() ? tag : new Tag(name));
+    }
+
+    /**
+     * @param ingredient the Ingredient to canonicalize
+     * @return the canonical Ingredient equal to the given Ingredient
+     */
+    @NotNull Ingredient intern(@NotNull Ingredient ingredient) {
+        Ingredient canonical = ingredients.get(ingredient);
+        if (canonical != null) {
+            return canonical;
+        }
+        String name = intern(ingredient.getName()),
+                units = intern(ingredient.getUnits()),
+                imageUri = intern(ingredient.getImageUri());
+        if (name != ingredient.getName()
+                || units != ingredient.getUnits()
+                || imageUri != ingredient.getImageUri()) {
+            ingredient = new Ingredient(name, units, imageUri);
+        }
+        return ingredients.add(ingredient);
+    }
+
+    /**
+     * @param recipe the Recipe to canonicalize
+     * @return the given Recipe if its Tags and Ingredients are already canonical, or else an equal
+     *     Recipe with canonical Tags and Ingredients
+     */
+    @NotNull Recipe intern(@NotNull Recipe recipe) {
+        Set<Tag> recipeTags = internAll(recipe.getTags());
+        Map<Ingredient, Double> requiredIngredients = internKeys(recipe.getRequiredIngredients());
+        if (recipeTags == null && requiredIngredients == null) {
+            return recipe;
+        }
+
+        Recipe.Builder builder = new Recipe.Builder(recipe);
+        if (recipeTags != null) {
+            builder.setTags(recipeTags);
+        }
+        if (requiredIngredients != null) {
+            builder.setRequiredIngredients(requiredIngredients);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param user the User to canonicalize
+     * @return the given User if its Ingredients are already canonical, or else an equal User with
+     *     canonical Ingredients
+     */
+    @NotNull User intern(@NotNull User user) {
+        Set<Ingredient> ownedIngredients = internAll(user.getOwnedIngredients());
+        Map<Ingredient, Double> shoppingList = internKeys(user.getShoppingList());
+        if (ownedIngredients == null && shoppingList == null) {
+            return user;
+        }
+
+        User.Builder builder = new User.Builder(user);
+        if (ownedIngredients != null) {
+            builder.setOwnedIngredients(ownedIngredients);
+        }
+        if (shoppingList != null) {
+            builder.setShoppingList(shoppingList);
+        }
+        return builder.build();
+    }
+
+    private @Nullable String intern(@Nullable String string) {
+        if (string == null) {
+            return null;
+        }
+        String canonical = strings.get(string);
+        return canonical != null ? canonical : strings.add(string);
+    }
+
+    // returns null if every element is already canonical, so that nothing needs to be rebuilt
+    private <T> @Nullable Set<T> internAll(Set<T> elements) {
+        Set<T> interned = new HashSet<>();
+        boolean changed = false;
+        for (T element : elements) {
+            T canonical = internEntity(element);
+            changed |= canonical != element;
+            interned.add(canonical);
+        }
+        return changed ? interned : null;
+    }
+
+    // returns null if every key is already canonical, so that nothing needs to be rebuilt
+    private <T> @Nullable Map<T, Double> internKeys(Map<T, Double> map) {
+        Map<T, Double> interned = new HashMap<>();
+        boolean changed = false;
+        for (Map.Entry<T, Double> entry : map.entrySet()) {
+            T canonical = internEntity(entry.getKey());
+            changed |= canonical != entry.getKey();
+            interned.put(canonical, entry.getValue());
+        }
+        return changed ? interned : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T internEntity(T entity) {
+        if (entity instanceof Tag) {
+            return (T) intern((Tag) entity);
+        }
+        return (T) intern((Ingredient) entity);
+    }
+
+    /** @return the number of canonical Tags, Ingredients and strings currently held */
+    int size() {
+        return strings.size() + tags.size() + ingredients.size();
+    }
+
+    /**
+     * This class is a set of canonical instances, which only holds them weakly. Lookups go through
+     * a WeakHashMap, whose values are also weak so that they don't keep their own keys alive.
+     */
+    private static final class Pool<T> {
+        private final Map<T, WeakReference<T>> canonical = new WeakHashMap<>();
+
+        synchronized @Nullable T get(@NotNull T value) {
+            WeakReference<T> reference = canonical.get(value);
+            return reference == null ? null : reference.get();
+        }
+
+        // keeps whichever equal instance was added first, if another thread got there in between
+        synchronized @NotNull T add(@NotNull T value) {
+            T existing = get(value);
+            if (existing != null) {
+                return existing;
+            }
+            canonical.put(value, new WeakReference<>(value));
+            return value;
+        }
+
+        synchronized int size() {
+            return canonical.size();
+        }
+    }
+}
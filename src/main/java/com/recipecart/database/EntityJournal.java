@@ -0,0 +1,240 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class is an append-only journal of entity updates, kept next to a snapshot file. Each
+ * record holds the entities passed into one EntitySaver call, so appending costs time proportional
+ * to the update rather than to the whole database. Compacting the journal into its snapshot is
+ * done in two steps: rotate() sets the current records aside (while the snapshot is taken), and
+ * discardRotated() deletes them once the snapshot is safely written. Until then, the rotated
+ * records are replayed along with the current ones, which is harmless since every record is a
+ * full replacement of the entities in it. On file, each record is a length prefix, followed by a
+ * byte for the type of its entities, followed by the entities as encoded by EntityFileCodec (with a
+ * dictionary of just the record's strings).
+ */
+final class EntityJournal {
+    /** The kinds of entities a journal record can hold. */
+    enum EntityType {
+        TAG,
+        INGREDIENT,
+        RECIPE,
+        USER
+    }
+
+    /** This class is a single journal record: the entities of one EntitySaver call. */
+    static final class Record {
+        private final @NotNull EntityType type;
+        private final @NotNull List<?> entities;
+
+        /**
+         * @param type the type of the entities
+         * @param entities the entities: Tags, Ingredients, RecipeForms, or UserForms, by type
+         */
+        Record(@NotNull EntityType type, @NotNull Collection<?> entities) {
+            this.type = Objects.requireNonNull(type);
+            this.entities = Collections.unmodifiableList(new ArrayList<>(entities));
+        }
+
+        @NotNull EntityType getType() {
+            return type;
+        }
+
+        @NotNull List<?> getEntities() {
+            return entities;
+        }
+    }
+
+    private final @NotNull File file, rotatedFile;
+    private final boolean sync;
+    private FileOutputStream fileStream;
+    private DataOutputStream writer;
+    private int numRecords;
+
+    /**
+     * Creates a journal for the given snapshot file, which doesn't force its records to the
+     * storage device. The journal's records are kept in the files "[snapshotFilename].journal" and
+     * "[snapshotFilename].journal.old".
+     *
+     * @param snapshotFilename the snapshot file the journal's records are compacted into
+     */
+    EntityJournal(@NotNull String snapshotFilename) {
+        this(snapshotFilename, false);
+    }
+
+    /**
+     * Creates a journal for the given snapshot file, as in EntityJournal(String).
+     *
+     * @param snapshotFilename the snapshot file the journal's records are compacted into
+     * @param sync whether each appended record is forced to the storage device before append()
+     *     returns, so that it survives the operating system crashing (and not just the program)
+     */
+    EntityJournal(@NotNull String snapshotFilename, boolean sync) {
+        Objects.requireNonNull(snapshotFilename);
+        this.file = new File(snapshotFilename + ".journal");
+        this.rotatedFile = new File(snapshotFilename + ".journal.old");
+        this.sync = sync;
+        this.numRecords = 0;
+    }
+
+    /** @return whether appended records are forced to the storage device */
+    boolean isSync() {
+        return sync;
+    }
+
+    /** @return the number of records appended since the last rotation */
+    synchronized int getNumRecords() {
+        return numRecords;
+    }
+
+    /**
+     * @return whether there are any records in this journal, including ones set aside by rotate()
+     */
+    synchronized boolean exists() {
+        return file.exists() || rotatedFile.exists();
+    }
+
+    /**
+     * Appends the given record to the end of the journal, and flushes it to the journal file (and
+     * forces it to the storage device, if this journal syncs). If the record can't be written in
+     * full, whatever part of it was written is cut off the journal file, so that the records
+     * appended after it can still be replayed.
+     *
+     * @param record the record to append
+     * @throws IOException if there's an error with writing to the journal file.
+     */
+    synchronized void append(@NotNull Record record) throws IOException {
+        Objects.requireNonNull(record);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(record.getType().ordinal());
+        EntityFileCodec.writeJournalEntities(record, bytes);
+
+        if (writer == null) {
+            fileStream = new FileOutputStream(file, true);
+            writer = new DataOutputStream(fileStream);
+        }
+        long recordStart = fileStream.getChannel().size();
+        try {
+            writer.writeInt(bytes.size());
+            bytes.writeTo(writer);
+            writer.flush();
+            if (sync) {
+                fileStream.getChannel().force(false);
+            }
+        } catch (IOException e) {
+            discardPartialRecord(recordStart, e);
+            throw e;
+        }
+        numRecords++;
+    }
+
+    private void discardPartialRecord(long recordStart, IOException cause) {
+        try {
+            fileStream.getChannel().truncate(recordStart);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+        try {
+            closeWriter();
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Sets the current records aside, so that the records appended from now on are kept apart from
+     * them. If the records of a previous rotation haven't been discarded yet, the current records
+     * are added onto them.
+     *
+     * @throws IOException if there's an error with moving the journal file.
+     */
+    synchronized void rotate() throws IOException {
+        closeWriter();
+        if (file.exists()) {
+            if (rotatedFile.exists()) {
+                Files.write(
+                        rotatedFile.toPath(),
+                        Files.readAllBytes(file.toPath()),
+                        StandardOpenOption.APPEND);
+                Files.delete(file.toPath());
+            } else {
+                Files.move(file.toPath(), rotatedFile.toPath());
+            }
+        }
+        numRecords = 0;
+    }
+
+    /**
+     * Deletes the records set aside by the last rotate() call.
+     *
+     * @throws IOException if there's an error with deleting the rotated journal file.
+     */
+    synchronized void discardRotated() throws IOException {
+        Files.deleteIfExists(rotatedFile.toPath());
+    }
+
+    /**
+     * Passes every record in this journal, oldest first, into the given consumer. A record that was
+     * only partially written (i.e. the program stopped in the middle of appending it) ends the
+     * replay.
+     *
+     * @param consumer what to do with each record
+     * @throws IOException if there's an error with reading from the journal files, or if a record
+     *     is invalid.
+     */
+    synchronized void replay(@NotNull Consumer<@NotNull Record> consumer) throws IOException {
+        Objects.requireNonNull(consumer);
+        closeWriter();
+        replayFile(rotatedFile, consumer);
+        replayFile(file, consumer);
+    }
+
+    private static void replayFile(File journalFile, Consumer<Record> consumer) throws IOException {
+        if (!journalFile.exists()) {
+            return;
+        }
+        try (DataInputStream reader =
+                new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+            while (true) {
+                byte[] bytes;
+                try {
+                    int length = reader.readInt();
+                    if (length < 0 || length > journalFile.length()) {
+                        return;
+                    }
+                    bytes = new byte[length];
+                    reader.readFully(bytes);
+                } catch (EOFException e) {
+                    return;
+                }
+                if (bytes.length == 0 || bytes[0] < 0 || bytes[0] >= EntityType.values().length) {
+                    throw new IOException("Invalid journal record");
+                }
+                EntityType type = EntityType.values()[bytes[0]];
+                ByteBuffer entities = ByteBuffer.wrap(bytes, 1, bytes.length - 1).slice();
+                consumer.accept(
+                        new Record(type, EntityFileCodec.readJournalEntities(type, entities)));
+            }
+        }
+    }
+
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            DataOutputStream toClose = writer;
+            writer = null;
+            fileStream = null;
+            toClose.close();
+        }
+    }
+}
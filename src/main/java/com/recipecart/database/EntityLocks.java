@@ -0,0 +1,162 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class holds the locks that guard the saved entities of one type. In GLOBAL mode, one
+ * read-write lock guards all the entities, so any save blocks every other save and read of that
+ * type. In STRIPED mode, entity names are hashed onto a fixed number of stripe locks, and a save
+ * only holds the stripes of the entities it saves, so saves of entities on different stripes
+ * proceed in parallel. Reads then don't take any stripes: they rely on the saved entities being
+ * immutable and kept in concurrent maps. COPY_ON_WRITE mode locks like STRIPED mode with a single
+ * stripe, so saves only block each other. In all modes, snapshots of all the entities exclude
+ * every save, and replacing all the entities excludes everything else that takes these locks.
+ * Stripes are always taken in ascending order, so saves of several entities can't deadlock each
+ * other. This class is thread-safe, and all its locks are reentrant.
+ */
+final class EntityLocks {
+    private static final int NUM_STRIPES = 64;
+
+    private final ReentrantReadWriteLock typeLock = new ReentrantReadWriteLock();
+    private final ReentrantLock[] stripes; // null in GLOBAL mode; its length is a power of 2
+
+    /**
+     * Creates the locks for one entity type, in the given mode.
+     *
+     * @param lockingMode how saves of the entities exclude each other
+     */
+    EntityLocks(@NotNull MapEntitySaveAndLoader.LockingMode lockingMode) {
+        switch (lockingMode) {
+            case STRIPED:
+                stripes = new ReentrantLock[NUM_STRIPES];
+                break;
+            case COPY_ON_WRITE:
+                stripes = new ReentrantLock[1];
+                break;
+            default:
+                stripes = null;
+                return;
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /** Locks for reading any number of entities. Reads only exclude replacing all entities. */
+    void lockForReading() {
+        typeLock.readLock().lock();
+    }
+
+    /** Unlocks what lockForReading() locked. */
+    void unlockForReading() {
+        typeLock.readLock().unlock();
+    }
+
+    /**
+     * Locks for saving the entity with the given name.
+     *
+     * @param name the name of the entity to save
+     */
+    void lockForSaving(@NotNull String name) {
+        if (stripes == null) {
+            typeLock.writeLock().lock();
+            return;
+        }
+        typeLock.readLock().lock();
+        stripes[getStripe(name)].lock();
+    }
+
+    /**
+     * Unlocks what lockForSaving(name) locked.
+     *
+     * @param name the name of the saved entity
+     */
+    void unlockForSaving(@NotNull String name) {
+        if (stripes == null) {
+            typeLock.writeLock().unlock();
+            return;
+        }
+        stripes[getStripe(name)].unlock();
+        typeLock.readLock().unlock();
+    }
+
+    /**
+     * Locks for saving the entities with the given names, all at once.
+     *
+     * @param names the names of the entities to save
+     */
+    void lockForSaving(@NotNull Collection<@NotNull String> names) {
+        if (stripes == null) {
+            typeLock.writeLock().lock();
+            return;
+        }
+        typeLock.readLock().lock();
+        for (int stripe : getStripes(names)) {
+            stripes[stripe].lock();
+        }
+    }
+
+    /**
+     * Unlocks what lockForSaving(names) locked.
+     *
+     * @param names the names of the saved entities
+     */
+    void unlockForSaving(@NotNull Collection<@NotNull String> names) {
+        if (stripes == null) {
+            typeLock.writeLock().unlock();
+            return;
+        }
+        for (int stripe : getStripes(names).descendingSet()) {
+            stripes[stripe].unlock();
+        }
+        typeLock.readLock().unlock();
+    }
+
+    /** Locks for reading all the entities at once, with no saves in between. */
+    void lockForSnapshot() {
+        typeLock.readLock().lock();
+        if (stripes != null) {
+            for (ReentrantLock stripe : stripes) {
+                stripe.lock();
+            }
+        }
+    }
+
+    /** Unlocks what lockForSnapshot() locked. */
+    void unlockForSnapshot() {
+        if (stripes != null) {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlock();
+            }
+        }
+        typeLock.readLock().unlock();
+    }
+
+    /** Locks for replacing all the entities at once. Excludes all other access. */
+    void lockForReplacing() {
+        typeLock.writeLock().lock();
+    }
+
+    /** Unlocks what lockForReplacing() locked. */
+    void unlockForReplacing() {
+        typeLock.writeLock().unlock();
+    }
+
+    private int getStripe(String name) {
+        int hash = name.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    private TreeSet<Integer> getStripes(Collection<String> names) {
+        TreeSet<Integer> stripeIndexes = new TreeSet<>();
+        for (String name : names) {
+            stripeIndexes.add(getStripe(name));
+        }
+        return stripeIndexes;
+    }
+}
@@ -0,0 +1,174 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import java.util.*;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class is an immutable version of the saved entities of one type, along with an inverted
+ * index of their name tokens (tokenized as in TokenIndex). Saving an entity makes a new version
+ * that shares almost all of its structure with the old one (see PersistentHashMap), so versions
+ * are cheap to make, and readers can keep using whichever version they started with, without any
+ * locks. This class is thread-safe, since it's immutable.
+ *
+ * @param <E> the type of the entities
+ */
+final class EntitySnapshot<E> {
+    private static final EntitySnapshot<?> EMPTY =
+            new EntitySnapshot<>(
+                    PersistentHashMap.empty(),
+                    PersistentHashMap.empty(),
+                    PersistentHashMap.empty());
+
+    private final PersistentHashMap<String, E> entities;
+    // token -> keys indexed under it (the keys map to themselves), and key -> its tokens
+    private final PersistentHashMap<String, PersistentHashMap<String, String>> postings;
+    private final PersistentHashMap<String, Set<String>> indexedTokens;
+
+    private EntitySnapshot(
+            PersistentHashMap<String, E> entities,
+            PersistentHashMap<String, PersistentHashMap<String, String>> postings,
+            PersistentHashMap<String, Set<String>> indexedTokens) {
+        this.entities = entities;
+        this.postings = postings;
+        this.indexedTokens = indexedTokens;
+    }
+
+    /** @return the version with no entities */
+    @SuppressWarnings("unchecked")
+    static <E> @NotNull EntitySnapshot<E> empty() {
+        return (EntitySnapshot<E>) EMPTY;
+    }
+
+    /**
+     * @param entities entity keys mapping to the entities to put in the version
+     * @param getNames gets the names of an entity to index it under
+     * @return a version with the given entities
+     */
+    static <E> @NotNull EntitySnapshot<E> of(
+            @NotNull Map<String, E> entities,
+            @NotNull Function<E, Collection<@Nullable String>> getNames) {
+        EntitySnapshot<E> snapshot = empty();
+        for (Map.Entry<String, E> entry : entities.entrySet()) {
+            E entity = entry.getValue();
+            snapshot = snapshot.with(entry.getKey(), entity, getNames.apply(entity));
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param key the key of the entity to put in
+     * @param entity the entity to put in
+     * @param names the names to index the entity under; null names are skipped
+     * @return a version with this version's entities, and with the given key mapped to the given
+     *     entity (instead of whatever it was mapped to)
+     */
+    @NotNull EntitySnapshot<E> with(
+            @NotNull String key, @NotNull E entity, @NotNull Collection<@Nullable String> names) {
+        Set<String> tokens = new HashSet<>();
+        for (String name : names) {
+            if (name != null) {
+                tokens.addAll(TokenIndex.tokenize(name));
+            }
+        }
+
+        PersistentHashMap<String, PersistentHashMap<String, String>> newPostings = postings;
+        Set<String> oldTokens = indexedTokens.get(key);
+        if (oldTokens == null) {
+            oldTokens = Collections.emptySet();
+        }
+        for (String token : oldTokens) {
+            if (!tokens.contains(token)) {
+                PersistentHashMap<String, String> keys = newPostings.get(token).minus(key);
+                newPostings =
+                        keys.size() == 0 ? newPostings.minus(token) : newPostings.plus(token, keys);
+            }
+        }
+        for (String token : tokens) {
+            if (!oldTokens.contains(token)) {
+                PersistentHashMap<String, String> keys = newPostings.get(token);
+                if (keys == null) {
+                    keys = PersistentHashMap.empty();
+                }
+                newPostings = newPostings.plus(token, keys.plus(key, key));
+            }
+        }
+
+        return new EntitySnapshot<>(
+                entities.plus(key, entity),
+                newPostings,
+                oldTokens.equals(tokens) ? indexedTokens : indexedTokens.plus(key, tokens));
+    }
+
+    /**
+     * @param key the key of an entity
+     * @return the entity with the given key, or null if there's none in this version
+     */
+    @Nullable E get(@NotNull String key) {
+        return entities.get(key);
+    }
+
+    /** @return a read-only Map view of the entities in this version, by key */
+    @NotNull Map<String, E> getEntities() {
+        return entities.asMap();
+    }
+
+    /**
+     * Finds the entities indexed under at least one of the given tokens (case-insensitive).
+     *
+     * @param tokens the tokens to look up
+     * @return the entities matched by any of the tokens, or an empty Set if none matched
+     */
+    @NotNull Set<E> find(@NotNull Set<@NotNull String> tokens) {
+        Set<E> matchedEntities = new HashSet<>();
+        for (String key : findKeys(tokens)) {
+            matchedEntities.add(entities.get(key));
+        }
+        return matchedEntities;
+    }
+
+    /**
+     * Finds the keys of the entities indexed under at least one of the given tokens
+     * (case-insensitive).
+     *
+     * @param tokens the tokens to look up
+     * @return the keys matched by any of the tokens, or an empty Set if none matched
+     */
+    @NotNull Set<String> findKeys(@NotNull Set<@NotNull String> tokens) {
+        Set<String> keys = new HashSet<>();
+        for (String token : tokens) {
+            PersistentHashMap<String, String> matched =
+                    postings.get(token.toLowerCase(Locale.ROOT));
+            if (matched != null) {
+                matched.forEach((key, sameKey) -> keys.add(key));
+            }
+        }
+        return keys;
+    }
+
+    /** @return the tokens that the entities in this version are indexed under */
+    @NotNull Set<String> getTokens() {
+        return postings.asMap().keySet();
+    }
+
+    /**
+     * @param key the key of an entity
+     * @return the tokens that the entity with the given key is indexed under, or an empty Set if
+     *     there's no such entity in this version
+     */
+    @NotNull Set<String> getTokens(@NotNull String key) {
+        Set<String> tokens = indexedTokens.get(key);
+        return tokens != null ? tokens : Collections.emptySet();
+    }
+
+    /**
+     * @param token a (lowercase) token
+     * @return the keys of the entities indexed under the given token, or null if there are none
+     */
+    @Nullable Set<String> getKeys(@NotNull String token) {
+        PersistentHashMap<String, String> keys = postings.get(token);
+        return keys != null ? keys.asMap().keySet() : null;
+    }
+}
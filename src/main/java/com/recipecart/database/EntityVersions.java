@@ -0,0 +1,49 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import com.recipecart.storage.EntityLoader;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class keeps the versions of the saved entities of one type, by name. Every save gives the
+ * entity a new version, greater than any version given out before, so versions only increase.
+ * Entities that were put in place without being saved one-by-one (e.g. by loading a file) all
+ * share one version, which is given out when they're put in place. This class is thread-safe, but
+ * callers are expected to guard it with the same lock that guards the entities it versions, so that
+ * an entity and its version always change together.
+ */
+final class EntityVersions {
+    private final AtomicLong lastVersion = new AtomicLong(EntityLoader.UNSAVED_VERSION);
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private volatile long baseVersion = lastVersion.incrementAndGet();
+
+    /**
+     * @param name the name of a saved entity
+     * @return the entity's version
+     */
+    long get(@NotNull String name) {
+        Long version = versions.get(name);
+        return version != null ? version : baseVersion;
+    }
+
+    /**
+     * Gives the entity with the given name a new version, since it's being saved.
+     *
+     * @param name the name of the entity
+     */
+    void increment(@NotNull String name) {
+        versions.put(name, lastVersion.incrementAndGet());
+    }
+
+    /**
+     * Gives all entities the same new version, since they've all been put in place at once. Meant
+     * for when the saved entities are replaced all at once (e.g. when loading).
+     */
+    void reset() {
+        versions.clear();
+        baseVersion = lastVersion.incrementAndGet();
+    }
+}
@@ -5,25 +5,73 @@ import com.recipecart.entities.Ingredient;
 import com.recipecart.entities.Recipe;
 import com.recipecart.entities.Tag;
 import com.recipecart.entities.User;
+import com.recipecart.storage.FilteredRecipePage;
+import com.recipecart.storage.RecipeFacets;
+import com.recipecart.storage.RecipeFilter;
 import com.recipecart.utils.RecipeForm;
 import com.recipecart.utils.UserForm;
 import com.recipecart.utils.Utils;
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
  * This class expands upon MapEntitySaveAndLoader's functionality by being able to save/load the
- * entities to/from a file.
+ * entities to/from a file. See AutosaveMode for the ways this class can autosave to file.
  */
 public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
+    /** The ways a FileEntitySaveAndLoader can autosave its contents to file. */
+    public enum AutosaveMode {
+        /** Snapshots of all contents are written to the file by the thread that updated them. */
+        SNAPSHOT,
+        /** Snapshots of all contents are written to the file by a background thread. */
+        BACKGROUND_SNAPSHOT,
+        /**
+         * Each update is appended to a journal next to the file, and the journal is compacted into
+         * the file by a background thread. If an update can't be appended, the EntitySaver method
+         * throws an UncheckedIOException, since the update (which was already made in memory) isn't
+         * durable until a compaction, which is then scheduled right away.
+         */
+        JOURNAL,
+        /**
+         * Like JOURNAL, but each append is also forced to the storage device (fsync) before the
+         * update returns, so that updates survive the operating system crashing, and not just the
+         * program.
+         */
+        SYNCED_JOURNAL
+    }
+
     private final @Nullable String autosaveFilename;
     private final @Nullable Integer maxSaveCounter;
+    private final @Nullable AutosaveMode autosaveMode;
 
     private final Object saveCounterLock = new Object();
     private Integer saveCounter;
 
+    private final @Nullable EntityJournal journal;
+    private final @Nullable ExecutorService backgroundSaver;
+    private final Object fileSaveLock = new Object();
+    private final AtomicBoolean backgroundSaveScheduled = new AtomicBoolean(false);
+    // set when an update couldn't be journaled, so that it's only durable once compacted
+    private final AtomicBoolean journalCompactionNeeded = new AtomicBoolean(false);
+
+    // recipes and users that haven't been updated since loadMapped() are read from here
+    private volatile @Nullable MappedSnapshot mappedSnapshot;
+
     /**
      * Creates a FileEntitySaveAndLoader that starts off with no contents. This instance will
      * autosave its contents to the given file every saveCounter method calls of an EntitySaver
@@ -35,10 +83,48 @@ public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
      */
     public FileEntitySaveAndLoader(
             @NotNull String autosaveFilename, @NotNull Integer maxSaveCounter) {
-        super();
+        this(autosaveFilename, maxSaveCounter, AutosaveMode.SNAPSHOT);
+    }
+
+    /**
+     * Creates a FileEntitySaveAndLoader that starts off with no contents. This instance will
+     * autosave its contents to the given file, in the given mode, every saveCounter method calls
+     * of an EntitySaver method. In the journal modes, every EntitySaver method call is also
+     * appended to a journal next to the given file (see loadAutosave()), and autosaving compacts
+     * the journal.
+     *
+     * @param autosaveFilename the file to autosave contents to
+     * @param maxSaveCounter the number of EntitySaver method calls required to autosave
+     * @param autosaveMode how to autosave contents to the file
+     * @throws IllegalArgumentException if saveCounter is zero or negative
+     */
+    public FileEntitySaveAndLoader(
+            @NotNull String autosaveFilename,
+            @NotNull Integer maxSaveCounter,
+            @NotNull AutosaveMode autosaveMode) {
+        this(autosaveFilename, maxSaveCounter, autosaveMode, LockingMode.GLOBAL);
+    }
+
+    /**
+     * Creates a FileEntitySaveAndLoader that starts off with no contents, and that autosaves as in
+     * FileEntitySaveAndLoader(String, Integer, AutosaveMode).
+     *
+     * @param autosaveFilename the file to autosave contents to
+     * @param maxSaveCounter the number of EntitySaver method calls required to autosave
+     * @param autosaveMode how to autosave contents to the file
+     * @param lockingMode how saves to this instance exclude each other
+     * @throws IllegalArgumentException if saveCounter is zero or negative
+     */
+    public FileEntitySaveAndLoader(
+            @NotNull String autosaveFilename,
+            @NotNull Integer maxSaveCounter,
+            @NotNull AutosaveMode autosaveMode,
+            @NotNull LockingMode lockingMode) {
+        super(lockingMode);
 
         Objects.requireNonNull(autosaveFilename);
         Objects.requireNonNull(maxSaveCounter);
+        Objects.requireNonNull(autosaveMode);
         if (maxSaveCounter <= 0) {
             throw new IllegalArgumentException("Max save counter cannot be negative");
         }
@@ -46,6 +132,21 @@ public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
         this.autosaveFilename = autosaveFilename;
         this.maxSaveCounter = maxSaveCounter;
         this.saveCounter = 0;
+        this.autosaveMode = autosaveMode;
+        this.journal =
+                autosaveMode == AutosaveMode.JOURNAL || autosaveMode == AutosaveMode.SYNCED_JOURNAL
+                        ? new EntityJournal(
+                                autosaveFilename, autosaveMode == AutosaveMode.SYNCED_JOURNAL)
+                        : null;
+        this.backgroundSaver =
+                autosaveMode == AutosaveMode.SNAPSHOT
+                        ? null
+                        : Executors.newSingleThreadExecutor(
+                                (runnable) -> {
+                                    Thread thread = new Thread(runnable, "background-autosave");
+                                    thread.setDaemon(true);
+                                    return thread;
+                                });
     }
 
     /**
@@ -53,10 +154,23 @@ public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
      * autosaving.
      */
     public FileEntitySaveAndLoader() {
-        super();
+        this(LockingMode.GLOBAL);
+    }
+
+    /**
+     * Creates a FileEntitySaveAndLoader that starts off with no contents. This instance will do no
+     * autosaving.
+     *
+     * @param lockingMode how saves to this instance exclude each other
+     */
+    public FileEntitySaveAndLoader(@NotNull LockingMode lockingMode) {
+        super(lockingMode);
         this.autosaveFilename = null;
         this.maxSaveCounter = null;
         this.saveCounter = 0;
+        this.autosaveMode = null;
+        this.journal = null;
+        this.backgroundSaver = null;
     }
 
     /**
@@ -66,9 +180,25 @@ public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
         return autosaveFilename;
     }
 
+    /** @return how this instance autosaves, or null if this instance doesn't do autosaving. */
+    @Nullable public AutosaveMode getAutosaveMode() {
+        return autosaveMode;
+    }
+
+    /** @return whether this instance appends its updates to a journal (in either journal mode) */
+    public boolean isJournaling() {
+        return journal != null;
+    }
+
     private EntityFile loadFromStream(@NotNull InputStream stream)
             throws IOException, ClassNotFoundException {
-        ObjectInputStream objectReader = new ObjectInputStream(stream);
+        BufferedInputStream bufferedStream = new BufferedInputStream(stream);
+        if (EntityFileCodec.hasHeader(bufferedStream)) {
+            return EntityFileCodec.read(bufferedStream);
+        }
+
+        // files saved before the binary format was introduced are Java-serialized EntityFiles
+        ObjectInputStream objectReader = new ObjectInputStream(bufferedStream);
         EntityFile fileObject = (EntityFile) objectReader.readObject();
         objectReader.close();
 
@@ -76,19 +206,13 @@ public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
     }
 
     private void loadState(EntityFile stateToLoad) {
-        getSavedTags().clear();
-        getSavedTags().putAll(stateToLoad.getTags());
+        mappedSnapshot = null;
 
-        getSavedIngredients().clear();
-        getSavedIngredients().putAll(stateToLoad.getIngredients());
-
-        Map<String, Recipe> recipes = stateToLoad.getFromRecipeForms();
-        getSavedRecipes().clear();
-        getSavedRecipes().putAll(recipes);
-
-        Map<String, User> user = stateToLoad.getFromUserForms(recipes);
-        getSavedUsers().clear();
-        getSavedUsers().putAll(user);
+        replaceSavedEntities(
+                stateToLoad.getTags(),
+                stateToLoad.getIngredients(),
+                stateToLoad.getFromRecipeForms(),
+                stateToLoad.getFromUserForms());
     }
 
     /**
@@ -104,18 +228,12 @@ public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
      */
     public void load(@NotNull InputStream stream) throws IOException, ClassNotFoundException {
         Objects.requireNonNull(stream);
-        tagWriteLock.lock();
-        ingredientWriteLock.lock();
-        recipeWriteLock.lock();
-        userWriteLock.lock();
+        lockAllForReplacing();
         try {
             EntityFile stateToLoad = loadFromStream(stream);
             loadState(stateToLoad);
         } finally {
-            userWriteLock.unlock();
-            recipeWriteLock.unlock();
-            ingredientWriteLock.unlock();
-            tagWriteLock.unlock();
+            unlockAllForReplacing();
         }
     }
 
@@ -132,66 +250,848 @@ public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
      */
     public void load(String filename) throws IOException, ClassNotFoundException {
         Objects.requireNonNull(filename);
-        load(new FileInputStream(filename));
+        try (FileChannel channel = FileChannel.open(Path.of(filename))) {
+            load(Channels.newInputStream(channel));
+        }
+    }
+
+    /**
+     * Loads the contents of this instance's autosave file, if it exists, into this
+     * FileEntitySaveAndLoader. If this instance journals its updates, the journal is then replayed
+     * on top of those contents, and compacted into the autosave file. The loaded contents will
+     * overwrite the current contents of this FileEntitySaveAndLoader.
+     *
+     * @throws IllegalStateException if this instance doesn't autosave
+     * @throws IOException if there's an error with reading from the autosave file or the journal.
+     * @throws ClassNotFoundException if the class of a serialized object from the autosave file
+     *     can't be found.
+     */
+    public void loadAutosave() throws IOException, ClassNotFoundException {
+        if (getAutosaveFilename() == null) {
+            throw new IllegalStateException("This instance doesn't autosave");
+        }
+        lockAllForReplacing();
+        try {
+            if (new File(getAutosaveFilename()).exists()) {
+                try (FileChannel channel = FileChannel.open(Path.of(getAutosaveFilename()))) {
+                    loadState(loadFromStream(Channels.newInputStream(channel)));
+                }
+            }
+            if (journal != null) {
+                journal.replay(this::replayRecord);
+            }
+        } finally {
+            unlockAllForReplacing();
+        }
+
+        if (journal != null && journal.exists()) {
+            compactJournal();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replayRecord(EntityJournal.Record record) {
+        switch (record.getType()) {
+            case TAG:
+                super.updateTags((List<Tag>) record.getEntities());
+                break;
+            case INGREDIENT:
+                super.updateIngredients((List<Ingredient>) record.getEntities());
+                break;
+            case RECIPE:
+                List<Recipe> recipes = new ArrayList<>();
+                for (RecipeForm form : (List<RecipeForm>) record.getEntities()) {
+                    recipes.add(
+                            Utils.fromRecipeForm(form, getSavedTags(), getSavedIngredients()));
+                }
+                super.updateRecipes(recipes);
+                break;
+            case USER:
+                List<User> users = new ArrayList<>();
+                for (UserForm form : (List<UserForm>) record.getEntities()) {
+                    users.add(Utils.fromUserForm(form, getSavedIngredients()));
+                }
+                super.updateUsers(users);
+                break;
+        }
+    }
+
+    /**
+     * Memory-maps the given file (i.e. the output file from a previous save call from some other
+     * FileEntitySaveAndLoader, in the binary format) and uses it as the contents of this
+     * FileEntitySaveAndLoader, overwriting its current contents. Only the tags and ingredients are
+     * read onto the heap right away. Recipes and users are read from the file when they're first
+     * loaded or found by a search, and up to cacheSize of each are then kept on the heap. Recipes
+     * and users saved after this call are kept on the heap as usual, and take precedence over the
+     * ones in the file. (Because of this, getSavedRecipes() and getSavedUsers() only contain the
+     * recipes and users saved after this call.) Saving copies the file's recipes and users that
+     * haven't been updated without decoding them, and saving over the file maps the saved file in
+     * its place.
+     *
+     * @param filename the file to map
+     * @param cacheSize the maximum number of recipes, and of users, read from the file to keep on
+     *     the heap
+     * @throws IOException if there's an error with reading from the file, or if the file isn't in
+     *     the binary format.
+     * @throws IllegalArgumentException if cacheSize is negative
+     */
+    public void loadMapped(@NotNull String filename, int cacheSize) throws IOException {
+        MappedSnapshot snapshot = MappedSnapshot.open(filename, cacheSize);
+        lockAllForReplacing();
+        try {
+            replaceSavedEntities(
+                    snapshot.getTags(),
+                    snapshot.getIngredients(),
+                    Collections.emptyMap(),
+                    Collections.emptyMap());
+
+            mappedSnapshot = snapshot;
+        } finally {
+            unlockAllForReplacing();
+        }
+    }
+
+    // Doesn't take any locks, since the saved-entity maps are concurrent (or in COPY_ON_WRITE mode,
+    // views of immutable versions), and the snapshot is immutable.
+    private @Nullable Recipe getRecipe(@NotNull MappedSnapshot snapshot, @NotNull String name) {
+        Recipe saved = getSavedRecipes().get(name);
+        if (saved != null) {
+            return saved;
+        }
+        return snapshot.getRecipe(
+                name, (form) -> Utils.fromRecipeForm(form, getSavedTags(), getSavedIngredients()));
+    }
+
+    private @Nullable User getUser(@NotNull MappedSnapshot snapshot, @NotNull String username) {
+        User saved = getSavedUsers().get(username);
+        if (saved != null) {
+            return saved;
+        }
+        return snapshot.getUser(
+                username, (form) -> Utils.fromUserForm(form, getSavedIngredients()));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Recipe> getRecipesByNames(@NotNull List<@NotNull String> names)
+            throws IOException {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null) {
+            return super.getRecipesByNames(names);
+        }
+        Utils.requireAllNotNull(
+                names,
+                "Identifying name list cannot be null",
+                "Elements in identifying names cannot be null");
+
+        List<Recipe> recipes = new ArrayList<>(names.size());
+        recipeLocks.lockForReading();
+        try {
+            for (String name : names) {
+                Recipe recipe = getRecipe(snapshot, name);
+                if (recipe == null) {
+                    throw new IOException("Entry not found");
+                }
+                recipes.add(recipe);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+        return recipes;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull User> getUsersByNames(@NotNull List<@NotNull String> usernames)
+            throws IOException {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null) {
+            return super.getUsersByNames(usernames);
+        }
+        Utils.requireAllNotNull(
+                usernames,
+                "Identifying name list cannot be null",
+                "Elements in identifying names cannot be null");
+
+        List<User> users = new ArrayList<>(usernames.size());
+        userLocks.lockForReading();
+        try {
+            for (String username : usernames) {
+                User user = getUser(snapshot, username);
+                if (user == null) {
+                    throw new IOException("Entry not found");
+                }
+                users.add(user);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            userLocks.unlockForReading();
+        }
+        return users;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull Recipe> findRecipesByNames(
+            @NotNull Collection<@NotNull String> names) {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null) {
+            return super.findRecipesByNames(names);
+        }
+        Utils.requireAllNotNull(
+                names,
+                "Identifying name list cannot be null",
+                "Elements in identifying names cannot be null");
+
+        Map<String, Recipe> recipes = new LinkedHashMap<>();
+        recipeLocks.lockForReading();
+        try {
+            for (String name : names) {
+                Recipe recipe = getRecipe(snapshot, name);
+                if (recipe != null) {
+                    recipes.put(name, recipe);
+                }
+            }
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+        return recipes;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull User> findUsersByNames(
+            @NotNull Collection<@NotNull String> usernames) {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null) {
+            return super.findUsersByNames(usernames);
+        }
+        Utils.requireAllNotNull(
+                usernames,
+                "Identifying name list cannot be null",
+                "Elements in identifying names cannot be null");
+
+        Map<String, User> users = new LinkedHashMap<>();
+        userLocks.lockForReading();
+        try {
+            for (String username : usernames) {
+                User user = getUser(snapshot, username);
+                if (user != null) {
+                    users.put(username, user);
+                }
+            }
+        } finally {
+            userLocks.unlockForReading();
+        }
+        return users;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean recipeNameExists(@NotNull String name) {
+        MappedSnapshot snapshot = mappedSnapshot;
+        return super.recipeNameExists(name)
+                || (snapshot != null && snapshot.getRecipeNames().contains(name));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean usernameExists(@NotNull String name) {
+        MappedSnapshot snapshot = mappedSnapshot;
+        return super.usernameExists(name)
+                || (snapshot != null && snapshot.getUsernames().contains(name));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Set<@NotNull Recipe> searchRecipes(@NotNull Set<@NotNull String> tokens) {
+        recipeLocks.lockForReading();
+        try {
+            Set<Recipe> matchedRecipes = super.searchRecipes(tokens);
+            MappedSnapshot snapshot = mappedSnapshot;
+            if (snapshot != null) {
+                for (String name : snapshot.findRecipeNames(tokens)) {
+                    if (!getSavedRecipes().containsKey(name)) {
+                        matchedRecipes.add(getRecipe(snapshot, name));
+                    }
+                }
+            }
+            return matchedRecipes;
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Set<@NotNull User> searchUsers(@NotNull Set<@NotNull String> tokens) {
+        userLocks.lockForReading();
+        try {
+            Set<User> matchedUsers = super.searchUsers(tokens);
+            MappedSnapshot snapshot = mappedSnapshot;
+            if (snapshot != null) {
+                for (String username : snapshot.findUsernames(tokens)) {
+                    if (!getSavedUsers().containsKey(username)) {
+                        matchedUsers.add(getUser(snapshot, username));
+                    }
+                }
+            }
+            return matchedUsers;
+        } finally {
+            userLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Recipe> searchRecipes(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null) {
+            return super.searchRecipes(tokens, offset, limit);
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            Set<String> names = new HashSet<>(findRecipeNames(tokens));
+            names.addAll(snapshot.findRecipeNames(tokens));
+            return getRecipePage(snapshot, names, offset, limit);
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull User> searchUsers(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null) {
+            return super.searchUsers(tokens, offset, limit);
+        }
+
+        userLocks.lockForReading();
+        try {
+            Set<String> usernames = new HashSet<>(findUsernames(tokens));
+            usernames.addAll(snapshot.findUsernames(tokens));
+            // only the users on the page are decoded from the file
+            List<User> page = new ArrayList<>();
+            for (String username : TokenIndex.selectPage(usernames, offset, limit)) {
+                User saved = getSavedUsers().get(username);
+                page.add(saved != null ? saved : getUser(snapshot, username));
+            }
+            return page;
+        } finally {
+            userLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Recipe> findCookableRecipes(
+            @NotNull Set<@NotNull String> ingredientNames, int maxMissing, int offset, int limit) {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null) {
+            return super.findCookableRecipes(ingredientNames, maxMissing, offset, limit);
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            Map<String, Integer> missingCounts =
+                    new HashMap<>(findCookableRecipeNames(ingredientNames, maxMissing));
+            // recipes updated since the file was mapped are only found as they are now
+            for (Map.Entry<String, Integer> found :
+                    snapshot.findCookableRecipeNames(ingredientNames, maxMissing).entrySet()) {
+                if (!getSavedRecipes().containsKey(found.getKey())) {
+                    missingCounts.put(found.getKey(), found.getValue());
+                }
+            }
+            // only the recipes on the page are decoded from the file
+            List<Recipe> page = new ArrayList<>();
+            for (String name : RecipeAttributeIndex.selectPage(missingCounts, offset, limit)) {
+                Recipe saved = getSavedRecipes().get(name);
+                page.add(saved != null ? saved : getRecipe(snapshot, name));
+            }
+            return page;
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    // the names of the mapped recipes that match, that haven't been updated since the file was
+    // mapped (recipes updated since then are only found as they are now)
+    private Set<String> findUnsavedFilteredRecipeNames(
+            MappedSnapshot snapshot, Set<String> tokens, RecipeFilter filter) {
+        Set<String> names = new HashSet<>();
+        for (String name : snapshot.findFilteredRecipeNames(tokens, filter)) {
+            if (!getSavedRecipes().containsKey(name)) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Set<@NotNull Recipe> searchRecipes(
+            @Nullable Set<@NotNull String> tokens, @NotNull RecipeFilter filter) {
+        recipeLocks.lockForReading();
+        try {
+            Set<Recipe> matchedRecipes = super.searchRecipes(tokens, filter);
+            MappedSnapshot snapshot = mappedSnapshot;
+            if (snapshot != null) {
+                for (String name : findUnsavedFilteredRecipeNames(snapshot, tokens, filter)) {
+                    matchedRecipes.add(getRecipe(snapshot, name));
+                }
+            }
+            return matchedRecipes;
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Recipe> searchRecipes(
+            @Nullable Set<@NotNull String> tokens,
+            @NotNull RecipeFilter filter,
+            int offset,
+            int limit) {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null) {
+            return super.searchRecipes(tokens, filter, offset, limit);
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            Set<String> names = new HashSet<>(findFilteredRecipeNames(tokens, filter));
+            names.addAll(findUnsavedFilteredRecipeNames(snapshot, tokens, filter));
+            return getRecipePage(snapshot, names, offset, limit);
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    // only the recipes on the page are decoded from the file
+    private List<Recipe> getRecipePage(
+            MappedSnapshot snapshot, Set<String> names, int offset, int limit) {
+        List<Recipe> page = new ArrayList<>();
+        for (String name : TokenIndex.selectPage(names, offset, limit)) {
+            Recipe saved = getSavedRecipes().get(name);
+            page.add(saved != null ? saved : getRecipe(snapshot, name));
+        }
+        return page;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull FilteredRecipePage searchRecipesWithFacets(
+            @Nullable Set<@NotNull String> tokens,
+            @NotNull RecipeFilter filter,
+            int offset,
+            int limit) {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null) {
+            return super.searchRecipesWithFacets(tokens, filter, offset, limit);
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            RecipeFacets.Builder facets = new RecipeFacets.Builder();
+            Set<String> names = new HashSet<>(findFilteredRecipeNames(tokens, filter, facets));
+            Set<String> unsavedNames = findUnsavedFilteredRecipeNames(snapshot, tokens, filter);
+            snapshot.countRecipeFacets(unsavedNames, facets);
+            names.addAll(unsavedNames);
+            return new FilteredRecipePage(
+                    getRecipePage(snapshot, names, offset, limit), facets.build());
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull RecipeFacets countRecipeFacets(
+            @Nullable Set<@NotNull String> tokens, @NotNull RecipeFilter filter) {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null) {
+            return super.countRecipeFacets(tokens, filter);
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            // no recipes are decoded from the file, since the facets are counted from its index
+            RecipeFacets.Builder facets = new RecipeFacets.Builder();
+            findFilteredRecipeNames(tokens, filter, facets);
+            snapshot.countRecipeFacets(
+                    findUnsavedFilteredRecipeNames(snapshot, tokens, filter), facets);
+            return facets.build();
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Set<@NotNull String> findSimilarRecipeTokens(
+            @NotNull Set<@NotNull String> terms) {
+        recipeLocks.lockForReading();
+        try {
+            Set<String> similarTokens = super.findSimilarRecipeTokens(terms);
+            MappedSnapshot snapshot = mappedSnapshot;
+            if (snapshot != null) {
+                similarTokens.addAll(snapshot.findSimilarRecipeTokens(terms));
+            }
+            return similarTokens;
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Recipe> suggestRecipes(@NotNull String prefix, int limit) {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null) {
+            return super.suggestRecipes(prefix, limit);
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            List<String> names =
+                    mergeByPrefixOrder(
+                            findRecipeNamesByPrefix(prefix, limit),
+                            snapshot.findRecipeNamesByPrefix(prefix, limit),
+                            getSavedRecipes().keySet(),
+                            limit);
+            // only the suggested recipes are decoded from the file
+            List<Recipe> suggestions = new ArrayList<>();
+            for (String name : names) {
+                Recipe saved = getSavedRecipes().get(name);
+                suggestions.add(saved != null ? saved : getRecipe(snapshot, name));
+            }
+            return suggestions;
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull User> suggestUsers(@NotNull String prefix, int limit) {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null) {
+            return super.suggestUsers(prefix, limit);
+        }
+
+        userLocks.lockForReading();
+        try {
+            List<String> usernames =
+                    mergeByPrefixOrder(
+                            findUsernamesByPrefix(prefix, limit),
+                            snapshot.findUsernamesByPrefix(prefix, limit),
+                            getSavedUsers().keySet(),
+                            limit);
+            // only the suggested users are decoded from the file
+            List<User> suggestions = new ArrayList<>();
+            for (String username : usernames) {
+                User saved = getSavedUsers().get(username);
+                suggestions.add(saved != null ? saved : getUser(snapshot, username));
+            }
+            return suggestions;
+        } finally {
+            userLocks.unlockForReading();
+        }
+    }
+
+    // merges keys found in memory with keys found in the file (dropping the ones that have been
+    // saved since), in the same order by matching token and then by key
+    private static List<String> mergeByPrefixOrder(
+            Map<String, String> savedMatches,
+            Map<String, String> mappedMatches,
+            Set<String> savedKeys,
+            int limit) {
+        List<Map.Entry<String, String>> matches = new ArrayList<>(savedMatches.entrySet());
+        for (Map.Entry<String, String> match : mappedMatches.entrySet()) {
+            if (!savedKeys.contains(match.getKey())) {
+                matches.add(match);
+            }
+        }
+        matches.sort(
+                Map.Entry.<String, String>comparingByValue()
+                        .thenComparing(Map.Entry.comparingByKey()));
+
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, String> match : matches) {
+            if (keys.size() >= limit) {
+                break;
+            }
+            keys.add(match.getKey());
+        }
+        return keys;
     }
 
     private EntityFile getCurrentState() {
+        return getState(getSavedTags(), getSavedIngredients(), getSavedRecipes(), getSavedUsers());
+    }
+
+    // in COPY_ON_WRITE mode, the published entities can be read after unlocking, since they're
+    // immutable; otherwise, the saved entities need to be read before unlocking
+    private Supplier<EntityFile> captureCurrentState() {
+        if (getLockingMode() != LockingMode.COPY_ON_WRITE) {
+            EntityFile state = getCurrentState();
+            return () -> state;
+        }
+        PublishedEntities published = getPublishedEntities();
+        return () ->
+                getState(
+                        published.getTags(),
+                        published.getIngredients(),
+                        published.getRecipes(),
+                        published.getUsers());
+    }
+
+    private EntityFile getState(
+            Map<String, Tag> tags,
+            Map<String, Ingredient> ingredients,
+            Map<String, Recipe> recipes,
+            Map<String, User> users) {
+        // the mapped recipes and users that haven't been updated are copied as they are in the file
         return new EntityFile(
-                getSavedTags(),
-                getSavedIngredients(),
-                Utils.toRecipeFormMap(getSavedRecipes()),
-                Utils.toUserFormMap(getSavedUsers()));
+                tags,
+                ingredients,
+                Utils.toRecipeFormMap(recipes),
+                Utils.toUserFormMap(users),
+                mappedSnapshot);
     }
 
     private void writeToStream(EntityFile state, OutputStream stream) throws IOException {
-        ObjectOutputStream objectWriter = new ObjectOutputStream(stream);
-        objectWriter.writeObject(state);
-        objectWriter.flush();
-        objectWriter.close();
+        EntityFileCodec.write(state, stream);
+        stream.close();
+    }
+
+    private EntityFile copyCurrentState() {
+        if (getLockingMode() == LockingMode.COPY_ON_WRITE) {
+            return captureCurrentState().get(); // doesn't need any locks
+        }
+        lockAllForSnapshot();
+        try {
+            return getCurrentState();
+        } finally {
+            unlockAllForSnapshot();
+        }
+    }
+
+    private void writeToFile(EntityFile state, String filename) throws IOException {
+        Path target = new File(filename).toPath();
+        replaceFile(state, target);
+        remapIfReplaced(target);
+    }
+
+    private void replaceFile(EntityFile state, Path target) throws IOException {
+        Path temp =
+                Files.createTempFile(
+                        target.toAbsolutePath().getParent(),
+                        target.getFileName().toString(),
+                        ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                EntityFileCodec.write(state, Channels.newOutputStream(channel));
+                channel.force(false);
+            }
+            Files.move(
+                    temp,
+                    target,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // The mapped file stays mapped after it's replaced, which keeps the replaced file's space in
+    // use and its records copied into every save; so the file that replaced it is mapped instead.
+    // It has every mapped recipe and user, as of when it was saved, and the ones updated since then
+    // are still kept on the heap, which take precedence.
+    private void remapIfReplaced(Path replaced) throws IOException {
+        MappedSnapshot snapshot = mappedSnapshot;
+        if (snapshot == null || !snapshot.getPath().equals(replaced.toAbsolutePath().normalize())) {
+            return;
+        }
+        MappedSnapshot remapped = MappedSnapshot.open(replaced.toString(), snapshot.getCacheSize());
+        lockAllForReplacing();
+        try {
+            if (mappedSnapshot == snapshot) { // unless the contents were replaced in the meantime
+                mappedSnapshot = remapped;
+            }
+        } finally {
+            unlockAllForReplacing();
+        }
     }
 
     /**
      * Saves the current contents of this instance to the given stream. The file's original contents
-     * will be overwritten.
+     * will be overwritten. The EntitySaver methods are only blocked while the current contents are
+     * copied, not while they're written (and in COPY_ON_WRITE mode, they aren't blocked at all).
      *
      * @param stream the stream to write to
      * @throws IOException if there's an error with writing to the file.
      */
     public void save(@NotNull OutputStream stream) throws IOException {
         Objects.requireNonNull(stream);
-        tagWriteLock.lock();
-        ingredientWriteLock.lock();
-        recipeWriteLock.lock();
-        userWriteLock.lock();
-        try {
-            EntityFile state = getCurrentState();
-            writeToStream(state, stream);
-        } finally {
-            userWriteLock.unlock();
-            recipeWriteLock.unlock();
-            ingredientWriteLock.unlock();
-            tagWriteLock.unlock();
-        }
+        writeToStream(copyCurrentState(), stream);
     }
 
     /**
      * Saves the current contents of this instance to the given file. The file's original contents
-     * will be overwritten.
+     * will be overwritten. The contents are first written to a temporary file, which then replaces
+     * the given file, so the given file is never left half-written.
      *
      * @param filename the name of the file to save to
      * @throws IOException if there's an error with writing to the file.
      */
     public void save(@NotNull String filename) throws IOException {
         Objects.requireNonNull(filename);
-        save(new FileOutputStream(filename));
+        synchronized (fileSaveLock) {
+            writeToFile(copyCurrentState(), filename);
+        }
+    }
+
+    /**
+     * Compacts this instance's journal into its autosave file: the current contents are saved to
+     * the autosave file (as in save(String)), and the journal records they contain are deleted.
+     *
+     * @throws IllegalStateException if this instance doesn't journal its updates
+     * @throws IOException if there's an error with writing to the autosave file or the journal.
+     */
+    public void compactJournal() throws IOException {
+        if (journal == null) {
+            throw new IllegalStateException("This instance doesn't journal its updates");
+        }
+        synchronized (fileSaveLock) {
+            Supplier<EntityFile> state;
+            lockAllForSnapshot();
+            try {
+                // the captured state has every update that couldn't be journaled so far
+                journalCompactionNeeded.set(false);
+                state = captureCurrentState();
+                journal.rotate();
+            } catch (IOException | RuntimeException e) {
+                journalCompactionNeeded.set(true);
+                throw e;
+            } finally {
+                unlockAllForSnapshot();
+            }
+            try {
+                writeToFile(state.get(), Objects.requireNonNull(getAutosaveFilename()));
+            } catch (IOException | RuntimeException e) {
+                journalCompactionNeeded.set(true);
+                throw e;
+            }
+            journal.discardRotated();
+        }
+    }
+
+    private void autosave() throws IOException {
+        if (journal != null) {
+            compactJournal();
+        } else {
+            save(Objects.requireNonNull(getAutosaveFilename()));
+        }
+    }
+
+    private void scheduleBackgroundAutosave() {
+        if (backgroundSaver != null && backgroundSaveScheduled.compareAndSet(false, true)) {
+            backgroundSaver.execute(
+                    () -> {
+                        backgroundSaveScheduled.set(false);
+                        try {
+                            autosave();
+                        } catch (IOException e) {
+                            e.printStackTrace();
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Waits for the autosave running in the background, if any, to finish.
+     *
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    void awaitBackgroundAutosave() throws InterruptedException {
+        if (backgroundSaver != null) {
+            try {
+                backgroundSaver.submit(() -> {}).get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private void lockAllForSnapshot() {
+        tagLocks.lockForSnapshot();
+        ingredientLocks.lockForSnapshot();
+        recipeLocks.lockForSnapshot();
+        userLocks.lockForSnapshot();
+    }
+
+    private void unlockAllForSnapshot() {
+        userLocks.unlockForSnapshot();
+        recipeLocks.unlockForSnapshot();
+        ingredientLocks.unlockForSnapshot();
+        tagLocks.unlockForSnapshot();
+    }
+
+    private void lockAllForReplacing() {
+        tagLocks.lockForReplacing();
+        ingredientLocks.lockForReplacing();
+        recipeLocks.lockForReplacing();
+        userLocks.lockForReplacing();
+    }
+
+    private void unlockAllForReplacing() {
+        userLocks.unlockForReplacing();
+        recipeLocks.unlockForReplacing();
+        ingredientLocks.unlockForReplacing();
+        tagLocks.unlockForReplacing();
+    }
+
+    // an update that can't be journaled has already been made in memory, so it fails the save
+    // (since it isn't durable yet), and a compaction is scheduled to write it to the file
+    private void appendToJournal(EntityJournal.EntityType type, Collection<?> entities) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.append(new EntityJournal.Record(type, entities));
+        } catch (IOException e) {
+            journalCompactionNeeded.set(true);
+            scheduleBackgroundAutosave();
+            throw new UncheckedIOException("Update couldn't be appended to the journal", e);
+        }
     }
 
     private void incrementSaveCounter() {
+        if (journal != null) {
+            if (journal.getNumRecords() >= Objects.requireNonNull(maxSaveCounter)
+                    || journalCompactionNeeded.get()) {
+                scheduleBackgroundAutosave();
+            }
+            return;
+        }
         if (maxSaveCounter != null && getAutosaveFilename() != null) {
             synchronized (saveCounterLock) {
                 try {
                     if (Objects.equals(++saveCounter, maxSaveCounter)) {
-                        save(getAutosaveFilename());
+                        if (getAutosaveMode() == AutosaveMode.BACKGROUND_SNAPSHOT) {
+                            scheduleBackgroundAutosave();
+                        } else {
+                            save(getAutosaveFilename());
+                        }
                         saveCounter = 0;
                     }
                 } catch (IOException e) {
@@ -212,7 +1112,14 @@ public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
      */
     @Override
     public void updateTags(@NotNull Collection<@NotNull Tag> tags) {
-        super.updateTags(tags);
+        List<String> names = getNames(tags, Tag::getName);
+        tagLocks.lockForSaving(names);
+        try {
+            super.updateTags(tags);
+            appendToJournal(EntityJournal.EntityType.TAG, tags);
+        } finally {
+            tagLocks.unlockForSaving(names);
+        }
         incrementSaveCounter();
     }
 
@@ -227,7 +1134,14 @@ public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
      */
     @Override
     public void updateIngredients(@NotNull Collection<@NotNull Ingredient> ingredients) {
-        super.updateIngredients(ingredients);
+        List<String> names = getNames(ingredients, Ingredient::getName);
+        ingredientLocks.lockForSaving(names);
+        try {
+            super.updateIngredients(ingredients);
+            appendToJournal(EntityJournal.EntityType.INGREDIENT, ingredients);
+        } finally {
+            ingredientLocks.unlockForSaving(names);
+        }
         incrementSaveCounter();
     }
 
@@ -242,7 +1156,14 @@ public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
      */
     @Override
     public void updateRecipes(@NotNull Collection<@NotNull Recipe> recipes) {
-        super.updateRecipes(recipes);
+        List<String> names = getNames(recipes, Recipe::getName);
+        recipeLocks.lockForSaving(names);
+        try {
+            super.updateRecipes(recipes);
+            appendToJournal(EntityJournal.EntityType.RECIPE, Utils.fromRecipes(recipes));
+        } finally {
+            recipeLocks.unlockForSaving(names);
+        }
         incrementSaveCounter();
     }
 
@@ -256,27 +1177,138 @@ public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
      */
     @Override
     public void updateUsers(@NotNull Collection<@NotNull User> users) {
-        super.updateUsers(users);
+        List<String> names = getNames(users, User::getUsername);
+        userLocks.lockForSaving(names);
+        try {
+            super.updateUsers(users);
+            appendToJournal(EntityJournal.EntityType.USER, Utils.fromUsers(users));
+        } finally {
+            userLocks.unlockForSaving(names);
+        }
+        incrementSaveCounter();
+    }
+
+    /**
+     * {@inheritDoc} May trigger an autosave to file, based on how this FileEntitySaverAndLoader
+     * was configured upon construction.
+     */
+    @Override
+    public boolean updateTagIfVersion(@NotNull Tag tag, long expectedVersion) {
+        tagLocks.lockForSaving(tag.getName());
+        try {
+            if (!super.updateTagIfVersion(tag, expectedVersion)) {
+                return false;
+            }
+            appendToJournal(EntityJournal.EntityType.TAG, Collections.singletonList(tag));
+        } finally {
+            tagLocks.unlockForSaving(tag.getName());
+        }
+        incrementSaveCounter();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} May trigger an autosave to file, based on how this FileEntitySaverAndLoader
+     * was configured upon construction.
+     */
+    @Override
+    public boolean updateIngredientIfVersion(@NotNull Ingredient ingredient, long expectedVersion) {
+        ingredientLocks.lockForSaving(ingredient.getName());
+        try {
+            if (!super.updateIngredientIfVersion(ingredient, expectedVersion)) {
+                return false;
+            }
+            appendToJournal(
+                    EntityJournal.EntityType.INGREDIENT,
+                    Collections.singletonList(ingredient));
+        } finally {
+            ingredientLocks.unlockForSaving(ingredient.getName());
+        }
+        incrementSaveCounter();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc} May trigger an autosave to file, based on how this FileEntitySaverAndLoader
+     * was configured upon construction.
+     */
+    @Override
+    public boolean updateRecipeIfVersion(@NotNull Recipe recipe, long expectedVersion) {
+        recipeLocks.lockForSaving(recipe.getName());
+        try {
+            if (!super.updateRecipeIfVersion(recipe, expectedVersion)) {
+                return false;
+            }
+            appendToJournal(
+                    EntityJournal.EntityType.RECIPE,
+                    Collections.singletonList(new RecipeForm(recipe)));
+        } finally {
+            recipeLocks.unlockForSaving(recipe.getName());
+        }
         incrementSaveCounter();
+        return true;
     }
 
-    private static class EntityFile implements Serializable {
+    /**
+     * {@inheritDoc} May trigger an autosave to file, based on how this FileEntitySaverAndLoader
+     * was configured upon construction.
+     */
+    @Override
+    public boolean updateUserIfVersion(@NotNull User user, long expectedVersion) {
+        userLocks.lockForSaving(user.getUsername());
+        try {
+            if (!super.updateUserIfVersion(user, expectedVersion)) {
+                return false;
+            }
+            appendToJournal(
+                    EntityJournal.EntityType.USER,
+                    Collections.singletonList(new UserForm(user)));
+        } finally {
+            userLocks.unlockForSaving(user.getUsername());
+        }
+        incrementSaveCounter();
+        return true;
+    }
+
+    /**
+     * This class holds all the entities of a FileEntitySaveAndLoader, in the form they're saved to
+     * file in. It's written to file by EntityFileCodec; it's also Serializable so that files saved
+     * in the old Java-serialized format can still be loaded.
+     */
+    static class EntityFile implements Serializable {
         private static final long serialVersionUID = 0xcafef00dL;
+        static final int PARALLEL_LOAD_THRESHOLD = 4096;
 
         private final @NotNull Map<String, Tag> tags;
         private final @NotNull Map<String, Ingredient> ingredients;
         private final @NotNull Map<String, RecipeForm> recipeForms;
         private final @NotNull Map<String, UserForm> userForms;
+        private final transient @Nullable MappedSnapshot mappedRecords;
 
         EntityFile(
                 @NotNull Map<String, Tag> tags,
                 @NotNull Map<String, Ingredient> ingredients,
                 @NotNull Map<String, RecipeForm> recipes,
                 @NotNull Map<String, UserForm> users) {
+            this(tags, ingredients, recipes, users, null);
+        }
+
+        /**
+         * Creates an entity file with the given contents, along with the recipes and users of the
+         * given mapped file that don't have forms among the given ones. EntityFileCodec copies
+         * those from the mapped file when writing, without decoding them.
+         */
+        EntityFile(
+                @NotNull Map<String, Tag> tags,
+                @NotNull Map<String, Ingredient> ingredients,
+                @NotNull Map<String, RecipeForm> recipes,
+                @NotNull Map<String, UserForm> users,
+                @Nullable MappedSnapshot mappedRecords) {
             this.tags = new HashMap<>(tags);
             this.ingredients = new HashMap<>(ingredients);
             this.recipeForms = new HashMap<>(recipes);
             this.userForms = new HashMap<>(users);
+            this.mappedRecords = mappedRecords;
         }
 
         Map<String, Tag> getTags() {
@@ -295,22 +1327,33 @@ public class FileEntitySaveAndLoader extends MapEntitySaveAndLoader {
             return Collections.unmodifiableMap(userForms);
         }
 
+        @Nullable MappedSnapshot getMappedRecords() {
+            return mappedRecords;
+        }
+
         Map<String, Recipe> getFromRecipeForms() {
-            Map<String, Recipe> recipes = new HashMap<>();
-            for (Map.Entry<String, RecipeForm> entry : recipeForms.entrySet()) {
-                Recipe recipe = Utils.fromRecipeForm(entry.getValue(), tags, ingredients);
-                recipes.put(entry.getKey(), recipe);
-            }
-            return recipes;
+            return fromForms(
+                    recipeForms, (form) -> Utils.fromRecipeForm(form, tags, ingredients));
+        }
+
+        Map<String, User> getFromUserForms() {
+            return fromForms(userForms, (form) -> Utils.fromUserForm(form, ingredients));
         }
 
-        Map<String, User> getFromUserForms(Map<String, Recipe> recipes) {
-            Map<String, User> users = new HashMap<>();
-            for (Map.Entry<String, UserForm> entry : userForms.entrySet()) {
-                User user = Utils.fromUserForm(entry.getValue(), ingredients, recipes);
-                users.put(entry.getKey(), user);
+        // Large files are converted in chunks across the common ForkJoinPool; the maps that the
+        // conversions read from aren't modified during loading, so they can be shared.
+        private static <F, E> Map<String, E> fromForms(
+                Map<String, F> forms, Function<? super F, ? extends E> fromForm) {
+            if (forms.size() < PARALLEL_LOAD_THRESHOLD) {
+                Map<String, E> entities = new HashMap<>();
+                forms.forEach((key, form) -> entities.put(key, fromForm.apply(form)));
+                return entities;
             }
-            return users;
+            return forms.entrySet().parallelStream()
+                    .collect(
+                            Collectors.toConcurrentMap(
+                                    Map.Entry::getKey,
+                                    (entry) -> fromForm.apply(entry.getValue())));
         }
     }
 }
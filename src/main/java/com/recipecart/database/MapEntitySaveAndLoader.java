@@ -3,77 +3,437 @@ package com.recipecart.database;
 
 import com.recipecart.entities.*;
 import com.recipecart.storage.EntityLoader;
+import com.recipecart.storage.FilteredRecipePage;
 import com.recipecart.storage.EntitySaver;
+import com.recipecart.storage.RecipeFacets;
+import com.recipecart.storage.RecipeFilter;
 import com.recipecart.utils.Utils;
 import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-/** This class implements the storage EntitySaver and EntityLoader using a Map. */
+/**
+ * This class implements the storage EntitySaver and EntityLoader using a Map. Name searches are
+ * answered from inverted token indexes, which are kept up to date by the EntitySaver methods. Saved
+ * entities share canonical instances of equal Tags and Ingredients. See LockingMode for the ways
+ * concurrent saves can exclude each other.
+ */
 public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
-    private final ReadWriteLock tagLock = new ReentrantReadWriteLock(),
-            ingredientLock = new ReentrantReadWriteLock(),
-            recipeLock = new ReentrantReadWriteLock(),
-            userLock = new ReentrantReadWriteLock();
+    /** The ways saves to a MapEntitySaveAndLoader can exclude each other. */
+    public enum LockingMode {
+        /**
+         * Each entity type has one lock: saving any entities blocks all other saves and reads of
+         * entities of the same type. Readers never see only part of a multi-entity save.
+         */
+        GLOBAL,
+        /**
+         * Each entity type has a fixed number of lock stripes, chosen by entity name: saves only
+         * block saves of entities on the same stripes, and reads don't block on saves. Readers may
+         * see only part of a multi-entity save, but never part of the save of one entity.
+         */
+        STRIPED,
+        /**
+         * Each entity type has an immutable version of its entities, which saves replace with new
+         * versions (sharing most of the old version's structure) and which reads use without any
+         * locks, so reads never block saves and vice versa. Saves of the same type block each
+         * other. Readers may see only part of a multi-entity save, but never part of the save of
+         * one entity.
+         */
+        COPY_ON_WRITE
+    }
+
+    private final LockingMode lockingMode;
 
     /**
-     * Locks for ensuring thread-safety of save/load operations. Meant to also be used by
-     * subclasses.
+     * Locks for ensuring thread-safety of save/load operations, one set per entity type. Meant to
+     * also be used by subclasses.
      */
-    protected final Lock tagReadLock = tagLock.readLock(),
-            ingredientReadLock = ingredientLock.readLock(),
-            recipeReadLock = recipeLock.readLock(),
-            userReadLock = userLock.readLock(),
-            tagWriteLock = tagLock.writeLock(),
-            ingredientWriteLock = ingredientLock.writeLock(),
-            recipeWriteLock = recipeLock.writeLock(),
-            userWriteLock = userLock.writeLock();
-
-    private final Map<String, Tag> savedTags;
-    private final Map<String, Ingredient> savedIngredients;
-    private final Map<String, Recipe> savedRecipes;
-    private final Map<String, User> savedUsers;
-
-    /** Initializes this saver/loader, with no entities saved. */
+    final EntityLocks tagLocks, ingredientLocks, recipeLocks, userLocks;
+
+    // the saved entities; not kept in COPY_ON_WRITE mode, where the latest versions are the only
+    // store of them
+    private final @Nullable Map<String, Tag> savedTags;
+    private final @Nullable Map<String, Ingredient> savedIngredients;
+    private final @Nullable Map<String, Recipe> savedRecipes;
+    private final @Nullable Map<String, User> savedUsers;
+
+    // inverted indexes of name tokens, each updated while saving an entity of its type; ingredient
+    // and recipe tokens are also indexed by their trigrams, for searches tolerating misspellings
+    private final TokenIndex tagIndex = new TokenIndex(),
+            ingredientIndex = new TokenIndex(true),
+            recipeIndex = new TokenIndex(true),
+            userIndex = new TokenIndex();
+
+    // the latest versions of the saved entities, with their own indexes (which replace the
+    // saved-entity maps and the token indexes); only kept in COPY_ON_WRITE mode, and only replaced
+    // while saving or replacing
+    private final @Nullable AtomicReference<EntitySnapshot<Tag>> tagSnapshot;
+    private final @Nullable AtomicReference<EntitySnapshot<Ingredient>> ingredientSnapshot;
+    private final @Nullable AtomicReference<EntitySnapshot<Recipe>> recipeSnapshot;
+    private final @Nullable AtomicReference<EntitySnapshot<User>> userSnapshot;
+
+    // the tokens of the latest versions' indexes, in order, for prefix searches; only kept in
+    // COPY_ON_WRITE mode, where saves add a version's new tokens before publishing it, and remove
+    // its dropped tokens after (so readers may see tokens that no longer have any entities)
+    private final @Nullable NavigableSet<String> tagTokens,
+            ingredientTokens,
+            recipeTokens,
+            userTokens;
+
+    // the ingredient and recipe tokens of the latest versions' indexes, indexed by their trigrams;
+    // only kept in COPY_ON_WRITE mode, and updated along with the sorted tokens
+    private final @Nullable TrigramIndex ingredientTrigrams, recipeTrigrams;
+
+    // recipes by their ingredients, tags, and numeric fields, updated while saving a recipe (in
+    // every mode)
+    private final RecipeAttributeIndex recipeAttributeIndex = new RecipeAttributeIndex();
+
+    // canonical Tags and Ingredients, shared by all the entities saved here
+    private final EntityInterner interner = new EntityInterner();
+
+    private final RecipeNameSequences recipeNameSequences = new RecipeNameSequences();
+
+    // versions of the saved entities, each updated while saving an entity of its type
+    private final EntityVersions tagVersions = new EntityVersions(),
+            ingredientVersions = new EntityVersions(),
+            recipeVersions = new EntityVersions(),
+            userVersions = new EntityVersions();
+
+    /** Initializes this saver/loader, with no entities saved, in GLOBAL locking mode. */
     public MapEntitySaveAndLoader() {
-        this.savedTags = new ConcurrentHashMap<>();
-        this.savedIngredients = new ConcurrentHashMap<>();
-        this.savedRecipes = new ConcurrentHashMap<>();
-        this.savedUsers = new ConcurrentHashMap<>();
+        this(LockingMode.GLOBAL);
     }
 
     /**
-     * @return Tag names mapping to Tags currently saved by this saver
+     * Initializes this saver/loader, with no entities saved.
+     *
+     * @param lockingMode how saves to this saver/loader exclude each other
+     */
+    public MapEntitySaveAndLoader(@NotNull LockingMode lockingMode) {
+        this.lockingMode = Objects.requireNonNull(lockingMode);
+        this.tagLocks = new EntityLocks(lockingMode);
+        this.ingredientLocks = new EntityLocks(lockingMode);
+        this.recipeLocks = new EntityLocks(lockingMode);
+        this.userLocks = new EntityLocks(lockingMode);
+        if (lockingMode == LockingMode.COPY_ON_WRITE) {
+            this.tagSnapshot = new AtomicReference<>(EntitySnapshot.empty());
+            this.ingredientSnapshot = new AtomicReference<>(EntitySnapshot.empty());
+            this.recipeSnapshot = new AtomicReference<>(EntitySnapshot.empty());
+            this.userSnapshot = new AtomicReference<>(EntitySnapshot.empty());
+            this.tagTokens = new ConcurrentSkipListSet<>();
+            this.ingredientTokens = new ConcurrentSkipListSet<>();
+            this.recipeTokens = new ConcurrentSkipListSet<>();
+            this.userTokens = new ConcurrentSkipListSet<>();
+            this.ingredientTrigrams = new TrigramIndex();
+            this.recipeTrigrams = new TrigramIndex();
+            this.savedTags = null;
+            this.savedIngredients = null;
+            this.savedRecipes = null;
+            this.savedUsers = null;
+        } else {
+            this.tagSnapshot = null;
+            this.ingredientSnapshot = null;
+            this.recipeSnapshot = null;
+            this.userSnapshot = null;
+            this.tagTokens = null;
+            this.ingredientTokens = null;
+            this.recipeTokens = null;
+            this.userTokens = null;
+            this.ingredientTrigrams = null;
+            this.recipeTrigrams = null;
+            this.savedTags = new ConcurrentHashMap<>();
+            this.savedIngredients = new ConcurrentHashMap<>();
+            this.savedRecipes = new ConcurrentHashMap<>();
+            this.savedUsers = new ConcurrentHashMap<>();
+        }
+    }
+
+    /** @return how saves to this saver/loader exclude each other */
+    public @NotNull LockingMode getLockingMode() {
+        return lockingMode;
+    }
+
+    /**
+     * @return Tag names mapping to Tags currently saved by this saver (in COPY_ON_WRITE mode, a
+     *     read-only view of the latest version)
      */
     protected Map<String, Tag> getSavedTags() {
-        return savedTags;
+        return tagSnapshot != null ? tagSnapshot.get().getEntities() : savedTags;
     }
 
     /**
-     * @return Ingredient names mapping to Ingredients currently saved by this saver
+     * @return Ingredient names mapping to Ingredients currently saved by this saver (in
+     *     COPY_ON_WRITE mode, a read-only view of the latest version)
      */
     protected Map<String, Ingredient> getSavedIngredients() {
-        return savedIngredients;
+        return ingredientSnapshot != null
+                ? ingredientSnapshot.get().getEntities()
+                : savedIngredients;
     }
 
     /**
-     * @return Recipe non-presentation names mapping to Recipes currently saved by this saver
+     * @return Recipe non-presentation names mapping to Recipes currently saved by this saver (in
+     *     COPY_ON_WRITE mode, a read-only view of the latest version)
      */
     protected Map<String, Recipe> getSavedRecipes() {
-        return savedRecipes;
+        return recipeSnapshot != null ? recipeSnapshot.get().getEntities() : savedRecipes;
     }
 
     /**
-     * @return User usernames mapping to Users currently saved by this saver
+     * @return User usernames mapping to Users currently saved by this saver (in COPY_ON_WRITE
+     *     mode, a read-only view of the latest version)
      */
     protected Map<String, User> getSavedUsers() {
-        return savedUsers;
+        return userSnapshot != null ? userSnapshot.get().getEntities() : savedUsers;
+    }
+
+    /** @return the interner that canonicalizes the entities saved here */
+    EntityInterner getInterner() {
+        return interner;
+    }
+
+    /**
+     * Replaces all the currently saved entities with the given ones, with the given Tags and
+     * Ingredients replaced by their canonical instances (so that entities saved afterwards share
+     * them). The search indexes (or in COPY_ON_WRITE mode, the latest versions of the saved
+     * entities) are rebuilt from the given entities, the sequences that unique recipe names are
+     * generated from are restarted, and all saved entities are given a new version. Subclasses
+     * must call this while all the entity types are locked for replacing.
+     *
+     * @param tags Tag names mapping to the Tags to save
+     * @param ingredients Ingredient names mapping to the Ingredients to save
+     * @param recipes Recipe non-presentation names mapping to the Recipes to save
+     * @param users User usernames mapping to the Users to save
+     */
+    protected void replaceSavedEntities(
+            @NotNull Map<String, Tag> tags,
+            @NotNull Map<String, Ingredient> ingredients,
+            @NotNull Map<String, Recipe> recipes,
+            @NotNull Map<String, User> users) {
+        Map<String, Tag> internedTags = new HashMap<>();
+        tags.forEach((name, tag) -> internedTags.put(name, interner.intern(tag)));
+        Map<String, Ingredient> internedIngredients = new HashMap<>();
+        ingredients.forEach(
+                (name, ingredient) -> internedIngredients.put(name, interner.intern(ingredient)));
+
+        if (lockingMode == LockingMode.COPY_ON_WRITE) {
+            publishSnapshots(internedTags, internedIngredients, recipes, users);
+        } else {
+            assert savedTags != null && savedIngredients != null;
+            assert savedRecipes != null && savedUsers != null;
+            replaceContents(savedTags, internedTags);
+            replaceContents(savedIngredients, internedIngredients);
+            replaceContents(savedRecipes, recipes);
+            replaceContents(savedUsers, users);
+            rebuildTokenIndexes();
+        }
+        recipeAttributeIndex.clear();
+        for (Recipe recipe : recipes.values()) {
+            recipeAttributeIndex.put(recipe.getName(), RecipeAttributeIndex.Attributes.of(recipe));
+        }
+
+        // after the rebuild, since lock-free readers may read a version and then an entity
+        recipeNameSequences.clear();
+        tagVersions.reset();
+        ingredientVersions.reset();
+        recipeVersions.reset();
+        userVersions.reset();
+    }
+
+    private static <E> void replaceContents(Map<String, E> saved, Map<String, E> replacement) {
+        saved.clear();
+        saved.putAll(replacement);
+    }
+
+    private void rebuildTokenIndexes() {
+        tagIndex.clear();
+        for (String name : getSavedTags().keySet()) {
+            tagIndex.put(name, Collections.singletonList(name));
+        }
+
+        ingredientIndex.clear();
+        for (String name : getSavedIngredients().keySet()) {
+            ingredientIndex.put(name, Collections.singletonList(name));
+        }
+
+        recipeIndex.clear();
+        for (Recipe recipe : getSavedRecipes().values()) {
+            recipeIndex.put(recipe.getName(), getSearchableNames(recipe));
+        }
+
+        userIndex.clear();
+        for (String name : getSavedUsers().keySet()) {
+            userIndex.put(name, Collections.singletonList(name));
+        }
+    }
+
+    /**
+     * @param entities the entities to get the names of
+     * @param getName gets the name of one entity
+     * @return the names of the given entities, in order
+     */
+    static <T> List<String> getNames(Collection<T> entities, Function<T, String> getName) {
+        List<String> names = new ArrayList<>(entities.size());
+        for (T entity : entities) {
+            names.add(getName.apply(entity));
+        }
+        return names;
+    }
+
+    // publishes versions made of the given entities, in order of reference, so that readers of a
+    // published entity find the entities it refers to
+    private void publishSnapshots(
+            Map<String, Tag> tags,
+            Map<String, Ingredient> ingredients,
+            Map<String, Recipe> recipes,
+            Map<String, User> users) {
+        assert tagSnapshot != null && ingredientSnapshot != null;
+        assert recipeSnapshot != null && userSnapshot != null;
+        assert tagTokens != null && ingredientTokens != null;
+        assert recipeTokens != null && userTokens != null;
+        publish(
+                tagSnapshot,
+                tagTokens,
+                null,
+                EntitySnapshot.of(tags, (tag) -> List.of(tag.getName())));
+        publish(
+                ingredientSnapshot,
+                ingredientTokens,
+                ingredientTrigrams,
+                EntitySnapshot.of(ingredients, (ingredient) -> List.of(ingredient.getName())));
+        publish(
+                recipeSnapshot,
+                recipeTokens,
+                recipeTrigrams,
+                EntitySnapshot.of(recipes, MapEntitySaveAndLoader::getSearchableNames));
+        publish(
+                userSnapshot,
+                userTokens,
+                null,
+                EntitySnapshot.of(users, (user) -> List.of(user.getUsername())));
+    }
+
+    // replaces the whole version, keeping the sorted (and trigram-indexed) tokens a superset of
+    // its tokens throughout
+    private static <E> void publish(
+            AtomicReference<EntitySnapshot<E>> snapshot,
+            NavigableSet<String> sortedTokens,
+            @Nullable TrigramIndex trigrams,
+            EntitySnapshot<E> version) {
+        sortedTokens.addAll(version.getTokens());
+        if (trigrams != null) {
+            trigrams.addAll(version.getTokens());
+        }
+        snapshot.set(version);
+        sortedTokens.retainAll(version.getTokens());
+        if (trigrams != null) {
+            trigrams.retainAll(version.getTokens());
+        }
+    }
+
+    /**
+     * Returns the saved entities of each type as of their latest saves, in COPY_ON_WRITE mode. The
+     * returned entities are immutable, so they can be read without any locks.
+     *
+     * @return the latest published entities
+     * @throws IllegalStateException if this saver/loader isn't in COPY_ON_WRITE mode
+     */
+    PublishedEntities getPublishedEntities() {
+        if (lockingMode != LockingMode.COPY_ON_WRITE) {
+            throw new IllegalStateException("Entities are only published in COPY_ON_WRITE mode");
+        }
+        assert tagSnapshot != null && ingredientSnapshot != null;
+        assert recipeSnapshot != null && userSnapshot != null;
+        // read in reverse order of reference, so that referenced entities are published too
+        Map<String, User> users = userSnapshot.get().getEntities();
+        Map<String, Recipe> recipes = recipeSnapshot.get().getEntities();
+        Map<String, Ingredient> ingredients = ingredientSnapshot.get().getEntities();
+        Map<String, Tag> tags = tagSnapshot.get().getEntities();
+        return new PublishedEntities(tags, ingredients, recipes, users);
+    }
+
+    /**
+     * This class holds the saved entities of each type as of their latest saves, in COPY_ON_WRITE
+     * mode. Since saved entities are never removed, every entity that one of them refers to (by
+     * name) is also held here.
+     */
+    static final class PublishedEntities {
+        private final Map<String, Tag> tags;
+        private final Map<String, Ingredient> ingredients;
+        private final Map<String, Recipe> recipes;
+        private final Map<String, User> users;
+
+        private PublishedEntities(
+                Map<String, Tag> tags,
+                Map<String, Ingredient> ingredients,
+                Map<String, Recipe> recipes,
+                Map<String, User> users) {
+            this.tags = tags;
+            this.ingredients = ingredients;
+            this.recipes = recipes;
+            this.users = users;
+        }
+
+        /** @return Tag names mapping to the published Tags */
+        Map<String, Tag> getTags() {
+            return tags;
+        }
+
+        /** @return Ingredient names mapping to the published Ingredients */
+        Map<String, Ingredient> getIngredients() {
+            return ingredients;
+        }
+
+        /** @return Recipe non-presentation names mapping to the published Recipes */
+        Map<String, Recipe> getRecipes() {
+            return recipes;
+        }
+
+        /** @return User usernames mapping to the published Users */
+        Map<String, User> getUsers() {
+            return users;
+        }
+    }
+
+    // saves the entity to its map and indexes it, or publishes it in COPY_ON_WRITE mode (where the
+    // latest version is the only store, and readers use it without locks)
+    private static <E> void store(
+            @Nullable Map<String, E> saved,
+            TokenIndex index,
+            @Nullable AtomicReference<EntitySnapshot<E>> snapshot,
+            @Nullable NavigableSet<String> sortedTokens,
+            @Nullable TrigramIndex trigrams,
+            String key,
+            E entity,
+            Collection<String> names) {
+        if (snapshot != null) {
+            assert sortedTokens != null;
+            EntitySnapshot<E> oldVersion = snapshot.get();
+            EntitySnapshot<E> newVersion = oldVersion.with(key, entity, names);
+            sortedTokens.addAll(newVersion.getTokens(key));
+            if (trigrams != null) {
+                trigrams.addAll(newVersion.getTokens(key));
+            }
+            snapshot.set(newVersion);
+            for (String token : oldVersion.getTokens(key)) {
+                if (newVersion.getKeys(token) == null) {
+                    sortedTokens.remove(token);
+                    if (trigrams != null) {
+                        trigrams.remove(token);
+                    }
+                }
+            }
+        } else {
+            assert saved != null;
+            saved.put(key, entity);
+            index.put(key, names);
+        }
     }
 
     private static <K, V> List<V> getByIds(@NotNull List<@NotNull K> ids, Map<K, V> saved)
@@ -96,12 +456,16 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
     @Override
     public @NotNull List<@NotNull Tag> getTagsByNames(@NotNull List<@NotNull String> names)
             throws IOException {
+        if (tagSnapshot != null) {
+            return getByIds(names, tagSnapshot.get().getEntities());
+        }
+
         List<Tag> tags;
-        tagReadLock.lock();
+        tagLocks.lockForReading();
         try {
             tags = getByIds(names, getSavedTags());
         } finally {
-            tagReadLock.unlock();
+            tagLocks.unlockForReading();
         }
         return tags;
     }
@@ -110,12 +474,16 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
     @Override
     public @NotNull List<@NotNull Ingredient> getIngredientsByNames(
             @NotNull List<@NotNull String> names) throws IOException {
+        if (ingredientSnapshot != null) {
+            return getByIds(names, ingredientSnapshot.get().getEntities());
+        }
+
         List<Ingredient> ingredients;
-        ingredientReadLock.lock();
+        ingredientLocks.lockForReading();
         try {
             ingredients = getByIds(names, getSavedIngredients());
         } finally {
-            ingredientReadLock.unlock();
+            ingredientLocks.unlockForReading();
         }
         return ingredients;
     }
@@ -124,12 +492,16 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
     @Override
     public @NotNull List<@NotNull Recipe> getRecipesByNames(@NotNull List<@NotNull String> names)
             throws IOException {
+        if (recipeSnapshot != null) {
+            return getByIds(names, recipeSnapshot.get().getEntities());
+        }
+
         List<Recipe> recipes;
-        recipeReadLock.lock();
+        recipeLocks.lockForReading();
         try {
             recipes = getByIds(names, getSavedRecipes());
         } finally {
-            recipeReadLock.unlock();
+            recipeLocks.unlockForReading();
         }
         return recipes;
     }
@@ -138,27 +510,115 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
     @Override
     public @NotNull List<@NotNull User> getUsersByNames(@NotNull List<@NotNull String> usernames)
             throws IOException {
+        if (userSnapshot != null) {
+            return getByIds(usernames, userSnapshot.get().getEntities());
+        }
+
         List<User> users;
-        userReadLock.lock();
+        userLocks.lockForReading();
         try {
             users = getByIds(usernames, getSavedUsers());
         } finally {
-            userReadLock.unlock();
+            userLocks.unlockForReading();
         }
         return users;
     }
 
+    private static <V> Map<String, V> findByIds(
+            @NotNull Collection<@NotNull String> ids, Map<String, V> saved) {
+        Utils.requireAllNotNull(
+                ids,
+                "Identifying name list cannot be null",
+                "Elements in identifying names cannot be null");
+        Map<String, V> found = new LinkedHashMap<>();
+        for (String id : ids) {
+            V entity = saved.get(id);
+            if (entity != null) {
+                found.put(id, entity);
+            }
+        }
+        return found;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull Tag> findTagsByNames(
+            @NotNull Collection<@NotNull String> names) {
+        if (tagSnapshot != null) {
+            return findByIds(names, tagSnapshot.get().getEntities());
+        }
+
+        tagLocks.lockForReading();
+        try {
+            return findByIds(names, getSavedTags());
+        } finally {
+            tagLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull Ingredient> findIngredientsByNames(
+            @NotNull Collection<@NotNull String> names) {
+        if (ingredientSnapshot != null) {
+            return findByIds(names, ingredientSnapshot.get().getEntities());
+        }
+
+        ingredientLocks.lockForReading();
+        try {
+            return findByIds(names, getSavedIngredients());
+        } finally {
+            ingredientLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull Recipe> findRecipesByNames(
+            @NotNull Collection<@NotNull String> names) {
+        if (recipeSnapshot != null) {
+            return findByIds(names, recipeSnapshot.get().getEntities());
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            return findByIds(names, getSavedRecipes());
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull User> findUsersByNames(
+            @NotNull Collection<@NotNull String> usernames) {
+        if (userSnapshot != null) {
+            return findByIds(usernames, userSnapshot.get().getEntities());
+        }
+
+        userLocks.lockForReading();
+        try {
+            return findByIds(usernames, getSavedUsers());
+        } finally {
+            userLocks.unlockForReading();
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean tagNameExists(@NotNull String name) {
         Objects.requireNonNull(name);
 
+        if (tagSnapshot != null) {
+            return tagSnapshot.get().get(name) != null;
+        }
+
         boolean exists;
-        tagReadLock.lock();
+        tagLocks.lockForReading();
         try {
             exists = getSavedTags().containsKey(name);
         } finally {
-            tagReadLock.unlock();
+            tagLocks.unlockForReading();
         }
         return exists;
     }
@@ -168,12 +628,16 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
     public boolean ingredientNameExists(@NotNull String name) {
         Objects.requireNonNull(name);
 
+        if (ingredientSnapshot != null) {
+            return ingredientSnapshot.get().get(name) != null;
+        }
+
         boolean exists;
-        ingredientReadLock.lock();
+        ingredientLocks.lockForReading();
         try {
             exists = getSavedIngredients().containsKey(name);
         } finally {
-            ingredientReadLock.unlock();
+            ingredientLocks.unlockForReading();
         }
         return exists;
     }
@@ -183,12 +647,16 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
     public boolean recipeNameExists(@NotNull String name) {
         Objects.requireNonNull(name);
 
+        if (recipeSnapshot != null) {
+            return recipeSnapshot.get().get(name) != null;
+        }
+
         boolean exists;
-        recipeReadLock.lock();
+        recipeLocks.lockForReading();
         try {
             exists = getSavedRecipes().containsKey(name);
         } finally {
-            recipeReadLock.unlock();
+            recipeLocks.unlockForReading();
         }
         return exists;
     }
@@ -198,46 +666,109 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
     public boolean usernameExists(@NotNull String name) {
         Objects.requireNonNull(name);
 
+        if (userSnapshot != null) {
+            return userSnapshot.get().get(name) != null;
+        }
+
         boolean exists;
-        userReadLock.lock();
+        userLocks.lockForReading();
         try {
             exists = getSavedUsers().containsKey(name);
         } finally {
-            userReadLock.unlock();
+            userLocks.unlockForReading();
         }
         return exists;
     }
 
-    private static Set<String> toLowerCaseStrings(Collection<String> strings) {
-        Set<String> lowerCaseStrings = new HashSet<>();
-        for (String s : strings) {
-            lowerCaseStrings.add(s.toLowerCase(Locale.ROOT));
+    /** {@inheritDoc} */
+    @Override
+    public long getTagVersion(@NotNull String name) {
+        Objects.requireNonNull(name);
+
+        tagLocks.lockForReading();
+        try {
+            return tagNameExists(name) ? tagVersions.get(name) : UNSAVED_VERSION;
+        } finally {
+            tagLocks.unlockForReading();
         }
-        return lowerCaseStrings;
     }
 
-    private static boolean matches(String toExamine, Set<String> tokens) {
-        for (String word : toExamine.split("\\s+")) {
-            if (tokens.contains(word)) {
-                return true;
-            }
+    /** {@inheritDoc} */
+    @Override
+    public long getIngredientVersion(@NotNull String name) {
+        Objects.requireNonNull(name);
+
+        ingredientLocks.lockForReading();
+        try {
+            return ingredientNameExists(name) ? ingredientVersions.get(name) : UNSAVED_VERSION;
+        } finally {
+            ingredientLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getRecipeVersion(@NotNull String name) {
+        Objects.requireNonNull(name);
+
+        recipeLocks.lockForReading();
+        try {
+            return recipeNameExists(name) ? recipeVersions.get(name) : UNSAVED_VERSION;
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getUserVersion(@NotNull String username) {
+        Objects.requireNonNull(username);
+
+        userLocks.lockForReading();
+        try {
+            return usernameExists(username) ? userVersions.get(username) : UNSAVED_VERSION;
+        } finally {
+            userLocks.unlockForReading();
         }
-        return false;
     }
 
-    private static Set<String> findMatches(
-            Collection<String> toSearch, @NotNull Set<@NotNull String> tokens, boolean ignoreCase) {
+    private static <V> Set<V> searchIndex(
+            @NotNull Set<@NotNull String> tokens, TokenIndex index, Map<String, V> saved) {
+        Utils.requireAllNotNull(tokens, "Tokens set cannot be null", "Tokens cannot be null");
+        return getValuesOf(index.findKeys(tokens), saved);
+    }
+
+    private static <E> Set<E> searchSnapshot(
+            @NotNull Set<@NotNull String> tokens, EntitySnapshot<E> snapshot) {
         Utils.requireAllNotNull(tokens, "Tokens set cannot be null", "Tokens cannot be null");
+        return snapshot.find(tokens);
+    }
 
-        Set<String> tokensToUse = ignoreCase ? toLowerCaseStrings(tokens) : tokens;
+    private static <V> List<V> searchIndexPage(
+            @NotNull Set<@NotNull String> tokens,
+            TokenIndex index,
+            Map<String, V> saved,
+            int offset,
+            int limit) {
+        Utils.requireAllNotNull(tokens, "Tokens set cannot be null", "Tokens cannot be null");
+        List<V> page = new ArrayList<>();
+        for (String key : TokenIndex.selectPage(index.findKeys(tokens), offset, limit)) {
+            page.add(saved.get(key));
+        }
+        return page;
+    }
 
-        Set<String> matches = new HashSet<>();
-        for (String ts : toSearch) {
-            if (matches(ignoreCase ? ts.toLowerCase(Locale.ROOT) : ts, tokensToUse)) {
-                matches.add(ts);
-            }
+    private static <E> List<E> searchSnapshotPage(
+            @NotNull Set<@NotNull String> tokens,
+            EntitySnapshot<E> snapshot,
+            int offset,
+            int limit) {
+        Utils.requireAllNotNull(tokens, "Tokens set cannot be null", "Tokens cannot be null");
+        List<E> page = new ArrayList<>();
+        for (String key : TokenIndex.selectPage(snapshot.findKeys(tokens), offset, limit)) {
+            page.add(snapshot.get(key));
         }
-        return matches;
+        return page;
     }
 
     private static <K, V> Set<V> getValuesOf(Set<K> keys, Map<K, V> map) {
@@ -248,16 +779,23 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
         return values;
     }
 
+    private static List<String> getSearchableNames(Recipe recipe) {
+        return Arrays.asList(recipe.getName(), recipe.getPresentationName());
+    }
+
     /** {@inheritDoc} */
     @Override
     public @NotNull Set<@NotNull Tag> searchTags(@NotNull Set<@NotNull String> tokens) {
+        if (tagSnapshot != null) {
+            return searchSnapshot(tokens, tagSnapshot.get());
+        }
+
         Set<Tag> matchedTags;
-        tagReadLock.lock();
+        tagLocks.lockForReading();
         try {
-            Set<String> matchedNames = findMatches(getSavedTags().keySet(), tokens, true);
-            matchedTags = getValuesOf(matchedNames, getSavedTags());
+            matchedTags = searchIndex(tokens, tagIndex, getSavedTags());
         } finally {
-            tagReadLock.unlock();
+            tagLocks.unlockForReading();
         }
         return matchedTags;
     }
@@ -266,46 +804,33 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
     @Override
     public @NotNull Set<@NotNull Ingredient> searchIngredients(
             @NotNull Set<@NotNull String> tokens) {
+        if (ingredientSnapshot != null) {
+            return searchSnapshot(tokens, ingredientSnapshot.get());
+        }
+
         Set<Ingredient> matchedIngredients;
-        ingredientReadLock.lock();
+        ingredientLocks.lockForReading();
         try {
-            Set<String> matchedNames = findMatches(getSavedIngredients().keySet(), tokens, true);
-            matchedIngredients = getValuesOf(matchedNames, getSavedIngredients());
+            matchedIngredients = searchIndex(tokens, ingredientIndex, getSavedIngredients());
         } finally {
-            ingredientReadLock.unlock();
+            ingredientLocks.unlockForReading();
         }
         return matchedIngredients;
     }
 
-    private static boolean matchesPresentationName(
-            Recipe recipe, @NotNull Set<@NotNull String> tokens, boolean ignoreCase) {
-        Set<String> tokensToUse = ignoreCase ? toLowerCaseStrings(tokens) : tokens;
-
-        String presName = recipe.getPresentationName();
-        if (presName != null) {
-            presName = ignoreCase ? presName.toLowerCase(Locale.ROOT) : presName;
-            return matches(presName, tokensToUse);
-        }
-        return false;
-    }
-
     /** {@inheritDoc} */
     @Override
     public @NotNull Set<@NotNull Recipe> searchRecipes(@NotNull Set<@NotNull String> tokens) {
+        if (recipeSnapshot != null) {
+            return searchSnapshot(tokens, recipeSnapshot.get());
+        }
+
         Set<Recipe> matchedRecipes;
-        final boolean ignoreCase = true;
-        recipeReadLock.lock();
+        recipeLocks.lockForReading();
         try {
-            Set<String> matchedNames = findMatches(getSavedRecipes().keySet(), tokens, ignoreCase);
-            matchedRecipes = getValuesOf(matchedNames, getSavedRecipes());
-            Set<Recipe> matchedPresentationRecipes =
-                    getSavedRecipes().values().stream()
-                            .filter((recipe) -> matchesPresentationName(recipe, tokens, ignoreCase))
-                            .collect(Collectors.toSet());
-
-            matchedRecipes.addAll(matchedPresentationRecipes);
+            matchedRecipes = searchIndex(tokens, recipeIndex, getSavedRecipes());
         } finally {
-            recipeReadLock.unlock();
+            recipeLocks.unlockForReading();
         }
         return matchedRecipes;
     }
@@ -313,17 +838,484 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
     /** {@inheritDoc} */
     @Override
     public @NotNull Set<@NotNull User> searchUsers(@NotNull Set<@NotNull String> tokens) {
+        if (userSnapshot != null) {
+            return searchSnapshot(tokens, userSnapshot.get());
+        }
+
         Set<User> matchedUsers;
-        userReadLock.lock();
+        userLocks.lockForReading();
         try {
-            Set<String> matchedNames = findMatches(getSavedUsers().keySet(), tokens, true);
-            matchedUsers = getValuesOf(matchedNames, getSavedUsers());
+            matchedUsers = searchIndex(tokens, userIndex, getSavedUsers());
         } finally {
-            userReadLock.unlock();
+            userLocks.unlockForReading();
         }
         return matchedUsers;
     }
 
+    /**
+     * Finds the names of the saved recipes whose names (name or presentation name) contain at
+     * least one of the given tokens. Unless in COPY_ON_WRITE mode, the recipes' locks must be held
+     * for reading while calling this.
+     *
+     * @param tokens the tokens for name-matching
+     * @return the (non-presentation) names of the matched recipes
+     */
+    protected @NotNull Set<@NotNull String> findRecipeNames(@NotNull Set<@NotNull String> tokens) {
+        Utils.requireAllNotNull(tokens, "Tokens set cannot be null", "Tokens cannot be null");
+        return recipeSnapshot != null
+                ? recipeSnapshot.get().findKeys(tokens)
+                : recipeIndex.findKeys(tokens);
+    }
+
+    /**
+     * Finds the usernames of the saved users whose usernames contain at least one of the given
+     * tokens. Unless in COPY_ON_WRITE mode, the users' locks must be held for reading while
+     * calling this.
+     *
+     * @param tokens the tokens for name-matching
+     * @return the usernames of the matched users
+     */
+    protected @NotNull Set<@NotNull String> findUsernames(@NotNull Set<@NotNull String> tokens) {
+        Utils.requireAllNotNull(tokens, "Tokens set cannot be null", "Tokens cannot be null");
+        return userSnapshot != null
+                ? userSnapshot.get().findKeys(tokens)
+                : userIndex.findKeys(tokens);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Tag> searchTags(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        if (tagSnapshot != null) {
+            return searchSnapshotPage(tokens, tagSnapshot.get(), offset, limit);
+        }
+
+        tagLocks.lockForReading();
+        try {
+            return searchIndexPage(tokens, tagIndex, getSavedTags(), offset, limit);
+        } finally {
+            tagLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Ingredient> searchIngredients(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        if (ingredientSnapshot != null) {
+            return searchSnapshotPage(tokens, ingredientSnapshot.get(), offset, limit);
+        }
+
+        ingredientLocks.lockForReading();
+        try {
+            return searchIndexPage(tokens, ingredientIndex, getSavedIngredients(), offset, limit);
+        } finally {
+            ingredientLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Recipe> searchRecipes(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        if (recipeSnapshot != null) {
+            return searchSnapshotPage(tokens, recipeSnapshot.get(), offset, limit);
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            return searchIndexPage(tokens, recipeIndex, getSavedRecipes(), offset, limit);
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull User> searchUsers(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        if (userSnapshot != null) {
+            return searchSnapshotPage(tokens, userSnapshot.get(), offset, limit);
+        }
+
+        userLocks.lockForReading();
+        try {
+            return searchIndexPage(tokens, userIndex, getSavedUsers(), offset, limit);
+        } finally {
+            userLocks.unlockForReading();
+        }
+    }
+
+    private static Set<String> findSimilarTokens(
+            @NotNull Set<@NotNull String> terms, TrigramIndex trigrams) {
+        Utils.requireAllNotNull(terms, "Terms set cannot be null", "Terms cannot be null");
+        return trigrams.findSimilar(terms);
+    }
+
+    private static Set<String> findSimilarTokens(
+            @NotNull Set<@NotNull String> terms, TokenIndex index) {
+        Utils.requireAllNotNull(terms, "Terms set cannot be null", "Terms cannot be null");
+        return index.findSimilarTokens(terms);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Set<@NotNull String> findSimilarIngredientTokens(
+            @NotNull Set<@NotNull String> terms) {
+        if (ingredientTrigrams != null) {
+            return findSimilarTokens(terms, ingredientTrigrams);
+        }
+
+        ingredientLocks.lockForReading();
+        try {
+            return findSimilarTokens(terms, ingredientIndex);
+        } finally {
+            ingredientLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Set<@NotNull String> findSimilarRecipeTokens(
+            @NotNull Set<@NotNull String> terms) {
+        if (recipeTrigrams != null) {
+            return findSimilarTokens(terms, recipeTrigrams);
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            return findSimilarTokens(terms, recipeIndex);
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    private List<Recipe> findCookableRecipePage(
+            Set<String> ingredientNames,
+            int maxMissing,
+            int offset,
+            int limit,
+            Function<String, Recipe> getRecipe) {
+        Map<String, Integer> missingCounts = findCookableRecipeNames(ingredientNames, maxMissing);
+        List<Recipe> page = new ArrayList<>();
+        for (String key : RecipeAttributeIndex.selectPage(missingCounts, offset, limit)) {
+            page.add(getRecipe.apply(key));
+        }
+        return page;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Recipe> findCookableRecipes(
+            @NotNull Set<@NotNull String> ingredientNames, int maxMissing, int offset, int limit) {
+        if (recipeSnapshot != null) {
+            // the latest version has every recipe the index has (which is updated after publishing)
+            AtomicReference<EntitySnapshot<Recipe>> snapshot = recipeSnapshot;
+            return findCookableRecipePage(
+                    ingredientNames, maxMissing, offset, limit, (key) -> snapshot.get().get(key));
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            return findCookableRecipePage(
+                    ingredientNames, maxMissing, offset, limit, getSavedRecipes()::get);
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /**
+     * Finds the names of the saved recipes that can be made with the given ingredients, in the same
+     * way as findCookableRecipes. Unless in COPY_ON_WRITE mode, the recipes' locks must be held for
+     * reading while calling this.
+     *
+     * @param ingredientNames the names of the ingredients to make recipes with
+     * @param maxMissing the maximum number of a found recipe's required ingredients that aren't
+     *     among the given ones
+     * @return the (non-presentation) names of the found recipes, mapping to how many of their
+     *     required ingredients aren't among the given ones
+     * @throws IllegalArgumentException if maxMissing is negative
+     */
+    protected @NotNull Map<@NotNull String, @NotNull Integer> findCookableRecipeNames(
+            @NotNull Set<@NotNull String> ingredientNames, int maxMissing) {
+        Utils.requireAllNotNull(
+                ingredientNames,
+                "Ingredient name set cannot be null",
+                "Ingredient names cannot be null");
+        return recipeAttributeIndex.findCovered(ingredientNames, maxMissing);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull Set<@NotNull Recipe> searchRecipes(
+            @Nullable Set<@NotNull String> tokens, @NotNull RecipeFilter filter) {
+        if (recipeSnapshot != null) {
+            // the latest version has every recipe the index has (which is updated after publishing)
+            AtomicReference<EntitySnapshot<Recipe>> snapshot = recipeSnapshot;
+            Set<Recipe> matchedRecipes = new HashSet<>();
+            for (String key : findFilteredRecipeNames(tokens, filter)) {
+                matchedRecipes.add(snapshot.get().get(key));
+            }
+            return matchedRecipes;
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            return getValuesOf(findFilteredRecipeNames(tokens, filter), getSavedRecipes());
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    private static List<Recipe> getRecipePage(
+            Set<String> keys, int offset, int limit, Function<String, Recipe> getRecipe) {
+        List<Recipe> page = new ArrayList<>();
+        for (String key : TokenIndex.selectPage(keys, offset, limit)) {
+            page.add(getRecipe.apply(key));
+        }
+        return page;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Recipe> searchRecipes(
+            @Nullable Set<@NotNull String> tokens,
+            @NotNull RecipeFilter filter,
+            int offset,
+            int limit) {
+        if (recipeSnapshot != null) {
+            Set<String> keys = findFilteredRecipeNames(tokens, filter);
+            return getRecipePage(keys, offset, limit, recipeSnapshot.get()::get);
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            Set<String> keys = findFilteredRecipeNames(tokens, filter);
+            return getRecipePage(keys, offset, limit, getSavedRecipes()::get);
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull RecipeFacets countRecipeFacets(
+            @Nullable Set<@NotNull String> tokens, @NotNull RecipeFilter filter) {
+        RecipeFacets.Builder facets = new RecipeFacets.Builder();
+        if (recipeSnapshot != null) {
+            findFilteredRecipeNames(tokens, filter, facets);
+            return facets.build();
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            findFilteredRecipeNames(tokens, filter, facets);
+            return facets.build();
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull FilteredRecipePage searchRecipesWithFacets(
+            @Nullable Set<@NotNull String> tokens,
+            @NotNull RecipeFilter filter,
+            int offset,
+            int limit) {
+        RecipeFacets.Builder facets = new RecipeFacets.Builder();
+        if (recipeSnapshot != null) {
+            Set<String> keys = findFilteredRecipeNames(tokens, filter, facets);
+            // one version for the whole page, which has every recipe the index found (since the
+            // index is updated after publishing)
+            EntitySnapshot<Recipe> snapshot = recipeSnapshot.get();
+            return new FilteredRecipePage(
+                    getRecipePage(keys, offset, limit, snapshot::get), facets.build());
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            Set<String> keys = findFilteredRecipeNames(tokens, filter, facets);
+            return new FilteredRecipePage(
+                    getRecipePage(keys, offset, limit, getSavedRecipes()::get), facets.build());
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /**
+     * Finds the names of the saved recipes that match the given tokens (if any) and meet every
+     * criterion of the given filter, in the same way as searchRecipes. Unless in COPY_ON_WRITE
+     * mode, the recipes' locks must be held for reading while calling this.
+     *
+     * @param tokens the tokens for name-matching, or null to not match recipes by name
+     * @param filter the criteria the found recipes must meet
+     * @return the (non-presentation) names of the found recipes
+     */
+    protected @NotNull Set<@NotNull String> findFilteredRecipeNames(
+            @Nullable Set<@NotNull String> tokens, @NotNull RecipeFilter filter) {
+        return findFilteredRecipeNames(tokens, filter, null);
+    }
+
+    /**
+     * Finds the names of the saved recipes in the same way as the two-argument
+     * findFilteredRecipeNames, and counts the facets of the found recipes from the same lookup of
+     * the recipes' fields, so that they're counted from the same versions of the recipes that
+     * were found. Unless in COPY_ON_WRITE mode, the recipes' locks must be held for reading while
+     * calling this.
+     *
+     * @param tokens the tokens for name-matching, or null to not match recipes by name
+     * @param filter the criteria the found recipes must meet
+     * @param facets the facet counts to add the found recipes to, or null to not count them
+     * @return the (non-presentation) names of the found recipes
+     */
+    protected @NotNull Set<@NotNull String> findFilteredRecipeNames(
+            @Nullable Set<@NotNull String> tokens,
+            @NotNull RecipeFilter filter,
+            @Nullable RecipeFacets.Builder facets) {
+        Objects.requireNonNull(filter, "Filter cannot be null");
+        return recipeAttributeIndex.findMatching(
+                tokens != null ? findRecipeNames(tokens) : null, filter, facets);
+    }
+
+    // finds keys by prefix in the latest version of some saved entities, in COPY_ON_WRITE mode
+    private static LinkedHashMap<String, String> findSnapshotKeysByPrefix(
+            @NotNull String prefix,
+            int limit,
+            EntitySnapshot<?> snapshot,
+            NavigableSet<String> sortedTokens) {
+        Objects.requireNonNull(prefix);
+        return TokenIndex.selectByPrefix(
+                prefix, limit, sortedTokens, snapshot::getKeys, snapshot::getTokens);
+    }
+
+    private static <E> List<E> suggestFromSnapshot(
+            @NotNull String prefix,
+            int limit,
+            EntitySnapshot<E> snapshot,
+            NavigableSet<String> sortedTokens) {
+        LinkedHashMap<String, String> keys =
+                findSnapshotKeysByPrefix(prefix, limit, snapshot, sortedTokens);
+        List<E> suggestions = new ArrayList<>();
+        for (String key : keys.keySet()) {
+            suggestions.add(snapshot.get(key));
+        }
+        return suggestions;
+    }
+
+    private static <V> List<V> suggestFromIndex(
+            @NotNull String prefix, int limit, TokenIndex index, Map<String, V> saved) {
+        Objects.requireNonNull(prefix);
+        List<V> suggestions = new ArrayList<>();
+        for (String key : index.findKeysByPrefix(prefix, limit).keySet()) {
+            suggestions.add(saved.get(key));
+        }
+        return suggestions;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Tag> suggestTags(@NotNull String prefix, int limit) {
+        if (tagSnapshot != null) {
+            assert tagTokens != null;
+            return suggestFromSnapshot(prefix, limit, tagSnapshot.get(), tagTokens);
+        }
+
+        tagLocks.lockForReading();
+        try {
+            return suggestFromIndex(prefix, limit, tagIndex, getSavedTags());
+        } finally {
+            tagLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Ingredient> suggestIngredients(
+            @NotNull String prefix, int limit) {
+        if (ingredientSnapshot != null) {
+            assert ingredientTokens != null;
+            return suggestFromSnapshot(prefix, limit, ingredientSnapshot.get(), ingredientTokens);
+        }
+
+        ingredientLocks.lockForReading();
+        try {
+            return suggestFromIndex(prefix, limit, ingredientIndex, getSavedIngredients());
+        } finally {
+            ingredientLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull Recipe> suggestRecipes(@NotNull String prefix, int limit) {
+        if (recipeSnapshot != null) {
+            assert recipeTokens != null;
+            return suggestFromSnapshot(prefix, limit, recipeSnapshot.get(), recipeTokens);
+        }
+
+        recipeLocks.lockForReading();
+        try {
+            return suggestFromIndex(prefix, limit, recipeIndex, getSavedRecipes());
+        } finally {
+            recipeLocks.unlockForReading();
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull List<@NotNull User> suggestUsers(@NotNull String prefix, int limit) {
+        if (userSnapshot != null) {
+            assert userTokens != null;
+            return suggestFromSnapshot(prefix, limit, userSnapshot.get(), userTokens);
+        }
+
+        userLocks.lockForReading();
+        try {
+            return suggestFromIndex(prefix, limit, userIndex, getSavedUsers());
+        } finally {
+            userLocks.unlockForReading();
+        }
+    }
+
+    /**
+     * Finds the names of the saved recipes that match the given prefix, in the same way as
+     * suggestRecipes. Unless in COPY_ON_WRITE mode, the recipes' locks must be held for reading
+     * while calling this.
+     *
+     * @param prefix the prefix to suggest recipes for, as typed so far
+     * @param limit the maximum number of names to find
+     * @return the (non-presentation) names of the matched recipes, in order, mapping to the tokens
+     *     they were matched by
+     */
+    protected @NotNull LinkedHashMap<@NotNull String, @NotNull String> findRecipeNamesByPrefix(
+            @NotNull String prefix, int limit) {
+        if (recipeSnapshot != null) {
+            assert recipeTokens != null;
+            return findSnapshotKeysByPrefix(prefix, limit, recipeSnapshot.get(), recipeTokens);
+        }
+        return recipeIndex.findKeysByPrefix(Objects.requireNonNull(prefix), limit);
+    }
+
+    /**
+     * Finds the usernames of the saved users that match the given prefix, in the same way as
+     * suggestUsers. Unless in COPY_ON_WRITE mode, the users' locks must be held for reading while
+     * calling this.
+     *
+     * @param prefix the prefix to suggest users for, as typed so far
+     * @param limit the maximum number of usernames to find
+     * @return the usernames of the matched users, in order, mapping to the tokens they were matched
+     *     by
+     */
+    protected @NotNull LinkedHashMap<@NotNull String, @NotNull String> findUsernamesByPrefix(
+            @NotNull String prefix, int limit) {
+        if (userSnapshot != null) {
+            assert userTokens != null;
+            return findSnapshotKeysByPrefix(prefix, limit, userSnapshot.get(), userTokens);
+        }
+        return userIndex.findKeysByPrefix(Objects.requireNonNull(prefix), limit);
+    }
+
     /**
      * Saves the given Tags to this saver, in-memory. Already-saved Tags with the same names as the
      * given Tags will be replaced in this saver's storage.
@@ -337,16 +1329,31 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
                 tags, "Tag collection cannot be null", "Elements of tags cannot be null");
         Utils.nullCheckTagNames(tags);
 
-        tagWriteLock.lock();
+        List<String> names = getNames(tags, Tag::getName);
+        tagLocks.lockForSaving(names);
         try {
             for (Tag tag : tags) {
-                getSavedTags().put(tag.getName(), tag);
+                putTag(tag);
             }
         } finally {
-            tagWriteLock.unlock();
+            tagLocks.unlockForSaving(names);
         }
     }
 
+    private void putTag(Tag tag) {
+        Tag interned = interner.intern(tag);
+        store(
+                savedTags,
+                tagIndex,
+                tagSnapshot,
+                tagTokens,
+                null,
+                tag.getName(),
+                interned,
+                List.of(tag.getName()));
+        tagVersions.increment(tag.getName());
+    }
+
     /**
      * Saves the given Ingredients to this saver, in-memory. Already-saved Ingredients with the same
      * names as the given Ingredients will be replaced in this saver's storage.
@@ -362,16 +1369,31 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
                 "Elements of ingredients cannot be null");
         Utils.nullCheckIngredientNames(ingredients);
 
-        ingredientWriteLock.lock();
+        List<String> names = getNames(ingredients, Ingredient::getName);
+        ingredientLocks.lockForSaving(names);
         try {
             for (Ingredient ingredient : ingredients) {
-                getSavedIngredients().put(ingredient.getName(), ingredient);
+                putIngredient(ingredient);
             }
         } finally {
-            ingredientWriteLock.unlock();
+            ingredientLocks.unlockForSaving(names);
         }
     }
 
+    private void putIngredient(Ingredient ingredient) {
+        Ingredient interned = interner.intern(ingredient);
+        store(
+                savedIngredients,
+                ingredientIndex,
+                ingredientSnapshot,
+                ingredientTokens,
+                ingredientTrigrams,
+                ingredient.getName(),
+                interned,
+                List.of(ingredient.getName()));
+        ingredientVersions.increment(ingredient.getName());
+    }
+
     /**
      * Saves the given Recipes to this saver, in-memory. Already-saved Recipes with the same
      * (non-presentation) names as the given Recipes will be replaced in this saver's storage.
@@ -385,16 +1407,34 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
                 recipes, "Recipe collection cannot be null", "Elements of recipes cannot be null");
         Utils.nullCheckRecipeNames(recipes);
 
-        recipeWriteLock.lock();
+        List<String> names = getNames(recipes, Recipe::getName);
+        recipeLocks.lockForSaving(names);
         try {
             for (Recipe recipe : recipes) {
-                getSavedRecipes().put(recipe.getName(), recipe);
+                putRecipe(recipe);
             }
         } finally {
-            recipeWriteLock.unlock();
+            recipeLocks.unlockForSaving(names);
         }
     }
 
+    private void putRecipe(Recipe recipe) {
+        Recipe interned = interner.intern(recipe);
+        store(
+                savedRecipes,
+                recipeIndex,
+                recipeSnapshot,
+                recipeTokens,
+                recipeTrigrams,
+                recipe.getName(),
+                interned,
+                getSearchableNames(recipe));
+        // after the recipe is published, so that every recipe found by the index is published
+        recipeAttributeIndex.put(recipe.getName(), RecipeAttributeIndex.Attributes.of(recipe));
+        recipeNameSequences.recordName(recipe.getName());
+        recipeVersions.increment(recipe.getName());
+    }
+
     /**
      * Saves the given Users to this saver, in-memory. Already-saved Users with the same usernames
      * as the given Users will be replaced in this saver's storage.
@@ -408,43 +1448,188 @@ public class MapEntitySaveAndLoader implements EntitySaver, EntityLoader {
                 users, "User collection cannot be null", "Elements of users cannot be null");
         Utils.nullCheckUserNames(users);
 
-        userWriteLock.lock();
+        List<String> names = getNames(users, User::getUsername);
+        userLocks.lockForSaving(names);
         try {
             for (User user : users) {
-                getSavedUsers().put(user.getUsername(), user);
+                putUser(user);
             }
         } finally {
-            userWriteLock.unlock();
+            userLocks.unlockForSaving(names);
         }
     }
 
-    /** {@inheritDoc} */
+    private void putUser(User user) {
+        User interned = interner.intern(user);
+        store(
+                savedUsers,
+                userIndex,
+                userSnapshot,
+                userTokens,
+                null,
+                user.getUsername(),
+                interned,
+                List.of(user.getUsername()));
+        userVersions.increment(user.getUsername());
+    }
+
+    /**
+     * {@inheritDoc} The updater is applied without holding any locks, and its result is only saved
+     * if the User's version hasn't changed since the User was given to it (otherwise, it's applied
+     * again), so updates to different Users, and the building of updated Users, don't wait on each
+     * other.
+     */
     @Override
-    public @NotNull String generateUniqueRecipeName(@Nullable String presentationName) {
-        String baseName;
+    public @NotNull User computeUser(
+            @NotNull String username, @NotNull UnaryOperator<@NotNull User> updater)
+            throws IOException {
+        Objects.requireNonNull(username);
+        Objects.requireNonNull(updater);
+
+        while (true) {
+            long version;
+            User current;
+            userLocks.lockForReading();
+            try {
+                version = getUserVersion(username);
+                current = getUsersByNames(Collections.singletonList(username)).get(0);
+            } finally {
+                userLocks.unlockForReading();
+            }
 
-        recipeReadLock.lock();
+            User updated = updater.apply(current);
+            if (updated == null) {
+                return current;
+            }
+            if (!username.equals(updated.getUsername())) {
+                throw new IllegalArgumentException("Updated User must keep the same username");
+            }
+            if (updateUserIfVersion(updated, version)) {
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Saves the given Tag to this saver, in-memory, but only if the saved Tag with the same name
+     * has the given version.
+     *
+     * @param tag the Tag to save
+     * @param expectedVersion the version the saved Tag must have
+     * @return true if the Tag was saved, false if the version didn't match
+     * @throws IllegalArgumentException if the name of the Tag is null
+     */
+    @Override
+    public boolean updateTagIfVersion(@NotNull Tag tag, long expectedVersion) {
+        Objects.requireNonNull(tag, "Tag cannot be null");
+        Utils.nullCheckTagNames(Collections.singletonList(tag));
+
+        tagLocks.lockForSaving(tag.getName());
         try {
-            if (presentationName == null) {
-                baseName = "";
-            } else {
-                baseName = presentationName.trim().replaceAll("\\s+", "-");
-                if (!recipeNameExists(baseName)) {
-                    return baseName;
-                }
+            if (getTagVersion(tag.getName()) != expectedVersion) {
+                return false;
             }
+            putTag(tag);
+            return true;
+        } finally {
+            tagLocks.unlockForSaving(tag.getName());
+        }
+    }
 
-            for (long i = 0; ; i++) {
-                String generatedName = baseName + i;
-                if (!recipeNameExists(generatedName)) {
-                    return generatedName;
-                }
+    /**
+     * Saves the given Ingredient to this saver, in-memory, but only if the saved Ingredient with
+     * the same name has the given version.
+     *
+     * @param ingredient the Ingredient to save
+     * @param expectedVersion the version the saved Ingredient must have
+     * @return true if the Ingredient was saved, false if the version didn't match
+     * @throws IllegalArgumentException if the name of the Ingredient is null
+     */
+    @Override
+    public boolean updateIngredientIfVersion(@NotNull Ingredient ingredient, long expectedVersion) {
+        Objects.requireNonNull(ingredient, "Ingredient cannot be null");
+        Utils.nullCheckIngredientNames(Collections.singletonList(ingredient));
+
+        ingredientLocks.lockForSaving(ingredient.getName());
+        try {
+            if (getIngredientVersion(ingredient.getName()) != expectedVersion) {
+                return false;
             }
+            putIngredient(ingredient);
+            return true;
         } finally {
-            recipeReadLock.unlock();
+            ingredientLocks.unlockForSaving(ingredient.getName());
         }
     }
 
+    /**
+     * Saves the given Recipe to this saver, in-memory, but only if the saved Recipe with the same
+     * (non-presentation) name has the given version.
+     *
+     * @param recipe the Recipe to save
+     * @param expectedVersion the version the saved Recipe must have
+     * @return true if the Recipe was saved, false if the version didn't match
+     * @throws IllegalArgumentException if the (non-presentation) name of the Recipe is null
+     */
+    @Override
+    public boolean updateRecipeIfVersion(@NotNull Recipe recipe, long expectedVersion) {
+        Objects.requireNonNull(recipe, "Recipe cannot be null");
+        Utils.nullCheckRecipeNames(Collections.singletonList(recipe));
+
+        recipeLocks.lockForSaving(recipe.getName());
+        try {
+            if (getRecipeVersion(recipe.getName()) != expectedVersion) {
+                return false;
+            }
+            putRecipe(recipe);
+            return true;
+        } finally {
+            recipeLocks.unlockForSaving(recipe.getName());
+        }
+    }
+
+    /**
+     * Saves the given User to this saver, in-memory, but only if the saved User with the same
+     * username has the given version.
+     *
+     * @param user the User to save
+     * @param expectedVersion the version the saved User must have
+     * @return true if the User was saved, false if the version didn't match
+     * @throws IllegalArgumentException if the username of the User is null
+     */
+    @Override
+    public boolean updateUserIfVersion(@NotNull User user, long expectedVersion) {
+        Objects.requireNonNull(user, "User cannot be null");
+        Utils.nullCheckUserNames(Collections.singletonList(user));
+
+        userLocks.lockForSaving(user.getUsername());
+        try {
+            if (getUserVersion(user.getUsername()) != expectedVersion) {
+                return false;
+            }
+            putUser(user);
+            return true;
+        } finally {
+            userLocks.unlockForSaving(user.getUsername());
+        }
+    }
+
+    /**
+     * {@inheritDoc} The generated name is also different from every other name this method has
+     * generated, until that name is saved. Generating a name takes constant time on average, no
+     * matter how many names have already been generated from the same presentation name.
+     */
+    @Override
+    public @NotNull String generateUniqueRecipeName(@Nullable String presentationName) {
+        return recipeNameSequences.generate(presentationName, this::recipeNameExists);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void releaseUniqueRecipeName(@NotNull String name) {
+        recipeNameSequences.release(name);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
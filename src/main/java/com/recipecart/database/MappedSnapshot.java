@@ -0,0 +1,486 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Recipe;
+import com.recipecart.entities.Tag;
+import com.recipecart.entities.User;
+import com.recipecart.storage.RecipeFacets;
+import com.recipecart.storage.RecipeFilter;
+import com.recipecart.utils.RecipeForm;
+import com.recipecart.utils.UserForm;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class is a read-only view of an entity file (in the format of EntityFileCodec) that's
+ * memory-mapped instead of read onto the heap. The file is mapped in segments, so it can be larger
+ * than a single buffer can address. Opening the file only reads its tags and ingredients, and
+ * finds where each recipe and user is in the file (by name); recipes and users are only decoded
+ * when they're first asked for, and are then kept in a bounded cache of the most recently used
+ * ones. The indexes that the file's recipes and users are searched with are only built when they
+ * are first searched, since building them reads every record in the file. The records of recipes
+ * and users can also be read as they are in the file, so that they can be copied into another
+ * entity file without being decoded. This class is thread-safe.
+ */
+final class MappedSnapshot {
+    /** How many bytes into the file each mapped segment starts after the one before it. */
+    static final long SEGMENT_STRIDE = 1L << 30;
+
+    private final Path path;
+    private final int cacheSize;
+    private final ByteBuffer[] segments;
+    private final long segmentStride;
+    private final long[] stringOffsets;
+    private final Map<String, Tag> tags;
+    private final Map<String, Ingredient> ingredients;
+    private final Map<String, Long> recipeOffsets, userOffsets;
+    private final Map<String, Recipe> recipeCache;
+    private final Map<String, User> userCache;
+
+    // built on the first search of the file's recipes, or of its users
+    private volatile @Nullable RecipeIndexes recipeIndexes = null;
+    private volatile @Nullable TokenIndex userIndex = null;
+
+    /** This class holds the indexes that the file's recipes are searched with. */
+    private static final class RecipeIndexes {
+        private final TokenIndex nameIndex = new TokenIndex(true);
+        private final RecipeAttributeIndex attributeIndex = new RecipeAttributeIndex();
+    }
+
+    private MappedSnapshot(Path path, ByteBuffer[] segments, long segmentStride, int cacheSize)
+            throws IOException {
+        this.path = path;
+        this.cacheSize = cacheSize;
+        this.segments = segments;
+        this.segmentStride = segmentStride;
+        EntityFileCodec.Input input = new EntityFileCodec.Input(segments, segmentStride);
+        EntityFileCodec.readHeader(input);
+
+        this.stringOffsets = new long[input.readInt()];
+        for (int i = 0; i < stringOffsets.length; i++) {
+            stringOffsets[i] = input.position();
+            input.skip(input.readInt());
+        }
+        EntityFileCodec.Reader reader = new EntityFileCodec.Reader(input, this::getString);
+
+        this.tags = reader.readTags();
+        this.ingredients = reader.readIngredients();
+
+        int numRecipes = input.readInt();
+        this.recipeOffsets = new HashMap<>(EntityFileCodec.capacityFor(numRecipes));
+        for (int i = 0; i < numRecipes; i++) {
+            recipeOffsets.put(reader.readString(), input.position());
+            reader.skipRecipeForm();
+        }
+
+        int numUsers = input.readInt();
+        this.userOffsets = new HashMap<>(EntityFileCodec.capacityFor(numUsers));
+        for (int i = 0; i < numUsers; i++) {
+            userOffsets.put(reader.readString(), input.position());
+            reader.skipUserForm();
+        }
+
+        this.recipeCache = Collections.synchronizedMap(new LruCache<>(cacheSize));
+        this.userCache = Collections.synchronizedMap(new LruCache<>(cacheSize));
+    }
+
+    /**
+     * Memory-maps the given entity file, and finds where its recipes and users are in it.
+     *
+     * @param filename the entity file to map
+     * @param cacheSize the maximum number of recipes, and of users, to keep decoded at once
+     * @return a view of the given entity file
+     * @throws IOException if there's an error with reading from the file, or if it's not in the
+     *     format of EntityFileCodec.
+     * @throws IllegalArgumentException if cacheSize is negative
+     */
+    static @NotNull MappedSnapshot open(@NotNull String filename, int cacheSize)
+            throws IOException {
+        return open(filename, cacheSize, SEGMENT_STRIDE);
+    }
+
+    /**
+     * Memory-maps the given entity file in segments of the given size, and finds where its
+     * recipes and users are in it.
+     *
+     * @param filename the entity file to map
+     * @param cacheSize the maximum number of recipes, and of users, to keep decoded at once
+     * @param segmentStride how many bytes into the file each mapped segment starts after the one
+     *     before it (each segment also maps the first few bytes of the next one)
+     * @return a view of the given entity file
+     * @throws IOException if there's an error with reading from the file, or if it's not in the
+     *     format of EntityFileCodec.
+     * @throws IllegalArgumentException if cacheSize is negative, or segmentStride isn't positive
+     *     or is too large for a segment to be mapped
+     */
+    static @NotNull MappedSnapshot open(
+            @NotNull String filename, int cacheSize, long segmentStride) throws IOException {
+        Objects.requireNonNull(filename);
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative");
+        }
+        if (segmentStride <= 0
+                || segmentStride > Integer.MAX_VALUE - EntityFileCodec.Input.MAX_VALUE_BYTES) {
+            throw new IllegalArgumentException("Invalid segment stride: " + segmentStride);
+        }
+        Path path = Path.of(filename).toAbsolutePath().normalize();
+        try (FileChannel channel = FileChannel.open(path)) {
+            long size = channel.size();
+            ByteBuffer[] segments = new ByteBuffer[(int) Math.max(1, ceilDiv(size, segmentStride))];
+            for (int i = 0; i < segments.length; i++) {
+                long start = i * segmentStride;
+                // each segment overlaps the next by enough that no value read is split across them
+                long length =
+                        Math.min(
+                                segmentStride + EntityFileCodec.Input.MAX_VALUE_BYTES,
+                                size - start);
+                // the mappings stay valid after the channel is closed
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+            return new MappedSnapshot(path, segments, segmentStride, cacheSize);
+        }
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    private RecipeIndexes getRecipeIndexes() {
+        RecipeIndexes indexes = recipeIndexes;
+        if (indexes != null) {
+            return indexes;
+        }
+        synchronized (this) {
+            if (recipeIndexes == null) {
+                recipeIndexes = indexRecipes();
+            }
+            return recipeIndexes;
+        }
+    }
+
+    private RecipeIndexes indexRecipes() {
+        RecipeIndexes indexes = new RecipeIndexes();
+        try {
+            for (Map.Entry<String, Long> recipe : recipeOffsets.entrySet()) {
+                EntityFileCodec.Reader reader = readerAt(recipe.getValue());
+                indexes.nameIndex.put(
+                        recipe.getKey(), Arrays.asList(reader.readString(), reader.readString()));
+                indexes.attributeIndex.put(
+                        recipe.getKey(), readerAt(recipe.getValue()).readRecipeAttributes());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return indexes;
+    }
+
+    private TokenIndex getUserIndex() {
+        TokenIndex index = userIndex;
+        if (index != null) {
+            return index;
+        }
+        synchronized (this) {
+            if (userIndex == null) {
+                TokenIndex usernames = new TokenIndex();
+                for (String username : userOffsets.keySet()) {
+                    usernames.put(username, Collections.singletonList(username));
+                }
+                userIndex = usernames;
+            }
+            return userIndex;
+        }
+    }
+
+    /** @return the absolute path of the mapped file */
+    @NotNull Path getPath() {
+        return path;
+    }
+
+    /** @return the maximum number of recipes, and of users, kept decoded at once */
+    int getCacheSize() {
+        return cacheSize;
+    }
+
+    /** @return the number of strings in the file's dictionary */
+    int getNumStrings() {
+        return stringOffsets.length;
+    }
+
+    /**
+     * Decodes a string of the file's dictionary.
+     *
+     * @param index the string's index in the dictionary
+     * @return the string
+     * @throws IOException if there's no such string in the dictionary.
+     */
+    @NotNull String getString(int index) throws IOException {
+        if (index < 0 || index >= stringOffsets.length) {
+            throw new IOException("Invalid string reference: " + index);
+        }
+        EntityFileCodec.Input input = inputAt(stringOffsets[index]);
+        return input.readUtf8(input.readInt());
+    }
+
+    private EntityFileCodec.Reader readerAt(long offset) {
+        return new EntityFileCodec.Reader(inputAt(offset), this::getString);
+    }
+
+    /** @return the file's tags, by name */
+    @NotNull Map<String, Tag> getTags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    /** @return the file's ingredients, by name */
+    @NotNull Map<String, Ingredient> getIngredients() {
+        return Collections.unmodifiableMap(ingredients);
+    }
+
+    /** @return the (non-presentation) names of the file's recipes */
+    @NotNull Set<String> getRecipeNames() {
+        return Collections.unmodifiableSet(recipeOffsets.keySet());
+    }
+
+    /** @return the usernames of the file's users */
+    @NotNull Set<String> getUsernames() {
+        return Collections.unmodifiableSet(userOffsets.keySet());
+    }
+
+    /**
+     * Finds the file's recipes that have at least one of the given tokens in their names or
+     * presentation names, in the same way that MapEntitySaveAndLoader searches.
+     *
+     * @param tokens the tokens to search for
+     * @return the (non-presentation) names of the matched recipes
+     */
+    @NotNull Set<String> findRecipeNames(@NotNull Set<@NotNull String> tokens) {
+        return getRecipeIndexes().nameIndex.findKeys(tokens);
+    }
+
+    /**
+     * Finds the tokens of the file's recipes' names that are similar to at least one of the given
+     * search terms, in the same way that MapEntitySaveAndLoader finds similar recipe tokens.
+     *
+     * @param terms the search terms, possibly misspelled
+     * @return the tokens similar to any of the terms
+     */
+    @NotNull Set<String> findSimilarRecipeTokens(@NotNull Set<@NotNull String> terms) {
+        return getRecipeIndexes().nameIndex.findSimilarTokens(terms);
+    }
+
+    /**
+     * Finds the file's recipes that can be made with the given ingredients, in the same way that
+     * MapEntitySaveAndLoader finds cookable recipes.
+     *
+     * @param ingredientNames the names of the ingredients to make recipes with
+     * @param maxMissing the maximum number of a found recipe's required ingredients that aren't
+     *     among the given ones
+     * @return the names of the found recipes, mapping to how many of their required ingredients
+     *     aren't among the given ones
+     */
+    @NotNull Map<String, Integer> findCookableRecipeNames(
+            @NotNull Set<@NotNull String> ingredientNames, int maxMissing) {
+        return getRecipeIndexes().attributeIndex.findCovered(ingredientNames, maxMissing);
+    }
+
+    /**
+     * Finds the file's recipes that match the given tokens (if any) and filter, in the same way
+     * that MapEntitySaveAndLoader filters recipes.
+     *
+     * @param tokens the tokens to search for, or null to not match recipes by name
+     * @param filter the criteria the found recipes must meet
+     * @return the (non-presentation) names of the found recipes
+     */
+    @NotNull Set<String> findFilteredRecipeNames(
+            @Nullable Set<@NotNull String> tokens, @NotNull RecipeFilter filter) {
+        RecipeIndexes indexes = getRecipeIndexes();
+        return indexes.attributeIndex.findMatching(
+                tokens != null ? indexes.nameIndex.findKeys(tokens) : null, filter);
+    }
+
+    /**
+     * Counts the facets of the file's recipes with the given names, adding them to the given
+     * facet counts.
+     *
+     * @param names the (non-presentation) names of the recipes to count
+     * @param facets the facet counts to add to
+     */
+    void countRecipeFacets(
+            @NotNull Collection<@NotNull String> names, @NotNull RecipeFacets.Builder facets) {
+        getRecipeIndexes().attributeIndex.countFacets(names, facets);
+    }
+
+    /**
+     * Finds the file's users that have at least one of the given tokens in their usernames, in the
+     * same way that MapEntitySaveAndLoader searches.
+     *
+     * @param tokens the tokens to search for
+     * @return the usernames of the matched users
+     */
+    @NotNull Set<String> findUsernames(@NotNull Set<@NotNull String> tokens) {
+        return getUserIndex().findKeys(tokens);
+    }
+
+    /**
+     * Finds the file's recipes that match the given prefix, in the same way that
+     * MapEntitySaveAndLoader suggests recipes.
+     *
+     * @param prefix the prefix to suggest recipes for, as typed so far
+     * @param limit the maximum number of names to find
+     * @return the names of the matched recipes, in order, mapping to the tokens they were matched
+     *     by
+     */
+    @NotNull LinkedHashMap<String, String> findRecipeNamesByPrefix(
+            @NotNull String prefix, int limit) {
+        return getRecipeIndexes().nameIndex.findKeysByPrefix(prefix, limit);
+    }
+
+    /**
+     * Finds the file's users that match the given prefix, in the same way that
+     * MapEntitySaveAndLoader suggests users.
+     *
+     * @param prefix the prefix to suggest users for, as typed so far
+     * @param limit the maximum number of usernames to find
+     * @return the usernames of the matched users, in order, mapping to the tokens they were matched
+     *     by
+     */
+    @NotNull LinkedHashMap<String, String> findUsernamesByPrefix(
+            @NotNull String prefix, int limit) {
+        return getUserIndex().findKeysByPrefix(prefix, limit);
+    }
+
+    /**
+     * Finds the record of the file's recipe with the given name, as it is in the file.
+     *
+     * @param name the (non-presentation) name of the recipe
+     * @return an input positioned at the start of the recipe's record (after its name), or null
+     *     if the file has no such recipe
+     */
+    @Nullable EntityFileCodec.Input getRecipeRecord(@NotNull String name) {
+        Long offset = recipeOffsets.get(name);
+        return offset != null ? inputAt(offset) : null;
+    }
+
+    /**
+     * Finds the record of the file's user with the given username, as it is in the file.
+     *
+     * @param username the username of the user
+     * @return an input positioned at the start of the user's record (after its username), or null
+     *     if the file has no such user
+     */
+    @Nullable EntityFileCodec.Input getUserRecord(@NotNull String username) {
+        Long offset = userOffsets.get(username);
+        return offset != null ? inputAt(offset) : null;
+    }
+
+    private EntityFileCodec.Input inputAt(long offset) {
+        EntityFileCodec.Input input = new EntityFileCodec.Input(segments, segmentStride);
+        input.seek(offset);
+        return input;
+    }
+
+    /**
+     * Decodes the form of the file's recipe with the given name.
+     *
+     * @param name the (non-presentation) name of the recipe
+     * @return the form of the recipe, or null if the file has no such recipe
+     * @throws UncheckedIOException if the recipe can't be decoded
+     */
+    @Nullable RecipeForm getRecipeForm(@NotNull String name) {
+        Long offset = recipeOffsets.get(name);
+        if (offset == null) {
+            return null;
+        }
+        try {
+            return readerAt(offset).readRecipeForm();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes the form of the file's user with the given username.
+     *
+     * @param username the username of the user
+     * @return the form of the user, or null if the file has no such user
+     * @throws UncheckedIOException if the user can't be decoded
+     */
+    @Nullable UserForm getUserForm(@NotNull String username) {
+        Long offset = userOffsets.get(username);
+        if (offset == null) {
+            return null;
+        }
+        try {
+            return readerAt(offset).readUserForm();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gets the file's recipe with the given name from the cache, or builds it from its form (and
+     * caches it) if it isn't cached.
+     *
+     * @param name the (non-presentation) name of the recipe
+     * @param fromForm builds a Recipe from its form
+     * @return the recipe, or null if the file has no such recipe
+     */
+    @Nullable Recipe getRecipe(
+            @NotNull String name, @NotNull Function<RecipeForm, Recipe> fromForm) {
+        return getCached(name, recipeCache, this::getRecipeForm, fromForm);
+    }
+
+    /**
+     * Gets the file's user with the given username from the cache, or builds it from its form (and
+     * caches it) if it isn't cached.
+     *
+     * @param username the username of the user
+     * @param fromForm builds a User from its form
+     * @return the user, or null if the file has no such user
+     */
+    @Nullable User getUser(@NotNull String username, @NotNull Function<UserForm, User> fromForm) {
+        return getCached(username, userCache, this::getUserForm, fromForm);
+    }
+
+    private static <F, E> E getCached(
+            String key,
+            Map<String, E> cache,
+            Function<String, F> getForm,
+            Function<F, E> fromForm) {
+        E entity = cache.get(key);
+        if (entity != null) {
+            return entity;
+        }
+        F form = getForm.apply(key);
+        if (form == null) {
+            return null;
+        }
+        entity = fromForm.apply(form);
+        cache.put(key, entity);
+        return entity;
+    }
+
+    /** This class is a map that evicts its least recently used entry once it's over capacity. */
+    private static final class LruCache<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 0xcafef00dL;
+
+        private final int capacity;
+
+        LruCache(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -6,9 +6,14 @@ import com.recipecart.entities.Recipe;
 import com.recipecart.entities.Tag;
 import com.recipecart.entities.User;
 import com.recipecart.storage.EntityLoader;
+import com.recipecart.storage.FilteredRecipePage;
+import com.recipecart.storage.RecipeFacets;
+import com.recipecart.storage.RecipeFilter;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.apache.commons.lang3.NotImplementedException;
 import org.bson.Document;
@@ -79,6 +84,58 @@ public class MongoEntityLoader extends MongoConnector implements EntityLoader {
         throw new NotImplementedException();
     }
 
+    /**
+     * Loads the saved Tags with the given names from the database this loader is connected to, in
+     * one query, leaving out names with no saved tag.
+     *
+     * @param names the exact names of the tags to be loaded
+     * @return the saved Tags with the given names, keyed by name
+     */
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull Tag> findTagsByNames(
+            @NotNull Collection<@NotNull String> names) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Loads the saved Ingredients with the given names from the database this loader is
+     * connected to, in one query, leaving out names with no saved ingredient.
+     *
+     * @param names the exact names of the ingredients to be loaded
+     * @return the saved Ingredients with the given names, keyed by name
+     */
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull Ingredient> findIngredientsByNames(
+            @NotNull Collection<@NotNull String> names) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Loads the saved Recipes with the given names from the database this loader is connected to,
+     * in one query, leaving out names with no saved recipe.
+     *
+     * @param names the exact names of the recipes to be loaded
+     * @return the saved Recipes with the given names, keyed by name
+     */
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull Recipe> findRecipesByNames(
+            @NotNull Collection<@NotNull String> names) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Loads the saved Users with the given usernames from the database this loader is connected
+     * to, in one query, leaving out usernames with no saved user.
+     *
+     * @param usernames the exact usernames of the users to be loaded
+     * @return the saved Users with the given usernames, keyed by username
+     */
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull User> findUsersByNames(
+            @NotNull Collection<@NotNull String> usernames) {
+        throw new NotImplementedException();
+    }
+
     /**
      * Checks if a tag with the given name exists in the database this loader is connected to.
      *
@@ -120,6 +177,49 @@ public class MongoEntityLoader extends MongoConnector implements EntityLoader {
         throw new NotImplementedException();
     }
 
+    /**
+     * Gets the version of the tag with the given name in the database this loader is connected to.
+     *
+     * @return the version of the saved tag, or UNSAVED_VERSION if there's no such tag
+     */
+    @Override
+    public long getTagVersion(@NotNull String name) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Gets the version of the ingredient with the given name in the database this loader is
+     * connected to.
+     *
+     * @return the version of the saved ingredient, or UNSAVED_VERSION if there's no such ingredient
+     */
+    @Override
+    public long getIngredientVersion(@NotNull String name) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Gets the version of the recipe with the given name in the database this loader is connected
+     * to.
+     *
+     * @return the version of the saved recipe, or UNSAVED_VERSION if there's no such recipe
+     */
+    @Override
+    public long getRecipeVersion(@NotNull String name) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Gets the version of the user with the given username in the database this loader is connected
+     * to.
+     *
+     * @return the version of the saved user, or UNSAVED_VERSION if there's no such user
+     */
+    @Override
+    public long getUserVersion(@NotNull String username) {
+        throw new NotImplementedException();
+    }
+
     /**
      * Searches for saved tags whose names contain at least one of the given tokens, in the database
      * this loader is connected to.
@@ -169,12 +269,240 @@ public class MongoEntityLoader extends MongoConnector implements EntityLoader {
         throw new NotImplementedException();
     }
 
+    /**
+     * Searches the database this loader is connected to for one page of the tags whose names
+     * contain at least one of the given tokens, sorted by name.
+     *
+     * @param tokens the tokens for name-matching
+     * @param offset how many of the (sorted) matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matched Tags
+     */
+    @Override
+    public @NotNull List<@NotNull Tag> searchTags(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Searches the database this loader is connected to for one page of the ingredients whose
+     * names contain at least one of the given tokens, sorted by name.
+     *
+     * @param tokens the tokens for name-matching
+     * @param offset how many of the (sorted) matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matched Ingredients
+     */
+    @Override
+    public @NotNull List<@NotNull Ingredient> searchIngredients(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Searches the database this loader is connected to for one page of the recipes whose names
+     * (name or presentation name) contain at least one of the given tokens, sorted by name.
+     *
+     * @param tokens the tokens for name-matching
+     * @param offset how many of the (sorted) matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matched Recipes
+     */
+    @Override
+    public @NotNull List<@NotNull Recipe> searchRecipes(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Searches the database this loader is connected to for one page of the users whose usernames
+     * contain at least one of the given tokens, sorted by username.
+     *
+     * @param tokens the tokens for name-matching
+     * @param offset how many of the (sorted) matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matched Users
+     */
+    @Override
+    public @NotNull List<@NotNull User> searchUsers(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Finds the tokens of the names of the ingredients in the database this loader is connected to
+     * that are similar to (within a few edits of) at least one of the given search terms.
+     *
+     * @param terms the search terms, possibly misspelled
+     * @return the tokens similar to any of the terms
+     */
+    @Override
+    public @NotNull Set<@NotNull String> findSimilarIngredientTokens(
+            @NotNull Set<@NotNull String> terms) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Finds the tokens of the names of the recipes in the database this loader is connected to
+     * that are similar to (within a few edits of) at least one of the given search terms.
+     *
+     * @param terms the search terms, possibly misspelled
+     * @return the tokens similar to any of the terms
+     */
+    @Override
+    public @NotNull Set<@NotNull String> findSimilarRecipeTokens(
+            @NotNull Set<@NotNull String> terms) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Finds one page of the recipes in the database this loader is connected to that can be made
+     * with the given ingredients, except for at most maxMissing of their required ingredients.
+     *
+     * @param ingredientNames the names of the ingredients to make recipes with
+     * @param maxMissing the maximum number of required ingredients a found recipe can be missing
+     * @param offset how many of the found recipes to skip
+     * @param limit the maximum number of found recipes to return
+     * @return the page of found Recipes
+     */
+    @Override
+    public @NotNull List<@NotNull Recipe> findCookableRecipes(
+            @NotNull Set<@NotNull String> ingredientNames, int maxMissing, int offset, int limit) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Searches for recipes in the database this loader is connected to that match the given tokens
+     * (if any), and meet every criterion of the given filter.
+     *
+     * @param tokens the tokens for name-matching, or null to not match recipes by name
+     * @param filter the criteria the returned recipes must meet
+     * @return the matched Recipes
+     */
+    @Override
+    public @NotNull Set<@NotNull Recipe> searchRecipes(
+            @Nullable Set<@NotNull String> tokens, @NotNull RecipeFilter filter) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Searches for one page of the recipes in the database this loader is connected to that match
+     * the given tokens (if any), and meet every criterion of the given filter.
+     *
+     * @param tokens the tokens for name-matching, or null to not match recipes by name
+     * @param filter the criteria the returned recipes must meet
+     * @param offset how many of the matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matched Recipes
+     */
+    @Override
+    public @NotNull List<@NotNull Recipe> searchRecipes(
+            @Nullable Set<@NotNull String> tokens,
+            @NotNull RecipeFilter filter,
+            int offset,
+            int limit) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Counts the facets of the recipes in the database this loader is connected to that match the
+     * given tokens (if any), and meet every criterion of the given filter.
+     *
+     * @param tokens the tokens for name-matching, or null to not match recipes by name
+     * @param filter the criteria the counted recipes must meet
+     * @return the facet counts of the matched recipes
+     */
+    @Override
+    public @NotNull RecipeFacets countRecipeFacets(
+            @Nullable Set<@NotNull String> tokens, @NotNull RecipeFilter filter) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Searches for one page of the recipes in the database this loader is connected to that match
+     * the given tokens (if any), and meet every criterion of the given filter, and counts the
+     * facets of all of those recipes.
+     *
+     * @param tokens the tokens for name-matching, or null to not match recipes by name
+     * @param filter the criteria the returned recipes must meet
+     * @param offset how many of the matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matched Recipes, and the facet counts of all the matches
+     */
+    @Override
+    public @NotNull FilteredRecipePage searchRecipesWithFacets(
+            @Nullable Set<@NotNull String> tokens,
+            @NotNull RecipeFilter filter,
+            int offset,
+            int limit) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Finds the tags in the database this loader is connected to whose names have a token starting
+     * with the given prefix, for typeahead suggestions.
+     *
+     * @param prefix the prefix to suggest tags for, as typed so far
+     * @param limit the maximum number of tags to return
+     * @return the suggested Tags
+     */
+    @Override
+    public @NotNull List<@NotNull Tag> suggestTags(@NotNull String prefix, int limit) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Finds the ingredients in the database this loader is connected to whose names have a token
+     * starting with the given prefix, for typeahead suggestions.
+     *
+     * @param prefix the prefix to suggest ingredients for, as typed so far
+     * @param limit the maximum number of ingredients to return
+     * @return the suggested Ingredients
+     */
+    @Override
+    public @NotNull List<@NotNull Ingredient> suggestIngredients(
+            @NotNull String prefix, int limit) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Finds the recipes in the database this loader is connected to whose names (name or
+     * presentation name) have a token starting with the given prefix, for typeahead suggestions.
+     *
+     * @param prefix the prefix to suggest recipes for, as typed so far
+     * @param limit the maximum number of recipes to return
+     * @return the suggested Recipes
+     */
+    @Override
+    public @NotNull List<@NotNull Recipe> suggestRecipes(@NotNull String prefix, int limit) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Finds the users in the database this loader is connected to whose usernames have a token
+     * starting with the given prefix, for typeahead suggestions.
+     *
+     * @param prefix the prefix to suggest users for, as typed so far
+     * @param limit the maximum number of users to return
+     * @return the suggested Users
+     */
+    @Override
+    public @NotNull List<@NotNull User> suggestUsers(@NotNull String prefix, int limit) {
+        throw new NotImplementedException();
+    }
+
     /** {@inheritDoc} */
     @Override
     public @NotNull String generateUniqueRecipeName(@Nullable String presentationName) {
         throw new NotImplementedException();
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void releaseUniqueRecipeName(@NotNull String name) {
+        throw new NotImplementedException();
+    }
+
     // possible helper functions that can help with the implementation of EntityLoader
 
     private @NotNull Tag documentToTag(@NotNull Document tag) {
@@ -9,6 +9,8 @@ import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.UnaryOperator;
+import org.apache.commons.lang3.NotImplementedException;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.jetbrains.annotations.NotNull;
@@ -109,6 +111,76 @@ public class MongoEntitySaver extends MongoConnector implements EntitySaver {
         }
     }
 
+    /**
+     * Atomically updates the User with the given username in the Mongo database this saver is
+     * connected to. (Not implemented yet, since users can't be loaded from the database yet.)
+     *
+     * @param username the username of the User to update
+     * @param updater given the currently saved User, returns the User to save in its place
+     * @return the User that's saved once this call is done
+     */
+    @Override
+    public @NotNull User computeUser(
+            @NotNull String username, @NotNull UnaryOperator<@NotNull User> updater) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Saves the given Tag to the Mongo database this saver is connected to, but only if the saved
+     * Tag has the given version. (Not implemented yet, since entities aren't versioned in the
+     * database yet.)
+     *
+     * @param tag the Tag to save
+     * @param expectedVersion the version the saved Tag must have
+     * @return true if the Tag was saved, false if the version didn't match
+     */
+    @Override
+    public boolean updateTagIfVersion(@NotNull Tag tag, long expectedVersion) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Saves the given Ingredient to the Mongo database this saver is connected to, but only if the
+     * saved Ingredient has the given version. (Not implemented yet, since entities aren't versioned
+     * in the database yet.)
+     *
+     * @param ingredient the Ingredient to save
+     * @param expectedVersion the version the saved Ingredient must have
+     * @return true if the Ingredient was saved, false if the version didn't match
+     */
+    @Override
+    public boolean updateIngredientIfVersion(@NotNull Ingredient ingredient, long expectedVersion) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Saves the given Recipe to the Mongo database this saver is connected to, but only if the
+     * saved Recipe has the given version. (Not implemented yet, since entities aren't versioned in
+     * the database yet.)
+     *
+     * @param recipe the Recipe to save
+     * @param expectedVersion the version the saved Recipe must have
+     * @return true if the Recipe was saved, false if the version didn't match
+     */
+    @Override
+    public boolean updateRecipeIfVersion(@NotNull Recipe recipe, long expectedVersion) {
+        throw new NotImplementedException();
+    }
+
+    /**
+     * Saves the given User to the Mongo database this saver is connected to, but only if the saved
+     * User has the given version. (Not implemented yet, since entities aren't versioned in the
+     * database yet.)
+     *
+     * @param user the User to save
+     * @param expectedVersion the version the saved User must have
+     * @return true if the User was saved, false if the version didn't match
+     */
+    @Override
+    public boolean updateUserIfVersion(@NotNull User user, long expectedVersion) {
+        throw new NotImplementedException();
+    }
+
     // possible helper functions that can help with the implementation of EntitySaver
 
     private Document tagToDocument(@NotNull Tag tag) {
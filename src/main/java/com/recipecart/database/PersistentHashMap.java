@@ -0,0 +1,357 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class is an immutable hash map (a hash array mapped trie). Adding or removing an entry
+ * returns a new map, which shares all of this map's trie nodes except for the ones on the path to
+ * the entry, so it only takes time and space logarithmic in the map's size. Keys are compared with
+ * equals/hashCode, and neither keys nor values can be null. This class is thread-safe, since it's
+ * immutable.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+final class PersistentHashMap<K, V> {
+    private static final int BITS = 5, MASK = (1 << BITS) - 1;
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final @Nullable Node root;
+    private final int size;
+
+    private PersistentHashMap(@Nullable Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /** @return the map with no entries */
+    @SuppressWarnings("unchecked")
+    static <K, V> @NotNull PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    /** @return the number of entries in this map */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param key the key to look up
+     * @return the value of the given key, or null if this map doesn't contain the key
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable V get(@NotNull Object key) {
+        return root == null ? null : (V) root.find(key, hash(key), 0);
+    }
+
+    /**
+     * @param key the key to look up
+     * @return true if this map contains the given key, false otherwise
+     */
+    boolean containsKey(@NotNull Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @param key the key of the entry to add
+     * @param value the value of the entry to add
+     * @return a map with this map's entries, and with the given key mapped to the given value
+     */
+    @NotNull PersistentHashMap<K, V> plus(@NotNull K key, @NotNull V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        Leaf leaf = new Leaf(hash(key), key, value);
+        if (root == null) {
+            return new PersistentHashMap<>(BitmapNode.of(leaf, 0), 1);
+        }
+        boolean[] added = new boolean[1];
+        Node newRoot = root.plus(leaf, 0, added);
+        return newRoot == root ? this : new PersistentHashMap<>(newRoot, size + (added[0] ? 1 : 0));
+    }
+
+    /**
+     * @param key the key of the entry to remove
+     * @return a map with this map's entries, except for the one with the given key
+     */
+    @NotNull PersistentHashMap<K, V> minus(@NotNull Object key) {
+        if (root == null || !containsKey(key)) {
+            return this;
+        }
+        Node newRoot = root.minus(key, hash(key), 0);
+        return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    /**
+     * Performs the given action on each entry of this map, in no particular order.
+     *
+     * @param action the action to perform
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(@NotNull BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    /** @return a read-only Map view of this map */
+    @NotNull Map<K, V> asMap() {
+        return new MapView();
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int bitFor(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private abstract static class Node {
+        abstract @Nullable Object find(Object key, int hash, int shift);
+
+        // sets added[0] if the leaf's key wasn't in this node already
+        abstract Node plus(Leaf leaf, int shift, boolean[] added);
+
+        // returns null if the node would be left empty; the key must be in this node
+        abstract @Nullable Node minus(Object key, int hash, int shift);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    private static final class Leaf {
+        private final int hash;
+        private final Object key, value;
+
+        Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        boolean hasKey(Object key, int hash) {
+            return this.hash == hash && this.key.equals(key);
+        }
+    }
+
+    // each child is a Leaf or a Node, ordered by its bit in the bitmap
+    private static final class BitmapNode extends Node {
+        private final int bitmap;
+        private final Object[] children;
+
+        BitmapNode(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        static BitmapNode of(Leaf leaf, int shift) {
+            return new BitmapNode(bitFor(leaf.hash, shift), new Object[] {leaf});
+        }
+
+        private int indexOf(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        @Nullable Object find(Object key, int hash, int shift) {
+            int bit = bitFor(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object child = children[indexOf(bit)];
+            if (child instanceof Leaf) {
+                Leaf leaf = (Leaf) child;
+                return leaf.hasKey(key, hash) ? leaf.value : null;
+            }
+            return ((Node) child).find(key, hash, shift + BITS);
+        }
+
+        @Override
+        Node plus(Leaf leaf, int shift, boolean[] added) {
+            int bit = bitFor(leaf.hash, shift), index = indexOf(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newChildren = new Object[children.length + 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                newChildren[index] = leaf;
+                System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, newChildren);
+            }
+
+            Object child = children[index], newChild;
+            if (child instanceof Leaf) {
+                Leaf existing = (Leaf) child;
+                if (existing.hasKey(leaf.key, leaf.hash)) {
+                    if (existing.value == leaf.value) {
+                        return this;
+                    }
+                    newChild = leaf;
+                } else {
+                    newChild = merge(existing, leaf, shift + BITS);
+                    added[0] = true;
+                }
+            } else {
+                newChild = ((Node) child).plus(leaf, shift + BITS, added);
+                if (newChild == child) {
+                    return this;
+                }
+            }
+            return withChild(index, newChild);
+        }
+
+        private static Node merge(Leaf first, Leaf second, int shift) {
+            if (first.hash == second.hash) {
+                return new CollisionNode(first.hash, new Leaf[] {first, second});
+            }
+            // differing hashes always differ within the bits used up to the last level
+            int firstBit = bitFor(first.hash, shift), secondBit = bitFor(second.hash, shift);
+            if (firstBit == secondBit) {
+                return new BitmapNode(firstBit, new Object[] {merge(first, second, shift + BITS)});
+            }
+            return new BitmapNode(
+                    firstBit | secondBit,
+                    Integer.compareUnsigned(firstBit, secondBit) < 0
+                            ? new Object[] {first, second}
+                            : new Object[] {second, first});
+        }
+
+        private BitmapNode withChild(int index, Object child) {
+            Object[] newChildren = children.clone();
+            newChildren[index] = child;
+            return new BitmapNode(bitmap, newChildren);
+        }
+
+        @Override
+        @Nullable Node minus(Object key, int hash, int shift) {
+            int bit = bitFor(hash, shift), index = indexOf(bit);
+            Object child = children[index];
+            if (child instanceof Node) {
+                Node newChild = ((Node) child).minus(key, hash, shift + BITS);
+                if (newChild != null) {
+                    return withChild(index, newChild);
+                }
+            }
+            if (children.length == 1) {
+                return null;
+            }
+            Object[] newChildren = new Object[children.length - 1];
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(children, index + 1, newChildren, index, newChildren.length - index);
+            return new BitmapNode(bitmap & ~bit, newChildren);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (Object child : children) {
+                if (child instanceof Leaf) {
+                    action.accept(((Leaf) child).key, ((Leaf) child).value);
+                } else {
+                    ((Node) child).forEach(action);
+                }
+            }
+        }
+    }
+
+    // holds the leaves whose keys all have the same hash
+    private static final class CollisionNode extends Node {
+        private final int hash;
+        private final Leaf[] leaves;
+
+        CollisionNode(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @Override
+        @Nullable Object find(Object key, int hash, int shift) {
+            for (Leaf leaf : leaves) {
+                if (leaf.hasKey(key, hash)) {
+                    return leaf.value;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        Node plus(Leaf leaf, int shift, boolean[] added) {
+            if (leaf.hash != hash) {
+                // moves this node down a level, next to the new leaf
+                return new BitmapNode(bitFor(hash, shift), new Object[] {this})
+                        .plus(leaf, shift, added);
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].hasKey(leaf.key, leaf.hash)) {
+                    Leaf[] newLeaves = leaves.clone();
+                    newLeaves[i] = leaf;
+                    return new CollisionNode(hash, newLeaves);
+                }
+            }
+            Leaf[] newLeaves = Arrays.copyOf(leaves, leaves.length + 1);
+            newLeaves[leaves.length] = leaf;
+            added[0] = true;
+            return new CollisionNode(hash, newLeaves);
+        }
+
+        @Override
+        @Nullable Node minus(Object key, int hash, int shift) {
+            if (leaves.length == 1) {
+                return null;
+            }
+            Leaf[] newLeaves = new Leaf[leaves.length - 1];
+            int j = 0;
+            for (Leaf leaf : leaves) {
+                if (!leaf.hasKey(key, hash)) {
+                    newLeaves[j++] = leaf;
+                }
+            }
+            return new CollisionNode(this.hash, newLeaves);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (Leaf leaf : leaves) {
+                action.accept(leaf.key, leaf.value);
+            }
+        }
+    }
+
+    // lookups go straight to the trie; iterating copies the entries out first
+    private final class MapView extends AbstractMap<K, V> {
+        @Override
+        public V get(Object key) {
+            return key == null ? null : PersistentHashMap.this.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key != null && PersistentHashMap.this.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public @NotNull Set<Entry<K, V>> entrySet() {
+            List<Entry<K, V>> entries = new ArrayList<>(size);
+            PersistentHashMap.this.forEach(
+                    (key, value) -> entries.add(new SimpleImmutableEntry<>(key, value)));
+            return new AbstractSet<>() {
+                @Override
+                public @NotNull Iterator<Entry<K, V>> iterator() {
+                    return Collections.unmodifiableList(entries).iterator();
+                }
+
+                @Override
+                public int size() {
+                    return entries.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,411 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Recipe;
+import com.recipecart.entities.Tag;
+import com.recipecart.storage.RecipeFacets;
+import com.recipecart.storage.RecipeFilter;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class indexes recipes (by key) by their structured fields: the names of the ingredients
+ * they require and of their tags, and their total times, numbers of servings, and average ratings.
+ * Each indexed recipe gets a small integer id, which ids of removed recipes are reused for, so
+ * that the recipes with each ingredient or tag are kept as a dense BitSet of ids. Finding the
+ * recipes covered by some ingredients goes through the BitSets of only those ingredients, counting
+ * how many of each recipe's required ingredients they cover, and filtering recipes intersects the
+ * BitSets of each tag and ingredient criterion, and then checks the numeric fields of only the
+ * recipes left. This class is thread-safe: it's guarded by a read-write lock, so lookups only
+ * block (and are blocked by) changes to the index, and not each other.
+ */
+final class RecipeAttributeIndex {
+    // ranks fewer missing ingredients first, then keys alphabetically
+    private static final Comparator<Map.Entry<String, Integer>> FEWEST_MISSING_FIRST =
+            Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> keys = new ArrayList<>(); // by id; null for ids that are free
+    private final List<Attributes> attributes = new ArrayList<>(); // by id, like keys
+    private final Deque<Integer> freeIds = new ArrayDeque<>();
+    private final BitSet allRecipes = new BitSet();
+
+    private final Map<String, BitSet> recipesByIngredient = new HashMap<>();
+    // by number of required ingredients, for the recipes that need no covered ingredients
+    private final List<BitSet> recipesByNumRequired = new ArrayList<>();
+    private final Map<String, BitSet> recipesByTag = new HashMap<>();
+
+    /**
+     * This class holds the fields of a recipe that it's indexed by. It's immutable, so it can be
+     * created outside of the index's lock.
+     */
+    static final class Attributes {
+        private final Set<String> ingredientNames;
+        private final Set<String> tagNames;
+        private final @Nullable Integer totalTime;
+        private final @Nullable Integer numServings;
+        private final double avgRating;
+
+        /**
+         * @param ingredientNames the names of the ingredients the recipe requires
+         * @param tagNames the names of the recipe's tags
+         * @param prepTime the recipe's prep time, if specified
+         * @param cookTime the recipe's cook time, if specified
+         * @param numServings the recipe's number of servings, if specified
+         * @param avgRating the recipe's average rating
+         */
+        Attributes(
+                @NotNull Collection<@NotNull String> ingredientNames,
+                @NotNull Collection<@NotNull String> tagNames,
+                @Nullable Integer prepTime,
+                @Nullable Integer cookTime,
+                @Nullable Integer numServings,
+                double avgRating) {
+            this.ingredientNames = new HashSet<>(ingredientNames);
+            this.tagNames = new HashSet<>(tagNames);
+            this.totalTime = RecipeFilter.getTotalTime(prepTime, cookTime);
+            this.numServings = numServings;
+            this.avgRating = avgRating;
+        }
+
+        /**
+         * @param recipe the recipe to get the indexed fields of
+         * @return the fields of the given recipe that it's indexed by
+         */
+        static @NotNull Attributes of(@NotNull Recipe recipe) {
+            return new Attributes(
+                    MapEntitySaveAndLoader.getNames(
+                            recipe.getRequiredIngredients().keySet(), Ingredient::getName),
+                    MapEntitySaveAndLoader.getNames(recipe.getTags(), Tag::getName),
+                    recipe.getPrepTime(),
+                    recipe.getCookTime(),
+                    recipe.getNumServings(),
+                    recipe.getAvgRating());
+        }
+
+        // whether the numeric fields are within the filter's ranges
+        private boolean isInRanges(RecipeFilter filter) {
+            Integer maxTotalTime = filter.getMaxTotalTime(),
+                    minNumServings = filter.getMinNumServings(),
+                    maxNumServings = filter.getMaxNumServings();
+            Double minAvgRating = filter.getMinAvgRating();
+            return (maxTotalTime == null || (totalTime != null && totalTime <= maxTotalTime))
+                    && (minNumServings == null
+                            || (numServings != null && numServings >= minNumServings))
+                    && (maxNumServings == null
+                            || (numServings != null && numServings <= maxNumServings))
+                    && (minAvgRating == null || avgRating >= minAvgRating);
+        }
+    }
+
+    /**
+     * Selects one page of the given recipe keys, with the keys ordered by their numbers of missing
+     * ingredients, fewest first, and then alphabetically: the keys that would be at indices offset
+     * (inclusive) to offset + limit (exclusive) if all the keys were ordered. Only the first offset
+     * + limit keys are kept while selecting, so the recipes for the other keys never have to be
+     * loaded.
+     *
+     * @param missingCounts the recipe keys to select from, mapping to their numbers of missing
+     *     ingredients
+     * @param offset how many of the first keys to skip
+     * @param limit the maximum number of keys to select
+     * @return the selected keys, in order
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    static @NotNull List<@NotNull String> selectPage(
+            @NotNull Map<@NotNull String, @NotNull Integer> missingCounts, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        if (limit == 0 || offset >= missingCounts.size()) {
+            return new ArrayList<>();
+        }
+
+        int end = (int) Math.min((long) offset + limit, missingCounts.size());
+        PriorityQueue<Map.Entry<String, Integer>> lastFirst =
+                new PriorityQueue<>(end, FEWEST_MISSING_FIRST.reversed());
+        for (Map.Entry<String, Integer> entry : missingCounts.entrySet()) {
+            if (lastFirst.size() < end) {
+                lastFirst.add(entry);
+            } else if (FEWEST_MISSING_FIRST.compare(entry, lastFirst.peek()) < 0) {
+                lastFirst.poll();
+                lastFirst.add(entry);
+            }
+        }
+
+        List<Map.Entry<String, Integer>> first = new ArrayList<>(lastFirst);
+        first.sort(FEWEST_MISSING_FIRST);
+        List<String> page = new ArrayList<>(first.size() - offset);
+        for (Map.Entry<String, Integer> entry : first.subList(offset, first.size())) {
+            page.add(entry.getKey());
+        }
+        return page;
+    }
+
+    private static <V> void addTo(Map<V, BitSet> index, @Nullable V value, int id) {
+        if (value != null) {
+            index.computeIfAbsent(value, (v) -> new BitSet()).set(id);
+        }
+    }
+
+    private static <V> void removeFrom(Map<V, BitSet> index, @Nullable V value, int id) {
+        if (value == null) {
+            return;
+        }
+        BitSet recipes = index.get(value);
+        recipes.clear(id);
+        if (recipes.isEmpty()) {
+            index.remove(value);
+        }
+    }
+
+    /**
+     * Indexes the given recipe key under the given fields, replacing whatever the key was
+     * previously indexed under.
+     *
+     * @param key the key of the recipe to index
+     * @param recipeAttributes the fields of the recipe to index it by
+     */
+    void put(@NotNull String key, @NotNull Attributes recipeAttributes) {
+        lock.writeLock().lock();
+        try {
+            putIndexed(key, recipeAttributes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putIndexed(String key, Attributes recipeAttributes) {
+        removeIndexed(key);
+
+        int id = freeIds.isEmpty() ? keys.size() : freeIds.pop();
+        if (id == keys.size()) {
+            keys.add(key);
+            attributes.add(recipeAttributes);
+        } else {
+            keys.set(id, key);
+            attributes.set(id, recipeAttributes);
+        }
+        ids.put(key, id);
+        allRecipes.set(id);
+
+        for (String ingredient : recipeAttributes.ingredientNames) {
+            addTo(recipesByIngredient, ingredient, id);
+        }
+        int numRequired = recipeAttributes.ingredientNames.size();
+        while (recipesByNumRequired.size() <= numRequired) {
+            recipesByNumRequired.add(new BitSet());
+        }
+        recipesByNumRequired.get(numRequired).set(id);
+        for (String tag : recipeAttributes.tagNames) {
+            addTo(recipesByTag, tag, id);
+        }
+    }
+
+    /**
+     * Removes the given recipe key from this index.
+     *
+     * @param key the key of the recipe to stop indexing
+     */
+    void remove(@NotNull String key) {
+        lock.writeLock().lock();
+        try {
+            removeIndexed(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeIndexed(String key) {
+        Integer id = ids.remove(key);
+        if (id == null) {
+            return;
+        }
+        Attributes recipeAttributes = attributes.get(id);
+        for (String ingredient : recipeAttributes.ingredientNames) {
+            removeFrom(recipesByIngredient, ingredient, id);
+        }
+        recipesByNumRequired.get(recipeAttributes.ingredientNames.size()).clear(id);
+        for (String tag : recipeAttributes.tagNames) {
+            removeFrom(recipesByTag, tag, id);
+        }
+
+        allRecipes.clear(id);
+        keys.set(id, null);
+        attributes.set(id, null);
+        freeIds.push(id);
+    }
+
+    /** Removes every recipe key from this index. */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            ids.clear();
+            keys.clear();
+            attributes.clear();
+            freeIds.clear();
+            allRecipes.clear();
+            recipesByIngredient.clear();
+            recipesByNumRequired.clear();
+            recipesByTag.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the recipes that the given ingredients cover, except for at most maxMissing of their
+     * required ingredients.
+     *
+     * @param ingredientNames the names of the ingredients to cover recipes with
+     * @param maxMissing the maximum number of a found recipe's required ingredients that aren't
+     *     among the given ones
+     * @return the keys of the found recipes, mapping to how many of their required ingredients
+     *     aren't among the given ones
+     * @throws IllegalArgumentException if maxMissing is negative
+     */
+    @NotNull Map<@NotNull String, @NotNull Integer> findCovered(
+            @NotNull Set<@NotNull String> ingredientNames, int maxMissing) {
+        if (maxMissing < 0) {
+            throw new IllegalArgumentException("Maximum number missing cannot be negative");
+        }
+        lock.readLock().lock();
+        try {
+            int[] numCovered = new int[keys.size()];
+            BitSet candidates = new BitSet(keys.size());
+            for (String ingredient : ingredientNames) {
+                BitSet recipes = recipesByIngredient.get(ingredient);
+                if (recipes == null) {
+                    continue;
+                }
+                candidates.or(recipes);
+                for (int id = recipes.nextSetBit(0); id >= 0; id = recipes.nextSetBit(id + 1)) {
+                    numCovered[id]++;
+                }
+            }
+            // recipes requiring few enough ingredients are found even if none of them are covered
+            for (int numRequired = 0;
+                    numRequired <= maxMissing && numRequired < recipesByNumRequired.size();
+                    numRequired++) {
+                candidates.or(recipesByNumRequired.get(numRequired));
+            }
+
+            Map<String, Integer> missingCounts = new HashMap<>();
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                int numMissing = attributes.get(id).ingredientNames.size() - numCovered[id];
+                if (numMissing <= maxMissing) {
+                    missingCounts.put(keys.get(id), numMissing);
+                }
+            }
+            return missingCounts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the recipes that meet every criterion of the given filter.
+     *
+     * @param candidateKeys the keys of the recipes to filter (of which the ones that aren't
+     *     indexed are filtered out), or null to filter every indexed recipe
+     * @param filter the criteria the found recipes must meet
+     * @return the keys of the found recipes
+     */
+    @NotNull Set<@NotNull String> findMatching(
+            @Nullable Collection<@NotNull String> candidateKeys, @NotNull RecipeFilter filter) {
+        return findMatching(candidateKeys, filter, null);
+    }
+
+    /**
+     * Finds the recipes that meet every criterion of the given filter, and counts their facets in
+     * the same lookup, so that the facets are of the same recipes that are found.
+     *
+     * @param candidateKeys the keys of the recipes to filter (of which the ones that aren't
+     *     indexed are filtered out), or null to filter every indexed recipe
+     * @param filter the criteria the found recipes must meet
+     * @param facets the facet counts to add the found recipes to, or null to not count them
+     * @return the keys of the found recipes
+     */
+    @NotNull Set<@NotNull String> findMatching(
+            @Nullable Collection<@NotNull String> candidateKeys,
+            @NotNull RecipeFilter filter,
+            @Nullable RecipeFacets.Builder facets) {
+        lock.readLock().lock();
+        try {
+            BitSet matching;
+            if (candidateKeys == null) {
+                matching = (BitSet) allRecipes.clone();
+            } else {
+                matching = new BitSet(keys.size());
+                for (String key : candidateKeys) {
+                    Integer id = ids.get(key);
+                    if (id != null) {
+                        matching.set(id);
+                    }
+                }
+            }
+
+            // the posting lists are intersected first, so that only the recipes left have their
+            // numeric fields checked
+            for (String tag : filter.getTagNames()) {
+                matching.and(recipesByTag.getOrDefault(tag, new BitSet()));
+            }
+            for (String ingredient : filter.getRequiredIngredientNames()) {
+                matching.and(recipesByIngredient.getOrDefault(ingredient, new BitSet()));
+            }
+            for (String ingredient : filter.getExcludedIngredientNames()) {
+                matching.andNot(recipesByIngredient.getOrDefault(ingredient, new BitSet()));
+            }
+
+            Set<String> matchingKeys = new HashSet<>();
+            for (int id = matching.nextSetBit(0); id >= 0; id = matching.nextSetBit(id + 1)) {
+                Attributes recipeAttributes = attributes.get(id);
+                if (recipeAttributes.isInRanges(filter)) {
+                    matchingKeys.add(keys.get(id));
+                    if (facets != null) {
+                        addFacets(recipeAttributes, facets);
+                    }
+                }
+            }
+            return matchingKeys;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the facets of the given recipes, adding them to the given facet counts.
+     *
+     * @param keys the keys of the recipes to count (of which the ones that aren't indexed aren't
+     *     counted)
+     * @param facets the facet counts to add to
+     */
+    void countFacets(
+            @NotNull Collection<@NotNull String> keys, @NotNull RecipeFacets.Builder facets) {
+        lock.readLock().lock();
+        try {
+            for (String key : keys) {
+                Integer id = ids.get(key);
+                if (id != null) {
+                    addFacets(attributes.get(id), facets);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void addFacets(Attributes recipeAttributes, RecipeFacets.Builder facets) {
+        facets.addRecipe(
+                recipeAttributes.tagNames,
+                recipeAttributes.numServings,
+                recipeAttributes.totalTime,
+                recipeAttributes.avgRating);
+    }
+}
@@ -0,0 +1,111 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class generates unique recipe names, each made of a base name (from a presentation name)
+ * followed by a number. Each base name has its own sequence of numbers, which only moves forward,
+ * so each number is tried at most once over the sequence's lifetime instead of every number being
+ * tried again for every generated name. A sequence starts when a name is first generated from its
+ * base name, and is kept ahead of saved names from then on (see recordName). Generated names are
+ * reserved until they're saved or released, so concurrent callers are never handed the same name.
+ * This class is thread-safe.
+ */
+final class RecipeNameSequences {
+    private final Map<String, AtomicLong> nextNumbers = new ConcurrentHashMap<>();
+    private final Set<String> reservedNames = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Generates a recipe name, based on the given presentation name, that doesn't exist and that
+     * hasn't been generated before (unless it has since been saved and then stopped existing).
+     *
+     * @param presentationName the name to base the generated name off of
+     * @param nameExists checks whether a recipe name already exists
+     * @return the generated name
+     */
+    @NotNull String generate(
+            @Nullable String presentationName, @NotNull Predicate<@NotNull String> nameExists) {
+        Objects.requireNonNull(nameExists);
+
+        String baseName;
+        if (presentationName == null) {
+            baseName = "";
+        } else {
+            baseName = presentationName.trim().replaceAll("\\s+", "-");
+            if (isAvailable(baseName, nameExists)) {
+                return baseName;
+            }
+        }
+
+        AtomicLong nextNumber = nextNumbers.computeIfAbsent(baseName, (key) -> new AtomicLong());
+        while (true) {
+            String generatedName = baseName + nextNumber.getAndIncrement();
+            if (isAvailable(generatedName, nameExists)) {
+                return generatedName;
+            }
+        }
+    }
+
+    private boolean isAvailable(String name, Predicate<String> nameExists) {
+        return !nameExists.test(name) && reservedNames.add(name);
+    }
+
+    /**
+     * Records that a recipe with the given name was saved. This releases the name's reservation,
+     * and moves forward any started sequence that the name is in (i.e. the sequence of a base name
+     * that the name is made of, followed by a number), so that it's not generated again.
+     *
+     * @param name the (non-presentation) name of the saved recipe
+     */
+    void recordName(@NotNull String name) {
+        reservedNames.remove(name);
+        if (nextNumbers.isEmpty()) {
+            return;
+        }
+
+        // every split of the trailing digits into a base name and a number could be a sequence
+        int digitsStart = name.length();
+        while (digitsStart > 0
+                && name.charAt(digitsStart - 1) >= '0'
+                && name.charAt(digitsStart - 1) <= '9') {
+            digitsStart--;
+        }
+        for (int i = digitsStart; i < name.length(); i++) {
+            if (name.length() - i > 18 || (name.charAt(i) == '0' && i < name.length() - 1)) {
+                continue; // the sequences don't generate numbers this long, or with leading zeros
+            }
+            long number = Long.parseLong(name.substring(i));
+            AtomicLong nextNumber = nextNumbers.get(name.substring(0, i));
+            if (nextNumber != null) {
+                nextNumber.accumulateAndGet(number + 1, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Releases the reservation of a generated name that won't be saved, so that it can be
+     * generated again if it's still available. The sequence the name came from isn't moved back.
+     *
+     * @param name the generated name to release
+     */
+    void release(@NotNull String name) {
+        reservedNames.remove(name);
+    }
+
+    /**
+     * Stops all sequences, and releases all reservations. Meant for when the saved recipes are
+     * replaced all at once (e.g. when loading), since the sequences may be ahead of the new names.
+     */
+    void clear() {
+        nextNumbers.clear();
+        reservedNames.clear();
+    }
+}
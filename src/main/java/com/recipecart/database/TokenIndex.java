@@ -0,0 +1,243 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import java.util.*;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class is an inverted index that maps (lowercase) name tokens to the keys of the entities
+ * whose names contain those tokens. Names are tokenized the same way searches have always treated
+ * them: lowercased, then split on whitespace. The tokens are also kept in order, for prefix
+ * searches, and can be indexed by their trigrams, for searches that tolerate misspellings (see
+ * TrigramIndex). This class is thread-safe, since entities of the same type may be saved in
+ * parallel (see EntityLocks); each method holds the index's monitor for the little time it takes.
+ */
+final class TokenIndex {
+    private final Map<String, Set<String>> postings = new HashMap<>();
+    private final Map<String, Set<String>> indexedTokens = new HashMap<>();
+    private final NavigableSet<String> sortedTokens = new TreeSet<>();
+    private final @Nullable TrigramIndex trigrams;
+
+    /** Creates an empty index, whose tokens aren't indexed by their trigrams. */
+    TokenIndex() {
+        this(false);
+    }
+
+    /**
+     * Creates an empty index.
+     *
+     * @param findsSimilarTokens whether to index the tokens by their trigrams, so that
+     *     findSimilarTokens can be called
+     */
+    TokenIndex(boolean findsSimilarTokens) {
+        this.trigrams = findsSimilarTokens ? new TrigramIndex() : null;
+    }
+
+    /**
+     * Splits the given text into the tokens it's indexed under.
+     *
+     * @param text the text to tokenize
+     * @return the lowercase, whitespace-separated tokens of the text
+     */
+    static @NotNull Set<@NotNull String> tokenize(@NotNull String text) {
+        return new HashSet<>(Arrays.asList(text.toLowerCase(Locale.ROOT).split("\\s+")));
+    }
+
+    /**
+     * Selects one page of the given keys, in ascending order: the keys that would be at indices
+     * offset (inclusive) to offset + limit (exclusive) if all the keys were sorted. Only the
+     * smallest offset + limit keys are kept while selecting, so the entities for the other keys
+     * never have to be loaded.
+     *
+     * @param keys the keys to select from
+     * @param offset how many of the smallest keys to skip
+     * @param limit the maximum number of keys to select
+     * @return the selected keys, in ascending order
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    static @NotNull List<@NotNull String> selectPage(
+            @NotNull Collection<@NotNull String> keys, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        if (limit == 0 || offset >= keys.size()) {
+            return new ArrayList<>();
+        }
+
+        List<String> smallest;
+        if ((long) offset + limit >= keys.size()) {
+            smallest = new ArrayList<>(keys);
+        } else {
+            int end = offset + limit;
+            PriorityQueue<String> largestFirst =
+                    new PriorityQueue<>(end, Comparator.reverseOrder());
+            for (String key : keys) {
+                if (largestFirst.size() < end) {
+                    largestFirst.add(key);
+                } else if (key.compareTo(largestFirst.peek()) < 0) {
+                    largestFirst.poll();
+                    largestFirst.add(key);
+                }
+            }
+            smallest = new ArrayList<>(largestFirst);
+        }
+        Collections.sort(smallest);
+        return new ArrayList<>(smallest.subList(offset, smallest.size()));
+    }
+
+    /**
+     * Finds the keys of the entities that have a token starting with the last word of the given
+     * prefix, and that have each of the prefix's other words as a whole token (all
+     * case-insensitive). The tokens are gone through in order, and stop being gone through once
+     * enough keys are found, so only the tokens up to the last one that a selected key was matched
+     * by are looked at.
+     *
+     * @param prefix the prefix to look up, as typed so far
+     * @param limit the maximum number of keys to find
+     * @param sortedTokens the indexed tokens, in order; tokens with no keys are skipped
+     * @param getKeys gets the keys indexed under a token, or null if there are none
+     * @param getTokens gets the tokens that a key is indexed under
+     * @return the found keys mapping to the tokens they were matched by, ordered by token and then
+     *     by key
+     * @throws IllegalArgumentException if limit is negative
+     */
+    static @NotNull LinkedHashMap<@NotNull String, @NotNull String> selectByPrefix(
+            @NotNull String prefix,
+            int limit,
+            @NotNull NavigableSet<@NotNull String> sortedTokens,
+            @NotNull Function<String, @Nullable Set<String>> getKeys,
+            @NotNull Function<String, Set<String>> getTokens) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        List<String> words =
+                Arrays.asList(prefix.trim().toLowerCase(Locale.ROOT).split("\\s+"));
+        String lastWord = words.get(words.size() - 1);
+        List<String> wholeWords = words.subList(0, words.size() - 1);
+
+        LinkedHashMap<String, String> selected = new LinkedHashMap<>();
+        for (String token : sortedTokens.tailSet(lastWord, true)) {
+            if (selected.size() >= limit || !token.startsWith(lastWord)) {
+                break;
+            }
+            Set<String> keys = getKeys.apply(token);
+            if (keys == null) {
+                continue;
+            }
+            List<String> matched = new ArrayList<>();
+            for (String key : keys) {
+                if (!selected.containsKey(key) && getTokens.apply(key).containsAll(wholeWords)) {
+                    matched.add(key);
+                }
+            }
+            for (String key : selectPage(matched, 0, limit - selected.size())) {
+                selected.put(key, token);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Indexes the given key under the tokens of the given texts, replacing whatever the key was
+     * previously indexed under.
+     *
+     * @param key the key of the entity to index
+     * @param texts the names of the entity; null texts are skipped
+     */
+    synchronized void put(@NotNull String key, @NotNull Collection<@Nullable String> texts) {
+        remove(key);
+
+        Set<String> tokens = new HashSet<>();
+        for (String text : texts) {
+            if (text != null) {
+                tokens.addAll(tokenize(text));
+            }
+        }
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, (t) -> new HashSet<>()).add(key);
+            if (sortedTokens.add(token) && trigrams != null) {
+                trigrams.add(token);
+            }
+        }
+        indexedTokens.put(key, tokens);
+    }
+
+    /**
+     * Removes the given key from this index.
+     *
+     * @param key the key of the entity to stop indexing
+     */
+    synchronized void remove(@NotNull String key) {
+        Set<String> oldTokens = indexedTokens.remove(key);
+        if (oldTokens == null) {
+            return;
+        }
+        for (String token : oldTokens) {
+            Set<String> keys = postings.get(token);
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                postings.remove(token);
+                sortedTokens.remove(token);
+                if (trigrams != null) {
+                    trigrams.remove(token);
+                }
+            }
+        }
+    }
+
+    /** Removes every key from this index. */
+    synchronized void clear() {
+        postings.clear();
+        indexedTokens.clear();
+        sortedTokens.clear();
+        if (trigrams != null) {
+            trigrams.clear();
+        }
+    }
+
+    /**
+     * Finds the keys indexed under at least one of the given tokens (case-insensitive).
+     *
+     * @param tokens the tokens to look up
+     * @return the keys matched by any of the tokens, or an empty Set if none matched
+     */
+    synchronized @NotNull Set<@NotNull String> findKeys(@NotNull Set<@NotNull String> tokens) {
+        Set<String> keys = new HashSet<>();
+        for (String token : tokens) {
+            keys.addAll(postings.getOrDefault(token.toLowerCase(Locale.ROOT), Set.of()));
+        }
+        return keys;
+    }
+
+    /**
+     * Finds the tokens in this index that are similar to at least one of the given search terms.
+     * See TrigramIndex.findSimilar.
+     *
+     * @param terms the search terms, possibly misspelled
+     * @return the tokens similar to any of the terms, or an empty Set if none are
+     * @throws IllegalStateException if this index doesn't index its tokens by their trigrams
+     */
+    synchronized @NotNull Set<@NotNull String> findSimilarTokens(
+            @NotNull Set<@NotNull String> terms) {
+        if (trigrams == null) {
+            throw new IllegalStateException("Tokens aren't indexed by their trigrams");
+        }
+        return trigrams.findSimilar(terms);
+    }
+
+    /**
+     * Finds the keys indexed under a token that starts with the last word of the given prefix, and
+     * under each of the prefix's other words (all case-insensitive). See selectByPrefix.
+     *
+     * @param prefix the prefix to look up, as typed so far
+     * @param limit the maximum number of keys to find
+     * @return the found keys mapping to the tokens they were matched by, ordered by token and then
+     *     by key
+     */
+    synchronized @NotNull LinkedHashMap<@NotNull String, @NotNull String> findKeysByPrefix(
+            @NotNull String prefix, int limit) {
+        return selectByPrefix(prefix, limit, sortedTokens, postings::get, indexedTokens::get);
+    }
+}
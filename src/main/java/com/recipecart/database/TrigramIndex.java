@@ -0,0 +1,200 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class indexes (lowercase) name tokens by their trigrams, for finding the tokens that are
+ * spelled like a possibly misspelled search term. Each token is padded with two boundary
+ * characters on each side, so a token of length n has n + 2 trigrams, and one edit changes at most
+ * three of them; tokens that don't share enough trigrams with a term are filtered out without
+ * being compared to it, and the rest are verified with an edit distance computation that gives up
+ * once the distance is over the bound. Reads may happen concurrently with writes, but writes must
+ * not happen concurrently with each other.
+ */
+final class TrigramIndex {
+    private static final int N = 3;
+    private static final char BOUNDARY = '\0';
+
+    private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+    private final Set<String> tokens = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Gets the distinct trigrams of the given token, padded with boundary characters.
+     *
+     * @param token the token to get the trigrams of
+     * @return the token's trigrams
+     */
+    static @NotNull Set<@NotNull String> trigrams(@NotNull String token) {
+        String padded = "" + BOUNDARY + BOUNDARY + token + BOUNDARY + BOUNDARY;
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + N <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + N));
+        }
+        return grams;
+    }
+
+    /**
+     * Gets how many edits (insertions, deletions, or substitutions of one character) a token can
+     * be away from the given search term while still being similar to it: none for terms of up to
+     * 2 characters, 1 for up to 5, and 2 for longer terms.
+     *
+     * @param term the search term
+     * @return the maximum edit distance of tokens similar to the term
+     */
+    static int getMaxEdits(@NotNull String term) {
+        if (term.length() <= 2) {
+            return 0;
+        }
+        return term.length() <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Checks if the edit distance between the given strings is at most the given bound. Only the
+     * cells within maxEdits of the diagonal are computed, and the computation stops as soon as
+     * every cell of a row is over the bound.
+     *
+     * @param a one of the strings
+     * @param b the other string
+     * @param maxEdits the bound on the edit distance
+     * @return true if a can be turned into b with at most maxEdits edits, false otherwise
+     */
+    static boolean isWithinEditDistance(@NotNull String a, @NotNull String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+        int outOfBounds = maxEdits + 1;
+        int[] previous = new int[b.length() + 1], current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = Math.min(j, outOfBounds);
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int from = Math.max(1, i - maxEdits), to = Math.min(b.length(), i + maxEdits);
+            current[0] = Math.min(i, outOfBounds);
+            if (from > 1) {
+                current[from - 1] = outOfBounds;
+            }
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                int deletion = previous[j] + 1, insertion = current[j - 1] + 1;
+                int edits = Math.min(substitution, Math.min(deletion, insertion));
+                current[j] = Math.min(edits, outOfBounds);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < b.length()) {
+                current[to + 1] = outOfBounds;
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+
+    /**
+     * Adds the given token to this index, if it isn't already in it.
+     *
+     * @param token the token to add
+     */
+    void add(@NotNull String token) {
+        if (tokens.add(token)) {
+            for (String gram : trigrams(token)) {
+                postings.computeIfAbsent(gram, (g) -> ConcurrentHashMap.newKeySet()).add(token);
+            }
+        }
+    }
+
+    /**
+     * Adds the given tokens to this index, skipping the ones already in it.
+     *
+     * @param tokens the tokens to add
+     */
+    void addAll(@NotNull Collection<@NotNull String> tokens) {
+        for (String token : tokens) {
+            add(token);
+        }
+    }
+
+    /**
+     * Removes the given token from this index, if it's in it.
+     *
+     * @param token the token to remove
+     */
+    void remove(@NotNull String token) {
+        if (tokens.remove(token)) {
+            for (String gram : trigrams(token)) {
+                Set<String> grammed = postings.get(gram);
+                grammed.remove(token);
+                if (grammed.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every token that isn't in the given tokens from this index.
+     *
+     * @param tokens the tokens to keep
+     */
+    void retainAll(@NotNull Set<@NotNull String> tokens) {
+        for (String token : new ArrayList<>(this.tokens)) {
+            if (!tokens.contains(token)) {
+                remove(token);
+            }
+        }
+    }
+
+    /** Removes every token from this index. */
+    void clear() {
+        postings.clear();
+        tokens.clear();
+    }
+
+    /**
+     * Finds the tokens in this index that are similar to at least one of the given search terms
+     * (case-insensitive): within getMaxEdits(term) edits of it. Only the tokens sharing at least
+     * (number of trigrams of the term) - 3 * getMaxEdits(term) trigrams with a term are compared to
+     * it.
+     *
+     * @param terms the search terms, possibly misspelled
+     * @return the tokens similar to any of the terms, or an empty Set if none are
+     */
+    @NotNull Set<@NotNull String> findSimilar(@NotNull Set<@NotNull String> terms) {
+        Set<String> similar = new HashSet<>();
+        for (String rawTerm : terms) {
+            String term = rawTerm.toLowerCase(Locale.ROOT);
+            int maxEdits = getMaxEdits(term);
+            if (maxEdits == 0) {
+                if (tokens.contains(term)) {
+                    similar.add(term);
+                }
+                continue;
+            }
+
+            Set<String> grams = trigrams(term);
+            Map<String, Integer> sharedCounts = new HashMap<>();
+            for (String gram : grams) {
+                for (String token : postings.getOrDefault(gram, Set.of())) {
+                    if (Math.abs(token.length() - term.length()) <= maxEdits) {
+                        sharedCounts.merge(token, 1, Integer::sum);
+                    }
+                }
+            }
+            int minShared = grams.size() - N * maxEdits;
+            for (Map.Entry<String, Integer> candidate : sharedCounts.entrySet()) {
+                if (candidate.getValue() >= minShared
+                        && isWithinEditDistance(term, candidate.getKey(), maxEdits)) {
+                    similar.add(candidate.getKey());
+                }
+            }
+        }
+        return similar;
+    }
+}
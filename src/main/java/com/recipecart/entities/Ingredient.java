@@ -14,6 +14,10 @@ public final class Ingredient implements Serializable {
     private final @Nullable String units;
     private final @Nullable String imageUri;
 
+    // cached on first use, like String's hash; transient so that it doesn't change the serialized
+    // form, and 0 after deserialization so that it's recomputed then
+    private transient int hash;
+
     /**
      * Creates an Ingredient with the given information
      *
@@ -58,6 +62,7 @@ public final class Ingredient implements Serializable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Ingredient ing = (Ingredient) o;
+        if (hashCode() != ing.hashCode()) return false;
         return Objects.equals(getName(), ing.getName())
                 && Objects.equals(getUnits(), ing.getUnits())
                 && Objects.equals(getImageUri(), ing.getImageUri());
@@ -65,6 +70,11 @@ public final class Ingredient implements Serializable {
 
     @Override
     public int hashCode() {
-        return Objects.hash(getName(), getUnits(), getImageUri());
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hash(getName(), getUnits(), getImageUri());
+            hash = h;
+        }
+        return h;
     }
 }
@@ -24,6 +24,9 @@ public final class Recipe {
     private final @NotNull Set<@NotNull Tag> tags;
     private final @NotNull Map<@NotNull Ingredient, @NotNull Double> requiredIngredients;
 
+    // computed once, since this class is immutable and is often used as a hash key
+    private final int hashCode;
+
     private Recipe(
             @Nullable String name,
             @Nullable String presentationName,
@@ -49,6 +52,7 @@ public final class Recipe {
         this.directions = directions;
         this.tags = tags;
         this.requiredIngredients = requiredIngredients;
+        this.hashCode = computeHashCode();
     }
 
     /**
@@ -140,6 +144,7 @@ public final class Recipe {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Recipe recipe = (Recipe) o;
+        if (hashCode != recipe.hashCode) return false;
         return Double.compare(recipe.getAvgRating(), getAvgRating()) == 0
                 && getNumRatings() == recipe.getNumRatings()
                 && Objects.equals(getName(), recipe.getName())
@@ -156,6 +161,10 @@ public final class Recipe {
 
     @Override
     public int hashCode() {
+        return hashCode;
+    }
+
+    private int computeHashCode() {
         return Objects.hash(
                 getName(),
                 getPresentationName(),
@@ -12,27 +12,33 @@ import org.jetbrains.annotations.Nullable;
 public final class User {
     private final @Nullable String username; // EntityStorage's "unique identifier" for User
     private final @Nullable String emailAddress;
-    private final @NotNull List<@NotNull Recipe> authoredRecipes;
-    private final @NotNull List<@NotNull Recipe> savedRecipes;
-    private final @NotNull Map<@NotNull Recipe, @NotNull Double> ratedRecipes;
+    // Recipes are kept by (non-presentation) name, EntityStorage's "unique identifier" for Recipe,
+    // so that lookups are cheap and this User doesn't hold copies that go stale
+    private final @NotNull Set<String> authoredRecipeNames;
+    private final @NotNull Set<String> savedRecipeNames;
+    private final @NotNull Map<String, @NotNull Double> recipeRatings;
     private final @NotNull Set<@NotNull Ingredient> ownedIngredients;
     private final @NotNull Map<@NotNull Ingredient, @NotNull Double> shoppingList;
 
+    // computed once, since this class is immutable and is often used as a hash key
+    private final int hashCode;
+
     private User(
             @Nullable String username,
             @Nullable String emailAddress,
-            @NotNull List<@NotNull Recipe> authoredRecipes,
-            @NotNull List<@NotNull Recipe> savedRecipes,
-            @NotNull Map<@NotNull Recipe, @NotNull Double> ratedRecipes,
+            @NotNull Set<String> authoredRecipeNames,
+            @NotNull Set<String> savedRecipeNames,
+            @NotNull Map<String, @NotNull Double> recipeRatings,
             @NotNull Set<@NotNull Ingredient> ownedIngredients,
             @NotNull Map<@NotNull Ingredient, @NotNull Double> shoppingList) {
         this.username = username;
         this.emailAddress = emailAddress;
-        this.authoredRecipes = authoredRecipes;
-        this.savedRecipes = savedRecipes;
-        this.ratedRecipes = ratedRecipes;
+        this.authoredRecipeNames = authoredRecipeNames;
+        this.savedRecipeNames = savedRecipeNames;
+        this.recipeRatings = recipeRatings;
         this.ownedIngredients = ownedIngredients;
         this.shoppingList = shoppingList;
+        this.hashCode = computeHashCode();
     }
 
     /**
@@ -50,25 +56,31 @@ public final class User {
     }
 
     /**
-     * @return an unmodifiable list with the Recipes this User has authored
+     * Gets the (non-presentation) names of the Recipes this User has authored, in the order they
+     * were given. The Recipes themselves can be loaded with EntityLoader.getRecipesByNames.
+     *
+     * @return an unmodifiable set with the names of the Recipes this User has authored
      */
-    @NotNull public List<@NotNull Recipe> getAuthoredRecipes() {
-        return Collections.unmodifiableList(authoredRecipes);
+    @NotNull public Set<String> getAuthoredRecipeNames() {
+        return Collections.unmodifiableSet(authoredRecipeNames);
     }
 
     /**
-     * @return an unmodifiable list with the Recipes this User has saved
+     * Gets the (non-presentation) names of the Recipes this User has saved, in the order they were
+     * given. The Recipes themselves can be loaded with EntityLoader.getRecipesByNames.
+     *
+     * @return an unmodifiable set with the names of the Recipes this User has saved
      */
-    @NotNull public List<@NotNull Recipe> getSavedRecipes() {
-        return Collections.unmodifiableList(savedRecipes);
+    @NotNull public Set<String> getSavedRecipeNames() {
+        return Collections.unmodifiableSet(savedRecipeNames);
     }
 
     /**
-     * @return an unmodifiable map with the Recipes this User has rated, with the associated ratings
-     *     the User has given
+     * @return an unmodifiable map with the (non-presentation) names of the Recipes this User has
+     *     rated, with the associated ratings the User has given
      */
-    @NotNull public Map<@NotNull Recipe, @NotNull Double> getRatedRecipes() {
-        return Collections.unmodifiableMap(ratedRecipes);
+    @NotNull public Map<String, @NotNull Double> getRecipeRatings() {
+        return Collections.unmodifiableMap(recipeRatings);
     }
 
     /**
@@ -86,28 +98,63 @@ public final class User {
         return Collections.unmodifiableMap(shoppingList);
     }
 
+    /**
+     * Checks whether this User has authored a Recipe with the given name, in constant time.
+     *
+     * @param recipeName the (non-presentation) name of the Recipe
+     * @return whether one of this User's authored Recipes has the given name
+     */
+    public boolean hasAuthoredRecipe(@Nullable String recipeName) {
+        return authoredRecipeNames.contains(recipeName);
+    }
+
+    /**
+     * Checks whether this User has saved a Recipe with the given name, in constant time.
+     *
+     * @param recipeName the (non-presentation) name of the Recipe
+     * @return whether one of this User's saved Recipes has the given name
+     */
+    public boolean hasSavedRecipe(@Nullable String recipeName) {
+        return savedRecipeNames.contains(recipeName);
+    }
+
+    /**
+     * Gets the rating this User gave the Recipe with the given name, in constant time.
+     *
+     * @param recipeName the (non-presentation) name of the Recipe
+     * @return the rating this User gave the Recipe, or null if this User hasn't rated it
+     */
+    @Nullable public Double getRatingOf(@Nullable String recipeName) {
+        return recipeRatings.get(recipeName);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         User user = (User) o;
+        if (hashCode != user.hashCode) return false;
         return Objects.equals(getUsername(), user.getUsername())
                 && Objects.equals(getEmailAddress(), user.getEmailAddress())
-                && getAuthoredRecipes().equals(user.getAuthoredRecipes())
-                && getSavedRecipes().equals(user.getSavedRecipes())
-                && getRatedRecipes().equals(user.getRatedRecipes())
+                && getAuthoredRecipeNames().equals(user.getAuthoredRecipeNames())
+                && getSavedRecipeNames().equals(user.getSavedRecipeNames())
+                && getRecipeRatings().equals(user.getRecipeRatings())
                 && getOwnedIngredients().equals(user.getOwnedIngredients())
                 && getShoppingList().equals(user.getShoppingList());
     }
 
     @Override
     public int hashCode() {
+        return hashCode;
+    }
+
+    private int computeHashCode() {
         return Objects.hash(
                 getUsername(),
                 getEmailAddress(),
-                getAuthoredRecipes(),
-                getSavedRecipes(),
-                getRatedRecipes(),
+                getAuthoredRecipeNames(),
+                getSavedRecipeNames(),
+                getRecipeRatings(),
                 getOwnedIngredients(),
                 getShoppingList());
     }
@@ -122,17 +169,17 @@ public final class User {
     public static class Builder {
         private @Nullable String username;
         private @Nullable String emailAddress;
-        private @NotNull List<@NotNull Recipe> authoredRecipes;
-        private @NotNull List<@NotNull Recipe> savedRecipes;
-        private @NotNull Map<@NotNull Recipe, @NotNull Double> ratedRecipes;
+        private @NotNull Collection<String> authoredRecipeNames;
+        private @NotNull Collection<String> savedRecipeNames;
+        private @NotNull Map<String, @NotNull Double> recipeRatings;
         private @NotNull Set<@NotNull Ingredient> ownedIngredients;
         private @NotNull Map<@NotNull Ingredient, @NotNull Double> shoppingList;
 
         /** Initializes all fields to their defaults. */
         public Builder() {
-            authoredRecipes = Collections.emptyList();
-            savedRecipes = Collections.emptyList();
-            ratedRecipes = Collections.emptyMap();
+            authoredRecipeNames = Collections.emptySet();
+            savedRecipeNames = Collections.emptySet();
+            recipeRatings = Collections.emptyMap();
             ownedIngredients = Collections.emptySet();
             shoppingList = Collections.emptyMap();
         }
@@ -146,9 +193,9 @@ public final class User {
             this();
             setUsername(toCopy.getUsername())
                     .setEmailAddress(toCopy.getEmailAddress())
-                    .setAuthoredRecipes(toCopy.getAuthoredRecipes())
-                    .setSavedRecipes(toCopy.getSavedRecipes())
-                    .setRatedRecipes(toCopy.getRatedRecipes())
+                    .setAuthoredRecipeNames(toCopy.getAuthoredRecipeNames())
+                    .setSavedRecipeNames(toCopy.getSavedRecipeNames())
+                    .setRecipeRatings(toCopy.getRecipeRatings())
                     .setOwnedIngredients(toCopy.getOwnedIngredients())
                     .setShoppingList(toCopy.getShoppingList());
         }
@@ -161,9 +208,9 @@ public final class User {
             return new User(
                     username,
                     emailAddress,
-                    new ArrayList<>(authoredRecipes),
-                    new ArrayList<>(savedRecipes),
-                    new HashMap<>(ratedRecipes),
+                    new LinkedHashSet<>(authoredRecipeNames),
+                    new LinkedHashSet<>(savedRecipeNames),
+                    new HashMap<>(recipeRatings),
                     new HashSet<>(ownedIngredients),
                     new HashMap<>(shoppingList));
         }
@@ -191,7 +238,25 @@ public final class User {
         }
 
         /**
-         * Sets the authored recipes of the User that is to be built
+         * Sets the authored recipes of the User that is to be built, by (non-presentation) name
+         *
+         * @param authoredRecipeNames the names of the recipes the User authored; cannot be null or
+         *     have null elements
+         * @return this
+         */
+        public Builder setAuthoredRecipeNames(
+                @NotNull Collection<@NotNull String> authoredRecipeNames) {
+            Utils.requireAllNotNull(
+                    authoredRecipeNames,
+                    "Authored Recipe name collection cannot be null",
+                    "Individual authored Recipe names cannot be null");
+            this.authoredRecipeNames = authoredRecipeNames;
+            return this;
+        }
+
+        /**
+         * Sets the authored recipes of the User that is to be built. Only the recipes' names are
+         * kept.
          *
          * @param authoredRecipes the recipes the User authored; cannot be null or have null
          *     elements
@@ -202,12 +267,28 @@ public final class User {
                     authoredRecipes,
                     "Authored Recipe list cannot be null",
                     "Individual authored Recipes cannot be null");
-            this.authoredRecipes = authoredRecipes;
+            this.authoredRecipeNames = Utils.fromRecipeList(authoredRecipes);
+            return this;
+        }
+
+        /**
+         * Sets the saved recipes of the User that is to be built, by (non-presentation) name
+         *
+         * @param savedRecipeNames the names of the recipes the User saved; cannot be null or have
+         *     null elements
+         * @return this
+         */
+        public Builder setSavedRecipeNames(@NotNull Collection<@NotNull String> savedRecipeNames) {
+            Utils.requireAllNotNull(
+                    savedRecipeNames,
+                    "Saved Recipe name collection cannot be null",
+                    "Individual saved Recipe names cannot be null");
+            this.savedRecipeNames = savedRecipeNames;
             return this;
         }
 
         /**
-         * Sets the saved recipes of the User that is to be built
+         * Sets the saved recipes of the User that is to be built. Only the recipes' names are kept.
          *
          * @param savedRecipes the recipes the User saved; cannot be null or have null elements
          * @return this
@@ -217,12 +298,31 @@ public final class User {
                     savedRecipes,
                     "Saved Recipe list cannot be null",
                     "Individual saved Recipes cannot be null");
-            this.savedRecipes = savedRecipes;
+            this.savedRecipeNames = Utils.fromRecipeList(savedRecipes);
+            return this;
+        }
+
+        /**
+         * Sets the rated recipes of the User that is to be built, by (non-presentation) name
+         *
+         * @param recipeRatings the names of the recipes the User rated (with what ratings the User
+         *     gave); cannot be null or have null elements
+         * @return this
+         */
+        public Builder setRecipeRatings(
+                @NotNull Map<@NotNull String, @NotNull Double> recipeRatings) {
+            Utils.requireAllMapNotNull(
+                    recipeRatings,
+                    "Recipe rating map cannot be null",
+                    "Individual rated Recipe names cannot be null",
+                    "Recipe ratings cannot be null");
+            this.recipeRatings = recipeRatings;
             return this;
         }
 
         /**
-         * Sets the rated recipes of the User that is to be built
+         * Sets the rated recipes of the User that is to be built. Only the recipes' names are
+         * kept.
          *
          * @param ratedRecipes the recipes the User rated (with what ratings the User gave); cannot
          *     be null or have null elements
@@ -235,7 +335,7 @@ public final class User {
                     "Rated Recipe map set cannot be null",
                     "Individual rated Recipes cannot be null",
                     "Recipe ratings cannot be null");
-            this.ratedRecipes = ratedRecipes;
+            this.recipeRatings = Utils.fromRecipeMap(ratedRecipes);
             return this;
         }
 
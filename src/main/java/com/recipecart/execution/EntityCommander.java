@@ -3,30 +3,102 @@ package com.recipecart.execution;
 
 import com.recipecart.storage.EntityStorage;
 import com.recipecart.usecases.EntityCommand;
+import com.recipecart.utils.VirtualThreads;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * This class represents the way for things outside the Business Logic Layer to perform Business
- * Logic use cases.
+ * Logic use cases. Commands can be executed on the caller's thread, or asynchronously on a
+ * dedicated executor, which bounds how many commands use the storage source at once. Commands
+ * submitted while the executor is at that bound wait in its queue.
  */
 public class EntityCommander {
+    /** The kinds of executor that a Commander can execute commands asynchronously on. */
+    public enum ExecutorMode {
+        /** Asynchronous commands are executed right away on the thread that submits them. */
+        DIRECT,
+        /** Asynchronous commands are executed on a fixed-size pool of threads, in FIFO order. */
+        FIXED,
+        /**
+         * Asynchronous commands are executed on a work-stealing pool (a ForkJoinPool), which has
+         * less contention on its queues than a fixed-size pool.
+         */
+        WORK_STEALING,
+        /**
+         * Asynchronous commands are each executed on a new virtual thread, so commands blocked on
+         * storage I/O don't hold up any platform threads. Needs Java 21 or later at runtime.
+         */
+        VIRTUAL
+    }
+
     private final @NotNull EntityStorage storage;
+    private final @NotNull ExecutorMode executorMode;
+    private final @Nullable ExecutorService executor; // null in DIRECT mode
+    private final @Nullable Semaphore permits; // bounds executing commands in VIRTUAL mode only
+    private final AtomicInteger queued = new AtomicInteger(), executing = new AtomicInteger();
 
     /**
      * Creates a Commander that makes the commands it executes uses the given storage source.
+     * Asynchronous commands are executed on the thread that submits them.
      *
      * @param storage the storage source that executed commands will use
      */
     public EntityCommander(@NotNull EntityStorage storage) {
+        this(storage, ExecutorMode.DIRECT, 1);
+    }
+
+    /**
+     * Creates a Commander that makes the commands it executes uses the given storage source, and
+     * that executes asynchronous commands on an executor of the given kind.
+     *
+     * @param storage the storage source that executed commands will use
+     * @param executorMode the kind of executor to execute asynchronous commands on
+     * @param numThreads the maximum number of commands executed at once on the executor; ignored
+     *     in DIRECT mode
+     * @throws IllegalArgumentException if numThreads isn't positive
+     * @throws UnsupportedOperationException if executorMode is VIRTUAL, but virtual threads aren't
+     *     supported by this Java runtime
+     */
+    public EntityCommander(
+            @NotNull EntityStorage storage, @NotNull ExecutorMode executorMode, int numThreads) {
+        if (numThreads <= 0) {
+            throw new IllegalArgumentException("numThreads must be positive");
+        }
         this.storage = storage;
+        this.executorMode = executorMode;
+        switch (executorMode) {
+            case FIXED:
+                executor = Executors.newFixedThreadPool(numThreads);
+                break;
+            case WORK_STEALING:
+                executor = Executors.newWorkStealingPool(numThreads);
+                break;
+            case VIRTUAL:
+                executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+                break;
+            default:
+                executor = null;
+        }
+        permits = executorMode == ExecutorMode.VIRTUAL ? new Semaphore(numThreads) : null;
     }
 
     @NotNull public EntityStorage getStorageSource() {
         return storage;
     }
 
+    @NotNull public ExecutorMode getExecutorMode() {
+        return executorMode;
+    }
+
     /**
-     * Executes the given command.
+     * Executes the given command on the calling thread.
      *
      * @param command the command to execute
      */
@@ -34,4 +106,90 @@ public class EntityCommander {
         command.setStorageSource(getStorageSource());
         command.execute();
     }
+
+    /**
+     * Executes the given command on this Commander's executor. In DIRECT mode, the command is
+     * executed on the calling thread before this method returns.
+     *
+     * @param command the command to execute
+     * @return a future that completes with the given command once it has finished executing, or
+     *     completes exceptionally if the command threw an exception, or couldn't be submitted
+     *     because this Commander was shut down
+     */
+    public @NotNull CompletableFuture<EntityCommand> executeAsync(@NotNull EntityCommand command) {
+        queued.incrementAndGet();
+        if (executor == null) {
+            return CompletableFuture.supplyAsync(() -> executeQueued(command), Runnable::run);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> executeQueued(command), executor);
+        } catch (RuntimeException e) { // rejected by a shut-down executor
+            queued.decrementAndGet();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Executes the given command asynchronously, so that it can execute at the same time as other
+     * commands given to this method (e.g. the read-only commands of a batch). This is the same as
+     * executeAsync, except that in DIRECT mode, the command is executed on the default executor of
+     * CompletableFuture (usually the common ForkJoinPool) instead of on the calling thread.
+     *
+     * @param command the command to execute
+     * @return a future that completes in the same way as the one returned by executeAsync
+     */
+    public @NotNull CompletableFuture<EntityCommand> executeConcurrently(
+            @NotNull EntityCommand command) {
+        if (executor != null) {
+            return executeAsync(command);
+        }
+        queued.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> executeQueued(command));
+    }
+
+    private EntityCommand executeQueued(EntityCommand command) {
+        if (permits != null) {
+            permits.acquireUninterruptibly();
+        }
+        queued.decrementAndGet();
+        executing.incrementAndGet();
+        try {
+            execute(command);
+            return command;
+        } finally {
+            executing.decrementAndGet();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * @return the number of asynchronous commands that were submitted, but haven't started
+     *     executing yet
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /** @return the number of asynchronous commands that are executing right now */
+    public int getExecutingCount() {
+        return executing.get();
+    }
+
+    /**
+     * Stops this Commander from taking any more asynchronous commands, and waits for the ones
+     * already submitted to finish executing.
+     *
+     * @param timeoutMillis the maximum time to wait, in milliseconds
+     * @return true if all submitted commands finished executing, false if the wait timed out
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean shutdown(long timeoutMillis) throws InterruptedException {
+        if (executor == null) {
+            return true;
+        }
+        executor.shutdown();
+        return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
 }
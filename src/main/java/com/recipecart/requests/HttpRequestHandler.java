@@ -5,18 +5,27 @@ import static spark.Spark.*;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
 import com.recipecart.entities.Recipe;
 import com.recipecart.entities.Tag;
 import com.recipecart.execution.EntityCommander;
+import com.recipecart.storage.RecipeFilter;
 import com.recipecart.usecases.*;
 import com.recipecart.utils.Utils;
+import com.recipecart.utils.VirtualThreads;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import spark.Request;
 import spark.Response;
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
 
 /**
  * This class takes requests from the front-end to do some use case, tells the Business Logic Layer
@@ -32,6 +41,22 @@ public class HttpRequestHandler {
     private static final String APPLICATION_JSON = "application/json";
     private static final String UNAUTHORIZED_MESSAGE =
             "User is not properly authorized to do this task";
+    private static final String COMMAND_METRICS_MESSAGE = "Command metrics retrieved";
+    static final int MAX_BATCH_OPERATIONS = 100;
+    static final String OK_BATCH_EXECUTED =
+                    "Batch executed: each operation's result is in the order it was given",
+            NOT_OK_INVALID_BATCH =
+                    "Batch unsuccessful: there must be between 1 and "
+                            + MAX_BATCH_OPERATIONS
+                            + " operations",
+            NOT_OK_INVALID_BATCH_OPERATION =
+                    "Operation unsuccessful: the operation or its entity type is missing or"
+                            + " invalid";
+    static final String NOT_OK_INVALID_EXPAND =
+            "Request unsuccessful: expand must be a comma-separated list of ingredients, tags,"
+                    + " and/or author";
+    private static final CommandCall INVALID_BATCH_OPERATION =
+            CommandCall.rejected(NOT_OK_INVALID_BATCH_OPERATION, ResponseBodies.WithMessage::new);
     private static final String ACCESS_CONTROL_ALLOW_ORIGIN = "Access-Control-Allow-Origin";
     private static final Map<String, Integer> messageToStatusCode =
             initializeExecutionMessageToStatusCodeTranslator();
@@ -39,6 +64,7 @@ public class HttpRequestHandler {
     private final @NotNull EntityCommander commander;
     private final @NotNull JwtValidator loginChecker;
     private final int listenPort;
+    private final boolean virtualThreads;
 
     private final Gson gson = new GsonBuilder().serializeSpecialFloatingPointValues().create();
 
@@ -54,13 +80,47 @@ public class HttpRequestHandler {
             @NotNull EntityCommander commander,
             @NotNull JwtValidator loginChecker,
             int listenPort) {
+        this(commander, loginChecker, listenPort, false);
+    }
+
+    /**
+     * Creates a handler that sends its commands to the given EntityCommander, validates logins with
+     * the given LoginValidator, and listens in on the given port. If virtualThreads is true, each
+     * request is taken on a new virtual thread, instead of on a thread of the web server's fixed
+     * thread pool.
+     *
+     * @param commander where commands are executed
+     * @param loginChecker where logins are verified
+     * @param listenPort the port for this handler to listen on
+     * @param virtualThreads whether to take requests on virtual threads; needs Java 21 or later
+     */
+    public HttpRequestHandler(
+            @NotNull EntityCommander commander,
+            @NotNull JwtValidator loginChecker,
+            int listenPort,
+            boolean virtualThreads) {
         this.commander = commander;
         this.loginChecker = loginChecker;
         this.listenPort = listenPort;
+        this.virtualThreads = virtualThreads;
     }
 
-    /** Gets this handler to start taking requests from the front-end. */
+    /**
+     * Gets this handler to start taking requests from the front-end.
+     *
+     * @throws UnsupportedOperationException if this handler takes requests on virtual threads, but
+     *     they aren't supported by this Java runtime
+     */
     public void startHandler() {
+        if (virtualThreads) {
+            if (!VirtualThreads.isSupported()) {
+                throw new UnsupportedOperationException(
+                        "Virtual threads aren't supported by this Java runtime");
+            }
+            EmbeddedServers.add(
+                    EmbeddedServers.Identifiers.JETTY,
+                    new EmbeddedJettyFactory().withThreadPool(new VirtualThreadPool()));
+        }
         port(listenPort);
         get("/search/recipes", APPLICATION_JSON, this::handleSearchRecipesRequest, gson::toJson);
         get("/search/users", APPLICATION_JSON, this::handleSearchUsersRequest, gson::toJson);
@@ -70,6 +130,19 @@ public class HttpRequestHandler {
                 this::handleSearchIngredientsRequest,
                 gson::toJson);
         get("/search/tags", APPLICATION_JSON, this::handleSearchTagsRequest, gson::toJson);
+        get(
+                "/search/cookable-recipes",
+                APPLICATION_JSON,
+                this::handleSearchCookableRecipesRequest,
+                gson::toJson);
+        get("/suggest/recipes", APPLICATION_JSON, this::handleSuggestRecipesRequest, gson::toJson);
+        get("/suggest/users", APPLICATION_JSON, this::handleSuggestUsersRequest, gson::toJson);
+        get(
+                "/suggest/ingredients",
+                APPLICATION_JSON,
+                this::handleSuggestIngredientsRequest,
+                gson::toJson);
+        get("/suggest/tags", APPLICATION_JSON, this::handleSuggestTagsRequest, gson::toJson);
         post("/create/recipe", APPLICATION_JSON, this::handleCreateRecipeRequest, gson::toJson);
         post("/create/user", APPLICATION_JSON, this::handleCreateUserRequest, gson::toJson);
         post(
@@ -86,6 +159,10 @@ public class HttpRequestHandler {
                 gson::toJson);
         get("/recipes/:recipe", APPLICATION_JSON, this::handleGetRecipeRequest, gson::toJson);
         get("/users/:user", APPLICATION_JSON, this::handleGetUserRequest, gson::toJson);
+        get("/tags", APPLICATION_JSON, this::handleGetTagsRequest, gson::toJson);
+        get("/ingredients", APPLICATION_JSON, this::handleGetIngredientsRequest, gson::toJson);
+        get("/recipes", APPLICATION_JSON, this::handleGetRecipesRequest, gson::toJson);
+        get("/users", APPLICATION_JSON, this::handleGetUsersRequest, gson::toJson);
         post("/bookmark/recipe", APPLICATION_JSON, this::handleBookmarkRecipeRequest, gson::toJson);
         post(
                 "/shopping-list/add-ingredients",
@@ -97,6 +174,8 @@ public class HttpRequestHandler {
                 APPLICATION_JSON,
                 this::handleAddRecipeToShoppingListRequest,
                 gson::toJson);
+        post("/batch", APPLICATION_JSON, this::handleBatchRequest, gson::toJson);
+        get("/metrics/commands", APPLICATION_JSON, this::handleCommandMetricsRequest, gson::toJson);
     }
 
     private boolean isAuthorized(RequestBodies.WithLoginRequired requestBodyDetails) {
@@ -105,19 +184,27 @@ public class HttpRequestHandler {
         // return loginChecker.checkValidity(requestBodyDetails.getEncryptedJwtToken());
     }
 
-    private String handleUnauthorized(Response response) {
-        response.status(messageToStatusCode.get(UNAUTHORIZED_MESSAGE));
-        response.type(APPLICATION_JSON);
-        return UNAUTHORIZED_MESSAGE;
-    }
-
-    private String handleCommand(EntityCommand command, Response response) {
-        commander.execute(command);
-        String message = command.getExecutionMessage();
+    private Object respond(CommandCall call, Response response) {
+        if (call.getCommand() != null) {
+            // Executes on the commander's executor, which only bounds how many commands use the
+            // storage at once: this request's thread is still held until the command finishes.
+            await(commander.executeAsync(call.getCommand()));
+        }
+        String message = call.getMessage();
         response.status(messageToStatusCode.get(message));
         response.header(ACCESS_CONTROL_ALLOW_ORIGIN, "*"); // allow requests from all origins
         response.type(APPLICATION_JSON);
-        return message;
+        return call.makeResponseBody();
+    }
+
+    // a command that couldn't finish executing (e.g. it was rejected by a shut-down executor) is
+    // left unfinished, which its call reports as an internal error
+    private static void await(CompletableFuture<EntityCommand> execution) {
+        try {
+            execution.join();
+        } catch (CompletionException | CancellationException e) {
+            e.printStackTrace();
+        }
     }
 
     private <T> T getRequestBodyDetails(Request request, Class<T> classOfT) {
@@ -125,221 +212,736 @@ public class HttpRequestHandler {
     }
 
     private Set<String> getQueryArgumentWords(Request request, String queryParam) {
-        String rawSearchTerms = request.queryParams(queryParam);
-        return Utils.allowNull(rawSearchTerms, (str) -> Set.of(str.split("\\s+")));
+        return getWords(request.queryParams(queryParam));
+    }
+
+    private static Set<String> getWords(String rawWords) {
+        return Utils.allowNull(rawWords, (str) -> Set.of(str.split("\\s+")));
+    }
+
+    private List<String> getQueryArgumentNames(Request request, String queryParam) {
+        return Utils.allowNull(
+                request.queryParams(queryParam), (str) -> Arrays.asList(str.split(",")));
+    }
+
+    // a number that isn't well-formed is returned as -1, which search commands reject as invalid
+    private static int getQueryArgumentInt(Request request, String queryParam, int defaultValue) {
+        String rawInt = request.queryParams(queryParam);
+        if (rawInt == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(rawInt.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // like getQueryArgumentInt, but returns null if there's no query argument
+    private static @Nullable Integer getQueryArgumentOptionalInt(
+            Request request, String queryParam) {
+        if (request.queryParams(queryParam) == null) {
+            return null;
+        }
+        return getQueryArgumentInt(request, queryParam, -1);
+    }
+
+    // a number that isn't well-formed is returned as -1, which recipe filters reject as invalid
+    private static @Nullable Double getQueryArgumentOptionalDouble(
+            Request request, String queryParam) {
+        String rawDouble = request.queryParams(queryParam);
+        if (rawDouble == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(rawDouble.trim());
+        } catch (NumberFormatException e) {
+            return -1.0;
+        }
+    }
+
+    private Set<String> getQueryArgumentNameSet(Request request, String queryParam) {
+        List<String> names = getQueryArgumentNames(request, queryParam);
+        return names != null ? new HashSet<>(names) : Collections.emptySet();
+    }
+
+    // only "true" (in any case) turns on a flag; anything else, including no argument, turns it off
+    private static boolean getQueryArgumentFlag(Request request, String queryParam) {
+        String rawFlag = request.queryParams(queryParam);
+        return rawFlag != null && rawFlag.trim().equalsIgnoreCase("true");
+    }
+
+    private static int getOffset(Request request) {
+        return getQueryArgumentInt(request, "offset", 0);
+    }
+
+    // searches get a page of MAX_LIMIT matches if no limit is given
+    private static int getLimit(Request request) {
+        return getQueryArgumentInt(request, "limit", AbstractSearchCommand.MAX_LIMIT);
     }
 
-    private <T> Object handleGetEntityRequest(
-            Request request,
-            Response response,
-            String paramName,
+    // returns null if the query argument is something other than an order recipes can be in
+    private static @Nullable SearchRecipesCommand.Order getRecipeSearchOrder(
+            Request request, String queryParam) {
+        String rawOrder = request.queryParams(queryParam);
+        if (rawOrder == null) {
+            return SearchRecipesCommand.Order.NAME;
+        }
+        try {
+            return SearchRecipesCommand.Order.valueOf(rawOrder.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // criteria that aren't given as query arguments don't filter out any recipes; returns null if
+    // no criteria are given, so that unfiltered searches don't take the filtered (and faceted) path
+    private @Nullable RecipeFilter getRecipeFilter(Request request) {
+        RecipeFilter filter =
+                new RecipeFilter.Builder()
+                        .setTagNames(getQueryArgumentNameSet(request, "tags"))
+                        .setMaxTotalTime(getQueryArgumentOptionalInt(request, "maxTime"))
+                        .setMinNumServings(getQueryArgumentOptionalInt(request, "minServings"))
+                        .setMaxNumServings(getQueryArgumentOptionalInt(request, "maxServings"))
+                        .setMinAvgRating(getQueryArgumentOptionalDouble(request, "minRating"))
+                        .setRequiredIngredientNames(
+                                getQueryArgumentNameSet(request, "withIngredients"))
+                        .setExcludedIngredientNames(
+                                getQueryArgumentNameSet(request, "withoutIngredients"))
+                        .build();
+        return filter.isEmpty() ? null : filter;
+    }
+
+    // returns null if the query argument has something other than the parts that can be expanded
+    private static @Nullable Set<RecipeExpansion.Part> getExpansionParts(
+            Request request, String queryParam) {
+        String rawParts = request.queryParams(queryParam);
+        Set<RecipeExpansion.Part> parts = EnumSet.noneOf(RecipeExpansion.Part.class);
+        if (rawParts == null) {
+            return parts;
+        }
+        for (String rawPart : rawParts.split(",")) {
+            try {
+                parts.add(RecipeExpansion.Part.valueOf(rawPart.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return parts;
+    }
+
+    private <T> CommandCall makeGetEntityCall(
+            String entityName,
             Function<String, ? extends SimpleGetCommand<T>> commandMaker,
             BiFunction<String, ? super T, ? extends ResponseBodies.WithMessage> responseMaker) {
-        String entityName = request.params(paramName);
-
         SimpleGetCommand<T> command = commandMaker.apply(entityName);
-        String executionMessage = handleCommand(command, response);
+        return new CommandCall(
+                command,
+                true,
+                (message) -> responseMaker.apply(message, command.getRetrievedEntity()));
+    }
 
-        return responseMaker.apply(executionMessage, command.getRetrievedEntity());
+    private <T> CommandCall makeMultiGetCall(
+            List<String> entityNames,
+            Function<List<String>, ? extends SimpleMultiGetCommand<T>> commandMaker,
+            MultiRetrievalResponseMaker<T> responseMaker) {
+        SimpleMultiGetCommand<T> command = commandMaker.apply(entityNames);
+        return new CommandCall(
+                command,
+                true,
+                (message) ->
+                        responseMaker.make(
+                                message,
+                                command.getRetrievedEntities(),
+                                command.getMissingNames()));
     }
 
-    private <T> Object handleSimplePostRequest(
-            Request request,
-            Response response,
+    private <T> CommandCall makeSimplePostCall(
+            T bodyDetails,
             boolean authenticationRequired,
-            Class<T> requestBodyClass,
             Function<? super T, ? extends EntityCommand> commandMaker) {
-        T bodyDetails = getRequestBodyDetails(request, requestBodyClass);
-
-        String executionMessage;
         if (!authenticationRequired
                 || isAuthorized((RequestBodies.WithLoginRequired) bodyDetails)) {
-            EntityCommand command = commandMaker.apply(bodyDetails);
-            executionMessage = handleCommand(command, response);
+            return new CommandCall(
+                    commandMaker.apply(bodyDetails), false, ResponseBodies.WithMessage::new);
         } else {
-            executionMessage = handleUnauthorized(response);
+            return CommandCall.rejected(UNAUTHORIZED_MESSAGE, ResponseBodies.WithMessage::new);
         }
+    }
+
+    private <T> CommandCall makeSearchCall(
+            AbstractSearchCommand<T> searchCommand, SearchResponseMaker<T> responseMaker) {
+        return new CommandCall(
+                searchCommand,
+                true,
+                (message) ->
+                        responseMaker.make(
+                                message,
+                                searchCommand.getMatchingEntities(),
+                                searchCommand.getNextOffset()));
+    }
+
+    private <T> CommandCall makeSuggestCall(
+            AbstractSuggestCommand<T> suggestCommand, SearchResponseMaker<T> responseMaker) {
+        return new CommandCall(
+                suggestCommand,
+                true,
+                (message) ->
+                        responseMaker.make(message, suggestCommand.getSuggestedEntities(), null));
+    }
+
+    private CommandCall makeCreateRecipeCall(RequestBodies.RecipeCreation bodyDetails) {
+        if (!isAuthorized(bodyDetails)) {
+            return CommandCall.rejected(
+                    UNAUTHORIZED_MESSAGE,
+                    (message) -> new ResponseBodies.RecipeCreation(message, null, null));
+        }
+        CreateRecipeCommand command = new CreateRecipeCommand(bodyDetails.getRecipeForm());
+        return new CommandCall(
+                command,
+                false,
+                (message) -> {
+                    Recipe createdRecipe = command.getCreatedRecipe();
+                    return new ResponseBodies.RecipeCreation(
+                            message,
+                            Utils.allowNull(createdRecipe, Recipe::getName),
+                            Utils.allowNull(
+                                    command.getCreatedTags(),
+                                    (t) ->
+                                            t.stream()
+                                                    .map(Tag::toString)
+                                                    .collect(Collectors.toSet())));
+                });
+    }
+
+    private CommandCall makeCreateUserCall(RequestBodies.UserCreation bodyDetails) {
+        return makeSimplePostCall(
+                bodyDetails,
+                false,
+                (details) ->
+                        new CreateUserCommand(details.getUsername(), details.getEmailAddress()));
+    }
+
+    private CommandCall makeCreateIngredientCall(RequestBodies.IngredientCreation bodyDetails) {
+        return makeSimplePostCall(
+                bodyDetails,
+                false,
+                (details) ->
+                        new CreateIngredientCommand(
+                                details.getName(), details.getUnits(), details.getImageUri()));
+    }
+
+    private CommandCall makeCreateTagCall(RequestBodies.TagCreation bodyDetails) {
+        return makeSimplePostCall(
+                bodyDetails, false, (details) -> new CreateTagCommand(details.getName()));
+    }
+
+    private CommandCall makeGetTagCall(String name) {
+        return makeGetEntityCall(name, GetTagCommand::new, ResponseBodies.TagRetrieval::new);
+    }
+
+    private CommandCall makeGetIngredientCall(String name) {
+        return makeGetEntityCall(
+                name, GetIngredientCommand::new, ResponseBodies.IngredientRetrieval::new);
+    }
+
+    private CommandCall makeGetRecipeCall(String name) {
+        return makeGetEntityCall(name, GetRecipeCommand::new, ResponseBodies.RecipeRetrieval::new);
+    }
+
+    private CommandCall makeGetRecipeCall(
+            String name, @Nullable Set<RecipeExpansion.Part> expansionParts) {
+        if (expansionParts == null) {
+            return CommandCall.rejected(NOT_OK_INVALID_EXPAND, ResponseBodies.WithMessage::new);
+        }
+        GetRecipeCommand command = new GetRecipeCommand(name, expansionParts);
+        return new CommandCall(
+                command,
+                true,
+                (message) ->
+                        new ResponseBodies.RecipeRetrieval(
+                                message, command.getRetrievedEntity(), command.getExpansion()));
+    }
+
+    private CommandCall makeGetUserCall(String name) {
+        return makeGetEntityCall(name, GetUserCommand::new, ResponseBodies.UserRetrieval::new);
+    }
+
+    private CommandCall makeGetTagsCall(List<String> names) {
+        return makeMultiGetCall(names, GetTagsCommand::new, ResponseBodies.TagsRetrieval::new);
+    }
+
+    private CommandCall makeGetIngredientsCall(List<String> names) {
+        return makeMultiGetCall(
+                names, GetIngredientsCommand::new, ResponseBodies.IngredientsRetrieval::new);
+    }
 
-        return new ResponseBodies.WithMessage(executionMessage);
+    private CommandCall makeGetRecipesCall(List<String> names) {
+        return makeMultiGetCall(
+                names, GetRecipesCommand::new, ResponseBodies.RecipesRetrieval::new);
     }
 
-    private <T> Object handleSearchRequest(
-            Request request,
-            Response response,
-            Function<? super Set<String>, ? extends AbstractSearchCommand<T>> commandMaker,
-            BiFunction<String, ? super Collection<T>, ? extends ResponseBodies.SearchResponse<?>>
-                    responseMaker) {
-        Set<String> searchTerms = getQueryArgumentWords(request, "terms");
+    private CommandCall makeGetUsersCall(List<String> names) {
+        return makeMultiGetCall(names, GetUsersCommand::new, ResponseBodies.UsersRetrieval::new);
+    }
 
-        AbstractSearchCommand<T> searchCommand = commandMaker.apply(searchTerms);
-        String executionMessage = handleCommand(searchCommand, response);
+    private CommandCall makeSearchRecipesCall(Set<String> searchTerms, int offset, int limit) {
+        return makeSearchCall(
+                new SearchRecipesCommand(searchTerms, offset, limit),
+                ResponseBodies.RecipeSearch::new);
+    }
 
-        return responseMaker.apply(executionMessage, searchCommand.getMatchingEntities());
+    private CommandCall makeSearchRecipesCall(
+            Set<String> searchTerms,
+            int offset,
+            @Nullable Integer limit,
+            @Nullable Set<RecipeExpansion.Part> expansionParts,
+            @Nullable SearchRecipesCommand.Order order,
+            boolean fuzzy,
+            @Nullable RecipeFilter filter) {
+        if (expansionParts == null) {
+            return CommandCall.rejected(NOT_OK_INVALID_EXPAND, ResponseBodies.WithMessage::new);
+        }
+        SearchRecipesCommand command =
+                new SearchRecipesCommand(
+                        searchTerms, offset, limit, expansionParts, order, fuzzy, filter);
+        return makeSearchCall(
+                command,
+                (message, matches, nextOffset) ->
+                        new ResponseBodies.RecipeSearch(
+                                message,
+                                matches,
+                                nextOffset,
+                                command.getExpansion(),
+                                command.getFacets()));
+    }
+
+    private CommandCall makeSearchUsersCall(
+            Set<String> searchTerms, int offset, @Nullable Integer limit) {
+        return makeSearchCall(
+                new SearchUsersCommand(searchTerms, offset, limit),
+                ResponseBodies.UserSearch::new);
+    }
+
+    private CommandCall makeSearchIngredientsCall(
+            Set<String> searchTerms, int offset, @Nullable Integer limit, boolean fuzzy) {
+        return makeSearchCall(
+                new SearchIngredientsCommand(searchTerms, offset, limit, fuzzy),
+                ResponseBodies.IngredientSearch::new);
+    }
+
+    private CommandCall makeSearchTagsCall(
+            Set<String> searchTerms, int offset, @Nullable Integer limit) {
+        return makeSearchCall(
+                new SearchTagsCommand(searchTerms, offset, limit), ResponseBodies.TagSearch::new);
     }
 
     private Object handleSearchRecipesRequest(Request request, Response response) {
-        return handleSearchRequest(
-                request, response, SearchRecipesCommand::new, ResponseBodies.RecipeSearch::new);
+        return respond(
+                makeSearchRecipesCall(
+                        getQueryArgumentWords(request, "terms"),
+                        getOffset(request),
+                        getLimit(request),
+                        getExpansionParts(request, "expand"),
+                        getRecipeSearchOrder(request, "sort"),
+                        getQueryArgumentFlag(request, "fuzzy"),
+                        getRecipeFilter(request)),
+                response);
     }
 
     private Object handleSearchUsersRequest(Request request, Response response) {
-        return handleSearchRequest(
-                request, response, SearchUsersCommand::new, ResponseBodies.UserSearch::new);
+        return respond(
+                makeSearchUsersCall(
+                        getQueryArgumentWords(request, "terms"),
+                        getOffset(request),
+                        getLimit(request)),
+                response);
     }
 
     private Object handleSearchIngredientsRequest(Request request, Response response) {
-        return handleSearchRequest(
-                request,
-                response,
-                SearchIngredientsCommand::new,
-                ResponseBodies.IngredientSearch::new);
+        return respond(
+                makeSearchIngredientsCall(
+                        getQueryArgumentWords(request, "terms"),
+                        getOffset(request),
+                        getLimit(request),
+                        getQueryArgumentFlag(request, "fuzzy")),
+                response);
     }
 
     private Object handleSearchTagsRequest(Request request, Response response) {
-        return handleSearchRequest(
-                request, response, SearchTagsCommand::new, ResponseBodies.TagSearch::new);
+        return respond(
+                makeSearchTagsCall(
+                        getQueryArgumentWords(request, "terms"),
+                        getOffset(request),
+                        getLimit(request)),
+                response);
+    }
+
+    private CommandCall makeSearchCookableRecipesCall(
+            String username, int maxMissing, int offset, int limit) {
+        SearchCookableRecipesCommand command =
+                new SearchCookableRecipesCommand(username, maxMissing, offset, limit);
+        return new CommandCall(
+                command,
+                true,
+                (message) ->
+                        new ResponseBodies.CookableRecipeSearch(
+                                message,
+                                command.getCookableRecipes(),
+                                command.getNextOffset(),
+                                command.getMissingIngredients()));
+    }
+
+    private Object handleSearchCookableRecipesRequest(Request request, Response response) {
+        return respond(
+                makeSearchCookableRecipesCall(
+                        request.queryParams("username"),
+                        getQueryArgumentInt(request, "maxMissing", 0),
+                        getOffset(request),
+                        getQueryArgumentInt(
+                                request, "limit", SearchCookableRecipesCommand.MAX_LIMIT)),
+                response);
+    }
+
+    private static int getSuggestionLimit(Request request) {
+        return getQueryArgumentInt(request, "limit", AbstractSuggestCommand.DEFAULT_LIMIT);
+    }
+
+    private Object handleSuggestRecipesRequest(Request request, Response response) {
+        return respond(
+                makeSuggestCall(
+                        new SuggestRecipesCommand(
+                                request.queryParams("prefix"), getSuggestionLimit(request)),
+                        ResponseBodies.RecipeSearch::new),
+                response);
+    }
+
+    private Object handleSuggestUsersRequest(Request request, Response response) {
+        return respond(
+                makeSuggestCall(
+                        new SuggestUsersCommand(
+                                request.queryParams("prefix"), getSuggestionLimit(request)),
+                        ResponseBodies.UserSearch::new),
+                response);
+    }
+
+    private Object handleSuggestIngredientsRequest(Request request, Response response) {
+        return respond(
+                makeSuggestCall(
+                        new SuggestIngredientsCommand(
+                                request.queryParams("prefix"), getSuggestionLimit(request)),
+                        ResponseBodies.IngredientSearch::new),
+                response);
+    }
+
+    private Object handleSuggestTagsRequest(Request request, Response response) {
+        return respond(
+                makeSuggestCall(
+                        new SuggestTagsCommand(
+                                request.queryParams("prefix"), getSuggestionLimit(request)),
+                        ResponseBodies.TagSearch::new),
+                response);
     }
 
     private Object handleCreateRecipeRequest(Request request, Response response) {
-        RequestBodies.RecipeCreation bodyDetails =
-                getRequestBodyDetails(request, RequestBodies.RecipeCreation.class);
-
-        if (isAuthorized(bodyDetails)) {
-            CreateRecipeCommand command = new CreateRecipeCommand(bodyDetails.getRecipeForm());
-            String executionMessage = handleCommand(command, response);
-
-            Recipe createdRecipe = command.getCreatedRecipe();
-            return new ResponseBodies.RecipeCreation(
-                    executionMessage,
-                    Utils.allowNull(createdRecipe, Recipe::getName),
-                    Utils.allowNull(
-                            command.getCreatedTags(),
-                            (t) -> t.stream().map(Tag::toString).collect(Collectors.toSet())));
-        } else {
-            return new ResponseBodies.RecipeCreation(handleUnauthorized(response), null, null);
-        }
+        return respond(
+                makeCreateRecipeCall(
+                        getRequestBodyDetails(request, RequestBodies.RecipeCreation.class)),
+                response);
     }
 
     private Object handleCreateUserRequest(Request request, Response response) {
-        return handleSimplePostRequest(
-                request,
-                response,
-                false,
-                RequestBodies.UserCreation.class,
-                (bodyDetails) ->
-                        new CreateUserCommand(
-                                bodyDetails.getUsername(), bodyDetails.getEmailAddress()));
+        return respond(
+                makeCreateUserCall(
+                        getRequestBodyDetails(request, RequestBodies.UserCreation.class)),
+                response);
     }
 
     private Object handleCreateIngredientRequest(Request request, Response response) {
-        return handleSimplePostRequest(
-                request,
-                response,
-                false,
-                RequestBodies.IngredientCreation.class,
-                (bodyDetails) ->
-                        new CreateIngredientCommand(
-                                bodyDetails.getName(),
-                                bodyDetails.getUnits(),
-                                bodyDetails.getImageUri()));
+        return respond(
+                makeCreateIngredientCall(
+                        getRequestBodyDetails(request, RequestBodies.IngredientCreation.class)),
+                response);
     }
 
     private Object handleCreateTagRequest(Request request, Response response) {
-        return handleSimplePostRequest(
-                request,
-                response,
-                false,
-                RequestBodies.TagCreation.class,
-                (bodyDetails) -> new CreateTagCommand(bodyDetails.getName()));
+        return respond(
+                makeCreateTagCall(getRequestBodyDetails(request, RequestBodies.TagCreation.class)),
+                response);
     }
 
     private Object handleGetTagRequest(Request request, Response response) {
-        return handleGetEntityRequest(
-                request, response, ":tag", GetTagCommand::new, ResponseBodies.TagRetrieval::new);
+        return respond(makeGetTagCall(request.params(":tag")), response);
     }
 
     private Object handleGetIngredientRequest(Request request, Response response) {
-        return handleGetEntityRequest(
-                request,
-                response,
-                ":ingredient",
-                GetIngredientCommand::new,
-                ResponseBodies.IngredientRetrieval::new);
+        return respond(makeGetIngredientCall(request.params(":ingredient")), response);
     }
 
     private Object handleGetRecipeRequest(Request request, Response response) {
-        return handleGetEntityRequest(
-                request,
-                response,
-                ":recipe",
-                GetRecipeCommand::new,
-                ResponseBodies.RecipeRetrieval::new);
+        return respond(
+                makeGetRecipeCall(request.params(":recipe"), getExpansionParts(request, "expand")),
+                response);
     }
 
     private Object handleGetUserRequest(Request request, Response response) {
-        return handleGetEntityRequest(
-                request, response, ":user", GetUserCommand::new, ResponseBodies.UserRetrieval::new);
+        return respond(makeGetUserCall(request.params(":user")), response);
+    }
+
+    private Object handleGetTagsRequest(Request request, Response response) {
+        return respond(makeGetTagsCall(getQueryArgumentNames(request, "names")), response);
+    }
+
+    private Object handleGetIngredientsRequest(Request request, Response response) {
+        return respond(makeGetIngredientsCall(getQueryArgumentNames(request, "names")), response);
+    }
+
+    private Object handleGetRecipesRequest(Request request, Response response) {
+        return respond(makeGetRecipesCall(getQueryArgumentNames(request, "names")), response);
+    }
+
+    private Object handleGetUsersRequest(Request request, Response response) {
+        return respond(makeGetUsersCall(getQueryArgumentNames(request, "names")), response);
     }
 
     private Object handleBookmarkRecipeRequest(Request request, Response response) {
-        return handleSimplePostRequest(
-                request,
-                response,
-                true,
-                RequestBodies.RecipeBookmarking.class,
-                (bodyDetails) ->
-                        new BookmarkRecipeCommand(
-                                bodyDetails.getUsername(), bodyDetails.getRecipeName()));
+        return respond(
+                makeSimplePostCall(
+                        getRequestBodyDetails(request, RequestBodies.RecipeBookmarking.class),
+                        true,
+                        (bodyDetails) ->
+                                new BookmarkRecipeCommand(
+                                        bodyDetails.getUsername(), bodyDetails.getRecipeName())),
+                response);
     }
 
     private Object handleAddIngredientsToShoppingListRequest(Request request, Response response) {
-        return handleSimplePostRequest(
-                request,
-                response,
-                true,
-                RequestBodies.IngredientToShoppingListAddition.class,
-                (bodyDetails) ->
-                        new AddIngredientsToShoppingListCommand(
-                                bodyDetails.getUsername(), bodyDetails.getIngredients()));
+        return respond(
+                makeSimplePostCall(
+                        getRequestBodyDetails(
+                                request, RequestBodies.IngredientToShoppingListAddition.class),
+                        true,
+                        (bodyDetails) ->
+                                new AddIngredientsToShoppingListCommand(
+                                        bodyDetails.getUsername(), bodyDetails.getIngredients())),
+                response);
     }
 
     private Object handleAddRecipeToShoppingListRequest(Request request, Response response) {
-        return handleSimplePostRequest(
-                request,
-                response,
-                true,
-                RequestBodies.RecipeToShoppingListAddition.class,
-                (bodyDetails) ->
-                        new AddRecipeToShoppingListCommand(
-                                bodyDetails.getUsername(),
-                                bodyDetails.getRecipeName(),
-                                bodyDetails.isAddOnlyMissingIngredients()));
+        return respond(
+                makeSimplePostCall(
+                        getRequestBodyDetails(
+                                request, RequestBodies.RecipeToShoppingListAddition.class),
+                        true,
+                        (bodyDetails) ->
+                                new AddRecipeToShoppingListCommand(
+                                        bodyDetails.getUsername(),
+                                        bodyDetails.getRecipeName(),
+                                        bodyDetails.isAddOnlyMissingIngredients())),
+                response);
+    }
+
+    private Object handleBatchRequest(Request request, Response response) {
+        RequestBodies.Batch bodyDetails = getRequestBodyDetails(request, RequestBodies.Batch.class);
+        List<RequestBodies.BatchOperation> operations =
+                bodyDetails != null ? bodyDetails.getOperations() : null;
+
+        response.header(ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        response.type(APPLICATION_JSON);
+        if (operations == null
+                || operations.isEmpty()
+                || operations.size() > MAX_BATCH_OPERATIONS) {
+            response.status(messageToStatusCode.get(NOT_OK_INVALID_BATCH));
+            return new ResponseBodies.Batch(NOT_OK_INVALID_BATCH, null);
+        }
+
+        List<CommandCall> calls = new ArrayList<>();
+        for (RequestBodies.BatchOperation operation : operations) {
+            calls.add(makeBatchCall(operation));
+        }
+        executeBatch(calls);
+
+        List<ResponseBodies.BatchResult> results = new ArrayList<>();
+        for (CommandCall call : calls) {
+            results.add(
+                    new ResponseBodies.BatchResult(
+                            messageToStatusCode.get(call.getMessage()), call.makeResponseBody()));
+        }
+        response.status(messageToStatusCode.get(OK_BATCH_EXECUTED));
+        return new ResponseBodies.Batch(OK_BATCH_EXECUTED, results);
+    }
+
+    // Runs consecutive read-only calls concurrently with each other (even if the commander
+    // executes commands directly), but runs each call that saves entities on its own, after all
+    // calls before it have finished and before any calls after it start. So each call sees the
+    // saves of the calls before it in the batch. A call whose command fails to execute only fails
+    // its own result (see await), and the calls after it are still executed.
+    private void executeBatch(List<CommandCall> calls) {
+        List<CompletableFuture<EntityCommand>> executingReads = new ArrayList<>();
+        for (CommandCall call : calls) {
+            if (call.getCommand() == null) {
+                continue;
+            }
+            if (call.isReadOnly()) {
+                executingReads.add(commander.executeConcurrently(call.getCommand()));
+            } else {
+                awaitAll(executingReads);
+                await(commander.executeAsync(call.getCommand()));
+            }
+        }
+        awaitAll(executingReads);
+    }
+
+    private static void awaitAll(List<CompletableFuture<EntityCommand>> executions) {
+        for (CompletableFuture<EntityCommand> execution : executions) {
+            await(execution);
+        }
+        executions.clear();
+    }
+
+    private CommandCall makeBatchCall(RequestBodies.BatchOperation operation) {
+        if (operation == null || operation.getOperation() == null || operation.getType() == null) {
+            return INVALID_BATCH_OPERATION;
+        }
+        switch (operation.getOperation()) {
+            case "get":
+                return makeBatchGetCall(operation.getType(), operation.getName());
+            case "search":
+                return makeBatchSearchCall(
+                        operation.getType(),
+                        getWords(operation.getTerms()),
+                        Objects.requireNonNullElse(operation.getOffset(), 0),
+                        Objects.requireNonNullElse(
+                                operation.getLimit(), AbstractSearchCommand.MAX_LIMIT));
+            case "create":
+                return operation.getBody() != null
+                        ? makeBatchCreateCall(operation.getType(), operation.getBody())
+                        : INVALID_BATCH_OPERATION;
+            default:
+                return INVALID_BATCH_OPERATION;
+        }
+    }
+
+    private CommandCall makeBatchGetCall(String type, String name) {
+        switch (type) {
+            case "recipe":
+                return makeGetRecipeCall(name);
+            case "user":
+                return makeGetUserCall(name);
+            case "ingredient":
+                return makeGetIngredientCall(name);
+            case "tag":
+                return makeGetTagCall(name);
+            default:
+                return INVALID_BATCH_OPERATION;
+        }
+    }
+
+    private CommandCall makeBatchSearchCall(
+            String type, Set<String> searchTerms, int offset, int limit) {
+        switch (type) {
+            case "recipe":
+                return makeSearchRecipesCall(searchTerms, offset, limit);
+            case "user":
+                return makeSearchUsersCall(searchTerms, offset, limit);
+            case "ingredient":
+                return makeSearchIngredientsCall(searchTerms, offset, limit, false);
+            case "tag":
+                return makeSearchTagsCall(searchTerms, offset, limit);
+            default:
+                return INVALID_BATCH_OPERATION;
+        }
+    }
+
+    private CommandCall makeBatchCreateCall(String type, JsonObject body) {
+        switch (type) {
+            case "recipe":
+                return makeCreateRecipeCall(
+                        gson.fromJson(body, RequestBodies.RecipeCreation.class));
+            case "user":
+                return makeCreateUserCall(gson.fromJson(body, RequestBodies.UserCreation.class));
+            case "ingredient":
+                return makeCreateIngredientCall(
+                        gson.fromJson(body, RequestBodies.IngredientCreation.class));
+            case "tag":
+                return makeCreateTagCall(gson.fromJson(body, RequestBodies.TagCreation.class));
+            default:
+                return INVALID_BATCH_OPERATION;
+        }
+    }
+
+    private Object handleCommandMetricsRequest(Request request, Response response) {
+        response.status(OK);
+        response.header(ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        response.type(APPLICATION_JSON);
+        return new ResponseBodies.CommandMetrics(
+                COMMAND_METRICS_MESSAGE,
+                commander.getExecutorMode().toString(),
+                commander.getQueueDepth(),
+                commander.getExecutingCount());
     }
 
     private static Map<String, Integer> initializeExecutionMessageToStatusCodeTranslator() {
         Map<String, Integer> map = new HashMap<>();
 
         map.put(UNAUTHORIZED_MESSAGE, UNAUTHORIZED);
+        map.put(OK_BATCH_EXECUTED, OK);
+        map.put(NOT_OK_INVALID_BATCH, BAD_REQUEST);
+        map.put(NOT_OK_INVALID_BATCH_OPERATION, BAD_REQUEST);
+        map.put(NOT_OK_INVALID_EXPAND, BAD_REQUEST);
         map.put(Command.NOT_OK_ERROR, INTERNAL_SERVER_ERROR);
         map.put(Command.NOT_OK_IMPOSSIBLE_OUTCOME, INTERNAL_SERVER_ERROR);
         map.put(EntityCommand.NOT_OK_BAD_STORAGE, INTERNAL_SERVER_ERROR);
 
         map.put(SearchRecipesCommand.NOT_OK_BAD_SEARCH_TERMS, BAD_REQUEST);
+        map.put(SearchRecipesCommand.NOT_OK_BAD_PAGE, BAD_REQUEST);
+        map.put(SearchRecipesCommand.NOT_OK_BAD_ORDER, BAD_REQUEST);
+        map.put(SearchRecipesCommand.NOT_OK_BAD_FILTER, BAD_REQUEST);
         map.put(SearchRecipesCommand.OK_MATCHES_FOUND, OK);
         map.put(SearchRecipesCommand.OK_NO_MATCHES_FOUND, OK);
 
         map.put(SearchUsersCommand.NOT_OK_BAD_SEARCH_TERMS, BAD_REQUEST);
+        map.put(SearchUsersCommand.NOT_OK_BAD_PAGE, BAD_REQUEST);
         map.put(SearchUsersCommand.OK_MATCHES_FOUND, OK);
         map.put(SearchUsersCommand.OK_NO_MATCHES_FOUND, OK);
 
         map.put(SearchIngredientsCommand.NOT_OK_BAD_SEARCH_TERMS, BAD_REQUEST);
+        map.put(SearchIngredientsCommand.NOT_OK_BAD_PAGE, BAD_REQUEST);
         map.put(SearchIngredientsCommand.OK_MATCHES_FOUND, OK);
         map.put(SearchIngredientsCommand.OK_NO_MATCHES_FOUND, OK);
 
         map.put(SearchTagsCommand.NOT_OK_BAD_SEARCH_TERMS, BAD_REQUEST);
+        map.put(SearchTagsCommand.NOT_OK_BAD_PAGE, BAD_REQUEST);
         map.put(SearchTagsCommand.OK_MATCHES_FOUND, OK);
         map.put(SearchTagsCommand.OK_NO_MATCHES_FOUND, OK);
 
+        map.put(SearchCookableRecipesCommand.NOT_OK_INVALID_USERNAME, BAD_REQUEST);
+        map.put(SearchCookableRecipesCommand.NOT_OK_USER_NOT_FOUND, NOT_FOUND);
+        map.put(SearchCookableRecipesCommand.NOT_OK_BAD_MAX_MISSING, BAD_REQUEST);
+        map.put(SearchCookableRecipesCommand.NOT_OK_BAD_PAGE, BAD_REQUEST);
+        map.put(SearchCookableRecipesCommand.OK_RECIPES_FOUND, OK);
+        map.put(SearchCookableRecipesCommand.OK_NO_RECIPES_FOUND, OK);
+
+        map.put(SuggestRecipesCommand.NOT_OK_BAD_PREFIX, BAD_REQUEST);
+        map.put(SuggestRecipesCommand.NOT_OK_BAD_LIMIT, BAD_REQUEST);
+        map.put(SuggestRecipesCommand.OK_SUGGESTIONS_FOUND, OK);
+        map.put(SuggestRecipesCommand.OK_NO_SUGGESTIONS_FOUND, OK);
+
+        map.put(SuggestUsersCommand.NOT_OK_BAD_PREFIX, BAD_REQUEST);
+        map.put(SuggestUsersCommand.NOT_OK_BAD_LIMIT, BAD_REQUEST);
+        map.put(SuggestUsersCommand.OK_SUGGESTIONS_FOUND, OK);
+        map.put(SuggestUsersCommand.OK_NO_SUGGESTIONS_FOUND, OK);
+
+        map.put(SuggestIngredientsCommand.NOT_OK_BAD_PREFIX, BAD_REQUEST);
+        map.put(SuggestIngredientsCommand.NOT_OK_BAD_LIMIT, BAD_REQUEST);
+        map.put(SuggestIngredientsCommand.OK_SUGGESTIONS_FOUND, OK);
+        map.put(SuggestIngredientsCommand.OK_NO_SUGGESTIONS_FOUND, OK);
+
+        map.put(SuggestTagsCommand.NOT_OK_BAD_PREFIX, BAD_REQUEST);
+        map.put(SuggestTagsCommand.NOT_OK_BAD_LIMIT, BAD_REQUEST);
+        map.put(SuggestTagsCommand.OK_SUGGESTIONS_FOUND, OK);
+        map.put(SuggestTagsCommand.OK_NO_SUGGESTIONS_FOUND, OK);
+
         map.put(CreateRecipeCommand.OK_RECIPE_CREATED_WITH_GIVEN_NAME, CREATED);
         map.put(CreateRecipeCommand.OK_RECIPE_CREATED_NAME_ASSIGNED, CREATED);
         map.put(CreateRecipeCommand.NOT_OK_INVALID_RECIPE, BAD_REQUEST);
@@ -370,6 +972,22 @@ public class HttpRequestHandler {
         map.put(GetUserCommand.OK_USER_RETRIEVED, OK);
         map.put(GetUserCommand.NOT_OK_USER_NOT_FOUND, NOT_FOUND);
 
+        map.put(GetTagsCommand.OK_TAGS_RETRIEVED, OK);
+        map.put(GetTagsCommand.OK_SOME_TAGS_NOT_FOUND, OK);
+        map.put(GetTagsCommand.NOT_OK_INVALID_TAG_NAMES, BAD_REQUEST);
+
+        map.put(GetIngredientsCommand.OK_INGREDIENTS_RETRIEVED, OK);
+        map.put(GetIngredientsCommand.OK_SOME_INGREDIENTS_NOT_FOUND, OK);
+        map.put(GetIngredientsCommand.NOT_OK_INVALID_INGREDIENT_NAMES, BAD_REQUEST);
+
+        map.put(GetRecipesCommand.OK_RECIPES_RETRIEVED, OK);
+        map.put(GetRecipesCommand.OK_SOME_RECIPES_NOT_FOUND, OK);
+        map.put(GetRecipesCommand.NOT_OK_INVALID_RECIPE_NAMES, BAD_REQUEST);
+
+        map.put(GetUsersCommand.OK_USERS_RETRIEVED, OK);
+        map.put(GetUsersCommand.OK_SOME_USERS_NOT_FOUND, OK);
+        map.put(GetUsersCommand.NOT_OK_INVALID_USER_NAMES, BAD_REQUEST);
+
         map.put(BookmarkRecipeCommand.OK_RECIPE_BOOKMARKED, OK);
         map.put(BookmarkRecipeCommand.NOT_OK_INVALID_RECIPE_NAME, BAD_REQUEST);
         map.put(BookmarkRecipeCommand.NOT_OK_INVALID_USERNAME, BAD_REQUEST);
@@ -389,4 +1007,74 @@ public class HttpRequestHandler {
 
         return map;
     }
+
+    // makes the response body of a search for entities (of type T)
+    @FunctionalInterface
+    private interface SearchResponseMaker<T> {
+        ResponseBodies.WithMessage make(
+                String message, Collection<T> matches, @Nullable Integer nextOffset);
+    }
+
+    // makes the response body of a request for several entities (of type T) at once
+    @FunctionalInterface
+    private interface MultiRetrievalResponseMaker<T> {
+        ResponseBodies.WithMessage make(
+                String message, Collection<T> retrieved, Collection<String> missing);
+    }
+
+    // a command to execute for a request (or a batch operation), and how to make its response body
+    // once the command has finished executing
+    private static final class CommandCall {
+        private final @Nullable EntityCommand command; // null if the request was rejected outright
+        private final @Nullable String rejectionMessage;
+        private final boolean readOnly;
+        private final @NotNull Function<String, ? extends ResponseBodies.WithMessage> responseMaker;
+
+        CommandCall(
+                @NotNull EntityCommand command,
+                boolean readOnly,
+                @NotNull Function<String, ? extends ResponseBodies.WithMessage> responseMaker) {
+            this(command, null, readOnly, responseMaker);
+        }
+
+        private CommandCall(
+                @Nullable EntityCommand command,
+                @Nullable String rejectionMessage,
+                boolean readOnly,
+                @NotNull Function<String, ? extends ResponseBodies.WithMessage> responseMaker) {
+            this.command = command;
+            this.rejectionMessage = rejectionMessage;
+            this.readOnly = readOnly;
+            this.responseMaker = responseMaker;
+        }
+
+        static CommandCall rejected(
+                @NotNull String message,
+                @NotNull Function<String, ? extends ResponseBodies.WithMessage> responseMaker) {
+            return new CommandCall(null, message, true, responseMaker);
+        }
+
+        @Nullable EntityCommand getCommand() {
+            return command;
+        }
+
+        // whether the command only loads entities, so it can run concurrently with other reads
+        boolean isReadOnly() {
+            return readOnly;
+        }
+
+        // can only be called once the command's execution has been waited for
+        @NotNull String getMessage() {
+            if (command == null) {
+                return Objects.requireNonNull(rejectionMessage);
+            }
+            return command.isFinishedExecuting()
+                    ? command.getExecutionMessage()
+                    : Command.NOT_OK_ERROR;
+        }
+
+        ResponseBodies.WithMessage makeResponseBody() {
+            return responseMaker.apply(getMessage());
+        }
+    }
 }
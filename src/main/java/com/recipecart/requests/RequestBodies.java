@@ -1,9 +1,11 @@
 /* (C)2023 */
 package com.recipecart.requests;
 
+import com.google.gson.JsonObject;
 import com.recipecart.utils.RecipeForm;
 import com.recipecart.utils.Utils;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -163,4 +165,73 @@ class RequestBodies {
             return addOnlyMissingIngredients;
         }
     }
+
+    /** Follows the "Batch" API route. */
+    static class Batch {
+        private final List<BatchOperation> operations;
+
+        Batch(List<BatchOperation> operations) {
+            this.operations = operations;
+        }
+
+        List<BatchOperation> getOperations() {
+            return operations;
+        }
+    }
+
+    /** One of the operations of a "Batch" API route request body. */
+    static class BatchOperation {
+        private final String operation, type, name, terms;
+        private final Integer offset, limit;
+        private final JsonObject body;
+
+        BatchOperation(String operation, String type, String name, String terms, JsonObject body) {
+            this(operation, type, name, terms, null, null, body);
+        }
+
+        BatchOperation(
+                String operation,
+                String type,
+                String name,
+                String terms,
+                Integer offset,
+                Integer limit,
+                JsonObject body) {
+            this.operation = operation;
+            this.type = type;
+            this.name = name;
+            this.terms = terms;
+            this.offset = offset;
+            this.limit = limit;
+            this.body = body;
+        }
+
+        String getOperation() {
+            return operation;
+        }
+
+        String getType() {
+            return type;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getTerms() {
+            return terms;
+        }
+
+        Integer getOffset() {
+            return offset;
+        }
+
+        Integer getLimit() {
+            return limit;
+        }
+
+        JsonObject getBody() {
+            return body;
+        }
+    }
 }
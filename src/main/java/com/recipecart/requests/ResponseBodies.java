@@ -5,6 +5,8 @@ import com.recipecart.entities.Ingredient;
 import com.recipecart.entities.Recipe;
 import com.recipecart.entities.Tag;
 import com.recipecart.entities.User;
+import com.recipecart.storage.RecipeFacets;
+import com.recipecart.usecases.RecipeExpansion;
 import com.recipecart.utils.RecipeForm;
 import com.recipecart.utils.UserForm;
 import com.recipecart.utils.Utils;
@@ -45,42 +47,114 @@ class ResponseBodies {
 
     static class SearchResponse<T> extends WithMessage {
         private final List<T> matches;
+        // null, and so left out of the JSON, unless a page of matches was gotten and more remain
+        private final Integer nextOffset;
 
-        SearchResponse(String message, Collection<T> matches) {
+        SearchResponse(String message, Collection<T> matches, Integer nextOffset) {
             super(message);
             this.matches = Utils.allowNull(matches, ArrayList::new);
+            this.nextOffset = nextOffset;
         }
 
         List<T> getMatches() {
             return Utils.allowNull(matches, Collections::unmodifiableList);
         }
+
+        Integer getNextOffset() {
+            return nextOffset;
+        }
     }
 
     /** Follows the "Search for recipe" API route. */
     static class RecipeSearch extends SearchResponse<RecipeForm> {
-        RecipeSearch(String message, Collection<Recipe> matches) {
-            super(message, Utils.allowNull(matches, Utils::fromRecipes));
+        // these are null, and so left out of the JSON, unless they were asked to be expanded
+        private final List<Ingredient> ingredients;
+        private final List<Tag> tags;
+        private final List<UserForm> authors;
+        // this is null, and so left out of the JSON, unless the search was filtered
+        private final RecipeFacets facets;
+
+        RecipeSearch(String message, Collection<Recipe> matches, Integer nextOffset) {
+            this(message, matches, nextOffset, null);
+        }
+
+        RecipeSearch(
+                String message,
+                Collection<Recipe> matches,
+                Integer nextOffset,
+                RecipeExpansion expansion) {
+            this(message, matches, nextOffset, expansion, null);
+        }
+
+        RecipeSearch(
+                String message,
+                Collection<Recipe> matches,
+                Integer nextOffset,
+                RecipeExpansion expansion,
+                RecipeFacets facets) {
+            super(message, Utils.allowNull(matches, Utils::fromRecipes), nextOffset);
+            this.ingredients = Utils.allowNull(expansion, RecipeExpansion::getIngredients);
+            this.tags = Utils.allowNull(expansion, RecipeExpansion::getTags);
+            this.authors =
+                    Utils.allowNull(
+                            Utils.allowNull(expansion, RecipeExpansion::getAuthors),
+                            (users) -> new ArrayList<>(Utils.fromUsers(users)));
+            this.facets = facets;
+        }
+
+        List<Ingredient> getIngredients() {
+            return ingredients;
+        }
+
+        List<Tag> getTags() {
+            return tags;
+        }
+
+        List<UserForm> getAuthors() {
+            return authors;
+        }
+
+        RecipeFacets getFacets() {
+            return facets;
+        }
+    }
+
+    /** Follows the "Search for recipes the user can cook" API route. */
+    static class CookableRecipeSearch extends SearchResponse<RecipeForm> {
+        private final Map<String, List<Ingredient>> missingIngredients;
+
+        CookableRecipeSearch(
+                String message,
+                Collection<Recipe> matches,
+                Integer nextOffset,
+                Map<String, List<Ingredient>> missingIngredients) {
+            super(message, Utils.allowNull(matches, Utils::fromRecipes), nextOffset);
+            this.missingIngredients = Utils.allowNull(missingIngredients, LinkedHashMap::new);
+        }
+
+        Map<String, List<Ingredient>> getMissingIngredients() {
+            return Utils.allowNull(missingIngredients, Collections::unmodifiableMap);
         }
     }
 
     /** Follows the "Search for ingredient" API route. */
     static class IngredientSearch extends SearchResponse<Ingredient> {
-        IngredientSearch(String message, Collection<Ingredient> matches) {
-            super(message, matches);
+        IngredientSearch(String message, Collection<Ingredient> matches, Integer nextOffset) {
+            super(message, matches, nextOffset);
         }
     }
 
     /** Follows the "Search for user" API route. */
     static class UserSearch extends SearchResponse<UserForm> {
-        UserSearch(String message, Collection<User> matches) {
-            super(message, Utils.allowNull(matches, Utils::fromUsers));
+        UserSearch(String message, Collection<User> matches, Integer nextOffset) {
+            super(message, Utils.allowNull(matches, Utils::fromUsers), nextOffset);
         }
     }
 
     /** Follows the "Search for tag" API route. */
     static class TagSearch extends SearchResponse<Tag> {
-        TagSearch(String message, Collection<Tag> matches) {
-            super(message, matches);
+        TagSearch(String message, Collection<Tag> matches, Integer nextOffset) {
+            super(message, matches, nextOffset);
         }
     }
 
@@ -135,19 +209,55 @@ class ResponseBodies {
     /** Follows the "Get recipe" API route. */
     static class RecipeRetrieval extends WithMessage {
         private final RecipeForm recipe;
+        // these are null, and so left out of the JSON, unless they were asked to be expanded
+        private final List<Ingredient> ingredients;
+        private final List<Tag> tags;
+        private final UserForm author;
 
         RecipeRetrieval(@NotNull String message, RecipeForm retrievedRecipeForm) {
-            super(message);
-            this.recipe = retrievedRecipeForm;
+            this(message, retrievedRecipeForm, null);
         }
 
         RecipeRetrieval(@NotNull String message, Recipe retrievedRecipe) {
-            this(message, (RecipeForm) Utils.allowNull(retrievedRecipe, RecipeForm::new));
+            this(message, retrievedRecipe, null);
+        }
+
+        RecipeRetrieval(
+                @NotNull String message, Recipe retrievedRecipe, RecipeExpansion expansion) {
+            this(
+                    message,
+                    (RecipeForm) Utils.allowNull(retrievedRecipe, RecipeForm::new),
+                    expansion);
+        }
+
+        private RecipeRetrieval(
+                @NotNull String message,
+                RecipeForm retrievedRecipeForm,
+                RecipeExpansion expansion) {
+            super(message);
+            this.recipe = retrievedRecipeForm;
+            this.ingredients = Utils.allowNull(expansion, RecipeExpansion::getIngredients);
+            this.tags = Utils.allowNull(expansion, RecipeExpansion::getTags);
+            List<User> authors = Utils.allowNull(expansion, RecipeExpansion::getAuthors);
+            this.author =
+                    authors != null && !authors.isEmpty() ? new UserForm(authors.get(0)) : null;
         }
 
         RecipeForm getRecipe() {
             return recipe;
         }
+
+        List<Ingredient> getIngredients() {
+            return ingredients;
+        }
+
+        List<Tag> getTags() {
+            return tags;
+        }
+
+        UserForm getAuthor() {
+            return author;
+        }
     }
 
     /** Follows the "Get user" API route. */
@@ -167,4 +277,115 @@ class ResponseBodies {
             return user;
         }
     }
+
+    static class MultiRetrievalResponse<T> extends WithMessage {
+        private final List<T> retrieved;
+        private final List<String> missing;
+
+        MultiRetrievalResponse(
+                String message, Collection<T> retrieved, Collection<String> missing) {
+            super(message);
+            this.retrieved = Utils.allowNull(retrieved, ArrayList::new);
+            this.missing = Utils.allowNull(missing, ArrayList::new);
+        }
+
+        List<T> getRetrieved() {
+            return Utils.allowNull(retrieved, Collections::unmodifiableList);
+        }
+
+        List<String> getMissing() {
+            return Utils.allowNull(missing, Collections::unmodifiableList);
+        }
+    }
+
+    /** Follows the "Get several entities" API route, for tags. */
+    static class TagsRetrieval extends MultiRetrievalResponse<Tag> {
+        TagsRetrieval(String message, Collection<Tag> retrieved, Collection<String> missing) {
+            super(message, retrieved, missing);
+        }
+    }
+
+    /** Follows the "Get several entities" API route, for ingredients. */
+    static class IngredientsRetrieval extends MultiRetrievalResponse<Ingredient> {
+        IngredientsRetrieval(
+                String message, Collection<Ingredient> retrieved, Collection<String> missing) {
+            super(message, retrieved, missing);
+        }
+    }
+
+    /** Follows the "Get several entities" API route, for recipes. */
+    static class RecipesRetrieval extends MultiRetrievalResponse<RecipeForm> {
+        RecipesRetrieval(String message, Collection<Recipe> retrieved, Collection<String> missing) {
+            super(message, Utils.allowNull(retrieved, Utils::fromRecipes), missing);
+        }
+    }
+
+    /** Follows the "Get several entities" API route, for users. */
+    static class UsersRetrieval extends MultiRetrievalResponse<UserForm> {
+        UsersRetrieval(String message, Collection<User> retrieved, Collection<String> missing) {
+            super(message, Utils.allowNull(retrieved, Utils::fromUsers), missing);
+        }
+    }
+
+    /** Follows the "Get command metrics" API route. */
+    static class CommandMetrics extends WithMessage {
+        private final String executorMode;
+        private final int queueDepth, executing;
+
+        CommandMetrics(
+                @NotNull String message, String executorMode, int queueDepth, int executing) {
+            super(message);
+            this.executorMode = executorMode;
+            this.queueDepth = queueDepth;
+            this.executing = executing;
+        }
+
+        String getExecutorMode() {
+            return executorMode;
+        }
+
+        int getQueueDepth() {
+            return queueDepth;
+        }
+
+        int getExecuting() {
+            return executing;
+        }
+    }
+
+    /** Follows the "Batch" API route. */
+    static class Batch extends WithMessage {
+        private final List<BatchResult> results;
+
+        Batch(@NotNull String message, List<BatchResult> results) {
+            super(message);
+            this.results = Utils.allowNull(results, ArrayList::new);
+        }
+
+        List<BatchResult> getResults() {
+            return Utils.allowNull(results, Collections::unmodifiableList);
+        }
+    }
+
+    /**
+     * One of the results of a "Batch" API route response body: the status code and response body
+     * that the operation would have gotten as a request by itself.
+     */
+    static class BatchResult {
+        private final int status;
+        private final WithMessage body;
+
+        BatchResult(int status, WithMessage body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        WithMessage getBody() {
+            return body;
+        }
+    }
 }
@@ -0,0 +1,73 @@
+/* (C)2023 */
+package com.recipecart.requests;
+
+import com.recipecart.utils.VirtualThreads;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+/**
+ * This class is a Jetty thread pool that runs each job (e.g. handling a request) on a new virtual
+ * thread, instead of on one of a bounded number of platform threads. So the number of requests
+ * being handled at once isn't capped by a thread count, even when requests block on storage I/O.
+ * Needs Java 21 or later at runtime (see VirtualThreads).
+ */
+final class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final AtomicInteger threads = new AtomicInteger();
+    private volatile ExecutorService executor;
+
+    @Override
+    protected void doStart() throws Exception {
+        executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        super.doStart();
+    }
+
+    @Override
+    protected void doStop() throws Exception {
+        super.doStop();
+        executor.shutdown();
+        if (!executor.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public void execute(Runnable job) {
+        executor.execute(
+                () -> {
+                    threads.incrementAndGet();
+                    try {
+                        job.run();
+                    } finally {
+                        threads.decrementAndGet();
+                    }
+                });
+    }
+
+    @Override
+    public void join() throws InterruptedException {
+        ExecutorService current = executor;
+        if (current != null) {
+            current.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public int getThreads() {
+        return threads.get();
+    }
+
+    @Override
+    public int getIdleThreads() {
+        return 0; // virtual threads aren't kept around once their job is done
+    }
+
+    @Override
+    public boolean isLowOnThreads() {
+        return false;
+    }
+}
@@ -3,7 +3,9 @@ package com.recipecart.storage;
 
 import com.recipecart.entities.*;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -15,6 +17,9 @@ import org.jetbrains.annotations.Nullable;
  * upholds the invariants stated by EntityStorage.
  */
 public interface EntityLoader {
+    /** The version of an entity that isn't saved. Saved entities have greater versions. */
+    long UNSAVED_VERSION = 0;
+
     /**
      * Loads saved Tags with the given names.
      *
@@ -54,6 +59,50 @@ public interface EntityLoader {
     @NotNull List<@NotNull User> getUsersByNames(@NotNull List<@NotNull String> usernames)
             throws IOException;
 
+    /**
+     * Loads the saved Tags with the given names, all at once. Unlike getTagsByNames, names with no
+     * saved Tag don't fail the load; they're just left out of the result.
+     *
+     * @param names the exact names of the Tags to be loaded
+     * @return the saved Tags with the given names, keyed by name, in the order the names were
+     *     given; names with no saved Tag aren't keys
+     */
+    @NotNull Map<@NotNull String, @NotNull Tag> findTagsByNames(
+            @NotNull Collection<@NotNull String> names);
+
+    /**
+     * Loads the saved Ingredients with the given names, all at once. Unlike getIngredientsByNames,
+     * names with no saved Ingredient don't fail the load; they're just left out of the result.
+     *
+     * @param names the exact names of the Ingredients to be loaded
+     * @return the saved Ingredients with the given names, keyed by name, in the order the names
+     *     were given; names with no saved Ingredient aren't keys
+     */
+    @NotNull Map<@NotNull String, @NotNull Ingredient> findIngredientsByNames(
+            @NotNull Collection<@NotNull String> names);
+
+    /**
+     * Loads the saved Recipes with the given names, all at once. Unlike getRecipesByNames, names
+     * with no saved Recipe don't fail the load; they're just left out of the result.
+     *
+     * @param names the exact names of the Recipes to be loaded
+     * @return the saved Recipes with the given names, keyed by name, in the order the names were
+     *     given; names with no saved Recipe aren't keys
+     */
+    @NotNull Map<@NotNull String, @NotNull Recipe> findRecipesByNames(
+            @NotNull Collection<@NotNull String> names);
+
+    /**
+     * Loads the saved Users with the given usernames, all at once. Unlike getUsersByNames,
+     * usernames with no saved User don't fail the load; they're just left out of the result.
+     *
+     * @param usernames the exact usernames of the Users to be loaded
+     * @return the saved Users with the given usernames, keyed by username, in the order the
+     *     usernames were given; usernames with no saved User aren't keys
+     */
+    @NotNull Map<@NotNull String, @NotNull User> findUsersByNames(
+            @NotNull Collection<@NotNull String> usernames);
+
     /**
      * Checks if a tag with the given name exists.
      *
@@ -86,6 +135,47 @@ public interface EntityLoader {
      */
     boolean usernameExists(@NotNull String name);
 
+    /**
+     * Gets the version of the saved tag with the given name. Every time the tag is saved, it gets a
+     * new, greater version, so the version changes whenever the tag might have changed.
+     *
+     * @param name the name of the tag
+     * @return the version of the saved tag, or UNSAVED_VERSION if there's no saved tag with the
+     *     given name
+     */
+    long getTagVersion(@NotNull String name);
+
+    /**
+     * Gets the version of the saved ingredient with the given name. Every time the ingredient is
+     * saved, it gets a new, greater version, so the version changes whenever the ingredient might
+     * have changed.
+     *
+     * @param name the name of the ingredient
+     * @return the version of the saved ingredient, or UNSAVED_VERSION if there's no saved
+     *     ingredient with the given name
+     */
+    long getIngredientVersion(@NotNull String name);
+
+    /**
+     * Gets the version of the saved recipe with the given name. Every time the recipe is saved, it
+     * gets a new, greater version, so the version changes whenever the recipe might have changed.
+     *
+     * @param name the name of the recipe
+     * @return the version of the saved recipe, or UNSAVED_VERSION if there's no saved recipe with
+     *     the given name
+     */
+    long getRecipeVersion(@NotNull String name);
+
+    /**
+     * Gets the version of the saved user with the given username. Every time the user is saved, it
+     * gets a new, greater version, so the version changes whenever the user might have changed.
+     *
+     * @param username the username of the user
+     * @return the version of the saved user, or UNSAVED_VERSION if there's no saved user with the
+     *     given username
+     */
+    long getUserVersion(@NotNull String username);
+
     /**
      * Searches for saved tags whose names contain at least one of the given tokens
      * (case-insensitive).
@@ -122,6 +212,215 @@ public interface EntityLoader {
      */
     @NotNull Set<@NotNull User> searchUsers(@NotNull Set<@NotNull String> tokens);
 
+    /**
+     * Searches for saved tags in the same way as searchTags, but only returns one page of the
+     * matches: with the matches sorted by name, the ones from index offset (inclusive) to offset +
+     * limit (exclusive).
+     *
+     * @param tokens the tokens for name-matching
+     * @param offset how many of the (sorted) matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matched Tags, sorted by name
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    @NotNull List<@NotNull Tag> searchTags(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit);
+
+    /**
+     * Searches for saved ingredients in the same way as searchIngredients, but only returns one
+     * page of the matches: with the matches sorted by name, the ones from index offset (inclusive)
+     * to offset + limit (exclusive).
+     *
+     * @param tokens the tokens for name-matching
+     * @param offset how many of the (sorted) matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matched Ingredients, sorted by name
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    @NotNull List<@NotNull Ingredient> searchIngredients(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit);
+
+    /**
+     * Searches for saved recipes in the same way as searchRecipes, but only returns one page of
+     * the matches: with the matches sorted by (non-presentation) name, the ones from index offset
+     * (inclusive) to offset + limit (exclusive).
+     *
+     * @param tokens the tokens for name-matching
+     * @param offset how many of the (sorted) matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matched Recipes, sorted by name
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    @NotNull List<@NotNull Recipe> searchRecipes(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit);
+
+    /**
+     * Searches for saved users in the same way as searchUsers, but only returns one page of the
+     * matches: with the matches sorted by username, the ones from index offset (inclusive) to
+     * offset + limit (exclusive).
+     *
+     * @param tokens the tokens for name-matching
+     * @param offset how many of the (sorted) matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matched Users, sorted by username
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    @NotNull List<@NotNull User> searchUsers(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit);
+
+    /**
+     * Finds the tokens that saved ingredients' names are indexed under for searches (see
+     * searchIngredients) that are similar to at least one of the given search terms
+     * (case-insensitive), so that misspelled terms can be searched with the tokens they were
+     * likely meant to be. A token is similar to a term if it's within a few edits (insertions,
+     * deletions, or substitutions of one character) of it: none for terms of up to 2 characters, 1
+     * for up to 5, and 2 for longer terms. A term that's itself a token is similar to itself.
+     *
+     * @param terms the search terms, possibly misspelled
+     * @return the tokens similar to any of the terms, or an empty Set if none are
+     */
+    @NotNull Set<@NotNull String> findSimilarIngredientTokens(@NotNull Set<@NotNull String> terms);
+
+    /**
+     * Finds the tokens that saved recipes' names (name or presentation name) are indexed under for
+     * searches (see searchRecipes) that are similar to at least one of the given search terms
+     * (case-insensitive), in the same way as findSimilarIngredientTokens.
+     *
+     * @param terms the search terms, possibly misspelled
+     * @return the tokens similar to any of the terms, or an empty Set if none are
+     */
+    @NotNull Set<@NotNull String> findSimilarRecipeTokens(@NotNull Set<@NotNull String> terms);
+
+    /**
+     * Finds the saved recipes that can be made with the given ingredients: the ones whose required
+     * ingredients are all among the given ones, except for at most maxMissing of them. Only one
+     * page of the found recipes is returned: with the recipes sorted by how many of their required
+     * ingredients aren't among the given ones (fewest first), and then by (non-presentation) name,
+     * the ones from index offset (inclusive) to offset + limit (exclusive).
+     *
+     * @param ingredientNames the exact names of the ingredients to make recipes with
+     * @param maxMissing the maximum number of a found recipe's required ingredients that aren't
+     *     among the given ones
+     * @param offset how many of the (sorted) found recipes to skip
+     * @param limit the maximum number of found recipes to return
+     * @return the page of found Recipes, sorted as described
+     * @throws IllegalArgumentException if maxMissing, offset, or limit is negative
+     */
+    @NotNull List<@NotNull Recipe> findCookableRecipes(
+            @NotNull Set<@NotNull String> ingredientNames, int maxMissing, int offset, int limit);
+
+    /**
+     * Searches for saved recipes in the same way as searchRecipes, but only returns the matches
+     * that also meet every criterion of the given filter (see RecipeFilter.matches). The filter's
+     * criteria are evaluated by storage, instead of by filtering the matches after loading them.
+     *
+     * @param tokens the tokens for name-matching, or null to not match recipes by name (so that
+     *     every recipe meeting the filter's criteria is returned)
+     * @param filter the criteria the returned recipes must meet
+     * @return the matched Recipes
+     */
+    @NotNull Set<@NotNull Recipe> searchRecipes(
+            @Nullable Set<@NotNull String> tokens, @NotNull RecipeFilter filter);
+
+    /**
+     * Searches for saved recipes in the same way as the two-argument filtered searchRecipes, but
+     * only returns one page of the matches: with the matches sorted by (non-presentation) name,
+     * the ones from index offset (inclusive) to offset + limit (exclusive).
+     *
+     * @param tokens the tokens for name-matching, or null to not match recipes by name
+     * @param filter the criteria the returned recipes must meet
+     * @param offset how many of the (sorted) matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matched Recipes, sorted by name
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    @NotNull List<@NotNull Recipe> searchRecipes(
+            @Nullable Set<@NotNull String> tokens,
+            @NotNull RecipeFilter filter,
+            int offset,
+            int limit);
+
+    /**
+     * Counts the facets of all the saved recipes that the two-argument filtered searchRecipes
+     * would return with the given tokens and filter, without loading the recipes.
+     *
+     * @param tokens the tokens for name-matching, or null to not match recipes by name
+     * @param filter the criteria the counted recipes must meet
+     * @return the facet counts of the matched recipes
+     */
+    @NotNull RecipeFacets countRecipeFacets(
+            @Nullable Set<@NotNull String> tokens, @NotNull RecipeFilter filter);
+
+    /**
+     * Searches for one page of saved recipes in the same way as the four-argument filtered
+     * searchRecipes, and also counts the facets of all the matches in the same way as
+     * countRecipeFacets. The matches are only found once, from the same saved recipes, for both
+     * the page and the facets, so the facets are consistent with the page even if recipes are
+     * saved while searching.
+     *
+     * @param tokens the tokens for name-matching, or null to not match recipes by name
+     * @param filter the criteria the returned recipes must meet
+     * @param offset how many of the (sorted) matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matched Recipes, sorted by name, and the facet counts of all the matches
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    @NotNull FilteredRecipePage searchRecipesWithFacets(
+            @Nullable Set<@NotNull String> tokens,
+            @NotNull RecipeFilter filter,
+            int offset,
+            int limit);
+
+    /**
+     * Finds saved tags for typeahead suggestions: the ones whose names have a token that starts
+     * with the last word of the given prefix, and have each of the prefix's other words as a whole
+     * token (all case-insensitive, with names tokenized as for searches).
+     *
+     * @param prefix the prefix to suggest tags for, as typed so far
+     * @param limit the maximum number of tags to return
+     * @return the suggested Tags, ordered by the token each was matched by and then by name
+     * @throws IllegalArgumentException if limit is negative
+     */
+    @NotNull List<@NotNull Tag> suggestTags(@NotNull String prefix, int limit);
+
+    /**
+     * Finds saved ingredients for typeahead suggestions: the ones whose names have a token that
+     * starts with the last word of the given prefix, and have each of the prefix's other words as a
+     * whole token (all case-insensitive, with names tokenized as for searches).
+     *
+     * @param prefix the prefix to suggest ingredients for, as typed so far
+     * @param limit the maximum number of ingredients to return
+     * @return the suggested Ingredients, ordered by the token each was matched by and then by name
+     * @throws IllegalArgumentException if limit is negative
+     */
+    @NotNull List<@NotNull Ingredient> suggestIngredients(@NotNull String prefix, int limit);
+
+    /**
+     * Finds saved recipes for typeahead suggestions: the ones whose names (name or presentation
+     * name) have a token that starts with the last word of the given prefix, and have each of the
+     * prefix's other words as a whole token (all case-insensitive, with names tokenized as for
+     * searches).
+     *
+     * @param prefix the prefix to suggest recipes for, as typed so far
+     * @param limit the maximum number of recipes to return
+     * @return the suggested Recipes, ordered by the token each was matched by and then by
+     *     (non-presentation) name
+     * @throws IllegalArgumentException if limit is negative
+     */
+    @NotNull List<@NotNull Recipe> suggestRecipes(@NotNull String prefix, int limit);
+
+    /**
+     * Finds saved users for typeahead suggestions: the ones whose usernames have a token that
+     * starts with the last word of the given prefix, and have each of the prefix's other words as a
+     * whole token (all case-insensitive, with names tokenized as for searches).
+     *
+     * @param prefix the prefix to suggest users for, as typed so far
+     * @param limit the maximum number of users to return
+     * @return the suggested Users, ordered by the token each was matched by and then by username
+     * @throws IllegalArgumentException if limit is negative
+     */
+    @NotNull List<@NotNull User> suggestUsers(@NotNull String prefix, int limit);
+
     /**
      * Generates a recipe non-presentation name (based on the given presentation name), such that no
      * other saved recipe has that same non-presentation name. If
@@ -130,4 +429,13 @@ public interface EntityLoader {
      * @return the generated name
      */
     @NotNull String generateUniqueRecipeName(@Nullable String presentationName);
+
+    /**
+     * Releases a name generated by generateUniqueRecipeName that a recipe won't be saved with
+     * (e.g. because saving the recipe failed), so that the name may be generated again. Names that
+     * recipes were saved with don't need to be released.
+     *
+     * @param name the generated name to release
+     */
+    void releaseUniqueRecipeName(@NotNull String name);
 }
@@ -2,7 +2,9 @@
 package com.recipecart.storage;
 
 import com.recipecart.entities.*;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.function.UnaryOperator;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -48,4 +50,75 @@ public interface EntitySaver {
      * @throws IllegalArgumentException if any usernames of the Users are null
      */
     void updateUsers(@NotNull Collection<@NotNull User> users);
+
+    /**
+     * Atomically replaces the saved User with the given username by the result of applying the
+     * given function to it. No other update to that User can happen between the function reading
+     * the User and its result being saved; if one would, the function is applied again to the newly
+     * saved User instead. Because of this, the function may be called more than once, and it
+     * shouldn't have side effects.
+     *
+     * @param username the username of the User to update
+     * @param updater given the currently saved User, returns the User to save in its place (with
+     *     the same username), or null to leave the saved User as it is
+     * @return the User that's saved once this call is done
+     * @throws IOException if no saved User has the given username
+     * @throws IllegalArgumentException if the updater returns a User with a different username
+     */
+    @NotNull User computeUser(
+            @NotNull String username, @NotNull UnaryOperator<@NotNull User> updater)
+            throws IOException;
+
+    /**
+     * Saves the given Tag, but only if the saved Tag with the same name has the given version (see
+     * EntityLoader.getTagVersion). This fails fast instead of waiting on a conflicting update, so
+     * that callers can reload and retry.
+     *
+     * @param tag the Tag to save
+     * @param expectedVersion the version the saved Tag must have, or EntityLoader.UNSAVED_VERSION
+     *     if no Tag with the same name may be saved yet
+     * @return true if the Tag was saved, false if the version didn't match
+     * @throws IllegalArgumentException if the name of the Tag is null
+     */
+    boolean updateTagIfVersion(@NotNull Tag tag, long expectedVersion);
+
+    /**
+     * Saves the given Ingredient, but only if the saved Ingredient with the same name has the given
+     * version (see EntityLoader.getIngredientVersion). This fails fast instead of waiting on a
+     * conflicting update, so that callers can reload and retry.
+     *
+     * @param ingredient the Ingredient to save
+     * @param expectedVersion the version the saved Ingredient must have, or
+     *     EntityLoader.UNSAVED_VERSION if no Ingredient with the same name may be saved yet
+     * @return true if the Ingredient was saved, false if the version didn't match
+     * @throws IllegalArgumentException if the name of the Ingredient is null
+     */
+    boolean updateIngredientIfVersion(@NotNull Ingredient ingredient, long expectedVersion);
+
+    /**
+     * Saves the given Recipe, but only if the saved Recipe with the same (non-presentation) name
+     * has the given version (see EntityLoader.getRecipeVersion). This fails fast instead of waiting
+     * on a conflicting update, so that callers can reload and retry.
+     *
+     * @param recipe the Recipe to save
+     * @param expectedVersion the version the saved Recipe must have, or
+     *     EntityLoader.UNSAVED_VERSION if no Recipe with the same (non-presentation) name may be
+     *     saved yet
+     * @return true if the Recipe was saved, false if the version didn't match
+     * @throws IllegalArgumentException if the (non-presentation) name of the Recipe is null
+     */
+    boolean updateRecipeIfVersion(@NotNull Recipe recipe, long expectedVersion);
+
+    /**
+     * Saves the given User, but only if the saved User with the same username has the given version
+     * (see EntityLoader.getUserVersion). This fails fast instead of waiting on a conflicting
+     * update, so that callers can reload and retry.
+     *
+     * @param user the User to save
+     * @param expectedVersion the version the saved User must have, or EntityLoader.UNSAVED_VERSION
+     *     if no User with the same username may be saved yet
+     * @return true if the User was saved, false if the version didn't match
+     * @throws IllegalArgumentException if the username of the User is null
+     */
+    boolean updateUserIfVersion(@NotNull User user, long expectedVersion);
 }
@@ -0,0 +1,58 @@
+/* (C)2023 */
+package com.recipecart.storage;
+
+import com.recipecart.entities.Recipe;
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * This class represents one immutable page of the recipes matched by a filtered search, along with
+ * the facet counts of all the search's matches (not just the ones on the page). Both are from the
+ * same matches, which storage found only once for them.
+ */
+public final class FilteredRecipePage {
+    private final @NotNull List<@NotNull Recipe> recipes;
+    private final @NotNull RecipeFacets facets;
+
+    /**
+     * @param recipes the matched recipes on the page, in order
+     * @param facets the facet counts of all the matched recipes
+     */
+    public FilteredRecipePage(
+            @NotNull List<@NotNull Recipe> recipes, @NotNull RecipeFacets facets) {
+        this.recipes = new ArrayList<>(recipes);
+        this.facets = Objects.requireNonNull(facets);
+    }
+
+    /**
+     * @return an unmodifiable view of the matched recipes on the page, in order
+     */
+    @NotNull public List<@NotNull Recipe> getRecipes() {
+        return Collections.unmodifiableList(recipes);
+    }
+
+    /**
+     * @return the facet counts of all the matched recipes
+     */
+    @NotNull public RecipeFacets getFacets() {
+        return facets;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FilteredRecipePage page = (FilteredRecipePage) o;
+        return getRecipes().equals(page.getRecipes()) && getFacets().equals(page.getFacets());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getRecipes(), getFacets());
+    }
+
+    @Override
+    public String toString() {
+        return "FilteredRecipePage{" + "recipes=" + getRecipes() + ", facets=" + getFacets() + '}';
+    }
+}
@@ -0,0 +1,187 @@
+/* (C)2023 */
+package com.recipecart.storage;
+
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class represents immutable facet counts of a set of recipes (e.g. a search's matches): how
+ * many of the recipes there are, how many have each tag, how many have each number of servings,
+ * and how many would be left by each of some maximum total (prep + cook) times and minimum average
+ * ratings. Each count is how many recipes would be left by further filtering the set by that
+ * facet value (see RecipeFilter), so facet values with no recipes are left out, except for the
+ * time and rating bounds.
+ */
+public final class RecipeFacets {
+    /** The maximum total times, in minutes, that recipes are counted by. */
+    public static final List<Integer> MAX_TOTAL_TIME_BOUNDS = List.of(15, 30, 60, 120);
+
+    /** The minimum average ratings that recipes are counted by. */
+    public static final List<Integer> MIN_AVG_RATING_BOUNDS = List.of(1, 2, 3, 4);
+
+    private final int numRecipes;
+    private final @NotNull Map<@NotNull String, @NotNull Integer> tagCounts;
+    private final @NotNull Map<@NotNull Integer, @NotNull Integer> numServingsCounts;
+    private final @NotNull Map<@NotNull Integer, @NotNull Integer> maxTotalTimeCounts;
+    private final @NotNull Map<@NotNull Integer, @NotNull Integer> minAvgRatingCounts;
+
+    private RecipeFacets(
+            int numRecipes,
+            @NotNull Map<@NotNull String, @NotNull Integer> tagCounts,
+            @NotNull Map<@NotNull Integer, @NotNull Integer> numServingsCounts,
+            @NotNull Map<@NotNull Integer, @NotNull Integer> maxTotalTimeCounts,
+            @NotNull Map<@NotNull Integer, @NotNull Integer> minAvgRatingCounts) {
+        this.numRecipes = numRecipes;
+        this.tagCounts = tagCounts;
+        this.numServingsCounts = numServingsCounts;
+        this.maxTotalTimeCounts = maxTotalTimeCounts;
+        this.minAvgRatingCounts = minAvgRatingCounts;
+    }
+
+    /**
+     * @return how many recipes were counted
+     */
+    public int getNumRecipes() {
+        return numRecipes;
+    }
+
+    /**
+     * @return an unmodifiable map of tag names to how many recipes have the tag, sorted by name
+     */
+    @NotNull public Map<@NotNull String, @NotNull Integer> getTagCounts() {
+        return Collections.unmodifiableMap(tagCounts);
+    }
+
+    /**
+     * @return an unmodifiable map of numbers of servings to how many recipes have that number,
+     *     sorted by number
+     */
+    @NotNull public Map<@NotNull Integer, @NotNull Integer> getNumServingsCounts() {
+        return Collections.unmodifiableMap(numServingsCounts);
+    }
+
+    /**
+     * @return an unmodifiable map of each of MAX_TOTAL_TIME_BOUNDS to how many recipes take at
+     *     most that long in total, sorted by bound
+     */
+    @NotNull public Map<@NotNull Integer, @NotNull Integer> getMaxTotalTimeCounts() {
+        return Collections.unmodifiableMap(maxTotalTimeCounts);
+    }
+
+    /**
+     * @return an unmodifiable map of each of MIN_AVG_RATING_BOUNDS to how many recipes are rated
+     *     at least that well on average, sorted by bound
+     */
+    @NotNull public Map<@NotNull Integer, @NotNull Integer> getMinAvgRatingCounts() {
+        return Collections.unmodifiableMap(minAvgRatingCounts);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RecipeFacets facets = (RecipeFacets) o;
+        return getNumRecipes() == facets.getNumRecipes()
+                && getTagCounts().equals(facets.getTagCounts())
+                && getNumServingsCounts().equals(facets.getNumServingsCounts())
+                && getMaxTotalTimeCounts().equals(facets.getMaxTotalTimeCounts())
+                && getMinAvgRatingCounts().equals(facets.getMinAvgRatingCounts());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                getNumRecipes(),
+                getTagCounts(),
+                getNumServingsCounts(),
+                getMaxTotalTimeCounts(),
+                getMinAvgRatingCounts());
+    }
+
+    @Override
+    public String toString() {
+        return "RecipeFacets{"
+                + "numRecipes="
+                + getNumRecipes()
+                + ", tagCounts="
+                + getTagCounts()
+                + ", numServingsCounts="
+                + getNumServingsCounts()
+                + ", maxTotalTimeCounts="
+                + getMaxTotalTimeCounts()
+                + ", minAvgRatingCounts="
+                + getMinAvgRatingCounts()
+                + '}';
+    }
+
+    /**
+     * This class is for building RecipeFacets by counting recipes one-by-one, from the fields
+     * they're faceted by.
+     */
+    public static class Builder {
+        private int numRecipes = 0;
+        private final Map<String, Integer> tagCounts = new TreeMap<>();
+        private final Map<Integer, Integer> numServingsCounts = new TreeMap<>();
+        private final Map<Integer, Integer> maxTotalTimeCounts = new TreeMap<>();
+        private final Map<Integer, Integer> minAvgRatingCounts = new TreeMap<>();
+
+        /** Initializes all counts to 0. */
+        public Builder() {
+            for (int bound : MAX_TOTAL_TIME_BOUNDS) {
+                maxTotalTimeCounts.put(bound, 0);
+            }
+            for (int bound : MIN_AVG_RATING_BOUNDS) {
+                minAvgRatingCounts.put(bound, 0);
+            }
+        }
+
+        /**
+         * @return new RecipeFacets with the counts of the recipes counted so far. Counting more
+         *     recipes will not modify the returned RecipeFacets.
+         */
+        public RecipeFacets build() {
+            return new RecipeFacets(
+                    numRecipes,
+                    new TreeMap<>(tagCounts),
+                    new TreeMap<>(numServingsCounts),
+                    new TreeMap<>(maxTotalTimeCounts),
+                    new TreeMap<>(minAvgRatingCounts));
+        }
+
+        /**
+         * Counts one recipe with the given fields.
+         *
+         * @param tagNames the names of the recipe's tags
+         * @param numServings the recipe's number of servings, if specified
+         * @param totalTime the recipe's total (prep + cook) time, if specified (see
+         *     RecipeFilter.getTotalTime)
+         * @param avgRating the recipe's average rating
+         * @return this
+         */
+        public Builder addRecipe(
+                @NotNull Collection<@NotNull String> tagNames,
+                @Nullable Integer numServings,
+                @Nullable Integer totalTime,
+                double avgRating) {
+            numRecipes++;
+            for (String tagName : tagNames) {
+                tagCounts.merge(tagName, 1, Integer::sum);
+            }
+            if (numServings != null) {
+                numServingsCounts.merge(numServings, 1, Integer::sum);
+            }
+            for (int bound : MAX_TOTAL_TIME_BOUNDS) {
+                if (totalTime != null && totalTime <= bound) {
+                    maxTotalTimeCounts.merge(bound, 1, Integer::sum);
+                }
+            }
+            for (int bound : MIN_AVG_RATING_BOUNDS) {
+                if (avgRating >= bound) {
+                    minAvgRatingCounts.merge(bound, 1, Integer::sum);
+                }
+            }
+            return this;
+        }
+    }
+}
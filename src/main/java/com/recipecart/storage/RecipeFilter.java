@@ -0,0 +1,335 @@
+/* (C)2023 */
+package com.recipecart.storage;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Recipe;
+import com.recipecart.entities.Tag;
+import com.recipecart.utils.Utils;
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class represents immutable criteria for filtering recipes by their structured fields: tags
+ * they must all have, a maximum total (prep + cook) time, a range of numbers of servings, a minimum
+ * average rating, and ingredients they must all require or must not require. A criterion that
+ * isn't specified doesn't filter out any recipes; a recipe that doesn't specify a field that a
+ * criterion is on (e.g. a recipe without a number of servings, for a servings range) is filtered
+ * out by it.
+ */
+public final class RecipeFilter {
+    private final @NotNull Set<@NotNull String> tagNames;
+    private final @Nullable Integer maxTotalTime;
+    private final @Nullable Integer minNumServings;
+    private final @Nullable Integer maxNumServings;
+    private final @Nullable Double minAvgRating;
+    private final @NotNull Set<@NotNull String> requiredIngredientNames;
+    private final @NotNull Set<@NotNull String> excludedIngredientNames;
+
+    private RecipeFilter(
+            @NotNull Set<@NotNull String> tagNames,
+            @Nullable Integer maxTotalTime,
+            @Nullable Integer minNumServings,
+            @Nullable Integer maxNumServings,
+            @Nullable Double minAvgRating,
+            @NotNull Set<@NotNull String> requiredIngredientNames,
+            @NotNull Set<@NotNull String> excludedIngredientNames) {
+        this.tagNames = tagNames;
+        this.maxTotalTime = maxTotalTime;
+        this.minNumServings = minNumServings;
+        this.maxNumServings = maxNumServings;
+        this.minAvgRating = minAvgRating;
+        this.requiredIngredientNames = requiredIngredientNames;
+        this.excludedIngredientNames = excludedIngredientNames;
+    }
+
+    /**
+     * Gets the total time it takes to make a recipe with the given times: the sum of the times
+     * that are specified.
+     *
+     * @param prepTime the recipe's prep time, in minutes
+     * @param cookTime the recipe's cook time, in minutes
+     * @return the recipe's total time, in minutes, or null if neither time is specified
+     */
+    public static @Nullable Integer getTotalTime(
+            @Nullable Integer prepTime, @Nullable Integer cookTime) {
+        if (prepTime == null && cookTime == null) {
+            return null;
+        }
+        return (prepTime != null ? prepTime : 0) + (cookTime != null ? cookTime : 0);
+    }
+
+    /**
+     * @return an unmodifiable set of the names of the tags that recipes must all have
+     */
+    @NotNull public Set<@NotNull String> getTagNames() {
+        return Collections.unmodifiableSet(tagNames);
+    }
+
+    /**
+     * @return the maximum total (prep + cook) time of recipes, in minutes, or null if unspecified
+     */
+    @Nullable public Integer getMaxTotalTime() {
+        return maxTotalTime;
+    }
+
+    /**
+     * @return the minimum number of servings of recipes, or null if unspecified
+     */
+    @Nullable public Integer getMinNumServings() {
+        return minNumServings;
+    }
+
+    /**
+     * @return the maximum number of servings of recipes, or null if unspecified
+     */
+    @Nullable public Integer getMaxNumServings() {
+        return maxNumServings;
+    }
+
+    /**
+     * @return the minimum average rating of recipes, or null if unspecified
+     */
+    @Nullable public Double getMinAvgRating() {
+        return minAvgRating;
+    }
+
+    /**
+     * @return an unmodifiable set of the names of the ingredients that recipes must all require
+     */
+    @NotNull public Set<@NotNull String> getRequiredIngredientNames() {
+        return Collections.unmodifiableSet(requiredIngredientNames);
+    }
+
+    /**
+     * @return an unmodifiable set of the names of the ingredients that recipes must not require
+     */
+    @NotNull public Set<@NotNull String> getExcludedIngredientNames() {
+        return Collections.unmodifiableSet(excludedIngredientNames);
+    }
+
+    /**
+     * @return true if this filter has no criteria (so it filters out no recipes), false otherwise
+     */
+    public boolean isEmpty() {
+        return tagNames.isEmpty()
+                && maxTotalTime == null
+                && minNumServings == null
+                && maxNumServings == null
+                && minAvgRating == null
+                && requiredIngredientNames.isEmpty()
+                && excludedIngredientNames.isEmpty();
+    }
+
+    /**
+     * @return true if this filter's numbers are all non-negative (and finite), and its minimum
+     *     number of servings isn't more than its maximum; false otherwise
+     */
+    public boolean isValid() {
+        if ((maxTotalTime != null && maxTotalTime < 0)
+                || (minNumServings != null && minNumServings < 0)
+                || (maxNumServings != null && maxNumServings < 0)) {
+            return false;
+        }
+        if (minAvgRating != null && !(minAvgRating >= 0 && Double.isFinite(minAvgRating))) {
+            return false;
+        }
+        return minNumServings == null || maxNumServings == null || minNumServings <= maxNumServings;
+    }
+
+    /**
+     * Checks if the given recipe meets every criterion of this filter. Storage filters recipes
+     * with indexes instead of with this method; this method defines what they find.
+     *
+     * @param recipe the recipe to check
+     * @return true if the recipe meets every criterion, false otherwise
+     */
+    public boolean matches(@NotNull Recipe recipe) {
+        Set<String> recipeTagNames = new HashSet<>();
+        for (Tag tag : recipe.getTags()) {
+            recipeTagNames.add(tag.getName());
+        }
+        Set<String> recipeIngredientNames = new HashSet<>();
+        for (Ingredient ingredient : recipe.getRequiredIngredients().keySet()) {
+            recipeIngredientNames.add(ingredient.getName());
+        }
+        Integer totalTime = getTotalTime(recipe.getPrepTime(), recipe.getCookTime());
+        Integer numServings = recipe.getNumServings();
+
+        return recipeTagNames.containsAll(tagNames)
+                && (maxTotalTime == null || (totalTime != null && totalTime <= maxTotalTime))
+                && (minNumServings == null
+                        || (numServings != null && numServings >= minNumServings))
+                && (maxNumServings == null
+                        || (numServings != null && numServings <= maxNumServings))
+                && (minAvgRating == null || recipe.getAvgRating() >= minAvgRating)
+                && recipeIngredientNames.containsAll(requiredIngredientNames)
+                && Collections.disjoint(recipeIngredientNames, excludedIngredientNames);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RecipeFilter filter = (RecipeFilter) o;
+        return getTagNames().equals(filter.getTagNames())
+                && Objects.equals(getMaxTotalTime(), filter.getMaxTotalTime())
+                && Objects.equals(getMinNumServings(), filter.getMinNumServings())
+                && Objects.equals(getMaxNumServings(), filter.getMaxNumServings())
+                && Objects.equals(getMinAvgRating(), filter.getMinAvgRating())
+                && getRequiredIngredientNames().equals(filter.getRequiredIngredientNames())
+                && getExcludedIngredientNames().equals(filter.getExcludedIngredientNames());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                getTagNames(),
+                getMaxTotalTime(),
+                getMinNumServings(),
+                getMaxNumServings(),
+                getMinAvgRating(),
+                getRequiredIngredientNames(),
+                getExcludedIngredientNames());
+    }
+
+    @Override
+    public String toString() {
+        return "RecipeFilter{"
+                + "tagNames="
+                + getTagNames()
+                + ", maxTotalTime="
+                + getMaxTotalTime()
+                + ", minNumServings="
+                + getMinNumServings()
+                + ", maxNumServings="
+                + getMaxNumServings()
+                + ", minAvgRating="
+                + getMinAvgRating()
+                + ", requiredIngredientNames="
+                + getRequiredIngredientNames()
+                + ", excludedIngredientNames="
+                + getExcludedIngredientNames()
+                + '}';
+    }
+
+    /**
+     * This class is for incrementally building a RecipeFilter criterion-by-criterion. Unspecified
+     * criteria don't filter out any recipes.
+     */
+    public static class Builder {
+        private @NotNull Set<@NotNull String> tagNames = Collections.emptySet();
+        private @Nullable Integer maxTotalTime;
+        private @Nullable Integer minNumServings;
+        private @Nullable Integer maxNumServings;
+        private @Nullable Double minAvgRating;
+        private @NotNull Set<@NotNull String> requiredIngredientNames = Collections.emptySet();
+        private @NotNull Set<@NotNull String> excludedIngredientNames = Collections.emptySet();
+
+        /**
+         * @return a new RecipeFilter with the criteria specified via this Builder. Modifying sets
+         *     given to this Builder will not modify the returned RecipeFilter.
+         */
+        public RecipeFilter build() {
+            return new RecipeFilter(
+                    new HashSet<>(tagNames),
+                    maxTotalTime,
+                    minNumServings,
+                    maxNumServings,
+                    minAvgRating,
+                    new HashSet<>(requiredIngredientNames),
+                    new HashSet<>(excludedIngredientNames));
+        }
+
+        /**
+         * Sets the names of the tags that recipes must all have
+         *
+         * @param tagNames the tag names; cannot be null or have null elements
+         * @return this
+         */
+        public Builder setTagNames(@NotNull Set<@NotNull String> tagNames) {
+            Utils.requireAllNotNull(
+                    tagNames, "Tag name set cannot be null", "Tag names cannot be null");
+            this.tagNames = tagNames;
+            return this;
+        }
+
+        /**
+         * Sets the maximum total (prep + cook) time of recipes
+         *
+         * @param maxTotalTime the maximum total time, in minutes, or null to not filter by it
+         * @return this
+         */
+        public Builder setMaxTotalTime(@Nullable Integer maxTotalTime) {
+            this.maxTotalTime = maxTotalTime;
+            return this;
+        }
+
+        /**
+         * Sets the minimum number of servings of recipes
+         *
+         * @param minNumServings the minimum number of servings, or null to not filter by it
+         * @return this
+         */
+        public Builder setMinNumServings(@Nullable Integer minNumServings) {
+            this.minNumServings = minNumServings;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of servings of recipes
+         *
+         * @param maxNumServings the maximum number of servings, or null to not filter by it
+         * @return this
+         */
+        public Builder setMaxNumServings(@Nullable Integer maxNumServings) {
+            this.maxNumServings = maxNumServings;
+            return this;
+        }
+
+        /**
+         * Sets the minimum average rating of recipes
+         *
+         * @param minAvgRating the minimum average rating, or null to not filter by it
+         * @return this
+         */
+        public Builder setMinAvgRating(@Nullable Double minAvgRating) {
+            this.minAvgRating = minAvgRating;
+            return this;
+        }
+
+        /**
+         * Sets the names of the ingredients that recipes must all require
+         *
+         * @param requiredIngredientNames the ingredient names; cannot be null or have null
+         *     elements
+         * @return this
+         */
+        public Builder setRequiredIngredientNames(
+                @NotNull Set<@NotNull String> requiredIngredientNames) {
+            Utils.requireAllNotNull(
+                    requiredIngredientNames,
+                    "Required ingredient name set cannot be null",
+                    "Required ingredient names cannot be null");
+            this.requiredIngredientNames = requiredIngredientNames;
+            return this;
+        }
+
+        /**
+         * Sets the names of the ingredients that recipes must not require
+         *
+         * @param excludedIngredientNames the ingredient names; cannot be null or have null
+         *     elements
+         * @return this
+         */
+        public Builder setExcludedIngredientNames(
+                @NotNull Set<@NotNull String> excludedIngredientNames) {
+            Utils.requireAllNotNull(
+                    excludedIngredientNames,
+                    "Excluded ingredient name set cannot be null",
+                    "Excluded ingredient names cannot be null");
+            this.excludedIngredientNames = excludedIngredientNames;
+            return this;
+        }
+    }
+}
@@ -3,9 +3,7 @@ package com.recipecart.usecases;
 
 import com.recipecart.storage.EntityLoader;
 import com.recipecart.utils.Utils;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -16,16 +14,38 @@ import org.jetbrains.annotations.Nullable;
  * @param <T> the type of entity being searched for (ex. Recipe, etc.)
  */
 public abstract class AbstractSearchCommand<T> extends EntityCommand {
+    /** The maximum number of matches that can be gotten in one page. */
+    public static final int MAX_LIMIT = 100;
+
     private final Set<String> searchTerms;
+    private final int offset;
+    private final @Nullable Integer limit;
     private @Nullable Set<@NotNull T> matchingEntities = null;
+    private @Nullable Integer nextOffset = null;
 
     /**
-     * Creates the action item of searching for an entity.
+     * Creates the action item of searching for an entity, getting all of the matches.
      *
      * @param searchTerms the search terms to use when searching.
      */
     public AbstractSearchCommand(Set<String> searchTerms) {
+        this(searchTerms, 0, null);
+    }
+
+    /**
+     * Creates the action item of searching for an entity, getting one page of the matches: with
+     * the matches sorted by their unique names, the ones from index offset (inclusive) to offset +
+     * limit (exclusive).
+     *
+     * @param searchTerms the search terms to use when searching.
+     * @param offset how many of the (sorted) matches to skip.
+     * @param limit the maximum number of matches to get, or null to get all of them (in which case
+     *     offset must be 0).
+     */
+    public AbstractSearchCommand(Set<String> searchTerms, int offset, @Nullable Integer limit) {
         this.searchTerms = Utils.allowNull(searchTerms, HashSet::new);
+        this.offset = offset;
+        this.limit = limit;
     }
 
     /**
@@ -35,8 +55,25 @@ public abstract class AbstractSearchCommand<T> extends EntityCommand {
         return Utils.allowNull(searchTerms, Collections::unmodifiableSet);
     }
 
+    /**
+     * @return how many of the (sorted) matches this command will skip.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the maximum number of matches this command will get, or null if it will get all of
+     *     them.
+     */
+    @Nullable public Integer getLimit() {
+        return limit;
+    }
+
     /**
      * Returns the entities that matched with the given search terms when executing this command.
+     * If this command gets a page of the matches, then the entities are in the same order as they
+     * are on the page.
      *
      * @throws IllegalStateException if this command instance hasn't finished executing yet.
      * @return the entities that matched. If no entities matched, then the list will be empty. If
@@ -49,6 +86,20 @@ public abstract class AbstractSearchCommand<T> extends EntityCommand {
         return Utils.allowNull(matchingEntities, Collections::unmodifiableSet);
     }
 
+    /**
+     * Returns the offset to get the page of matches after the one this command got.
+     *
+     * @throws IllegalStateException if this command instance hasn't finished executing yet.
+     * @return the offset of the next page, if this command got a page of the matches and more
+     *     matches remain after it; null otherwise.
+     */
+    @Nullable public Integer getNextOffset() {
+        if (!isFinishedExecuting()) {
+            throw new IllegalStateException("Command hasn't finished executing yet");
+        }
+        return nextOffset;
+    }
+
     private void setMatchingEntities(@NotNull Set<@NotNull T> matches) {
         if (isFinishedExecuting()) {
             throw new IllegalStateException(
@@ -89,10 +140,22 @@ public abstract class AbstractSearchCommand<T> extends EntityCommand {
         if (!areSearchTermsValid()) {
             return getNotOkBadSearchTermsMessage();
         }
+        if (!isPageValid()) {
+            return getNotOkBadPageMessage();
+        }
         return null;
     }
 
-    private boolean areSearchTermsValid() {
+    private boolean isPageValid() {
+        return getLimit() == null
+                ? getOffset() == 0
+                : getOffset() >= 0 && getLimit() >= 1 && getLimit() <= MAX_LIMIT;
+    }
+
+    /**
+     * @return true if this command's search terms can be searched with, false otherwise.
+     */
+    protected boolean areSearchTermsValid() {
         return getSearchTerms() != null
                 && !getSearchTerms().isEmpty()
                 && !getSearchTerms().contains(null);
@@ -101,7 +164,9 @@ public abstract class AbstractSearchCommand<T> extends EntityCommand {
     /**
      * Searches for entities that match with the given search terms. Only entities that contain each
      * search term will be matched. The command will be successful if the search was successfully
-     * executed, even if no entities that matched the search terms were found.
+     * executed, even if no entities that matched the search terms were found. If this command gets
+     * a page of the matches, then only that page is loaded from storage, along with whether any
+     * matches remain after it.
      *
      * @throws IllegalStateException if this method has been called before on this command instance.
      */
@@ -115,7 +180,18 @@ public abstract class AbstractSearchCommand<T> extends EntityCommand {
         Set<T> matches;
         try {
             assert getStorageSource() != null; // storage source is always valid at this point
-            matches = searchEntities(getStorageSource().getLoader());
+            EntityLoader loader = getStorageSource().getLoader();
+            if (getLimit() == null) {
+                matches = searchEntities(loader);
+            } else {
+                // one more than the limit is loaded, to tell if any matches remain after the page
+                List<T> page = searchEntityPage(loader, getOffset(), getLimit() + 1);
+                if (page.size() > getLimit()) {
+                    page = page.subList(0, getLimit());
+                    nextOffset = getOffset() + getLimit();
+                }
+                matches = new LinkedHashSet<>(page);
+            }
         } catch (RuntimeException e) {
             finishExecutingFromError(e);
             return;
@@ -140,6 +216,17 @@ public abstract class AbstractSearchCommand<T> extends EntityCommand {
      */
     protected abstract Set<T> searchEntities(EntityLoader loader);
 
+    /**
+     * Searches the storage corresponding to the given loader, for one page of the entities this
+     * command's search term matches with, sorted by their unique names.
+     *
+     * @param loader the loader to do the search with
+     * @param offset how many of the (sorted) matches to skip
+     * @param limit the maximum number of matches to return
+     * @return the page of matching entities based on the search done with the loader
+     */
+    protected abstract List<T> searchEntityPage(EntityLoader loader, int offset, int limit);
+
     /**
      * @return the class name of the entities being searched for.
      */
@@ -162,4 +249,10 @@ public abstract class AbstractSearchCommand<T> extends EntityCommand {
      *     search terms being invalid.
      */
     protected abstract String getNotOkBadSearchTermsMessage();
+
+    /**
+     * @return a message saying that the command's execution was unsuccessful due to the given
+     *     offset or limit being invalid.
+     */
+    protected abstract String getNotOkBadPageMessage();
 }
@@ -0,0 +1,166 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.storage.EntityLoader;
+import com.recipecart.utils.Utils;
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class represents the use case of someone getting typeahead suggestions for RecipeCart
+ * entities, from what they've typed of a search so far.
+ *
+ * @param <T> the type of entity being suggested (ex. Recipe, etc.)
+ */
+public abstract class AbstractSuggestCommand<T> extends EntityCommand {
+    /** The number of suggestions gotten, if no limit is given. */
+    public static final int DEFAULT_LIMIT = 10;
+
+    /** The maximum number of suggestions that can be gotten at once. */
+    public static final int MAX_LIMIT = 100;
+
+    private final String prefix;
+    private final int limit;
+    private @Nullable List<@NotNull T> suggestedEntities = null;
+
+    /**
+     * Creates the action item of getting at most DEFAULT_LIMIT suggestions for an entity.
+     *
+     * @param prefix what's been typed of the search so far.
+     */
+    public AbstractSuggestCommand(String prefix) {
+        this(prefix, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Creates the action item of getting suggestions for an entity.
+     *
+     * @param prefix what's been typed of the search so far.
+     * @param limit the maximum number of suggestions to get.
+     */
+    public AbstractSuggestCommand(String prefix, int limit) {
+        this.prefix = prefix;
+        this.limit = limit;
+    }
+
+    /**
+     * @return what's been typed of the search so far.
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * @return the maximum number of suggestions this command will get.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the entities that were suggested when executing this command, ordered by the name
+     * token each was matched by, and then by unique name.
+     *
+     * @throws IllegalStateException if this command instance hasn't finished executing yet.
+     * @return the suggested entities. If no entities matched, then the list will be empty. If the
+     *     command's execution failed, then the list will be null.
+     */
+    @Nullable public List<@NotNull T> getSuggestedEntities() {
+        if (!isFinishedExecuting()) {
+            throw new IllegalStateException("Command hasn't finished executing yet");
+        }
+        return Utils.allowNull(suggestedEntities, Collections::unmodifiableList);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getInvalidCommandMessage() {
+        String baseMessage = super.getInvalidCommandMessage();
+        if (baseMessage != null) {
+            return baseMessage;
+        }
+        if (getPrefix() == null || getPrefix().isBlank()) {
+            return getNotOkBadPrefixMessage();
+        }
+        if (getLimit() < 1 || getLimit() > MAX_LIMIT) {
+            return getNotOkBadLimitMessage();
+        }
+        return null;
+    }
+
+    /**
+     * Finds at most the given limit of entities that have a name token starting with the last word
+     * of the given prefix, and that have each of the prefix's other words as a whole name token.
+     * The command will be successful if the suggestions were successfully found, even if no
+     * entities matched. If the prefix is null or blank, or the limit isn't between 1 and
+     * MAX_LIMIT, then this command's execution will be unsuccessful.
+     *
+     * @throws IllegalStateException if this method has been called before on this command instance.
+     */
+    @Override
+    public void execute() {
+        checkExecutionAlreadyDone();
+        if (finishInvalidCommand()) {
+            return;
+        }
+
+        List<T> suggestions;
+        try {
+            assert getStorageSource() != null; // storage source is always valid at this point
+            suggestions = suggestEntities(getStorageSource().getLoader(), getPrefix(), getLimit());
+        } catch (RuntimeException e) {
+            finishExecutingFromError(e);
+            return;
+        }
+        finishExecutingSuccessfulSuggestion(suggestions);
+    }
+
+    private void finishExecutingSuccessfulSuggestion(List<T> suggestions) {
+        Utils.requireAllNotNull(
+                suggestions,
+                "Cannot set suggested entities to null",
+                "Cannot have null entities in suggestions");
+        suggestedEntities = suggestions;
+        setExecutionMessage(
+                suggestions.isEmpty()
+                        ? getOkNoSuggestionsFoundMessage()
+                        : getOkSuggestionsFoundMessage());
+        beSuccessful();
+        finishExecuting();
+    }
+
+    /**
+     * Finds suggestions from the storage corresponding to the given loader.
+     *
+     * @param loader the loader to find the suggestions with
+     * @param prefix what's been typed of the search so far
+     * @param limit the maximum number of suggestions to find
+     * @return the suggested entities, in order
+     */
+    protected abstract List<T> suggestEntities(EntityLoader loader, String prefix, int limit);
+
+    /**
+     * @return a message saying that the command's execution was successful, and suggestions were
+     *     found.
+     */
+    protected abstract String getOkSuggestionsFoundMessage();
+
+    /**
+     * @return a message saying that the command's execution was successful, but no entities
+     *     matched the prefix.
+     */
+    protected abstract String getOkNoSuggestionsFoundMessage();
+
+    /**
+     * @return a message saying that the command's execution was unsuccessful due to the given
+     *     prefix being null or blank.
+     */
+    protected abstract String getNotOkBadPrefixMessage();
+
+    /**
+     * @return a message saying that the command's execution was unsuccessful due to the given
+     *     limit being invalid.
+     */
+    protected abstract String getNotOkBadLimitMessage();
+}
@@ -2,7 +2,6 @@
 package com.recipecart.usecases;
 
 import com.recipecart.entities.Ingredient;
-import com.recipecart.entities.User;
 import com.recipecart.utils.Utils;
 import java.io.IOException;
 import java.util.Collections;
@@ -98,11 +97,9 @@ public final class AddIngredientsToShoppingListCommand extends ShoppingListComma
      */
     @Override
     protected Map<Ingredient, Double> performShoppingListUpdate() throws IOException {
-        User shopper = getShopper();
-        Map<Ingredient, Double> updatedShoppingList =
-                Utils.addMaps(shopper.getShoppingList(), getIngredients());
-        saveUpdatedShoppingList(shopper, updatedShoppingList);
-        return updatedShoppingList;
+        Map<Ingredient, Double> ingredients = getIngredients();
+        return updateShoppingList(
+                (shopper) -> Utils.addMaps(shopper.getShoppingList(), ingredients));
     }
 
     private Map<Ingredient, Double> getIngredients() throws IOException {
@@ -107,14 +107,14 @@ public final class AddRecipeToShoppingListCommand extends ShoppingListCommand {
      */
     @Override
     protected Map<Ingredient, Double> performShoppingListUpdate() throws IOException {
-        User shopper = getShopper();
-        Map<Ingredient, Double> updatedShoppingList = getUpdatedShoppingList(shopper);
-        saveUpdatedShoppingList(shopper, updatedShoppingList);
-        return updatedShoppingList;
+        Map<Ingredient, Double> requiredIngredients = getRecipe().getRequiredIngredients();
+        return updateShoppingList(
+                (shopper) -> getUpdatedShoppingList(shopper, requiredIngredients));
     }
 
-    private Map<Ingredient, Double> getUpdatedShoppingList(User shopper) throws IOException {
-        Map<Ingredient, Double> shoppingListUpdate = getRecipe().getRequiredIngredients();
+    private Map<Ingredient, Double> getUpdatedShoppingList(
+            User shopper, Map<Ingredient, Double> requiredIngredients) {
+        Map<Ingredient, Double> shoppingListUpdate = requiredIngredients;
         if (isAddOnlyMissingIngredients()) {
             shoppingListUpdate = new HashMap<>(shoppingListUpdate);
             shoppingListUpdate.keySet().removeAll(shopper.getOwnedIngredients());
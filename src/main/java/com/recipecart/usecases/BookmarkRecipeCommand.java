@@ -4,9 +4,11 @@ package com.recipecart.usecases;
 import com.recipecart.entities.Recipe;
 import com.recipecart.entities.User;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
 import org.jetbrains.annotations.Nullable;
 
 /** This class represents an action item for the use case of a user bookmarking a recipe. */
@@ -130,27 +132,26 @@ public final class BookmarkRecipeCommand extends EntityCommand {
     }
 
     private boolean performBookmarking() throws IOException {
-        User bookmarker = getUser();
         Recipe toBookmark = getRecipe();
 
-        if (isRecipeAlreadyBookmarked(bookmarker, toBookmark)) {
+        AtomicBoolean alreadyBookmarked = new AtomicBoolean();
+        UnaryOperator<User> bookmark =
+                (bookmarker) -> {
+                    alreadyBookmarked.set(isRecipeAlreadyBookmarked(bookmarker, toBookmark));
+                    return alreadyBookmarked.get()
+                            ? null
+                            : getUserWithRecipeBookmarked(bookmarker, toBookmark);
+                };
+        assert getStorageSource() != null;
+        getStorageSource().getSaver().computeUser(getBookmarkerUsername(), bookmark);
+
+        if (alreadyBookmarked.get()) {
             finishExecutingRecipeAlreadyBookmarked();
             return false;
         }
-
-        User updatedBookmarker = getUserWithRecipeBookmarked(bookmarker, toBookmark);
-        saveUser(updatedBookmarker);
         return true;
     }
 
-    private User getUser() throws IOException {
-        assert getStorageSource() != null;
-        return getStorageSource()
-                .getLoader()
-                .getUsersByNames(Collections.singletonList(getBookmarkerUsername()))
-                .get(0);
-    }
-
     private Recipe getRecipe() throws IOException {
         assert getStorageSource() != null;
         return getStorageSource()
@@ -160,18 +161,13 @@ public final class BookmarkRecipeCommand extends EntityCommand {
     }
 
     private boolean isRecipeAlreadyBookmarked(User user, Recipe recipe) {
-        return user.getSavedRecipes().contains(recipe);
+        return user.hasSavedRecipe(recipe.getName());
     }
 
     private User getUserWithRecipeBookmarked(User user, Recipe recipe) {
-        List<Recipe> savedRecipes = new ArrayList<>(user.getSavedRecipes());
-        savedRecipes.add(recipe);
-        return new User.Builder(user).setSavedRecipes(savedRecipes).build();
-    }
-
-    private void saveUser(User user) {
-        assert getStorageSource() != null;
-        getStorageSource().getSaver().updateUsers(Collections.singleton(user));
+        Set<String> savedRecipeNames = new LinkedHashSet<>(user.getSavedRecipeNames());
+        savedRecipeNames.add(recipe.getName());
+        return new User.Builder(user).setSavedRecipeNames(savedRecipeNames).build();
     }
 
     private void finishExecutingRecipeAlreadyBookmarked() {
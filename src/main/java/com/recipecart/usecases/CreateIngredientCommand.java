@@ -4,7 +4,6 @@ package com.recipecart.usecases;
 import com.recipecart.entities.Ingredient;
 import com.recipecart.storage.EntityLoader;
 import com.recipecart.storage.EntitySaver;
-import java.util.Collection;
 
 /** This class represents an action item for the use case of a new ingredient being created. */
 public final class CreateIngredientCommand extends SimpleCreateEntityCommand<Ingredient> {
@@ -66,8 +65,9 @@ public final class CreateIngredientCommand extends SimpleCreateEntityCommand<Ing
 
     /** {@inheritDoc} */
     @Override
-    protected void updateEntities(EntitySaver saver, Collection<Ingredient> entities) {
-        saver.updateIngredients(entities);
+    protected boolean updateEntityIfVersion(
+            EntitySaver saver, Ingredient entity, long expectedVersion) {
+        return saver.updateIngredientIfVersion(entity, expectedVersion);
     }
 
     /** {@inheritDoc} */
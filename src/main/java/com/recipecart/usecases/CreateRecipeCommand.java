@@ -5,6 +5,7 @@ import com.recipecart.entities.Ingredient;
 import com.recipecart.entities.Recipe;
 import com.recipecart.entities.Tag;
 import com.recipecart.entities.User;
+import com.recipecart.storage.EntityLoader;
 import com.recipecart.utils.RecipeForm;
 import com.recipecart.utils.Utils;
 import java.io.IOException;
@@ -218,6 +219,10 @@ public final class CreateRecipeCommand extends EntityCommand {
         try {
             Recipe recipeToAdd = createRecipeFromForm();
             created = saveNewRecipe(recipeToAdd, assignNewName);
+            if (created == null) {
+                finishExecutingRecipeNameTaken();
+                return;
+            }
             addRecipeToAuthoredRecipesOfAuthor(created);
         } catch (RuntimeException e) { // for data access layer failures
             finishExecutingFromError(e);
@@ -236,12 +241,16 @@ public final class CreateRecipeCommand extends EntityCommand {
             assert getStorageSource() != null;
 
             Set<Tag> createdTags = new HashSet<>();
-            getToAdd().getTagNames().stream()
-                    .filter(this::tagIsMissing)
-                    .forEach((tagName) -> createdTags.add(createTag(tagName)));
-
-            if (createdTags.contains(null)) {
-                return null;
+            for (String tagName : getToAdd().getTagNames()) {
+                if (!tagIsMissing(tagName)) {
+                    continue;
+                }
+                Tag created = createTag(tagName);
+                if (created != null) {
+                    createdTags.add(created);
+                } else if (tagIsMissing(tagName)) { // else another command created it first
+                    return null;
+                }
             }
             return createdTags;
         }
@@ -317,12 +326,35 @@ public final class CreateRecipeCommand extends EntityCommand {
         }
     }
 
-    private Recipe saveNewRecipe(Recipe baseRecipe, boolean assignNewName) {
+    // returns null if the given name was taken (by another command) since it was checked
+    private @Nullable Recipe saveNewRecipe(Recipe baseRecipe, boolean assignNewName) {
         assert getStorageSource() != null;
 
-        Recipe toAdd = assignNewName ? generateRecipeWithValidName(baseRecipe) : baseRecipe;
-        getStorageSource().getSaver().updateRecipes(Collections.singletonList(toAdd));
-        return toAdd;
+        if (!assignNewName) {
+            return saveIfUnsaved(baseRecipe) ? baseRecipe : null;
+        }
+        while (true) {
+            Recipe toAdd = generateRecipeWithValidName(baseRecipe);
+            boolean saved = false;
+            try {
+                saved = saveIfUnsaved(toAdd);
+            } finally {
+                // a generated name stays reserved until it's saved, so it's released otherwise
+                if (!saved) {
+                    getStorageSource().getLoader().releaseUniqueRecipeName(toAdd.getName());
+                }
+            }
+            if (saved) {
+                return toAdd;
+            }
+        }
+    }
+
+    private boolean saveIfUnsaved(Recipe toAdd) {
+        assert getStorageSource() != null;
+        return getStorageSource()
+                .getSaver()
+                .updateRecipeIfVersion(toAdd, EntityLoader.UNSAVED_VERSION);
     }
 
     private Recipe generateRecipeWithValidName(Recipe baseRecipe) {
@@ -336,23 +368,23 @@ public final class CreateRecipeCommand extends EntityCommand {
 
     private void addRecipeToAuthoredRecipesOfAuthor(Recipe toAdd) throws IOException {
         assert getStorageSource() != null;
-        User updatedUser = addRecipeToAuthoredRecipesOfUser(toAdd, getAuthorOfRecipe(toAdd));
-        getStorageSource().getSaver().updateUsers(Collections.singletonList(updatedUser));
+        assert toAdd.getAuthorUsername() != null;
+        getStorageSource()
+                .getSaver()
+                .computeUser(
+                        toAdd.getAuthorUsername(),
+                        (author) -> addRecipeToAuthoredRecipesOfUser(toAdd, author));
     }
 
-    private User getAuthorOfRecipe(Recipe recipe) throws IOException {
-        assert getStorageSource() != null;
-        assert recipe.getAuthorUsername() != null;
-        return getStorageSource()
-                .getLoader()
-                .getUsersByNames(Collections.singletonList(recipe.getAuthorUsername()))
-                .get(0);
+    private User addRecipeToAuthoredRecipesOfUser(Recipe toAdd, User user) {
+        Set<String> authoredRecipeNames = new LinkedHashSet<>(user.getAuthoredRecipeNames());
+        authoredRecipeNames.add(toAdd.getName());
+        return new User.Builder(user).setAuthoredRecipeNames(authoredRecipeNames).build();
     }
 
-    private User addRecipeToAuthoredRecipesOfUser(Recipe toAdd, User user) {
-        List<Recipe> authoredRecipes = new ArrayList<>(user.getAuthoredRecipes());
-        authoredRecipes.add(toAdd);
-        return new User.Builder(user).setAuthoredRecipes(authoredRecipes).build();
+    private void finishExecutingRecipeNameTaken() {
+        setExecutionMessage(NOT_OK_RECIPE_NAME_TAKEN);
+        finishExecuting();
     }
 
     private void finishExecutingSuccessfulRecipeCreation(
@@ -4,7 +4,6 @@ package com.recipecart.usecases;
 import com.recipecart.entities.Tag;
 import com.recipecart.storage.EntityLoader;
 import com.recipecart.storage.EntitySaver;
-import java.util.Collection;
 
 /** This class represents an action item for the use case of a new tag being created. */
 public final class CreateTagCommand extends SimpleCreateEntityCommand<Tag> {
@@ -62,8 +61,9 @@ public final class CreateTagCommand extends SimpleCreateEntityCommand<Tag> {
 
     /** {@inheritDoc} */
     @Override
-    protected void updateEntities(EntitySaver saver, Collection<Tag> entities) {
-        saver.updateTags(entities);
+    protected boolean updateEntityIfVersion(
+            EntitySaver saver, Tag entity, long expectedVersion) {
+        return saver.updateTagIfVersion(entity, expectedVersion);
     }
 
     /** {@inheritDoc} */
@@ -4,7 +4,6 @@ package com.recipecart.usecases;
 import com.recipecart.entities.User;
 import com.recipecart.storage.EntityLoader;
 import com.recipecart.storage.EntitySaver;
-import java.util.Collection;
 
 /** This class represents an action item for the use case of a new user being created. */
 public final class CreateUserCommand extends SimpleCreateEntityCommand<User> {
@@ -55,8 +54,9 @@ public final class CreateUserCommand extends SimpleCreateEntityCommand<User> {
 
     /** {@inheritDoc} */
     @Override
-    protected void updateEntities(EntitySaver saver, Collection<User> entities) {
-        saver.updateUsers(entities);
+    protected boolean updateEntityIfVersion(
+            EntitySaver saver, User entity, long expectedVersion) {
+        return saver.updateUserIfVersion(entity, expectedVersion);
     }
 
     /** {@inheritDoc} */
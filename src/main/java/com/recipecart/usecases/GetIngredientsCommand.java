@@ -0,0 +1,57 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.storage.EntityLoader;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents the action item for the use case of retrieving several ingredients at once
+ * from a given EntityStorage.
+ */
+public final class GetIngredientsCommand extends SimpleMultiGetCommand<Ingredient> {
+    public static final String OK_INGREDIENTS_RETRIEVED = "Ingredients retrieval successful",
+            OK_SOME_INGREDIENTS_NOT_FOUND =
+                    "Ingredients retrieval successful: but some of the given names don't"
+                            + " correspond to ingredients",
+            NOT_OK_INVALID_INGREDIENT_NAMES =
+                    "Ingredients retrieval unsuccessful: between 1 and "
+                            + MAX_NAMES
+                            + " non-null ingredient names must be given";
+
+    /**
+     * Creates the action item for retrieving the ingredients with the given names.
+     *
+     * @param names the names of the ingredients to retrieve.
+     */
+    public GetIngredientsCommand(List<String> names) {
+        super(names);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkEntitiesRetrievedMessage() {
+        return OK_INGREDIENTS_RETRIEVED;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkSomeEntitiesNotFoundMessage() {
+        return OK_SOME_INGREDIENTS_NOT_FOUND;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkInvalidNamesMessage() {
+        return NOT_OK_INVALID_INGREDIENT_NAMES;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Map<String, Ingredient> findEntities(
+            EntityLoader loader, Collection<String> entityNames) {
+        return loader.findIngredientsByNames(entityNames);
+    }
+}
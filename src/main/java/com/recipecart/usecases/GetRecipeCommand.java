@@ -3,8 +3,12 @@ package com.recipecart.usecases;
 
 import com.recipecart.entities.Recipe;
 import com.recipecart.storage.EntityLoader;
+import com.recipecart.utils.Utils;
 import java.io.IOException;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * This class represents the action item for the use case of retrieving a recipe from a given
@@ -16,13 +20,49 @@ public final class GetRecipeCommand extends SimpleGetCommand<Recipe> {
                     "Recipe retrieval unsuccessful: a recipe with the given name could not be"
                             + " found";
 
+    private final Set<RecipeExpansion.Part> expansionParts;
+    private @Nullable RecipeExpansion expansion = null;
+
     /**
      * Creates the action item for retrieving a recipe with the given name.
      *
      * @param name the name of the recipe to retrieve.
      */
     public GetRecipeCommand(String name) {
+        this(name, Collections.emptySet());
+    }
+
+    /**
+     * Creates the action item for retrieving a recipe with the given name, along with the given
+     * parts (e.g. its ingredients) of it, as currently saved.
+     *
+     * @param name the name of the recipe to retrieve.
+     * @param expansionParts the parts of the recipe to also retrieve.
+     */
+    public GetRecipeCommand(String name, Set<RecipeExpansion.Part> expansionParts) {
         super(name);
+        this.expansionParts = Utils.allowNull(expansionParts, HashSet::new);
+    }
+
+    /**
+     * @return an unmodifiable view of the parts of the recipe to also retrieve.
+     */
+    public Set<RecipeExpansion.Part> getExpansionParts() {
+        return Utils.allowNull(expansionParts, Collections::unmodifiableSet);
+    }
+
+    /**
+     * Returns the (output) parts of the recipe that were retrieved along with it.
+     *
+     * @throws IllegalStateException if this command instance hasn't finished executing yet.
+     * @return the retrieved parts of the recipe, if the command was successful and some parts were
+     *     to be retrieved; null otherwise.
+     */
+    @Nullable public RecipeExpansion getExpansion() {
+        if (!isFinishedExecuting()) {
+            throw new IllegalStateException("Command hasn't finished executing yet");
+        }
+        return expansion;
     }
 
     /** {@inheritDoc} */
@@ -52,6 +92,10 @@ public final class GetRecipeCommand extends SimpleGetCommand<Recipe> {
     /** {@inheritDoc} */
     @Override
     protected Recipe retrieveEntity(EntityLoader loader, String entityName) throws IOException {
-        return loader.getRecipesByNames(Collections.singletonList(entityName)).get(0);
+        Recipe recipe = loader.getRecipesByNames(Collections.singletonList(entityName)).get(0);
+        if (expansionParts != null && !expansionParts.isEmpty()) {
+            expansion = RecipeExpansion.load(loader, Collections.singleton(recipe), expansionParts);
+        }
+        return recipe;
     }
 }
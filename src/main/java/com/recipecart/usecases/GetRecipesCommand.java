@@ -0,0 +1,57 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.Recipe;
+import com.recipecart.storage.EntityLoader;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents the action item for the use case of retrieving several recipes at once from
+ * a given EntityStorage.
+ */
+public final class GetRecipesCommand extends SimpleMultiGetCommand<Recipe> {
+    public static final String OK_RECIPES_RETRIEVED = "Recipes retrieval successful",
+            OK_SOME_RECIPES_NOT_FOUND =
+                    "Recipes retrieval successful: but some of the given names don't correspond to"
+                            + " recipes",
+            NOT_OK_INVALID_RECIPE_NAMES =
+                    "Recipes retrieval unsuccessful: between 1 and "
+                            + MAX_NAMES
+                            + " non-null recipe names must be given";
+
+    /**
+     * Creates the action item for retrieving the recipes with the given names.
+     *
+     * @param names the names of the recipes to retrieve.
+     */
+    public GetRecipesCommand(List<String> names) {
+        super(names);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkEntitiesRetrievedMessage() {
+        return OK_RECIPES_RETRIEVED;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkSomeEntitiesNotFoundMessage() {
+        return OK_SOME_RECIPES_NOT_FOUND;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkInvalidNamesMessage() {
+        return NOT_OK_INVALID_RECIPE_NAMES;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Map<String, Recipe> findEntities(
+            EntityLoader loader, Collection<String> entityNames) {
+        return loader.findRecipesByNames(entityNames);
+    }
+}
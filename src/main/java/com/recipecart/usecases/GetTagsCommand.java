@@ -0,0 +1,56 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.Tag;
+import com.recipecart.storage.EntityLoader;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents the action item for the use case of retrieving several tags at once from
+ * a given EntityStorage.
+ */
+public final class GetTagsCommand extends SimpleMultiGetCommand<Tag> {
+    public static final String OK_TAGS_RETRIEVED = "Tags retrieval successful",
+            OK_SOME_TAGS_NOT_FOUND =
+                    "Tags retrieval successful: but some of the given names don't correspond to"
+                            + " tags",
+            NOT_OK_INVALID_TAG_NAMES =
+                    "Tags retrieval unsuccessful: between 1 and "
+                            + MAX_NAMES
+                            + " non-null tag names must be given";
+
+    /**
+     * Creates the action item for retrieving the tags with the given names.
+     *
+     * @param names the names of the tags to retrieve.
+     */
+    public GetTagsCommand(List<String> names) {
+        super(names);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkEntitiesRetrievedMessage() {
+        return OK_TAGS_RETRIEVED;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkSomeEntitiesNotFoundMessage() {
+        return OK_SOME_TAGS_NOT_FOUND;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkInvalidNamesMessage() {
+        return NOT_OK_INVALID_TAG_NAMES;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Map<String, Tag> findEntities(EntityLoader loader, Collection<String> entityNames) {
+        return loader.findTagsByNames(entityNames);
+    }
+}
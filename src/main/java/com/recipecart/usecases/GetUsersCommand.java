@@ -0,0 +1,56 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.User;
+import com.recipecart.storage.EntityLoader;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents the action item for the use case of retrieving several users at once from
+ * a given EntityStorage.
+ */
+public final class GetUsersCommand extends SimpleMultiGetCommand<User> {
+    public static final String OK_USERS_RETRIEVED = "Users retrieval successful",
+            OK_SOME_USERS_NOT_FOUND =
+                    "Users retrieval successful: but some of the given names don't correspond to"
+                            + " users",
+            NOT_OK_INVALID_USER_NAMES =
+                    "Users retrieval unsuccessful: between 1 and "
+                            + MAX_NAMES
+                            + " non-null user names must be given";
+
+    /**
+     * Creates the action item for retrieving the users with the given names.
+     *
+     * @param names the names of the users to retrieve.
+     */
+    public GetUsersCommand(List<String> names) {
+        super(names);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkEntitiesRetrievedMessage() {
+        return OK_USERS_RETRIEVED;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkSomeEntitiesNotFoundMessage() {
+        return OK_SOME_USERS_NOT_FOUND;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkInvalidNamesMessage() {
+        return NOT_OK_INVALID_USER_NAMES;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Map<String, User> findEntities(EntityLoader loader, Collection<String> entityNames) {
+        return loader.findUsersByNames(entityNames);
+    }
+}
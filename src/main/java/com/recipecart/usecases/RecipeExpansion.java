@@ -0,0 +1,103 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Recipe;
+import com.recipecart.entities.Tag;
+import com.recipecart.entities.User;
+import com.recipecart.storage.EntityLoader;
+import com.recipecart.utils.Utils;
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class holds the entities that some recipes refer to by name (their ingredients, tags, and
+ * authors), as currently saved in an EntityStorage. Each kind of entity is loaded with one loader
+ * call for all the recipes together, so a client can get a recipe along with everything it
+ * refers to without making a request per entity.
+ */
+public final class RecipeExpansion {
+    /** The kinds of entities, referred to by recipes, that can be expanded. */
+    public enum Part {
+        INGREDIENTS,
+        TAGS,
+        AUTHOR
+    }
+
+    private final @Nullable List<@NotNull Ingredient> ingredients;
+    private final @Nullable List<@NotNull Tag> tags;
+    private final @Nullable List<@NotNull User> authors;
+
+    private RecipeExpansion(
+            @Nullable List<@NotNull Ingredient> ingredients,
+            @Nullable List<@NotNull Tag> tags,
+            @Nullable List<@NotNull User> authors) {
+        this.ingredients = ingredients;
+        this.tags = tags;
+        this.authors = authors;
+    }
+
+    /**
+     * Loads the given parts of the given recipes from the storage corresponding to the given
+     * loader. Entities that the recipes refer to, but that aren't saved, are left out.
+     *
+     * @param loader the loader to load the entities with
+     * @param recipes the recipes whose ingredients, tags, and/or authors to load
+     * @param parts which of the recipes' ingredients, tags, and authors to load
+     * @return the loaded entities
+     */
+    static @NotNull RecipeExpansion load(
+            @NotNull EntityLoader loader,
+            @NotNull Collection<@NotNull Recipe> recipes,
+            @NotNull Set<@NotNull Part> parts) {
+        List<Ingredient> ingredients = null;
+        List<Tag> tags = null;
+        List<User> authors = null;
+        if (parts.contains(Part.INGREDIENTS)) {
+            Set<String> names = new LinkedHashSet<>();
+            for (Recipe recipe : recipes) {
+                recipe.getRequiredIngredients().keySet().forEach((i) -> names.add(i.getName()));
+            }
+            ingredients = new ArrayList<>(loader.findIngredientsByNames(names).values());
+        }
+        if (parts.contains(Part.TAGS)) {
+            Set<String> names = new LinkedHashSet<>();
+            for (Recipe recipe : recipes) {
+                recipe.getTags().forEach((tag) -> names.add(tag.getName()));
+            }
+            tags = new ArrayList<>(loader.findTagsByNames(names).values());
+        }
+        if (parts.contains(Part.AUTHOR)) {
+            Set<String> usernames = new LinkedHashSet<>();
+            for (Recipe recipe : recipes) {
+                if (recipe.getAuthorUsername() != null) {
+                    usernames.add(recipe.getAuthorUsername());
+                }
+            }
+            authors = new ArrayList<>(loader.findUsersByNames(usernames).values());
+        }
+        return new RecipeExpansion(ingredients, tags, authors);
+    }
+
+    /**
+     * @return the saved ingredients the recipes require, or null if they weren't expanded.
+     */
+    @Nullable public List<@NotNull Ingredient> getIngredients() {
+        return Utils.allowNull(ingredients, Collections::unmodifiableList);
+    }
+
+    /**
+     * @return the saved tags the recipes have, or null if they weren't expanded.
+     */
+    @Nullable public List<@NotNull Tag> getTags() {
+        return Utils.allowNull(tags, Collections::unmodifiableList);
+    }
+
+    /**
+     * @return the saved users who authored the recipes, or null if they weren't expanded.
+     */
+    @Nullable public List<@NotNull User> getAuthors() {
+        return Utils.allowNull(authors, Collections::unmodifiableList);
+    }
+}
@@ -0,0 +1,144 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Recipe;
+import com.recipecart.entities.Tag;
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class ranks recipes by how relevant they are to some search terms. Each search term adds
+ * the weight of the most important field it occurs in (names, then tags, then ingredients), and
+ * how well the recipe is rated adds a little more, with recipes that have few ratings counting as
+ * less well-rated than their average says. Text is tokenized the same way recipe names are for
+ * searches: lowercased, then split on whitespace.
+ */
+final class RecipeRanking {
+    static final double NAME_WEIGHT = 3, TAG_WEIGHT = 2, INGREDIENT_WEIGHT = 1;
+
+    // so that the best-rated recipe is worth at most one ingredient match more than the worst
+    static final double RATING_WEIGHT = 0.2;
+
+    // how many ratings a recipe needs for its average to count for half of what it would otherwise
+    static final int RATING_PRIOR = 5;
+
+    // ranks higher scores first, then (for a stable order between pages) names alphabetically
+    private static final Comparator<ScoredRecipe> BEST_FIRST =
+            Comparator.comparingDouble(ScoredRecipe::getScore)
+                    .reversed()
+                    .thenComparing(
+                            (scored) -> scored.getRecipe().getName(),
+                            Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private RecipeRanking() {}
+
+    /**
+     * Scores how relevant the given recipe is to the given search terms (case-insensitive).
+     *
+     * @param recipe the recipe to score
+     * @param searchTerms the search terms to score the recipe against
+     * @return the recipe's score; higher is more relevant
+     */
+    static double score(@NotNull Recipe recipe, @NotNull Set<@NotNull String> searchTerms) {
+        Set<String> nameTokens = new HashSet<>();
+        addTokens(nameTokens, recipe.getName());
+        addTokens(nameTokens, recipe.getPresentationName());
+        Set<String> tagTokens = new HashSet<>();
+        for (Tag tag : recipe.getTags()) {
+            addTokens(tagTokens, tag.getName());
+        }
+        Set<String> ingredientTokens = new HashSet<>();
+        for (Ingredient ingredient : recipe.getRequiredIngredients().keySet()) {
+            addTokens(ingredientTokens, ingredient.getName());
+        }
+
+        double relevance = 0;
+        for (String term : searchTerms) {
+            String token = term.toLowerCase(Locale.ROOT);
+            if (nameTokens.contains(token)) {
+                relevance += NAME_WEIGHT;
+            } else if (tagTokens.contains(token)) {
+                relevance += TAG_WEIGHT;
+            } else if (ingredientTokens.contains(token)) {
+                relevance += INGREDIENT_WEIGHT;
+            }
+        }
+        double shrunkRating =
+                recipe.getAvgRating()
+                        * recipe.getNumRatings()
+                        / (recipe.getNumRatings() + RATING_PRIOR);
+        return relevance + RATING_WEIGHT * shrunkRating;
+    }
+
+    private static void addTokens(Set<String> tokens, @Nullable String text) {
+        if (text != null) {
+            tokens.addAll(Arrays.asList(text.toLowerCase(Locale.ROOT).split("\\s+")));
+        }
+    }
+
+    /**
+     * Selects one page of the given recipes, ranked by their scores against the given search
+     * terms: the recipes that would be at indices offset (inclusive) to offset + limit (exclusive)
+     * if all the recipes were ranked. Only the best offset + limit recipes are kept while
+     * selecting, so the other recipes are never sorted.
+     *
+     * @param recipes the recipes to select from
+     * @param searchTerms the search terms to score the recipes against
+     * @param offset how many of the best-ranked recipes to skip
+     * @param limit the maximum number of recipes to select
+     * @return the selected recipes, best-ranked first
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    static @NotNull List<@NotNull Recipe> selectPage(
+            @NotNull Collection<@NotNull Recipe> recipes,
+            @NotNull Set<@NotNull String> searchTerms,
+            int offset,
+            int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative");
+        }
+        if (limit == 0 || offset >= recipes.size()) {
+            return new ArrayList<>();
+        }
+
+        int end = (int) Math.min((long) offset + limit, recipes.size());
+        PriorityQueue<ScoredRecipe> worstFirst = new PriorityQueue<>(end, BEST_FIRST.reversed());
+        for (Recipe recipe : recipes) {
+            ScoredRecipe scored = new ScoredRecipe(recipe, score(recipe, searchTerms));
+            if (worstFirst.size() < end) {
+                worstFirst.add(scored);
+            } else if (BEST_FIRST.compare(scored, worstFirst.peek()) < 0) {
+                worstFirst.poll();
+                worstFirst.add(scored);
+            }
+        }
+
+        List<ScoredRecipe> best = new ArrayList<>(worstFirst);
+        best.sort(BEST_FIRST);
+        List<Recipe> page = new ArrayList<>(best.size() - offset);
+        for (ScoredRecipe scored : best.subList(offset, best.size())) {
+            page.add(scored.getRecipe());
+        }
+        return page;
+    }
+
+    private static final class ScoredRecipe {
+        private final Recipe recipe;
+        private final double score;
+
+        private ScoredRecipe(Recipe recipe, double score) {
+            this.recipe = recipe;
+            this.score = score;
+        }
+
+        private Recipe getRecipe() {
+            return recipe;
+        }
+
+        private double getScore() {
+            return score;
+        }
+    }
+}
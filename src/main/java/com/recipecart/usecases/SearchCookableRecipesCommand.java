@@ -0,0 +1,237 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Recipe;
+import com.recipecart.entities.User;
+import com.recipecart.storage.EntityLoader;
+import com.recipecart.utils.Utils;
+import java.io.IOException;
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class represents the use case of a user searching for the recipes they can make with the
+ * ingredients they own: the recipes whose required ingredients are all owned by the user, except
+ * for at most some given number of them.
+ */
+public final class SearchCookableRecipesCommand extends EntityCommand {
+    public static final String
+            OK_RECIPES_FOUND =
+                    "Cookable recipe search successful: recipes the user can make were found",
+            OK_NO_RECIPES_FOUND =
+                    "Cookable recipe search successful: but no recipes the user can make were"
+                            + " found",
+            NOT_OK_INVALID_USERNAME =
+                    "Cookable recipe search unsuccessful: the given username was null",
+            NOT_OK_USER_NOT_FOUND =
+                    "Cookable recipe search unsuccessful: the given username doesn't correspond to"
+                            + " an existing user",
+            NOT_OK_BAD_MAX_MISSING =
+                    "Cookable recipe search unsuccessful: the maximum number of missing"
+                            + " ingredients was negative",
+            NOT_OK_BAD_PAGE =
+                    "Cookable recipe search unsuccessful: the offset or limit of the search was"
+                            + " invalid";
+
+    /** The maximum number of recipes that can be gotten in one page. */
+    public static final int MAX_LIMIT = 100;
+
+    private final String username;
+    private final int maxMissing;
+    private final int offset;
+    private final int limit;
+    private @Nullable List<@NotNull Recipe> cookableRecipes = null;
+    private @Nullable Map<@NotNull String, @NotNull List<@NotNull Ingredient>> missingIngredients =
+            null;
+    private @Nullable Integer nextOffset = null;
+
+    /**
+     * Creates the action item of searching for one page of the recipes the given user can make:
+     * with the recipes sorted by how many of their required ingredients the user doesn't own
+     * (fewest first), and then by (non-presentation) name, the ones from index offset (inclusive)
+     * to offset + limit (exclusive).
+     *
+     * @param username the username of the user who would make the recipes.
+     * @param maxMissing the maximum number of a recipe's required ingredients that the user can not
+     *     own while still being able to make it (e.g. 0 for the recipes the user has everything
+     *     for).
+     * @param offset how many of the (sorted) recipes to skip.
+     * @param limit the maximum number of recipes to get, between 1 and MAX_LIMIT.
+     */
+    public SearchCookableRecipesCommand(String username, int maxMissing, int offset, int limit) {
+        this.username = username;
+        this.maxMissing = maxMissing;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * @return the username of the user who would make the recipes.
+     */
+    @Nullable public String getUsername() {
+        return username;
+    }
+
+    /**
+     * @return the maximum number of a recipe's required ingredients that the user can not own.
+     */
+    public int getMaxMissing() {
+        return maxMissing;
+    }
+
+    /**
+     * @return how many of the (sorted) recipes this command will skip.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the maximum number of recipes this command will get.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the recipes that the user can make, as found when executing this command, in the
+     * order they are on the page.
+     *
+     * @throws IllegalStateException if this command instance hasn't finished executing yet.
+     * @return the recipes the user can make, if the command was successful; null otherwise.
+     */
+    @Nullable public List<@NotNull Recipe> getCookableRecipes() {
+        if (!isFinishedExecuting()) {
+            throw new IllegalStateException("Command hasn't finished executing yet");
+        }
+        return Utils.allowNull(cookableRecipes, Collections::unmodifiableList);
+    }
+
+    /**
+     * Returns, for each of the recipes that the user can make, the required ingredients of the
+     * recipe that the user doesn't own, sorted by name.
+     *
+     * @throws IllegalStateException if this command instance hasn't finished executing yet.
+     * @return the recipes' (non-presentation) names mapping to their required ingredients that the
+     *     user doesn't own (which may be none), if the command was successful; null otherwise.
+     */
+    @Nullable public Map<@NotNull String, @NotNull List<@NotNull Ingredient>>
+            getMissingIngredients() {
+        if (!isFinishedExecuting()) {
+            throw new IllegalStateException("Command hasn't finished executing yet");
+        }
+        return Utils.allowNull(missingIngredients, Collections::unmodifiableMap);
+    }
+
+    /**
+     * Returns the offset to get the page of recipes after the one this command got.
+     *
+     * @throws IllegalStateException if this command instance hasn't finished executing yet.
+     * @return the offset of the next page, if more recipes remain after this command's page; null
+     *     otherwise.
+     */
+    @Nullable public Integer getNextOffset() {
+        if (!isFinishedExecuting()) {
+            throw new IllegalStateException("Command hasn't finished executing yet");
+        }
+        return nextOffset;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getInvalidCommandMessage() {
+        String baseMessage = super.getInvalidCommandMessage();
+        if (baseMessage != null) {
+            return baseMessage;
+        }
+        if (getUsername() == null) {
+            return NOT_OK_INVALID_USERNAME;
+        }
+        if (getMaxMissing() < 0) {
+            return NOT_OK_BAD_MAX_MISSING;
+        }
+        if (getOffset() < 0 || getLimit() < 1 || getLimit() > MAX_LIMIT) {
+            return NOT_OK_BAD_PAGE;
+        }
+        try {
+            if (!doesUserExist()) {
+                return NOT_OK_USER_NOT_FOUND;
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            return NOT_OK_ERROR;
+        }
+        return null;
+    }
+
+    private boolean doesUserExist() {
+        assert getStorageSource() != null;
+        return getStorageSource().getLoader().usernameExists(getUsername());
+    }
+
+    /**
+     * Finds the page of recipes that the user can make with the ingredients they own, along with
+     * which of each recipe's required ingredients the user doesn't own. The command will be
+     * successful if the search was successfully executed, even if the user can't make any recipes.
+     * The command will be unsuccessful if the given username has no associated user, or if the
+     * maximum number of missing ingredients, offset, or limit is invalid.
+     *
+     * @throws IllegalStateException if this method has been called before on this command instance.
+     */
+    @Override
+    public void execute() {
+        checkExecutionAlreadyDone();
+        if (finishInvalidCommand()) {
+            return;
+        }
+
+        Set<String> ownedNames;
+        List<Recipe> page;
+        try {
+            assert getStorageSource() != null; // storage source is always valid at this point
+            EntityLoader loader = getStorageSource().getLoader();
+            User user = loader.getUsersByNames(Collections.singletonList(getUsername())).get(0);
+            ownedNames = new HashSet<>();
+            for (Ingredient owned : user.getOwnedIngredients()) {
+                ownedNames.add(owned.getName());
+            }
+            // one more than the limit is loaded, to tell if any recipes remain after the page
+            page =
+                    loader.findCookableRecipes(
+                            ownedNames, getMaxMissing(), getOffset(), getLimit() + 1);
+        } catch (RuntimeException e) {
+            finishExecutingFromError(e);
+            return;
+        } catch (IOException e) {
+            finishExecutingImpossibleOutcome(e);
+            return;
+        }
+
+        if (page.size() > getLimit()) {
+            page = page.subList(0, getLimit());
+            nextOffset = getOffset() + getLimit();
+        }
+        finishExecutingSuccessfulSearch(new ArrayList<>(page), ownedNames);
+    }
+
+    private void finishExecutingSuccessfulSearch(List<Recipe> recipes, Set<String> ownedNames) {
+        Map<String, List<Ingredient>> missing = new LinkedHashMap<>();
+        for (Recipe recipe : recipes) {
+            List<Ingredient> notOwned = new ArrayList<>();
+            for (Ingredient required : recipe.getRequiredIngredients().keySet()) {
+                if (!ownedNames.contains(required.getName())) {
+                    notOwned.add(required);
+                }
+            }
+            notOwned.sort(Comparator.comparing(Ingredient::getName));
+            missing.put(recipe.getName(), notOwned);
+        }
+        cookableRecipes = recipes;
+        missingIngredients = missing;
+        setExecutionMessage(recipes.isEmpty() ? OK_NO_RECIPES_FOUND : OK_RECIPES_FOUND);
+        beSuccessful();
+        finishExecuting();
+    }
+}
@@ -3,7 +3,9 @@ package com.recipecart.usecases;
 
 import com.recipecart.entities.Ingredient;
 import com.recipecart.storage.EntityLoader;
+import java.util.List;
 import java.util.Set;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * This class represents the use case of a user searching for ingredients using given search terms.
@@ -13,7 +15,11 @@ public final class SearchIngredientsCommand extends AbstractSearchCommand<Ingred
             OK_MATCHES_FOUND = "Search successful: ingredients that matched were found",
             OK_NO_MATCHES_FOUND = "Search successful: but no matching ingredients were found",
             NOT_OK_BAD_SEARCH_TERMS =
-                    "Search unsuccessful: ingredient search terms were not well-formed";
+                    "Search unsuccessful: ingredient search terms were not well-formed",
+            NOT_OK_BAD_PAGE =
+                    "Search unsuccessful: the offset or limit of the ingredient search was invalid";
+
+    private final boolean fuzzy;
 
     /**
      * Creates the action item of searching for an Ingredient(s).
@@ -21,13 +27,59 @@ public final class SearchIngredientsCommand extends AbstractSearchCommand<Ingred
      * @param searchTerms the search terms to use when searching.
      */
     public SearchIngredientsCommand(Set<String> searchTerms) {
-        super(searchTerms);
+        this(searchTerms, 0, null);
+    }
+
+    /**
+     * Creates the action item of searching for one page of an Ingredient(s).
+     *
+     * @param searchTerms the search terms to use when searching.
+     * @param offset how many of the matches, sorted by name, to skip.
+     * @param limit the maximum number of matches to get, or null to get all of them.
+     */
+    public SearchIngredientsCommand(Set<String> searchTerms, int offset, @Nullable Integer limit) {
+        this(searchTerms, offset, limit, false);
+    }
+
+    /**
+     * Creates the action item of searching for one page of an Ingredient(s), optionally tolerating
+     * misspelled search terms. A fuzzy search matches the ingredients whose names contain a token
+     * similar to (within a few edits of) a search term; see
+     * EntityLoader.findSimilarIngredientTokens.
+     *
+     * @param searchTerms the search terms to use when searching.
+     * @param offset how many of the matches, sorted by name, to skip.
+     * @param limit the maximum number of matches to get, or null to get all of them.
+     * @param fuzzy whether to tolerate misspelled search terms.
+     */
+    public SearchIngredientsCommand(
+            Set<String> searchTerms, int offset, @Nullable Integer limit, boolean fuzzy) {
+        super(searchTerms, offset, limit);
+        this.fuzzy = fuzzy;
+    }
+
+    /**
+     * @return whether this command tolerates misspelled search terms.
+     */
+    public boolean isFuzzy() {
+        return fuzzy;
+    }
+
+    // in a fuzzy search, the search terms are replaced by the tokens they're similar to
+    private Set<String> getSearchTokens(EntityLoader loader) {
+        return fuzzy ? loader.findSimilarIngredientTokens(getSearchTerms()) : getSearchTerms();
     }
 
     /** {@inheritDoc} */
     @Override
     protected Set<Ingredient> searchEntities(EntityLoader loader) {
-        return loader.searchIngredients(getSearchTerms());
+        return loader.searchIngredients(getSearchTokens(loader));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected List<Ingredient> searchEntityPage(EntityLoader loader, int offset, int limit) {
+        return loader.searchIngredients(getSearchTokens(loader), offset, limit);
     }
 
     /** {@inheritDoc} */
@@ -53,4 +105,10 @@ public final class SearchIngredientsCommand extends AbstractSearchCommand<Ingred
     protected String getNotOkBadSearchTermsMessage() {
         return NOT_OK_BAD_SEARCH_TERMS;
     }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkBadPageMessage() {
+        return NOT_OK_BAD_PAGE;
+    }
 }
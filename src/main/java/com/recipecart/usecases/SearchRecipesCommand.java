@@ -3,7 +3,12 @@ package com.recipecart.usecases;
 
 import com.recipecart.entities.Recipe;
 import com.recipecart.storage.EntityLoader;
+import com.recipecart.storage.FilteredRecipePage;
+import com.recipecart.storage.RecipeFacets;
+import com.recipecart.storage.RecipeFilter;
+import com.recipecart.utils.Utils;
 import java.util.*;
+import org.jetbrains.annotations.Nullable;
 
 /** This class represents the use case of a user searching for recipes using given search terms. */
 public final class SearchRecipesCommand extends AbstractSearchCommand<Recipe> {
@@ -11,7 +16,30 @@ public final class SearchRecipesCommand extends AbstractSearchCommand<Recipe> {
             OK_MATCHES_FOUND = "Search successful: recipes that matched were found",
             OK_NO_MATCHES_FOUND = "Search successful: but no matching recipes were found",
             NOT_OK_BAD_SEARCH_TERMS =
-                    "Search unsuccessful: recipe search terms were not well-formed";
+                    "Search unsuccessful: recipe search terms were not well-formed",
+            NOT_OK_BAD_PAGE =
+                    "Search unsuccessful: the offset or limit of the recipe search was invalid",
+            NOT_OK_BAD_ORDER = "Search unsuccessful: the order of the recipe search was invalid",
+            NOT_OK_BAD_FILTER =
+                    "Search unsuccessful: the filters of the recipe search were invalid";
+
+    /** The orders that the matching recipes can be in. */
+    public enum Order {
+        /** Alphabetically by (non-presentation) name. */
+        NAME,
+        /**
+         * Most relevant first: by how many search terms are in each recipe's names, tags, and
+         * ingredients (with names weighted most), and then by how well each recipe is rated.
+         */
+        RELEVANCE
+    }
+
+    private final Set<RecipeExpansion.Part> expansionParts;
+    private final @Nullable Order order;
+    private final boolean fuzzy;
+    private final @Nullable RecipeFilter filter;
+    private @Nullable RecipeExpansion expansion = null;
+    private @Nullable RecipeFacets facets = null;
 
     /**
      * Creates the action item of searching for a Recipe(s).
@@ -19,13 +47,286 @@ public final class SearchRecipesCommand extends AbstractSearchCommand<Recipe> {
      * @param searchTerms the search terms to use when searching.
      */
     public SearchRecipesCommand(Set<String> searchTerms) {
-        super(searchTerms);
+        this(searchTerms, Collections.emptySet());
+    }
+
+    /**
+     * Creates the action item of searching for one page of a Recipe(s).
+     *
+     * @param searchTerms the search terms to use when searching.
+     * @param offset how many of the matches, sorted by (non-presentation) name, to skip.
+     * @param limit the maximum number of matches to get, or null to get all of them.
+     */
+    public SearchRecipesCommand(Set<String> searchTerms, int offset, @Nullable Integer limit) {
+        this(searchTerms, offset, limit, Collections.emptySet());
+    }
+
+    /**
+     * Creates the action item of searching for a Recipe(s), along with the given parts (e.g. their
+     * ingredients) of the matching recipes, as currently saved.
+     *
+     * @param searchTerms the search terms to use when searching.
+     * @param expansionParts the parts of the matching recipes to also retrieve.
+     */
+    public SearchRecipesCommand(Set<String> searchTerms, Set<RecipeExpansion.Part> expansionParts) {
+        this(searchTerms, 0, null, expansionParts);
+    }
+
+    /**
+     * Creates the action item of searching for one page of a Recipe(s), along with the given parts
+     * (e.g. their ingredients) of the recipes on the page, as currently saved.
+     *
+     * @param searchTerms the search terms to use when searching.
+     * @param offset how many of the matches, sorted by (non-presentation) name, to skip.
+     * @param limit the maximum number of matches to get, or null to get all of them.
+     * @param expansionParts the parts of the matching recipes to also retrieve.
+     */
+    public SearchRecipesCommand(
+            Set<String> searchTerms,
+            int offset,
+            @Nullable Integer limit,
+            Set<RecipeExpansion.Part> expansionParts) {
+        this(searchTerms, offset, limit, expansionParts, Order.NAME);
+    }
+
+    /**
+     * Creates the action item of searching for one page of a Recipe(s), in the given order, along
+     * with the given parts (e.g. their ingredients) of the recipes on the page, as currently saved.
+     * In RELEVANCE order, only the best-ranked offset + limit matches are kept while ranking them,
+     * so the rest of the matches are never sorted.
+     *
+     * @param searchTerms the search terms to use when searching.
+     * @param offset how many of the matches, in the given order, to skip.
+     * @param limit the maximum number of matches to get, or null to get all of them.
+     * @param expansionParts the parts of the matching recipes to also retrieve.
+     * @param order the order of the matches; if null, then the search will be unsuccessful.
+     */
+    public SearchRecipesCommand(
+            Set<String> searchTerms,
+            int offset,
+            @Nullable Integer limit,
+            Set<RecipeExpansion.Part> expansionParts,
+            @Nullable Order order) {
+        this(searchTerms, offset, limit, expansionParts, order, false);
+    }
+
+    /**
+     * Creates the action item of searching for one page of a Recipe(s), in the given order, along
+     * with the given parts (e.g. their ingredients) of the recipes on the page, as currently saved,
+     * optionally tolerating misspelled search terms. A fuzzy search matches (and in RELEVANCE
+     * order, ranks) the recipes by the tokens similar to (within a few edits of) the search terms,
+     * instead of by the search terms themselves; see EntityLoader.findSimilarRecipeTokens.
+     *
+     * @param searchTerms the search terms to use when searching.
+     * @param offset how many of the matches, in the given order, to skip.
+     * @param limit the maximum number of matches to get, or null to get all of them.
+     * @param expansionParts the parts of the matching recipes to also retrieve.
+     * @param order the order of the matches; if null, then the search will be unsuccessful.
+     * @param fuzzy whether to tolerate misspelled search terms.
+     */
+    public SearchRecipesCommand(
+            Set<String> searchTerms,
+            int offset,
+            @Nullable Integer limit,
+            Set<RecipeExpansion.Part> expansionParts,
+            @Nullable Order order,
+            boolean fuzzy) {
+        this(searchTerms, offset, limit, expansionParts, order, fuzzy, null);
+    }
+
+    /**
+     * Creates the action item of searching for one page of a Recipe(s) as in the six-argument
+     * constructor, but only matching the recipes that also meet every criterion of the given
+     * filter, and also counting the facets (e.g. how many have each tag) of all the matches. The
+     * filter is evaluated by storage's indexes, instead of by filtering the matches after loading
+     * them. If the filter has any criteria, then the search terms may be null or empty, in which
+     * case every recipe meeting the filter's criteria is matched.
+     *
+     * @param searchTerms the search terms to use when searching.
+     * @param offset how many of the matches, in the given order, to skip.
+     * @param limit the maximum number of matches to get, or null to get all of them.
+     * @param expansionParts the parts of the matching recipes to also retrieve.
+     * @param order the order of the matches; if null, then the search will be unsuccessful.
+     * @param fuzzy whether to tolerate misspelled search terms.
+     * @param filter the criteria the matching recipes must meet, or null to not filter them (or
+     *     count their facets).
+     */
+    public SearchRecipesCommand(
+            Set<String> searchTerms,
+            int offset,
+            @Nullable Integer limit,
+            Set<RecipeExpansion.Part> expansionParts,
+            @Nullable Order order,
+            boolean fuzzy,
+            @Nullable RecipeFilter filter) {
+        super(searchTerms, offset, limit);
+        this.expansionParts = Utils.allowNull(expansionParts, HashSet::new);
+        this.order = order;
+        this.fuzzy = fuzzy;
+        this.filter = filter;
+    }
+
+    /**
+     * @return an unmodifiable view of the parts of the matching recipes to also retrieve.
+     */
+    public Set<RecipeExpansion.Part> getExpansionParts() {
+        return Utils.allowNull(expansionParts, Collections::unmodifiableSet);
+    }
+
+    /**
+     * @return the order of the matching recipes.
+     */
+    @Nullable public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * @return whether this command tolerates misspelled search terms.
+     */
+    public boolean isFuzzy() {
+        return fuzzy;
+    }
+
+    /**
+     * @return the criteria the matching recipes must meet, or null if they aren't filtered.
+     */
+    @Nullable public RecipeFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Returns the (output) parts of the matching recipes that were retrieved along with them.
+     *
+     * @throws IllegalStateException if this command instance hasn't finished executing yet.
+     * @return the retrieved parts of all the matching recipes, if the command was successful and
+     *     some parts were to be retrieved; null otherwise.
+     */
+    @Nullable public RecipeExpansion getExpansion() {
+        if (!isFinishedExecuting()) {
+            throw new IllegalStateException("Command hasn't finished executing yet");
+        }
+        return expansion;
+    }
+
+    /**
+     * Returns the facet counts of all the matching recipes (not just the ones on the page, if this
+     * command got a page of the matches).
+     *
+     * @throws IllegalStateException if this command instance hasn't finished executing yet.
+     * @return the facet counts of the matching recipes, if the command was successful and had a
+     *     filter; null otherwise.
+     */
+    @Nullable public RecipeFacets getFacets() {
+        if (!isFinishedExecuting()) {
+            throw new IllegalStateException("Command hasn't finished executing yet");
+        }
+        return facets;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getInvalidCommandMessage() {
+        String baseMessage = super.getInvalidCommandMessage();
+        if (baseMessage != null) {
+            return baseMessage;
+        }
+        if (getOrder() == null) {
+            return NOT_OK_BAD_ORDER;
+        }
+        if (getFilter() != null && !getFilter().isValid()) {
+            return NOT_OK_BAD_FILTER;
+        }
+        return null;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected boolean areSearchTermsValid() {
+        if (hasNoSearchTerms() && filter != null && !filter.isEmpty()) {
+            return true;
+        }
+        return super.areSearchTermsValid();
+    }
+
+    private boolean hasNoSearchTerms() {
+        return getSearchTerms() == null || getSearchTerms().isEmpty();
+    }
+
+    // in a fuzzy search, the search terms are replaced by the tokens they're similar to; with no
+    // search terms, recipes aren't matched by name (so null is returned)
+    private @Nullable Set<String> getSearchTokens(EntityLoader loader) {
+        if (hasNoSearchTerms()) {
+            return null;
+        }
+        return fuzzy ? loader.findSimilarRecipeTokens(getSearchTerms()) : getSearchTerms();
+    }
+
+    private Set<Recipe> loadMatches(EntityLoader loader, @Nullable Set<String> tokens) {
+        if (filter == null) {
+            assert tokens != null; // search terms are only optional with a filter
+            return loader.searchRecipes(tokens);
+        }
+        return new LinkedHashSet<>(loadFilteredMatchPage(loader, tokens, 0, Integer.MAX_VALUE));
+    }
+
+    private List<Recipe> loadMatchPage(
+            EntityLoader loader, @Nullable Set<String> tokens, int offset, int limit) {
+        if (filter == null) {
+            assert tokens != null;
+            return loader.searchRecipes(tokens, offset, limit);
+        }
+        return loadFilteredMatchPage(loader, tokens, offset, limit);
+    }
+
+    // the facets are counted from the same matches as the page, in one call to storage
+    private List<Recipe> loadFilteredMatchPage(
+            EntityLoader loader, @Nullable Set<String> tokens, int offset, int limit) {
+        assert filter != null;
+        FilteredRecipePage page = loader.searchRecipesWithFacets(tokens, filter, offset, limit);
+        facets = page.getFacets();
+        return page.getRecipes();
+    }
+
+    private static Set<String> getRankingTerms(@Nullable Set<String> tokens) {
+        return tokens != null ? tokens : Collections.emptySet();
     }
 
     /** {@inheritDoc} */
     @Override
     protected Set<Recipe> searchEntities(EntityLoader loader) {
-        return loader.searchRecipes(getSearchTerms());
+        Set<String> tokens = getSearchTokens(loader);
+        Set<Recipe> matches = loadMatches(loader, tokens);
+        if (order == Order.RELEVANCE) {
+            matches =
+                    new LinkedHashSet<>(
+                            RecipeRanking.selectPage(
+                                    matches, getRankingTerms(tokens), 0, matches.size()));
+        }
+        expand(loader, matches);
+        return matches;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected List<Recipe> searchEntityPage(EntityLoader loader, int offset, int limit) {
+        Set<String> tokens = getSearchTokens(loader);
+        List<Recipe> page =
+                order == Order.RELEVANCE
+                        ? RecipeRanking.selectPage(
+                                loadMatches(loader, tokens),
+                                getRankingTerms(tokens),
+                                offset,
+                                limit)
+                        : loadMatchPage(loader, tokens, offset, limit);
+        // the page may have one more recipe than asked for, which won't be in the matches
+        expand(loader, page.subList(0, Math.min(page.size(), getLimit())));
+        return page;
+    }
+
+    private void expand(EntityLoader loader, Collection<Recipe> recipes) {
+        if (expansionParts != null && !expansionParts.isEmpty()) {
+            expansion = RecipeExpansion.load(loader, recipes, expansionParts);
+        }
     }
 
     /** {@inheritDoc} */
@@ -51,4 +352,10 @@ public final class SearchRecipesCommand extends AbstractSearchCommand<Recipe> {
     protected String getNotOkBadSearchTermsMessage() {
         return NOT_OK_BAD_SEARCH_TERMS;
     }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkBadPageMessage() {
+        return NOT_OK_BAD_PAGE;
+    }
 }
@@ -3,13 +3,17 @@ package com.recipecart.usecases;
 
 import com.recipecart.entities.Tag;
 import com.recipecart.storage.EntityLoader;
+import java.util.List;
 import java.util.Set;
+import org.jetbrains.annotations.Nullable;
 
 /** This class represents the use case of a user searching for tags using given search terms. */
 public final class SearchTagsCommand extends AbstractSearchCommand<Tag> {
     public static final String OK_MATCHES_FOUND = "Search successful: tags that matched were found",
             OK_NO_MATCHES_FOUND = "Search successful: but no matching tags were found",
-            NOT_OK_BAD_SEARCH_TERMS = "Search unsuccessful: tag search terms were not well-formed";
+            NOT_OK_BAD_SEARCH_TERMS = "Search unsuccessful: tag search terms were not well-formed",
+            NOT_OK_BAD_PAGE =
+                    "Search unsuccessful: the offset or limit of the tag search was invalid";
 
     /**
      * Creates the action item of searching for a Tag(s).
@@ -20,12 +24,29 @@ public final class SearchTagsCommand extends AbstractSearchCommand<Tag> {
         super(searchTerms);
     }
 
+    /**
+     * Creates the action item of searching for one page of a Tag(s).
+     *
+     * @param searchTerms the search terms to use when searching.
+     * @param offset how many of the matches, sorted by name, to skip.
+     * @param limit the maximum number of matches to get, or null to get all of them.
+     */
+    public SearchTagsCommand(Set<String> searchTerms, int offset, @Nullable Integer limit) {
+        super(searchTerms, offset, limit);
+    }
+
     /** {@inheritDoc} */
     @Override
     protected Set<Tag> searchEntities(EntityLoader loader) {
         return loader.searchTags(getSearchTerms());
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected List<Tag> searchEntityPage(EntityLoader loader, int offset, int limit) {
+        return loader.searchTags(getSearchTerms(), offset, limit);
+    }
+
     /** {@inheritDoc} */
     @Override
     protected String getEntityClassName() {
@@ -49,4 +70,10 @@ public final class SearchTagsCommand extends AbstractSearchCommand<Tag> {
     protected String getNotOkBadSearchTermsMessage() {
         return NOT_OK_BAD_SEARCH_TERMS;
     }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkBadPageMessage() {
+        return NOT_OK_BAD_PAGE;
+    }
 }
@@ -3,14 +3,18 @@ package com.recipecart.usecases;
 
 import com.recipecart.entities.User;
 import com.recipecart.storage.EntityLoader;
+import java.util.List;
 import java.util.Set;
+import org.jetbrains.annotations.Nullable;
 
 /** This class represents the use case of a user searching for users using given search terms. */
 public final class SearchUsersCommand extends AbstractSearchCommand<User> {
     public static final String
             OK_MATCHES_FOUND = "Search successful: users that matched were found",
             OK_NO_MATCHES_FOUND = "Search successful: but no matching users were found",
-            NOT_OK_BAD_SEARCH_TERMS = "Search unsuccessful: user search terms were not well-formed";
+            NOT_OK_BAD_SEARCH_TERMS = "Search unsuccessful: user search terms were not well-formed",
+            NOT_OK_BAD_PAGE =
+                    "Search unsuccessful: the offset or limit of the user search was invalid";
 
     /**
      * Creates the action item of searching for a User(s).
@@ -21,12 +25,29 @@ public final class SearchUsersCommand extends AbstractSearchCommand<User> {
         super(searchTerms);
     }
 
+    /**
+     * Creates the action item of searching for one page of a User(s).
+     *
+     * @param searchTerms the search terms to use when searching.
+     * @param offset how many of the matches, sorted by username, to skip.
+     * @param limit the maximum number of matches to get, or null to get all of them.
+     */
+    public SearchUsersCommand(Set<String> searchTerms, int offset, @Nullable Integer limit) {
+        super(searchTerms, offset, limit);
+    }
+
     /** {@inheritDoc} */
     @Override
     protected Set<User> searchEntities(EntityLoader loader) {
         return loader.searchUsers(getSearchTerms());
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected List<User> searchEntityPage(EntityLoader loader, int offset, int limit) {
+        return loader.searchUsers(getSearchTerms(), offset, limit);
+    }
+
     /** {@inheritDoc} */
     @Override
     protected String getEntityClassName() {
@@ -50,4 +71,10 @@ public final class SearchUsersCommand extends AbstractSearchCommand<User> {
     protected String getNotOkBadSearchTermsMessage() {
         return NOT_OK_BAD_SEARCH_TERMS;
     }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkBadPageMessage() {
+        return NOT_OK_BAD_PAGE;
+    }
 }
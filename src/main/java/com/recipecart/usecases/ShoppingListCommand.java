@@ -3,11 +3,11 @@ package com.recipecart.usecases;
 
 import com.recipecart.entities.Ingredient;
 import com.recipecart.entities.User;
-import com.recipecart.storage.EntitySaver;
 import com.recipecart.utils.Utils;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Map;
+import java.util.function.Function;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -110,17 +110,28 @@ public abstract class ShoppingListCommand extends EntityCommand {
     }
 
     /**
-     * Saves the given user into the storage, except with their shopping list updated to the given
-     * one.
+     * Atomically saves the user into the storage, except with their shopping list updated to the
+     * one computed by the given function. The function may be called more than once (see
+     * EntitySaver.computeUser), so it shouldn't have side effects.
      *
-     * @param shopper the user whose shopping list is to be updated; remains unmodified
-     * @param updatedShoppingList the new shopping list to give the user
+     * @param getUpdatedShoppingList computes the new shopping list from the currently saved user;
+     *     doesn't modify the user
+     * @return the new shopping list that was saved
+     * @throws IOException if the username given into this command has no associated user in the
+     *     entity storage given into this command.
      */
-    protected void saveUpdatedShoppingList(
-            User shopper, Map<Ingredient, Double> updatedShoppingList) {
-        User updatedShopper = getUserWithUpdatedShoppingList(shopper, updatedShoppingList);
+    protected Map<Ingredient, Double> updateShoppingList(
+            Function<User, Map<Ingredient, Double>> getUpdatedShoppingList) throws IOException {
         assert getStorageSource() != null;
-        saveUser(updatedShopper, getStorageSource().getSaver());
+        User updatedShopper =
+                getStorageSource()
+                        .getSaver()
+                        .computeUser(
+                                getShopperUsername(),
+                                (shopper) ->
+                                        getUserWithUpdatedShoppingList(
+                                                shopper, getUpdatedShoppingList.apply(shopper)));
+        return updatedShopper.getShoppingList();
     }
 
     /**
@@ -137,23 +148,6 @@ public abstract class ShoppingListCommand extends EntityCommand {
         return Utils.allowNull(resultShoppingList, Collections::unmodifiableMap);
     }
 
-    /**
-     * @return the saved User associated with the username given to this command.
-     * @throws IOException if the username given into this command has no associated user in the
-     *     entity storage given into this command.
-     */
-    protected User getShopper() throws IOException {
-        assert getStorageSource() != null;
-        return getStorageSource()
-                .getLoader()
-                .getUsersByNames(Collections.singletonList(getShopperUsername()))
-                .get(0);
-    }
-
-    private static void saveUser(User user, EntitySaver saver) {
-        saver.updateUsers(Collections.singleton(user));
-    }
-
     /**
      * Sets this command's output state so that its result shopping list is the given one.
      *
@@ -3,8 +3,6 @@ package com.recipecart.usecases;
 
 import com.recipecart.storage.EntityLoader;
 import com.recipecart.storage.EntitySaver;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.Objects;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -110,7 +108,10 @@ public abstract class SimpleCreateEntityCommand<T> extends EntityCommand {
         }
 
         try {
-            saveEntity(getEntityToAdd());
+            if (!saveEntity(getEntityToAdd())) {
+                finishExecutingEntityNameTaken();
+                return;
+            }
         } catch (RuntimeException e) {
             finishExecutingFromError(e);
             return;
@@ -119,10 +120,17 @@ public abstract class SimpleCreateEntityCommand<T> extends EntityCommand {
         finishExecutingSuccessfulEntityCreation(getEntityToAdd());
     }
 
-    private void saveEntity(T toSave) {
+    // fails if an entity with the same name was saved since the name was checked
+    private boolean saveEntity(T toSave) {
         assert getStorageSource() != null;
 
-        updateEntities(getStorageSource().getSaver(), Collections.singletonList(toSave));
+        return updateEntityIfVersion(
+                getStorageSource().getSaver(), toSave, EntityLoader.UNSAVED_VERSION);
+    }
+
+    private void finishExecutingEntityNameTaken() {
+        setExecutionMessage(getNotOkEntityNameAlreadyTakenMessage());
+        finishExecuting();
     }
 
     private void finishExecutingSuccessfulEntityCreation(T created) {
@@ -164,12 +172,16 @@ public abstract class SimpleCreateEntityCommand<T> extends EntityCommand {
     protected abstract String getEntityClassName();
 
     /**
-     * Saves the given entities into the given storage.
+     * Saves the given entity into the given storage, but only if the saved entity (of the same
+     * type) with the same name has the given version.
      *
-     * @param saver the storage to save the entities into.
-     * @param entities the entities to save.
+     * @param saver the storage to save the entity into.
+     * @param entity the entity to save.
+     * @param expectedVersion the version the saved entity must have.
+     * @return true if the entity was saved, false if the version didn't match.
      */
-    protected abstract void updateEntities(EntitySaver saver, Collection<T> entities);
+    protected abstract boolean updateEntityIfVersion(
+            EntitySaver saver, T entity, long expectedVersion);
 
     /**
      * Checks the storage corresponding to the given loader, if an entity (of the same type) with
@@ -0,0 +1,167 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.storage.EntityLoader;
+import com.recipecart.utils.Utils;
+import java.util.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class represents the action item of entities, of type T, with the given names, being
+ * retrieved from a given EntityStorage all at once. Unlike SimpleGetCommand, names that don't
+ * correspond to a saved entity don't make the whole retrieval unsuccessful; they're reported as
+ * missing instead.
+ *
+ * @param <T> the type of the entities (e.g. Tag, Ingredient, User, Recipe) to be retrieved
+ */
+public abstract class SimpleMultiGetCommand<T> extends EntityCommand {
+    /** The maximum number of names that can be retrieved by one command. */
+    public static final int MAX_NAMES = 100;
+
+    private final List<String> names;
+    private @Nullable List<@NotNull T> retrievedEntities = null;
+    private @Nullable List<@NotNull String> missingNames = null;
+
+    /**
+     * Creates the action item of retrieving the entities, of type T, with the given names.
+     *
+     * @param names the names of the T entities to retrieve
+     */
+    SimpleMultiGetCommand(List<String> names) {
+        this.names = Utils.allowNull(names, ArrayList::new);
+    }
+
+    /**
+     * @return an unmodifiable view of the names of the entities to retrieve.
+     */
+    public List<String> getEntityNames() {
+        return Utils.allowNull(names, Collections::unmodifiableList);
+    }
+
+    /**
+     * Returns the (output) T's that were retrieved when executing this command, in the order their
+     * names were given (without duplicates).
+     *
+     * @throws IllegalStateException if this command instance hasn't finished executing yet.
+     * @return the T's that were retrieved, if the command was successful; null otherwise.
+     */
+    @Nullable public List<@NotNull T> getRetrievedEntities() {
+        if (!isFinishedExecuting()) {
+            throw new IllegalStateException("Command hasn't finished executing yet");
+        }
+        return Utils.allowNull(retrievedEntities, Collections::unmodifiableList);
+    }
+
+    /**
+     * Returns the given names that didn't correspond to any saved T when executing this command, in
+     * the order they were given (without duplicates).
+     *
+     * @throws IllegalStateException if this command instance hasn't finished executing yet.
+     * @return the names with no saved T, if the command was successful; null otherwise.
+     */
+    @Nullable public List<@NotNull String> getMissingNames() {
+        if (!isFinishedExecuting()) {
+            throw new IllegalStateException("Command hasn't finished executing yet");
+        }
+        return Utils.allowNull(missingNames, Collections::unmodifiableList);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getInvalidCommandMessage() {
+        String baseMessage = super.getInvalidCommandMessage();
+        if (baseMessage != null) {
+            return baseMessage;
+        }
+        if (!areNamesValid()) {
+            return getNotOkInvalidNamesMessage();
+        }
+        return null;
+    }
+
+    private boolean areNamesValid() {
+        return getEntityNames() != null
+                && !getEntityNames().isEmpty()
+                && getEntityNames().size() <= MAX_NAMES
+                && !getEntityNames().contains(null);
+    }
+
+    /**
+     * Retrieves the saved entities (T) with the given names, all at once. The command will be
+     * successful if the retrieval was successfully executed, even if some (or all) of the names
+     * didn't correspond to any saved entity. If the names are null, empty, contain null, or are
+     * more than MAX_NAMES, then this command's execution will be unsuccessful.
+     *
+     * @throws IllegalStateException if this method has been called before on this command instance.
+     */
+    @Override
+    public void execute() {
+        checkExecutionAlreadyDone();
+        if (finishInvalidCommand()) {
+            return;
+        }
+
+        Set<String> uniqueNames = new LinkedHashSet<>(getEntityNames());
+        Map<String, T> found;
+        try {
+            assert getStorageSource() != null; // storage source is always valid at this point
+            found = findEntities(getStorageSource().getLoader(), uniqueNames);
+        } catch (RuntimeException e) {
+            finishExecutingFromError(e);
+            return;
+        }
+
+        List<T> retrieved = new ArrayList<>(found.size());
+        List<String> missing = new ArrayList<>();
+        for (String name : uniqueNames) {
+            T entity = found.get(name);
+            if (entity != null) {
+                retrieved.add(entity);
+            } else {
+                missing.add(name);
+            }
+        }
+        finishExecutingSuccessfulRetrieval(retrieved, missing);
+    }
+
+    private void finishExecutingSuccessfulRetrieval(List<T> retrieved, List<String> missing) {
+        retrievedEntities = retrieved;
+        missingNames = missing;
+        setExecutionMessage(
+                missing.isEmpty()
+                        ? getOkEntitiesRetrievedMessage()
+                        : getOkSomeEntitiesNotFoundMessage());
+        beSuccessful();
+        finishExecuting();
+    }
+
+    /**
+     * @return a message saying that the command's execution was successful; all the entities with
+     *     the given names were retrieved.
+     */
+    protected abstract String getOkEntitiesRetrievedMessage();
+
+    /**
+     * @return a message saying that the command's execution was successful, but some of the given
+     *     names didn't correspond to any saved entity (of the same type).
+     */
+    protected abstract String getOkSomeEntitiesNotFoundMessage();
+
+    /**
+     * @return a message saying that the command's execution was unsuccessful, as the given names
+     *     were not well-formed.
+     */
+    protected abstract String getNotOkInvalidNamesMessage();
+
+    /**
+     * Retrieves the entities with the given names from the storage corresponding to the given
+     * loader, all at once.
+     *
+     * @param loader the loader to do the retrieval with
+     * @param entityNames the names of the entities to retrieve
+     * @return the retrieved entities, keyed by name; names with no saved entity aren't keys
+     */
+    protected abstract Map<String, T> findEntities(
+            EntityLoader loader, Collection<String> entityNames);
+}
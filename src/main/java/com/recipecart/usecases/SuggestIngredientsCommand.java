@@ -0,0 +1,69 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.storage.EntityLoader;
+import java.util.List;
+
+/**
+ * This class represents the use case of a user getting typeahead suggestions for ingredients, from
+ * what they've typed so far.
+ */
+public final class SuggestIngredientsCommand extends AbstractSuggestCommand<Ingredient> {
+    public static final String
+            OK_SUGGESTIONS_FOUND = "Suggestion successful: ingredients that matched were found",
+            OK_NO_SUGGESTIONS_FOUND =
+                    "Suggestion successful: but no matching ingredients were found",
+            NOT_OK_BAD_PREFIX = "Suggestion unsuccessful: the ingredient prefix was blank",
+            NOT_OK_BAD_LIMIT =
+                    "Suggestion unsuccessful: the limit of the ingredient suggestions was invalid";
+
+    /**
+     * Creates the action item of getting at most DEFAULT_LIMIT suggestions for a Ingredient.
+     *
+     * @param prefix what's been typed of the search so far.
+     */
+    public SuggestIngredientsCommand(String prefix) {
+        super(prefix);
+    }
+
+    /**
+     * Creates the action item of getting suggestions for a Ingredient.
+     *
+     * @param prefix what's been typed of the search so far.
+     * @param limit the maximum number of suggestions to get.
+     */
+    public SuggestIngredientsCommand(String prefix, int limit) {
+        super(prefix, limit);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected List<Ingredient> suggestEntities(EntityLoader loader, String prefix, int limit) {
+        return loader.suggestIngredients(prefix, limit);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkSuggestionsFoundMessage() {
+        return OK_SUGGESTIONS_FOUND;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkNoSuggestionsFoundMessage() {
+        return OK_NO_SUGGESTIONS_FOUND;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkBadPrefixMessage() {
+        return NOT_OK_BAD_PREFIX;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkBadLimitMessage() {
+        return NOT_OK_BAD_LIMIT;
+    }
+}
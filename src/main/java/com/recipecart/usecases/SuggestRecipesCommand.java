@@ -0,0 +1,68 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.Recipe;
+import com.recipecart.storage.EntityLoader;
+import java.util.List;
+
+/**
+ * This class represents the use case of a user getting typeahead suggestions for recipes, from what
+ * they've typed so far.
+ */
+public final class SuggestRecipesCommand extends AbstractSuggestCommand<Recipe> {
+    public static final String
+            OK_SUGGESTIONS_FOUND = "Suggestion successful: recipes that matched were found",
+            OK_NO_SUGGESTIONS_FOUND = "Suggestion successful: but no matching recipes were found",
+            NOT_OK_BAD_PREFIX = "Suggestion unsuccessful: the recipe prefix was blank",
+            NOT_OK_BAD_LIMIT =
+                    "Suggestion unsuccessful: the limit of the recipe suggestions was invalid";
+
+    /**
+     * Creates the action item of getting at most DEFAULT_LIMIT suggestions for a Recipe.
+     *
+     * @param prefix what's been typed of the search so far.
+     */
+    public SuggestRecipesCommand(String prefix) {
+        super(prefix);
+    }
+
+    /**
+     * Creates the action item of getting suggestions for a Recipe.
+     *
+     * @param prefix what's been typed of the search so far.
+     * @param limit the maximum number of suggestions to get.
+     */
+    public SuggestRecipesCommand(String prefix, int limit) {
+        super(prefix, limit);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected List<Recipe> suggestEntities(EntityLoader loader, String prefix, int limit) {
+        return loader.suggestRecipes(prefix, limit);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkSuggestionsFoundMessage() {
+        return OK_SUGGESTIONS_FOUND;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkNoSuggestionsFoundMessage() {
+        return OK_NO_SUGGESTIONS_FOUND;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkBadPrefixMessage() {
+        return NOT_OK_BAD_PREFIX;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkBadLimitMessage() {
+        return NOT_OK_BAD_LIMIT;
+    }
+}
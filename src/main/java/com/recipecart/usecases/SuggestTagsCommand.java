@@ -0,0 +1,68 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.Tag;
+import com.recipecart.storage.EntityLoader;
+import java.util.List;
+
+/**
+ * This class represents the use case of a user getting typeahead suggestions for tags, from what
+ * they've typed so far.
+ */
+public final class SuggestTagsCommand extends AbstractSuggestCommand<Tag> {
+    public static final String
+            OK_SUGGESTIONS_FOUND = "Suggestion successful: tags that matched were found",
+            OK_NO_SUGGESTIONS_FOUND = "Suggestion successful: but no matching tags were found",
+            NOT_OK_BAD_PREFIX = "Suggestion unsuccessful: the tag prefix was blank",
+            NOT_OK_BAD_LIMIT =
+                    "Suggestion unsuccessful: the limit of the tag suggestions was invalid";
+
+    /**
+     * Creates the action item of getting at most DEFAULT_LIMIT suggestions for a Tag.
+     *
+     * @param prefix what's been typed of the search so far.
+     */
+    public SuggestTagsCommand(String prefix) {
+        super(prefix);
+    }
+
+    /**
+     * Creates the action item of getting suggestions for a Tag.
+     *
+     * @param prefix what's been typed of the search so far.
+     * @param limit the maximum number of suggestions to get.
+     */
+    public SuggestTagsCommand(String prefix, int limit) {
+        super(prefix, limit);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected List<Tag> suggestEntities(EntityLoader loader, String prefix, int limit) {
+        return loader.suggestTags(prefix, limit);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkSuggestionsFoundMessage() {
+        return OK_SUGGESTIONS_FOUND;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getOkNoSuggestionsFoundMessage() {
+        return OK_NO_SUGGESTIONS_FOUND;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkBadPrefixMessage() {
+        return NOT_OK_BAD_PREFIX;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected String getNotOkBadLimitMessage() {
+        return NOT_OK_BAD_LIMIT;
+    }
+}
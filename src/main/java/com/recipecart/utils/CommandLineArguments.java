@@ -1,6 +1,7 @@
 /* (C)2023 */
 package com.recipecart.utils;
 
+import java.util.Set;
 import org.apache.commons.cli.*;
 
 /**
@@ -14,15 +15,46 @@ public class CommandLineArguments {
             FILENAME_OPTION = "f",
             PORT_OPTION = "p",
             UPDATES_PER_AUTOSAVE_OPTION = "u",
+            JOURNAL_OPTION = "j",
+            SYNC_JOURNAL_OPTION = "y",
+            BACKGROUND_AUTOSAVE_OPTION = "b",
+            LAZY_LOAD_OPTION = "l",
             DISABLE_FINAL_SAVE_OPTION = "d",
             MOCK_DATA_OPTION = "m",
+            STRIPED_LOCKS_OPTION = "s",
+            COPY_ON_WRITE_OPTION = "c",
+            EXECUTOR_OPTION = "e",
+            EXECUTOR_THREADS_OPTION = "t",
+            VIRTUAL_THREADS_OPTION = "v",
+            FIXED_EXECUTOR = "fixed",
+            WORK_STEALING_EXECUTOR = "work-stealing",
             HELP_OPTION = "h";
-    private static final int MIN_PORT = 1024, MAX_PORT = 65535, NO_AUTOSAVE_VALUE = 0;
+    private static final int MIN_PORT = 1024,
+            MAX_PORT = 65535,
+            NO_AUTOSAVE_VALUE = 0,
+            UNBOUNDED_EXECUTOR_THREADS = Integer.MAX_VALUE;
 
     private final Options options;
-    private final Integer port, updatesPerAutosave;
-    private final Boolean autosave, disableFinalSave, mockData, help, valid;
-    private final String filename;
+    private static final Set<String> EXECUTORS = Set.of(FIXED_EXECUTOR, WORK_STEALING_EXECUTOR);
+
+    private final Integer port,
+            updatesPerAutosave,
+            updatesPerCompaction,
+            lazyLoadCacheSize,
+            executorThreads;
+    private final Boolean autosave,
+            backgroundAutosave,
+            journal,
+            syncJournal,
+            lazyLoad,
+            disableFinalSave,
+            mockData,
+            stripedLocks,
+            copyOnWrite,
+            virtualThreads,
+            help,
+            valid;
+    private final String filename, executor;
 
     /**
      * Formats and initializes the command-line arguments for the RecipeCart backend
@@ -37,8 +69,19 @@ public class CommandLineArguments {
             this.port = null;
             this.updatesPerAutosave = null;
             this.autosave = null;
+            this.backgroundAutosave = null;
+            this.updatesPerCompaction = null;
+            this.journal = null;
+            this.syncJournal = null;
+            this.lazyLoadCacheSize = null;
+            this.lazyLoad = null;
             this.disableFinalSave = null;
             this.mockData = null;
+            this.stripedLocks = null;
+            this.copyOnWrite = null;
+            this.executor = null;
+            this.executorThreads = null;
+            this.virtualThreads = null;
             this.help = null;
             this.valid = false;
             return;
@@ -56,10 +99,44 @@ public class CommandLineArguments {
         this.autosave =
                 getUpdatesPerAutosave() != null && getUpdatesPerAutosave() != NO_AUTOSAVE_VALUE;
 
+        this.backgroundAutosave = commandLine.hasOption(BACKGROUND_AUTOSAVE_OPTION);
+
+        this.journal = commandLine.hasOption(JOURNAL_OPTION);
+        String compactionStr = commandLine.getOptionValue(JOURNAL_OPTION);
+        this.updatesPerCompaction =
+                compactionStr != null && Utils.isNumber(compactionStr)
+                        ? Integer.parseInt(compactionStr)
+                        : null;
+
+        this.syncJournal = commandLine.hasOption(SYNC_JOURNAL_OPTION);
+
+        this.lazyLoad = commandLine.hasOption(LAZY_LOAD_OPTION);
+        String cacheSizeStr = commandLine.getOptionValue(LAZY_LOAD_OPTION);
+        this.lazyLoadCacheSize =
+                cacheSizeStr != null && Utils.isNumber(cacheSizeStr)
+                        ? Integer.parseInt(cacheSizeStr)
+                        : null;
+
         this.disableFinalSave = commandLine.hasOption(DISABLE_FINAL_SAVE_OPTION);
 
         this.mockData = commandLine.hasOption(MOCK_DATA_OPTION);
 
+        this.stripedLocks = commandLine.hasOption(STRIPED_LOCKS_OPTION);
+
+        this.copyOnWrite = commandLine.hasOption(COPY_ON_WRITE_OPTION);
+
+        this.virtualThreads = commandLine.hasOption(VIRTUAL_THREADS_OPTION);
+
+        this.executor = commandLine.getOptionValue(EXECUTOR_OPTION);
+        String threadsStr =
+                commandLine.getOptionValue(
+                        EXECUTOR_THREADS_OPTION,
+                        String.valueOf(
+                                isVirtualThreads()
+                                        ? UNBOUNDED_EXECUTOR_THREADS
+                                        : Runtime.getRuntime().availableProcessors()));
+        this.executorThreads = Utils.isNumber(threadsStr) ? Integer.parseInt(threadsStr) : null;
+
         this.help = commandLine.hasOption(HELP_OPTION);
 
         this.valid = checkValidity();
@@ -77,6 +154,30 @@ public class CommandLineArguments {
         return updatesPerAutosave;
     }
 
+    public boolean isBackgroundAutosave() {
+        return backgroundAutosave;
+    }
+
+    public Integer getUpdatesPerCompaction() {
+        return updatesPerCompaction;
+    }
+
+    public boolean isJournal() {
+        return journal;
+    }
+
+    public boolean isSyncJournal() {
+        return syncJournal;
+    }
+
+    public Integer getLazyLoadCacheSize() {
+        return lazyLoadCacheSize;
+    }
+
+    public boolean isLazyLoad() {
+        return lazyLoad;
+    }
+
     public boolean isDisableFinalSave() {
         return disableFinalSave;
     }
@@ -85,6 +186,38 @@ public class CommandLineArguments {
         return mockData;
     }
 
+    public boolean isStripedLocks() {
+        return stripedLocks;
+    }
+
+    public boolean isCopyOnWrite() {
+        return copyOnWrite;
+    }
+
+    /**
+     * @return the kind of executor to execute commands on ("fixed" or "work-stealing"), or null if
+     *     commands should be executed on the request threads
+     */
+    public String getExecutor() {
+        return executor;
+    }
+
+    public boolean isFixedExecutor() {
+        return FIXED_EXECUTOR.equals(executor);
+    }
+
+    public boolean isWorkStealingExecutor() {
+        return WORK_STEALING_EXECUTOR.equals(executor);
+    }
+
+    public Integer getExecutorThreads() {
+        return executorThreads;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
     public boolean isAutosave() {
         return autosave;
     }
@@ -111,7 +244,16 @@ public class CommandLineArguments {
         return getPort() != null
                 && getPort() >= MIN_PORT
                 && getPort() <= MAX_PORT
-                && getUpdatesPerAutosave() != null;
+                && getUpdatesPerAutosave() != null
+                && (!isJournal()
+                        || (getUpdatesPerCompaction() != null && getUpdatesPerCompaction() > 0))
+                && (!isSyncJournal() || isJournal())
+                && (!isLazyLoad() || (getLazyLoadCacheSize() != null && !isJournal()))
+                && !(isStripedLocks() && isCopyOnWrite())
+                && (getExecutor() == null || EXECUTORS.contains(getExecutor()))
+                && !(isVirtualThreads() && getExecutor() != null)
+                && getExecutorThreads() != null
+                && getExecutorThreads() > 0;
     }
 
     private static CommandLine parseArgs(Options options, String[] args) {
@@ -178,6 +320,60 @@ public class CommandLineArguments {
                         .build();
         options.addOption(updatesPerAutosave);
 
+        Option backgroundAutosave =
+                Option.builder(BACKGROUND_AUTOSAVE_OPTION)
+                        .longOpt("background-autosave")
+                        .hasArg(false)
+                        .desc(
+                                "Autosave on a background thread, so that updates don't wait for"
+                                        + " the entity data to be written to the file")
+                        .build();
+        options.addOption(backgroundAutosave);
+
+        Option journal =
+                Option.builder(JOURNAL_OPTION)
+                        .longOpt("journal")
+                        .argName("num")
+                        .hasArg()
+                        .desc(
+                                "Append each update to a journal file next to the entity data"
+                                        + " file, instead of autosaving all of the entity data."
+                                        + " The journal is compacted into the file in the"
+                                        + " background every [this argument] number of updates."
+                                        + " Must be a positive integer. Overrides the "
+                                        + UPDATES_PER_AUTOSAVE_OPTION
+                                        + " option.")
+                        .build();
+        options.addOption(journal);
+
+        Option syncJournal =
+                Option.builder(SYNC_JOURNAL_OPTION)
+                        .longOpt("sync-journal")
+                        .hasArg(false)
+                        .desc(
+                                "Force each journal append to the storage device (fsync) before"
+                                        + " the update finishes, so that updates survive the"
+                                        + " machine crashing. Only used with the "
+                                        + JOURNAL_OPTION
+                                        + " option.")
+                        .build();
+        options.addOption(syncJournal);
+
+        Option lazyLoad =
+                Option.builder(LAZY_LOAD_OPTION)
+                        .longOpt("lazy-load")
+                        .argName("cachesize")
+                        .hasArg()
+                        .desc(
+                                "Memory-map the entity data file instead of loading all of it at"
+                                        + " startup. Recipes and users are read from the file when"
+                                        + " first requested, and up to [this argument] number of"
+                                        + " each are cached. Can't be used with the "
+                                        + JOURNAL_OPTION
+                                        + " option.")
+                        .build();
+        options.addOption(lazyLoad);
+
         Option mock =
                 Option.builder(MOCK_DATA_OPTION)
                         .longOpt("mock-data")
@@ -188,6 +384,79 @@ public class CommandLineArguments {
                         .build();
         options.addOption(mock);
 
+        Option stripedLocks =
+                Option.builder(STRIPED_LOCKS_OPTION)
+                        .longOpt("striped-locks")
+                        .hasArg(false)
+                        .desc(
+                                "Lock entity data per stripe of entity names instead of per entity"
+                                        + " type, so that updates to different entities of the"
+                                        + " same type can run in parallel")
+                        .build();
+        options.addOption(stripedLocks);
+
+        Option copyOnWrite =
+                Option.builder(COPY_ON_WRITE_OPTION)
+                        .longOpt("copy-on-write")
+                        .hasArg(false)
+                        .desc(
+                                "Keep immutable versions of the entity data, which updates replace"
+                                        + " and which reads and saves to file use without locking,"
+                                        + " so that reads never wait on updates. Can't be used"
+                                        + " with the "
+                                        + STRIPED_LOCKS_OPTION
+                                        + " option.")
+                        .build();
+        options.addOption(copyOnWrite);
+
+        Option executor =
+                Option.builder(EXECUTOR_OPTION)
+                        .longOpt("executor")
+                        .argName("type")
+                        .hasArg()
+                        .desc(
+                                "Execute commands on a dedicated executor instead of on the"
+                                        + " threads that take requests, which bounds how many"
+                                        + " commands use the entity data at once. Must be \""
+                                        + FIXED_EXECUTOR
+                                        + "\" (a fixed-size thread pool) or \""
+                                        + WORK_STEALING_EXECUTOR
+                                        + "\" (a work-stealing thread pool).")
+                        .build();
+        options.addOption(executor);
+
+        Option executorThreads =
+                Option.builder(EXECUTOR_THREADS_OPTION)
+                        .longOpt("executor-threads")
+                        .argName("num")
+                        .hasArg()
+                        .desc(
+                                "The maximum number of commands the executor runs at once. Must be"
+                                        + " a positive integer. Defaults to the number of"
+                                        + " available processors, or to no limit with the "
+                                        + VIRTUAL_THREADS_OPTION
+                                        + " option. Only used with the "
+                                        + EXECUTOR_OPTION
+                                        + " or "
+                                        + VIRTUAL_THREADS_OPTION
+                                        + " options.")
+                        .build();
+        options.addOption(executorThreads);
+
+        Option virtualThreads =
+                Option.builder(VIRTUAL_THREADS_OPTION)
+                        .longOpt("virtual-threads")
+                        .hasArg(false)
+                        .desc(
+                                "Take requests and execute commands on virtual threads, so that"
+                                        + " requests waiting on the entity data don't hold up"
+                                        + " platform threads. Needs Java 21 or later. Can't be"
+                                        + " used with the "
+                                        + EXECUTOR_OPTION
+                                        + " option.")
+                        .build();
+        options.addOption(virtualThreads);
+
         Option help =
                 Option.builder(HELP_OPTION)
                         .longOpt("help")
@@ -30,9 +30,9 @@ public final class UserForm implements Serializable {
         this(
                 user.getUsername(),
                 user.getEmailAddress(),
-                Utils.fromRecipeList(user.getAuthoredRecipes()),
-                Utils.fromRecipeList(user.getSavedRecipes()),
-                Utils.fromRecipeMap(user.getRatedRecipes()),
+                new ArrayList<>(user.getAuthoredRecipeNames()),
+                new ArrayList<>(user.getSavedRecipeNames()),
+                new HashMap<>(user.getRecipeRatings()),
                 Utils.fromIngredientSet(user.getOwnedIngredients()),
                 Utils.fromIngredientMap(user.getShoppingList()));
     }
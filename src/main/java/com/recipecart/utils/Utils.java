@@ -282,24 +282,15 @@ public class Utils {
                 .build();
     }
 
-    public static User fromUserForm(
-            UserForm form, Map<String, Ingredient> allIngredients, Map<String, Recipe> allRecipes) {
+    public static User fromUserForm(UserForm form, Map<String, Ingredient> allIngredients) {
         List<String> authoredRecipeNames =
                 form.getAuthoredRecipes() == null
                         ? Collections.emptyList()
                         : form.getAuthoredRecipes();
-        List<Recipe> authoredRecipes = new ArrayList<>();
-        authoredRecipeNames.forEach((name) -> authoredRecipes.add(allRecipes.get(name)));
-
         List<String> savedRecipeNames =
                 form.getSavedRecipes() == null ? Collections.emptyList() : form.getSavedRecipes();
-        List<Recipe> savedRecipes = new ArrayList<>();
-        savedRecipeNames.forEach((name) -> savedRecipes.add(allRecipes.get(name)));
-
-        Map<String, Double> ratedRecipeNames =
+        Map<String, Double> recipeRatings =
                 form.getRatedRecipes() == null ? Collections.emptyMap() : form.getRatedRecipes();
-        Map<Recipe, Double> ratedRecipes = new HashMap<>();
-        ratedRecipeNames.forEach((name, value) -> ratedRecipes.put(allRecipes.get(name), value));
 
         Set<String> ownedIngredientNames =
                 form.getOwnedIngredients() == null
@@ -317,9 +308,9 @@ public class Utils {
         return new User.Builder()
                 .setUsername(form.getUsername())
                 .setEmailAddress(form.getEmailAddress())
-                .setAuthoredRecipes(authoredRecipes)
-                .setSavedRecipes(savedRecipes)
-                .setRatedRecipes(ratedRecipes)
+                .setAuthoredRecipeNames(authoredRecipeNames)
+                .setSavedRecipeNames(savedRecipeNames)
+                .setRecipeRatings(recipeRatings)
                 .setOwnedIngredients(ownedIngredients)
                 .setShoppingList(shoppingList)
                 .build();
@@ -0,0 +1,58 @@
+/* (C)2023 */
+package com.recipecart.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * This class makes executors that run each task on a new virtual thread. Virtual threads are cheap
+ * to make and park, so a task that blocks (e.g. on file or database I/O) doesn't hold up a
+ * platform thread. This project is built for Java 17, which doesn't have virtual threads, so
+ * they're looked up reflectively: they can only be used when running on Java 21 or later.
+ */
+public final class VirtualThreads {
+    private static final String UNSUPPORTED_MESSAGE =
+            "Virtual threads aren't supported by this Java runtime (Java 21 or later is needed)";
+    private static final @Nullable Method NEW_EXECUTOR = findNewExecutor();
+
+    private VirtualThreads() {}
+
+    /** @return true if virtual threads can be used on this Java runtime, false otherwise */
+    public static boolean isSupported() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * Makes an executor that runs each task it's given on a new virtual thread. The executor
+     * should be shut down once it's no longer needed.
+     *
+     * @return the executor
+     * @throws UnsupportedOperationException if virtual threads aren't supported by this Java
+     *     runtime
+     */
+    public static @NotNull ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (NEW_EXECUTOR == null) {
+            throw new UnsupportedOperationException(UNSUPPORTED_MESSAGE);
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new UnsupportedOperationException(UNSUPPORTED_MESSAGE, e);
+        }
+    }
+
+    // returns null if the method is missing, or can't be called (e.g. it's a disabled preview)
+    private static @Nullable Method findNewExecutor() {
+        try {
+            Method newExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ((ExecutorService) newExecutor.invoke(null)).shutdown();
+            return newExecutor;
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return null;
+        }
+    }
+}
@@ -6,10 +6,16 @@ import com.recipecart.entities.Recipe;
 import com.recipecart.entities.Tag;
 import com.recipecart.entities.User;
 import com.recipecart.storage.EntityLoader;
+import com.recipecart.storage.FilteredRecipePage;
+import com.recipecart.storage.RecipeFacets;
+import com.recipecart.storage.RecipeFilter;
 import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * An EntityLoader that simulates something bad happening in the data access layer, that prevents
@@ -40,6 +46,30 @@ public class BadEntityLoader implements EntityLoader {
         throw new RuntimeException();
     }
 
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull Tag> findTagsByNames(
+            @NotNull Collection<@NotNull String> names) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull Ingredient> findIngredientsByNames(
+            @NotNull Collection<@NotNull String> names) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull Recipe> findRecipesByNames(
+            @NotNull Collection<@NotNull String> names) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull Map<@NotNull String, @NotNull User> findUsersByNames(
+            @NotNull Collection<@NotNull String> usernames) {
+        throw new RuntimeException();
+    }
+
     @Override
     public boolean tagNameExists(@NotNull String name) {
         throw new RuntimeException();
@@ -60,6 +90,26 @@ public class BadEntityLoader implements EntityLoader {
         throw new RuntimeException();
     }
 
+    @Override
+    public long getTagVersion(@NotNull String name) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public long getIngredientVersion(@NotNull String name) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public long getRecipeVersion(@NotNull String name) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public long getUserVersion(@NotNull String username) {
+        throw new RuntimeException();
+    }
+
     @Override
     public @NotNull Set<@NotNull Tag> searchTags(@NotNull Set<@NotNull String> tokens) {
         throw new RuntimeException();
@@ -81,8 +131,106 @@ public class BadEntityLoader implements EntityLoader {
         throw new RuntimeException();
     }
 
+    @Override
+    public @NotNull List<@NotNull Tag> searchTags(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull List<@NotNull Ingredient> searchIngredients(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull List<@NotNull Recipe> searchRecipes(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull List<@NotNull User> searchUsers(
+            @NotNull Set<@NotNull String> tokens, int offset, int limit) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull Set<@NotNull String> findSimilarIngredientTokens(
+            @NotNull Set<@NotNull String> terms) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull Set<@NotNull String> findSimilarRecipeTokens(
+            @NotNull Set<@NotNull String> terms) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull List<@NotNull Recipe> findCookableRecipes(
+            @NotNull Set<@NotNull String> ingredientNames, int maxMissing, int offset, int limit) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull Set<@NotNull Recipe> searchRecipes(
+            @Nullable Set<@NotNull String> tokens, @NotNull RecipeFilter filter) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull List<@NotNull Recipe> searchRecipes(
+            @Nullable Set<@NotNull String> tokens,
+            @NotNull RecipeFilter filter,
+            int offset,
+            int limit) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull RecipeFacets countRecipeFacets(
+            @Nullable Set<@NotNull String> tokens, @NotNull RecipeFilter filter) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull FilteredRecipePage searchRecipesWithFacets(
+            @Nullable Set<@NotNull String> tokens,
+            @NotNull RecipeFilter filter,
+            int offset,
+            int limit) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull List<@NotNull Tag> suggestTags(@NotNull String prefix, int limit) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull List<@NotNull Ingredient> suggestIngredients(
+            @NotNull String prefix, int limit) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull List<@NotNull Recipe> suggestRecipes(@NotNull String prefix, int limit) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public @NotNull List<@NotNull User> suggestUsers(@NotNull String prefix, int limit) {
+        throw new RuntimeException();
+    }
+
     @Override
     public @NotNull String generateUniqueRecipeName(String presentationName) {
         throw new RuntimeException();
     }
+
+    @Override
+    public void releaseUniqueRecipeName(@NotNull String name) {
+        throw new RuntimeException();
+    }
 }
@@ -7,6 +7,7 @@ import com.recipecart.entities.Tag;
 import com.recipecart.entities.User;
 import com.recipecart.storage.EntitySaver;
 import java.util.Collection;
+import java.util.function.UnaryOperator;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -33,4 +34,30 @@ public class BadEntitySaver implements EntitySaver {
     public void updateUsers(@NotNull Collection<@NotNull User> users) {
         throw new RuntimeException();
     }
+
+    @Override
+    public @NotNull User computeUser(
+            @NotNull String username, @NotNull UnaryOperator<@NotNull User> updater) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public boolean updateTagIfVersion(@NotNull Tag tag, long expectedVersion) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public boolean updateIngredientIfVersion(@NotNull Ingredient ingredient, long expectedVersion) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public boolean updateRecipeIfVersion(@NotNull Recipe recipe, long expectedVersion) {
+        throw new RuntimeException();
+    }
+
+    @Override
+    public boolean updateUserIfVersion(@NotNull User user, long expectedVersion) {
+        throw new RuntimeException();
+    }
 }
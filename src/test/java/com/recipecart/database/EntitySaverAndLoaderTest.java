@@ -5,11 +5,19 @@ import static com.recipecart.testutil.TestUtils.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 import com.recipecart.entities.*;
+import com.recipecart.storage.EntityLoader;
+import com.recipecart.storage.EntitySaver;
 import com.recipecart.storage.EntityStorage;
+import com.recipecart.storage.FilteredRecipePage;
+import com.recipecart.storage.RecipeFacets;
+import com.recipecart.storage.RecipeFilter;
 import com.recipecart.testutil.TestData;
 import com.recipecart.testutil.TestUtils;
+import com.recipecart.utils.Utils;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.NotNull;
@@ -154,6 +162,23 @@ public class EntitySaverAndLoaderTest {
         }
     }
 
+    private static <T> void testCorrectEntitiesFoundFromIds(
+            List<T> allEntities,
+            List<T> includedEntities,
+            Function<T, String> idGetter,
+            Function<Collection<String>, Map<String, T>> findEntitiesFromIds) {
+        Map<String, T> found =
+                findEntitiesFromIds.apply(functionOutputForEach(allEntities, idGetter));
+        for (T entity : allEntities) {
+            String id = idGetter.apply(entity);
+            if (includedEntities.contains(entity)) {
+                assertEquals(entity, found.get(id));
+            } else {
+                assertFalse(found.containsKey(id));
+            }
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("listTagParams")
     void testSaveLoadTags(EntityStorage storage, @NotNull List<@NotNull Tag> saveTags)
@@ -290,6 +315,55 @@ public class EntitySaverAndLoaderTest {
         }
     }
 
+    @ParameterizedTest
+    @MethodSource("listTagParams")
+    void testFindTagsByNames(EntityStorage storage, @NotNull List<@NotNull Tag> saveTags) {
+        storage.getSaver().updateTags(saveTags);
+
+        testCorrectEntitiesFoundFromIds(
+                TestUtils.convertToTypedList(TestData.getTags()),
+                saveTags,
+                Tag::getName,
+                storage.getLoader()::findTagsByNames);
+    }
+
+    @ParameterizedTest
+    @MethodSource("listIngredientParams")
+    void testFindIngredientsByNames(
+            EntityStorage storage, @NotNull List<@NotNull Ingredient> saveIngredients) {
+        storage.getSaver().updateIngredients(saveIngredients);
+
+        testCorrectEntitiesFoundFromIds(
+                TestUtils.convertToTypedList(TestData.getIngredients()),
+                saveIngredients,
+                Ingredient::getName,
+                storage.getLoader()::findIngredientsByNames);
+    }
+
+    @ParameterizedTest
+    @MethodSource("listRecipeParams")
+    void testFindRecipesByNames(EntityStorage storage, @NotNull List<@NotNull Recipe> saveRecipes) {
+        storage.getSaver().updateRecipes(saveRecipes);
+
+        testCorrectEntitiesFoundFromIds(
+                TestUtils.convertToTypedList(TestData.getRecipes()),
+                saveRecipes,
+                Recipe::getName,
+                storage.getLoader()::findRecipesByNames);
+    }
+
+    @ParameterizedTest
+    @MethodSource("listUserParams")
+    void testFindUsersByNames(EntityStorage storage, @NotNull List<@NotNull User> saveUsers) {
+        storage.getSaver().updateUsers(saveUsers);
+
+        testCorrectEntitiesFoundFromIds(
+                TestUtils.convertToTypedList(TestData.getUsers()),
+                saveUsers,
+                User::getUsername,
+                storage.getLoader()::findUsersByNames);
+    }
+
     private static Stream<Arguments> getSearchTags() {
         return TestUtils.getSearchTags(getStorageGenerators());
     }
@@ -342,6 +416,400 @@ public class EntitySaverAndLoaderTest {
         assertEquals(expected, storage.getLoader().searchUsers(tokens));
     }
 
+    private static <T> void testSearchPages(
+            Set<T> expected,
+            Function<T, String> idGetter,
+            BiFunction<Integer, Integer, List<T>> searchPage) {
+        List<T> sorted = new ArrayList<>(expected);
+        sorted.sort(Comparator.comparing(idGetter));
+        int size = sorted.size();
+        for (int offset = 0; offset <= size + 1; offset++) {
+            for (int limit : new int[] {0, 1, 2, size + 1}) {
+                List<T> expectedPage =
+                        sorted.subList(Math.min(offset, size), Math.min(offset + limit, size));
+                assertEquals(expectedPage, searchPage.apply(offset, limit));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> searchPage.apply(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> searchPage.apply(0, -1));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSearchTags")
+    void testSearchPageForTag(
+            EntityStorage storage, List<Tag> tags, Set<String> tokens, Set<Tag> expected) {
+        storage.getSaver().updateTags(tags);
+
+        testSearchPages(
+                expected,
+                Tag::getName,
+                (offset, limit) -> storage.getLoader().searchTags(tokens, offset, limit));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSearchIngredients")
+    void testSearchPageForIngredient(
+            EntityStorage storage,
+            List<Ingredient> ingredients,
+            Set<String> tokens,
+            Set<Ingredient> expected) {
+        storage.getSaver().updateIngredients(ingredients);
+
+        testSearchPages(
+                expected,
+                Ingredient::getName,
+                (offset, limit) -> storage.getLoader().searchIngredients(tokens, offset, limit));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSearchRecipes")
+    void testSearchPageForRecipe(
+            EntityStorage storage, List<Recipe> recipes, Set<String> tokens, Set<Recipe> expected) {
+        storage.getSaver().updateRecipes(recipes);
+
+        testSearchPages(
+                expected,
+                Recipe::getName,
+                (offset, limit) -> storage.getLoader().searchRecipes(tokens, offset, limit));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSearchUsers")
+    void testSearchPageForUser(
+            EntityStorage storage, List<User> users, Set<String> tokens, Set<User> expected) {
+        storage.getSaver().updateUsers(users);
+
+        testSearchPages(
+                expected,
+                User::getUsername,
+                (offset, limit) -> storage.getLoader().searchUsers(tokens, offset, limit));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testSearchAfterReplacingRecipe(EntityStorage storage) {
+        Recipe original =
+                new Recipe.Builder().setName("name").setPresentationName("Old Title").build();
+        Recipe replacement = Utils.renameRecipePresentationName(original, "New title");
+        storage.getSaver().updateRecipes(Collections.singletonList(original));
+        storage.getSaver().updateRecipes(Collections.singletonList(replacement));
+
+        assertEquals(Collections.emptySet(), storage.getLoader().searchRecipes(Set.of("old")));
+        assertEquals(Set.of(replacement), storage.getLoader().searchRecipes(Set.of("NEW")));
+        assertEquals(
+                Set.of(replacement), storage.getLoader().searchRecipes(Set.of("title", "name")));
+    }
+
+    private static List<String> getRecipeNames(List<Recipe> recipes) {
+        List<String> names = new ArrayList<>();
+        for (Recipe recipe : recipes) {
+            names.add(recipe.getName());
+        }
+        return names;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testSuggestRecipes(EntityStorage storage) {
+        List<Recipe> recipes = new ArrayList<>();
+        for (String presentationName :
+                List.of(
+                        "Cheese Omelette",
+                        "Cheddar Cheese Toast",
+                        "Chocolate Cake",
+                        "Chicken Soup",
+                        "Chicken Parmesan")) {
+            recipes.add(
+                    new Recipe.Builder()
+                            .setName(presentationName.toLowerCase().replace(' ', '-'))
+                            .setPresentationName(presentationName)
+                            .build());
+        }
+        storage.getSaver().updateRecipes(recipes);
+        EntityLoader loader = storage.getLoader();
+
+        // ordered by the first token matched ("cheddar", "cheese", "chicken", "chocolate")
+        assertEquals(
+                List.of(
+                        "cheddar-cheese-toast",
+                        "cheese-omelette",
+                        "chicken-parmesan",
+                        "chicken-soup",
+                        "chocolate-cake"),
+                getRecipeNames(loader.suggestRecipes("ch", 10)));
+        assertEquals(
+                List.of("cheddar-cheese-toast", "cheese-omelette", "chicken-parmesan"),
+                getRecipeNames(loader.suggestRecipes("CH", 3)));
+        assertEquals(
+                List.of("cheddar-cheese-toast", "cheese-omelette"),
+                getRecipeNames(loader.suggestRecipes("chees", 10)));
+        assertEquals(
+                List.of("chicken-soup"), getRecipeNames(loader.suggestRecipes("chicken s", 10)));
+        assertEquals(List.of(), loader.suggestRecipes("cheese chicken s", 10));
+        assertEquals(List.of(), loader.suggestRecipes("x", 10));
+        assertEquals(List.of(), loader.suggestRecipes("ch", 0));
+        assertThrows(IllegalArgumentException.class, () -> loader.suggestRecipes("ch", -1));
+
+        storage.getSaver()
+                .updateRecipes(
+                        List.of(
+                                Utils.renameRecipePresentationName(
+                                        recipes.get(2), "Vanilla Cake")));
+        assertEquals(
+                List.of("chocolate-cake"), getRecipeNames(loader.suggestRecipes("vani", 10)));
+        assertEquals(List.of(), loader.suggestRecipes("chocolate c", 10));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testSuggestOtherEntities(EntityStorage storage) {
+        storage.getSaver().updateTags(List.of(new Tag("Vegan"), new Tag("Vegetarian")));
+        storage.getSaver()
+                .updateIngredients(
+                        List.of(
+                                new Ingredient("green pepper", "count", null),
+                                new Ingredient("pepper", "g", null)));
+        storage.getSaver()
+                .updateUsers(
+                        List.of(
+                                new User.Builder().setUsername("OmeletteLover2000").build(),
+                                new User.Builder().setUsername("Omar").build()));
+        EntityLoader loader = storage.getLoader();
+
+        assertEquals(
+                List.of(new Tag("Vegan"), new Tag("Vegetarian")), loader.suggestTags("veg", 10));
+        assertEquals(List.of(new Tag("Vegetarian")), loader.suggestTags("vege", 10));
+        assertEquals(
+                List.of(
+                        new Ingredient("green pepper", "count", null),
+                        new Ingredient("pepper", "g", null)),
+                loader.suggestIngredients("pep", 10));
+        assertEquals(
+                List.of(new Ingredient("green pepper", "count", null)),
+                loader.suggestIngredients("green p", 10));
+        assertEquals(
+                List.of("Omar", "OmeletteLover2000"),
+                MapEntitySaveAndLoader.getNames(loader.suggestUsers("om", 10), User::getUsername));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testFindSimilarTokens(EntityStorage storage) {
+        storage.getSaver()
+                .updateIngredients(
+                        List.of(
+                                new Ingredient("broccoli", "g", null),
+                                new Ingredient("parmesan cheese", "g", null)));
+        storage.getSaver()
+                .updateRecipes(
+                        List.of(
+                                new Recipe.Builder()
+                                        .setName("broccoli soup")
+                                        .setPresentationName("Broccoli Cheddar Soup")
+                                        .build(),
+                                new Recipe.Builder().setName("pesto").build()));
+        EntityLoader loader = storage.getLoader();
+
+        assertEquals(Set.of("broccoli"), loader.findSimilarIngredientTokens(Set.of("brocolli")));
+        assertEquals(
+                Set.of("parmesan", "cheese"),
+                loader.findSimilarIngredientTokens(Set.of("Parmesean", "chese")));
+        assertEquals(Set.of(), loader.findSimilarIngredientTokens(Set.of("carrot")));
+        assertEquals(
+                Set.of("broccoli", "cheddar"),
+                loader.findSimilarRecipeTokens(Set.of("brocoli", "chedar")));
+        assertEquals(
+                Set.of("pesto", "soup"), loader.findSimilarRecipeTokens(Set.of("pest", "sop")));
+        assertEquals(Set.of(), loader.findSimilarRecipeTokens(Set.of("so")));
+
+        storage.getSaver()
+                .updateRecipes(
+                        List.of(
+                                new Recipe.Builder()
+                                        .setName("broccoli soup")
+                                        .setPresentationName("Broccoli Soup")
+                                        .build()));
+        assertEquals(Set.of(), loader.findSimilarRecipeTokens(Set.of("chedar")));
+    }
+
+    private static Recipe.Builder makeRecipeBuilder(String name, String... ingredientNames) {
+        Map<Ingredient, Double> required = new HashMap<>();
+        for (String ingredientName : ingredientNames) {
+            required.put(new Ingredient(ingredientName, "g", null), 1.0);
+        }
+        return new Recipe.Builder().setName(name).setRequiredIngredients(required);
+    }
+
+    private static Set<String> getNameSet(Set<Recipe> recipes) {
+        return new HashSet<>(getRecipeNames(new ArrayList<>(recipes)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testFindCookableRecipes(EntityStorage storage) {
+        storage.getSaver()
+                .updateRecipes(
+                        List.of(
+                                makeRecipeBuilder("toast", "bread", "butter").build(),
+                                makeRecipeBuilder("omelette", "egg", "butter", "cheese").build(),
+                                makeRecipeBuilder("boiled egg", "egg").build(),
+                                makeRecipeBuilder("salad", "lettuce", "tomato").build(),
+                                makeRecipeBuilder("water").build()));
+        EntityLoader loader = storage.getLoader();
+        Set<String> owned = Set.of("bread", "butter", "egg");
+
+        assertEquals(
+                List.of("boiled egg", "toast", "water"),
+                getRecipeNames(loader.findCookableRecipes(owned, 0, 0, 10)));
+        assertEquals(
+                List.of("boiled egg", "toast", "water", "omelette"),
+                getRecipeNames(loader.findCookableRecipes(owned, 1, 0, 10)));
+        assertEquals(
+                List.of("boiled egg", "toast", "water", "omelette", "salad"),
+                getRecipeNames(loader.findCookableRecipes(owned, 2, 0, 10)));
+        assertEquals(
+                List.of("toast", "water"),
+                getRecipeNames(loader.findCookableRecipes(owned, 1, 1, 2)));
+        assertEquals(List.of(), loader.findCookableRecipes(owned, 1, 4, 10));
+        assertEquals(
+                List.of("water"), getRecipeNames(loader.findCookableRecipes(Set.of(), 0, 0, 10)));
+        assertThrows(
+                IllegalArgumentException.class, () -> loader.findCookableRecipes(owned, -1, 0, 1));
+
+        storage.getSaver()
+                .updateRecipes(List.of(makeRecipeBuilder("toast", "bread", "jam").build()));
+        assertEquals(
+                List.of("boiled egg", "water"),
+                getRecipeNames(loader.findCookableRecipes(owned, 0, 0, 10)));
+        Recipe toast = loader.findCookableRecipes(owned, 1, 3, 1).get(0);
+        assertEquals(makeRecipeBuilder("toast", "bread", "jam").build(), toast);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testSearchRecipesWithFilter(EntityStorage storage) {
+        storage.getSaver()
+                .updateRecipes(
+                        List.of(
+                                makeRecipeBuilder("cheese toast", "cheese", "toast")
+                                        .setTags(Set.of(new Tag("breakfast")))
+                                        .setCookTime(5)
+                                        .setNumServings(1)
+                                        .setAvgRating(4.5)
+                                        .build(),
+                                makeRecipeBuilder("cheese omelette", "cheese", "omelette")
+                                        .setTags(Set.of(new Tag("breakfast")))
+                                        .setCookTime(15)
+                                        .setNumServings(2)
+                                        .setAvgRating(3)
+                                        .build(),
+                                makeRecipeBuilder("cheese pizza", "cheese", "pizza")
+                                        .setTags(Set.of(new Tag("dinner")))
+                                        .setCookTime(90)
+                                        .setNumServings(4)
+                                        .setAvgRating(5)
+                                        .build(),
+                                makeRecipeBuilder("salad", "salad")
+                                        .setTags(Set.of(new Tag("lunch")))
+                                        .setCookTime(10)
+                                        .setNumServings(2)
+                                        .setAvgRating(2)
+                                        .build()));
+        EntityLoader loader = storage.getLoader();
+        RecipeFilter breakfast =
+                new RecipeFilter.Builder().setTagNames(Set.of("breakfast")).build();
+        RecipeFilter quickWithoutEggs =
+                new RecipeFilter.Builder()
+                        .setMaxTotalTime(30)
+                        .setExcludedIngredientNames(Set.of("omelette"))
+                        .build();
+
+        assertEquals(
+                Set.of("cheese toast", "cheese omelette"),
+                getNameSet(loader.searchRecipes(null, breakfast)));
+        assertEquals(
+                Set.of("cheese toast", "salad"),
+                getNameSet(loader.searchRecipes(null, quickWithoutEggs)));
+        assertEquals(
+                Set.of("cheese toast"),
+                getNameSet(loader.searchRecipes(Set.of("cheese"), quickWithoutEggs)));
+        assertEquals(
+                List.of("cheese omelette", "cheese pizza"),
+                getRecipeNames(
+                        loader.searchRecipes(
+                                Set.of("cheese"),
+                                new RecipeFilter.Builder()
+                                        .setMinNumServings(2)
+                                        .setMinAvgRating(3.0)
+                                        .build(),
+                                0,
+                                10)));
+        assertEquals(
+                List.of("cheese toast"),
+                getRecipeNames(loader.searchRecipes(null, breakfast, 1, 10)));
+        assertEquals(Set.of(), loader.searchRecipes(Set.of("pizza"), breakfast));
+
+        RecipeFacets facets =
+                loader.countRecipeFacets(Set.of("cheese"), new RecipeFilter.Builder().build());
+        assertEquals(3, facets.getNumRecipes());
+        assertEquals(Map.of("breakfast", 2, "dinner", 1), facets.getTagCounts());
+        assertEquals(Map.of(1, 1, 2, 1, 4, 1), facets.getNumServingsCounts());
+        assertEquals(Map.of(15, 2, 30, 2, 60, 2, 120, 3), facets.getMaxTotalTimeCounts());
+        assertEquals(Map.of(1, 3, 2, 3, 3, 3, 4, 2), facets.getMinAvgRatingCounts());
+
+        FilteredRecipePage page =
+                loader.searchRecipesWithFacets(
+                        Set.of("cheese"), new RecipeFilter.Builder().build(), 1, 1);
+        assertEquals(List.of("cheese pizza"), getRecipeNames(page.getRecipes()));
+        assertEquals(facets, page.getFacets());
+
+        storage.getSaver()
+                .updateRecipes(
+                        List.of(
+                                makeRecipeBuilder("cheese toast", "cheese", "toast")
+                                        .setTags(Set.of(new Tag("lunch")))
+                                        .setCookTime(5)
+                                        .setNumServings(1)
+                                        .setAvgRating(4.5)
+                                        .build()));
+        assertEquals(
+                Set.of("cheese omelette"), getNameSet(loader.searchRecipes(null, breakfast)));
+        assertEquals(1, loader.countRecipeFacets(null, breakfast).getNumRecipes());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testSavedEntitiesShareTagsAndIngredients(EntityStorage storage) throws IOException {
+        List<Recipe> recipes = new ArrayList<>();
+        for (String name : List.of("first", "second")) {
+            recipes.add(
+                    new Recipe.Builder()
+                            .setName(name)
+                            .setTags(Set.of(new Tag(new String("tag"))))
+                            .setRequiredIngredients(
+                                    Map.of(new Ingredient(new String("egg"), "count", null), 2.0))
+                            .build());
+        }
+        User user =
+                new User.Builder()
+                        .setUsername("user")
+                        .setShoppingList(Map.of(new Ingredient("egg", "count", null), 1.0))
+                        .build();
+        storage.getSaver().updateRecipes(recipes);
+        storage.getSaver().updateUsers(List.of(user));
+
+        List<Recipe> loaded = storage.getLoader().getRecipesByNames(List.of("first", "second"));
+        assertEquals(recipes, loaded);
+        Tag tag = loaded.get(0).getTags().iterator().next();
+        Ingredient egg = loaded.get(0).getRequiredIngredients().keySet().iterator().next();
+        assertSame(tag, loaded.get(1).getTags().iterator().next());
+        assertSame(egg, loaded.get(1).getRequiredIngredients().keySet().iterator().next());
+
+        User loadedUser = storage.getLoader().getUsersByNames(List.of("user")).get(0);
+        assertEquals(user, loadedUser);
+        assertSame(egg, loadedUser.getShoppingList().keySet().iterator().next());
+    }
+
     @ParameterizedTest
     @MethodSource("nullableCollectionTagParams")
     void testSaveTagsNullCheck(EntityStorage storage, @Nullable Collection<@Nullable Tag> tags) {
@@ -443,6 +911,186 @@ public class EntitySaverAndLoaderTest {
         assertNotEquals(baseName, generatedName);
     }
 
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testGenerateUniqueRecipeNamesWithoutSaving(EntityStorage storage) {
+        List<Recipe> existing = new ArrayList<>();
+        for (String name : List.of("Cookies", "Cookies0", "Cookies2")) {
+            existing.add(new Recipe.Builder().setName(name).build());
+        }
+        storage.getSaver().updateRecipes(existing);
+
+        Set<String> generatedNames = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            String generatedName = storage.getLoader().generateUniqueRecipeName("Cookies");
+            assertFalse(storage.getLoader().recipeNameExists(generatedName));
+            assertTrue(generatedNames.add(generatedName));
+        }
+
+        Recipe savedLater = new Recipe.Builder().setName("Cookies50").build();
+        storage.getSaver().updateRecipes(Collections.singletonList(savedLater));
+        for (int i = 0; i < 10; i++) {
+            String generatedName = storage.getLoader().generateUniqueRecipeName("Cookies");
+            assertFalse(storage.getLoader().recipeNameExists(generatedName));
+            assertTrue(generatedNames.add(generatedName));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testReleaseUniqueRecipeName(EntityStorage storage) {
+        String generatedName = storage.getLoader().generateUniqueRecipeName("Cookies");
+        assertNotEquals(generatedName, storage.getLoader().generateUniqueRecipeName("Cookies"));
+
+        storage.getLoader().releaseUniqueRecipeName(generatedName);
+        assertEquals(generatedName, storage.getLoader().generateUniqueRecipeName("Cookies"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testGenerateUniqueRecipeNamesConcurrently(EntityStorage storage)
+            throws InterruptedException {
+        int numThreads = 8, namesPerThread = 200;
+        Set<String> generatedNames = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            threads.add(
+                    new Thread(
+                            () -> {
+                                for (int j = 0; j < namesPerThread; j++) {
+                                    generatedNames.add(
+                                            storage.getLoader()
+                                                    .generateUniqueRecipeName("Cookies"));
+                                }
+                            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(numThreads * namesPerThread, generatedNames.size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testComputeUser(EntityStorage storage) throws IOException {
+        User user = new User.Builder().setUsername("user").build();
+        storage.getSaver().updateUsers(Collections.singletonList(user));
+
+        User renamed = new User.Builder(user).setUsername("other").build();
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> storage.getSaver().computeUser("user", (saved) -> renamed));
+        assertThrows(
+                IOException.class,
+                () -> storage.getSaver().computeUser("not a user", (saved) -> saved));
+        assertEquals(user, storage.getSaver().computeUser("user", (saved) -> null));
+
+        User updated = new User.Builder(user).setEmailAddress("user@example.com").build();
+        assertEquals(updated, storage.getSaver().computeUser("user", (saved) -> updated));
+        assertEquals(
+                List.of(updated),
+                storage.getLoader().getUsersByNames(Collections.singletonList("user")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testComputeUserConcurrently(EntityStorage storage) throws Exception {
+        int numThreads = 8, updatesPerThread = 100;
+        storage.getSaver()
+                .updateUsers(
+                        Collections.singletonList(new User.Builder().setUsername("user").build()));
+
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < numThreads; i++) {
+            int threadNum = i;
+            threads.add(
+                    new Thread(
+                            () -> {
+                                try {
+                                    for (int j = 0; j < updatesPerThread; j++) {
+                                        Ingredient toAdd =
+                                                new Ingredient(threadNum + "-" + j, null, null);
+                                        storage.getSaver()
+                                                .computeUser(
+                                                        "user",
+                                                        (user) -> addToShoppingList(user, toAdd));
+                                    }
+                                } catch (Throwable e) {
+                                    errors.add(e);
+                                }
+                            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(Collections.emptyList(), errors);
+        User user = storage.getLoader().getUsersByNames(Collections.singletonList("user")).get(0);
+        assertEquals(numThreads * updatesPerThread, user.getShoppingList().size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testEntityVersions(EntityStorage storage) throws IOException {
+        EntityLoader loader = storage.getLoader();
+        EntitySaver saver = storage.getSaver();
+        assertEquals(EntityLoader.UNSAVED_VERSION, loader.getTagVersion("tag"));
+
+        Tag tag = new Tag("tag");
+        assertTrue(saver.updateTagIfVersion(tag, EntityLoader.UNSAVED_VERSION));
+        long firstVersion = loader.getTagVersion("tag");
+        assertNotEquals(EntityLoader.UNSAVED_VERSION, firstVersion);
+        assertFalse(saver.updateTagIfVersion(tag, EntityLoader.UNSAVED_VERSION));
+
+        saver.updateTags(Collections.singletonList(tag));
+        long secondVersion = loader.getTagVersion("tag");
+        assertTrue(secondVersion > firstVersion);
+        assertFalse(saver.updateTagIfVersion(tag, firstVersion));
+        assertTrue(saver.updateTagIfVersion(tag, secondVersion));
+        assertTrue(loader.getTagVersion("tag") > secondVersion);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageParams")
+    void testConditionalUpdatesOfEachType(EntityStorage storage) throws IOException {
+        EntityLoader loader = storage.getLoader();
+        EntitySaver saver = storage.getSaver();
+        Ingredient ingredient = new Ingredient("ingredient", "grams", null);
+        Recipe recipe = new Recipe.Builder().setName("recipe").build();
+        User user = new User.Builder().setUsername("user").build();
+
+        assertTrue(saver.updateIngredientIfVersion(ingredient, EntityLoader.UNSAVED_VERSION));
+        assertTrue(saver.updateRecipeIfVersion(recipe, EntityLoader.UNSAVED_VERSION));
+        assertTrue(saver.updateUserIfVersion(user, EntityLoader.UNSAVED_VERSION));
+        assertFalse(saver.updateIngredientIfVersion(ingredient, EntityLoader.UNSAVED_VERSION));
+        assertFalse(saver.updateRecipeIfVersion(recipe, EntityLoader.UNSAVED_VERSION));
+        assertFalse(saver.updateUserIfVersion(user, EntityLoader.UNSAVED_VERSION));
+
+        assertEquals(
+                List.of(ingredient),
+                loader.getIngredientsByNames(Collections.singletonList("ingredient")));
+        assertEquals(
+                List.of(recipe), loader.getRecipesByNames(Collections.singletonList("recipe")));
+        assertEquals(List.of(user), loader.getUsersByNames(Collections.singletonList("user")));
+        assertNotEquals(EntityLoader.UNSAVED_VERSION, loader.getIngredientVersion("ingredient"));
+        assertNotEquals(EntityLoader.UNSAVED_VERSION, loader.getRecipeVersion("recipe"));
+        assertNotEquals(EntityLoader.UNSAVED_VERSION, loader.getUserVersion("user"));
+    }
+
+    private static User addToShoppingList(User user, Ingredient toAdd) {
+        Map<Ingredient, Double> shoppingList = new HashMap<>(user.getShoppingList());
+        shoppingList.put(toAdd, 1.0);
+        return new User.Builder(user).setShoppingList(shoppingList).build();
+    }
+
     // This unchecked exception exists so that Function objects can have functions that
     // throw checked exceptions. Those expected exceptions are caught, this exception is thrown,
     // and corresponding assertThrows checks for this exception being thrown.
@@ -2,19 +2,35 @@
 package com.recipecart.database;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.recipecart.database.FileEntitySaveAndLoader.AutosaveMode;
+import com.recipecart.database.MapEntitySaveAndLoader.LockingMode;
 import com.recipecart.entities.*;
 import com.recipecart.storage.EntitySaver;
+import com.recipecart.storage.RecipeFilter;
 import com.recipecart.testutil.Presets;
 import com.recipecart.testutil.TestData;
+import com.recipecart.utils.Utils;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
@@ -22,6 +38,9 @@ public class FileEntitySaveAndLoaderTest {
     private static final long SEED = 0xdeadbeefL;
     private static final int NUM_TIMES_TO_AUTOSAVE = 3;
 
+    // a new, empty directory for each test, deleted afterwards
+    @TempDir Path tempDir;
+
     private static void randomSaveOperation(EntitySaver saver, Random rand) {
         int operationIndex = rand.nextInt(2);
         // only add tags or ingredients, since adding recipe requires adding the tags/ingredients
@@ -73,6 +92,348 @@ public class FileEntitySaveAndLoaderTest {
         assertBytesMatch(expectedSaveAndLoader, serialized, false);
     }
 
+    @Test
+    void testCopyOnWriteSaveAndLoad() throws IOException, ClassNotFoundException {
+        FileEntitySaveAndLoader expectedSaveAndLoader = new FileEntitySaveAndLoader();
+        populateStorage(expectedSaveAndLoader);
+        FileEntitySaveAndLoader saveAndLoader =
+                new FileEntitySaveAndLoader(LockingMode.COPY_ON_WRITE);
+        populateStorage(saveAndLoader);
+
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        saveAndLoader.save(outStream);
+        assertBytesMatch(expectedSaveAndLoader, outStream.toByteArray(), true);
+
+        FileEntitySaveAndLoader loaded = new FileEntitySaveAndLoader(LockingMode.COPY_ON_WRITE);
+        loaded.load(new ByteArrayInputStream(outStream.toByteArray()));
+        for (Recipe recipe : (Recipe[]) TestData.getRecipes()) {
+            Set<String> tokens = Set.of(recipe.getName());
+            assertEquals(
+                    expectedSaveAndLoader.searchRecipes(tokens), loaded.searchRecipes(tokens));
+            assertTrue(loaded.recipeNameExists(recipe.getName()));
+        }
+    }
+
+    @Test
+    void testSaveAndLoadInParallel() throws IOException, ClassNotFoundException {
+        FileEntitySaveAndLoader expectedSaveAndLoader = new FileEntitySaveAndLoader();
+        populateStorage(expectedSaveAndLoader);
+        List<Recipe> recipes = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < FileEntitySaveAndLoader.EntityFile.PARALLEL_LOAD_THRESHOLD; i++) {
+            Recipe recipe = Utils.renameRecipe(Presets.recipe(i % 3), "recipe " + i);
+            recipes.add(recipe);
+            users.add(
+                    new User.Builder()
+                            .setUsername("user " + i)
+                            .setAuthoredRecipes(Collections.singletonList(recipe))
+                            .build());
+        }
+        expectedSaveAndLoader.updateRecipes(recipes);
+        expectedSaveAndLoader.updateUsers(users);
+
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        expectedSaveAndLoader.save(outStream);
+
+        assertBytesMatch(expectedSaveAndLoader, outStream.toByteArray(), true);
+    }
+
+    @Test
+    void testLoadJavaSerializedFormat() throws IOException, ClassNotFoundException {
+        FileEntitySaveAndLoader expectedSaveAndLoader = new FileEntitySaveAndLoader();
+        populateStorage(expectedSaveAndLoader);
+
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectWriter = new ObjectOutputStream(outStream)) {
+            objectWriter.writeObject(
+                    new FileEntitySaveAndLoader.EntityFile(
+                            expectedSaveAndLoader.getSavedTags(),
+                            expectedSaveAndLoader.getSavedIngredients(),
+                            Utils.toRecipeFormMap(expectedSaveAndLoader.getSavedRecipes()),
+                            Utils.toUserFormMap(expectedSaveAndLoader.getSavedUsers())));
+        }
+
+        assertBytesMatch(expectedSaveAndLoader, outStream.toByteArray(), false);
+    }
+
+    private static List<RecipeFilter> getTestFilters() {
+        List<RecipeFilter> filters = new ArrayList<>();
+        filters.add(new RecipeFilter.Builder().build());
+        filters.add(new RecipeFilter.Builder().setMaxTotalTime(60).build());
+        filters.add(
+                new RecipeFilter.Builder().setMinNumServings(2).setMaxNumServings(6).build());
+        filters.add(new RecipeFilter.Builder().setMinAvgRating(2.5).build());
+        for (Tag tag : (Tag[]) TestData.getTags()) {
+            filters.add(new RecipeFilter.Builder().setTagNames(Set.of(tag.getName())).build());
+        }
+        for (Ingredient ingredient : (Ingredient[]) TestData.getIngredients()) {
+            Set<String> ingredientNames = Set.of(ingredient.getName());
+            filters.add(
+                    new RecipeFilter.Builder().setRequiredIngredientNames(ingredientNames).build());
+            filters.add(
+                    new RecipeFilter.Builder().setExcludedIngredientNames(ingredientNames).build());
+        }
+        return filters;
+    }
+
+    private static void assertFilteredSearchesMatch(
+            FileEntitySaveAndLoader expected, FileEntitySaveAndLoader actual, int numRecipes) {
+        List<Set<String>> tokenSets = new ArrayList<>();
+        tokenSets.add(null);
+        tokenSets.add(Set.of("presentation"));
+        for (Set<String> tokens : tokenSets) {
+            for (RecipeFilter filter : getTestFilters()) {
+                assertEquals(
+                        expected.searchRecipes(tokens, filter),
+                        actual.searchRecipes(tokens, filter));
+                assertEquals(
+                        expected.countRecipeFacets(tokens, filter),
+                        actual.countRecipeFacets(tokens, filter));
+                for (int offset = 0; offset <= numRecipes; offset += 2) {
+                    assertEquals(
+                            expected.searchRecipes(tokens, filter, offset, 2),
+                            actual.searchRecipes(tokens, filter, offset, 2));
+                    assertEquals(
+                            expected.searchRecipesWithFacets(tokens, filter, offset, 2),
+                            actual.searchRecipesWithFacets(tokens, filter, offset, 2));
+                }
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 2, 100})
+    void testLoadMapped(int cacheSize) throws IOException, ClassNotFoundException {
+        String filename = tempDir.resolve("entities.ser").toString();
+        FileEntitySaveAndLoader expectedSaveAndLoader = new FileEntitySaveAndLoader();
+        populateStorage(expectedSaveAndLoader);
+        expectedSaveAndLoader.save(filename);
+
+        FileEntitySaveAndLoader saveAndLoader = new FileEntitySaveAndLoader();
+        saveAndLoader.loadMapped(filename, cacheSize);
+
+        assertEquals(expectedSaveAndLoader.getSavedTags(), saveAndLoader.getSavedTags());
+        assertEquals(
+                expectedSaveAndLoader.getSavedIngredients(), saveAndLoader.getSavedIngredients());
+        List<String> recipeNames =
+                new ArrayList<>(expectedSaveAndLoader.getSavedRecipes().keySet());
+        for (int i = 0; i < 2; i++) {
+            assertEquals(
+                    expectedSaveAndLoader.getRecipesByNames(recipeNames),
+                    saveAndLoader.getRecipesByNames(recipeNames));
+        }
+        List<String> usernames = new ArrayList<>(expectedSaveAndLoader.getSavedUsers().keySet());
+        assertEquals(
+                expectedSaveAndLoader.getUsersByNames(usernames),
+                saveAndLoader.getUsersByNames(usernames));
+        Set<String> userTokens = new HashSet<>(usernames);
+        assertEquals(
+                expectedSaveAndLoader.searchUsers(userTokens, 1, usernames.size()),
+                saveAndLoader.searchUsers(userTokens, 1, usernames.size()));
+        for (String username : usernames) {
+            String prefix = username.substring(0, Math.min(2, username.length()));
+            assertEquals(
+                    expectedSaveAndLoader.suggestUsers(prefix, 3),
+                    saveAndLoader.suggestUsers(prefix, 3));
+        }
+        for (String name : recipeNames) {
+            assertTrue(saveAndLoader.recipeNameExists(name));
+            Set<String> tokens = Set.of(name);
+            assertEquals(
+                    expectedSaveAndLoader.searchRecipes(tokens),
+                    saveAndLoader.searchRecipes(tokens));
+            String prefix = name.substring(0, Math.min(2, name.length()));
+            assertEquals(
+                    expectedSaveAndLoader.suggestRecipes(prefix, 3),
+                    saveAndLoader.suggestRecipes(prefix, 3));
+        }
+
+        Set<String> ingredientNames = new HashSet<>();
+        for (Ingredient ingredient : (Ingredient[]) TestData.getIngredients()) {
+            ingredientNames.add(ingredient.getName());
+            for (int maxMissing = 0; maxMissing < 3; maxMissing++) {
+                assertEquals(
+                        expectedSaveAndLoader.findCookableRecipes(
+                                ingredientNames, maxMissing, 0, recipeNames.size()),
+                        saveAndLoader.findCookableRecipes(
+                                ingredientNames, maxMissing, 0, recipeNames.size()));
+            }
+        }
+        assertFilteredSearchesMatch(expectedSaveAndLoader, saveAndLoader, recipeNames.size());
+
+        Recipe updated = Utils.renameRecipePresentationName(Presets.recipe(0), "new presentation");
+        expectedSaveAndLoader.updateRecipes(Collections.singletonList(updated));
+        saveAndLoader.updateRecipes(Collections.singletonList(updated));
+        assertEquals(
+                List.of(updated), saveAndLoader.getRecipesByNames(List.of(updated.getName())));
+        assertEquals(
+                expectedSaveAndLoader.searchRecipes(Set.of("presentation")),
+                saveAndLoader.searchRecipes(Set.of("presentation")));
+        for (int offset = 0; offset <= recipeNames.size(); offset++) {
+            assertEquals(
+                    expectedSaveAndLoader.searchRecipes(Set.of("presentation"), offset, 2),
+                    saveAndLoader.searchRecipes(Set.of("presentation"), offset, 2));
+        }
+        for (int offset = 0; offset <= recipeNames.size(); offset++) {
+            assertEquals(
+                    expectedSaveAndLoader.findCookableRecipes(ingredientNames, 2, offset, 2),
+                    saveAndLoader.findCookableRecipes(ingredientNames, 2, offset, 2));
+        }
+        assertFilteredSearchesMatch(expectedSaveAndLoader, saveAndLoader, recipeNames.size());
+        for (String prefix : List.of("new pres", "pres", "n")) {
+            assertEquals(
+                    expectedSaveAndLoader.suggestRecipes(prefix, recipeNames.size()),
+                    saveAndLoader.suggestRecipes(prefix, recipeNames.size()));
+        }
+
+        // users reference recipes by name in files, so compare after a round trip through a file
+        ByteArrayOutputStream expectedOutStream = new ByteArrayOutputStream();
+        expectedSaveAndLoader.save(expectedOutStream);
+        FileEntitySaveAndLoader reloadedSaveAndLoader = new FileEntitySaveAndLoader();
+        reloadedSaveAndLoader.load(new ByteArrayInputStream(expectedOutStream.toByteArray()));
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        saveAndLoader.save(outStream);
+        assertBytesMatch(reloadedSaveAndLoader, outStream.toByteArray(), false);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 16, 1000})
+    void testMapInSegments(long segmentStride) throws IOException {
+        String filename = tempDir.resolve("entities.ser").toString();
+        FileEntitySaveAndLoader saveAndLoader = new FileEntitySaveAndLoader();
+        populateStorage(saveAndLoader);
+        saveAndLoader.save(filename);
+
+        MappedSnapshot expected = MappedSnapshot.open(filename, 0);
+        MappedSnapshot actual = MappedSnapshot.open(filename, 0, segmentStride);
+
+        assertEquals(expected.getNumStrings(), actual.getNumStrings());
+        for (int i = 0; i < expected.getNumStrings(); i++) {
+            assertEquals(expected.getString(i), actual.getString(i));
+        }
+        assertEquals(expected.getTags(), actual.getTags());
+        assertEquals(expected.getIngredients(), actual.getIngredients());
+        assertEquals(expected.getRecipeNames(), actual.getRecipeNames());
+        for (String name : expected.getRecipeNames()) {
+            assertEquals(
+                    expected.getRecipe(
+                            name,
+                            (form) ->
+                                    Utils.fromRecipeForm(
+                                            form, expected.getTags(), expected.getIngredients())),
+                    actual.getRecipe(
+                            name,
+                            (form) ->
+                                    Utils.fromRecipeForm(
+                                            form, actual.getTags(), actual.getIngredients())));
+        }
+        assertEquals(expected.getUsernames(), actual.getUsernames());
+        for (String username : expected.getUsernames()) {
+            assertEquals(
+                    expected.getUser(
+                            username,
+                            (form) -> Utils.fromUserForm(form, expected.getIngredients())),
+                    actual.getUser(
+                            username, (form) -> Utils.fromUserForm(form, actual.getIngredients())));
+        }
+
+        Set<String> tokens = new HashSet<>(expected.getRecipeNames());
+        assertEquals(expected.findRecipeNames(tokens), actual.findRecipeNames(tokens));
+        for (RecipeFilter filter : getTestFilters()) {
+            assertEquals(
+                    expected.findFilteredRecipeNames(null, filter),
+                    actual.findFilteredRecipeNames(null, filter));
+        }
+        Set<String> usernames = new HashSet<>(expected.getUsernames());
+        assertEquals(expected.findUsernames(usernames), actual.findUsernames(usernames));
+    }
+
+    @Test
+    void testMapWithInvalidSegmentStride() throws IOException {
+        String filename = tempDir.resolve("entities.ser").toString();
+        new FileEntitySaveAndLoader().save(filename);
+
+        assertThrows(IllegalArgumentException.class, () -> MappedSnapshot.open(filename, 0, 0));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> MappedSnapshot.open(filename, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testReadAfterMappedAutosave() throws IOException, ClassNotFoundException {
+        String filename = tempDir.resolve("entities.ser").toString();
+        FileEntitySaveAndLoader expectedSaveAndLoader = new FileEntitySaveAndLoader();
+        populateStorage(expectedSaveAndLoader);
+        expectedSaveAndLoader.save(filename);
+
+        // autosaves over the mapped file on every update
+        FileEntitySaveAndLoader saveAndLoader = new FileEntitySaveAndLoader(filename, 1);
+        saveAndLoader.loadMapped(filename, 2);
+        List<String> recipeNames =
+                new ArrayList<>(expectedSaveAndLoader.getSavedRecipes().keySet());
+        List<String> usernames = new ArrayList<>(expectedSaveAndLoader.getSavedUsers().keySet());
+        for (int i = 0; i < 2; i++) {
+            Recipe updated =
+                    Utils.renameRecipePresentationName(Presets.recipe(i), "autosaved " + i);
+            expectedSaveAndLoader.updateRecipes(Collections.singletonList(updated));
+            saveAndLoader.updateRecipes(Collections.singletonList(updated));
+
+            assertEquals(
+                    expectedSaveAndLoader.getRecipesByNames(recipeNames),
+                    saveAndLoader.getRecipesByNames(recipeNames));
+            assertEquals(
+                    expectedSaveAndLoader.getUsersByNames(usernames),
+                    saveAndLoader.getUsersByNames(usernames));
+            assertEquals(
+                    expectedSaveAndLoader.searchRecipes(Set.of("autosaved")),
+                    saveAndLoader.searchRecipes(Set.of("autosaved")));
+
+            // the copied records of the mapped file are in the autosave file, too
+            FileEntitySaveAndLoader loaded = new FileEntitySaveAndLoader();
+            loaded.load(filename);
+            assertEquals(expectedSaveAndLoader, loaded);
+        }
+    }
+
+    @Test
+    void testSearchAfterLoad() throws IOException, ClassNotFoundException {
+        FileEntitySaveAndLoader expectedSaveAndLoader = new FileEntitySaveAndLoader();
+        populateStorage(expectedSaveAndLoader);
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        expectedSaveAndLoader.save(outStream);
+
+        FileEntitySaveAndLoader saveAndLoader = new FileEntitySaveAndLoader();
+        saveAndLoader.load(new ByteArrayInputStream(outStream.toByteArray()));
+
+        for (Recipe recipe : (Recipe[]) TestData.getRecipes()) {
+            Set<String> tokens = Set.of(recipe.getName());
+            assertEquals(
+                    expectedSaveAndLoader.searchRecipes(tokens),
+                    saveAndLoader.searchRecipes(tokens));
+        }
+        for (User user : (User[]) TestData.getUsers()) {
+            Set<String> tokens = Set.of(user.getUsername());
+            assertEquals(
+                    expectedSaveAndLoader.searchUsers(tokens), saveAndLoader.searchUsers(tokens));
+        }
+    }
+
+    @Test
+    void testVersionsChangeAfterLoad() throws IOException, ClassNotFoundException {
+        FileEntitySaveAndLoader saveAndLoader = new FileEntitySaveAndLoader();
+        populateStorage(saveAndLoader);
+        Recipe recipe = ((Recipe[]) TestData.getRecipes())[0];
+        long versionBeforeLoad = saveAndLoader.getRecipeVersion(recipe.getName());
+        ByteArrayOutputStream outStream = new ByteArrayOutputStream();
+        saveAndLoader.save(outStream);
+
+        saveAndLoader.load(new ByteArrayInputStream(outStream.toByteArray()));
+        long versionAfterLoad = saveAndLoader.getRecipeVersion(recipe.getName());
+        assertTrue(versionAfterLoad > versionBeforeLoad);
+        assertFalse(saveAndLoader.updateRecipeIfVersion(recipe, versionBeforeLoad));
+        assertTrue(saveAndLoader.updateRecipeIfVersion(recipe, versionAfterLoad));
+    }
+
     @ParameterizedTest
     @ValueSource(ints = {1, 2, 5, 10, 20})
     void testAutosave(int maxSaveCounter) throws IOException, ClassNotFoundException {
@@ -102,6 +463,152 @@ public class FileEntitySaveAndLoaderTest {
         }
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 5})
+    void testBackgroundAutosave(int maxSaveCounter)
+            throws IOException, ClassNotFoundException, InterruptedException {
+        String filename = tempDir.resolve("entities.ser").toString();
+        FileEntitySaveAndLoader saveAndLoader =
+                new FileEntitySaveAndLoader(
+                        filename, maxSaveCounter, AutosaveMode.BACKGROUND_SNAPSHOT);
+        Random rand = new Random(0xdeadbeefL);
+        for (int i = 0; i < NUM_TIMES_TO_AUTOSAVE * maxSaveCounter; i++) {
+            randomSaveOperation(saveAndLoader, rand);
+        }
+        saveAndLoader.awaitBackgroundAutosave();
+
+        assertBytesMatch(saveAndLoader, Files.readAllBytes(Path.of(filename)), true);
+        assertFalse(
+                Files.list(Path.of(filename).getParent())
+                        .anyMatch((path) -> path.toString().endsWith(".tmp")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 5, 1000})
+    void testJournalReplay(int maxSaveCounter)
+            throws IOException, ClassNotFoundException, InterruptedException {
+        String filename = tempDir.resolve("entities.ser").toString();
+        FileEntitySaveAndLoader expectedSaveAndLoader =
+                new FileEntitySaveAndLoader(filename, maxSaveCounter, AutosaveMode.JOURNAL);
+        populateStorage(expectedSaveAndLoader);
+        Random rand = new Random(0xdeadbeefL);
+        for (int i = 0; i < NUM_TIMES_TO_AUTOSAVE; i++) {
+            randomSaveOperation(expectedSaveAndLoader, rand);
+        }
+        expectedSaveAndLoader.awaitBackgroundAutosave();
+
+        FileEntitySaveAndLoader saveAndLoader =
+                new FileEntitySaveAndLoader(filename, maxSaveCounter, AutosaveMode.JOURNAL);
+        saveAndLoader.loadAutosave();
+
+        assertEquals(expectedSaveAndLoader.getSavedTags(), saveAndLoader.getSavedTags());
+        assertEquals(
+                expectedSaveAndLoader.getSavedIngredients(), saveAndLoader.getSavedIngredients());
+        assertEquals(expectedSaveAndLoader.getSavedRecipes(), saveAndLoader.getSavedRecipes());
+        assertEquals(expectedSaveAndLoader.getSavedUsers(), saveAndLoader.getSavedUsers());
+    }
+
+    @Test
+    void testStripedJournalReplay() throws Exception {
+        String filename = tempDir.resolve("entities.ser").toString();
+        FileEntitySaveAndLoader expectedSaveAndLoader =
+                new FileEntitySaveAndLoader(
+                        filename, 50, AutosaveMode.JOURNAL, LockingMode.STRIPED);
+        int numThreads = 8, updatesPerThread = 100;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            int threadNum = i;
+            threads.add(
+                    new Thread(
+                            () -> {
+                                for (int j = 0; j < updatesPerThread; j++) {
+                                    // threads overwrite each other's users, too
+                                    User user =
+                                            new User.Builder()
+                                                    .setUsername("user " + j)
+                                                    .setEmailAddress(threadNum + "@example.com")
+                                                    .build();
+                                    expectedSaveAndLoader.updateUsers(List.of(user));
+                                }
+                            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        expectedSaveAndLoader.awaitBackgroundAutosave();
+
+        FileEntitySaveAndLoader saveAndLoader =
+                new FileEntitySaveAndLoader(filename, 50, AutosaveMode.JOURNAL);
+        saveAndLoader.loadAutosave();
+
+        assertEquals(updatesPerThread, saveAndLoader.getSavedUsers().size());
+        assertEquals(expectedSaveAndLoader.getSavedUsers(), saveAndLoader.getSavedUsers());
+    }
+
+    @Test
+    void testJournalCompaction() throws IOException, ClassNotFoundException, InterruptedException {
+        String filename = tempDir.resolve("entities.ser").toString();
+        FileEntitySaveAndLoader saveAndLoader =
+                new FileEntitySaveAndLoader(filename, 2, AutosaveMode.JOURNAL);
+        populateStorage(saveAndLoader);
+        saveAndLoader.awaitBackgroundAutosave();
+        saveAndLoader.compactJournal();
+
+        assertFalse(new File(filename + ".journal").exists());
+        assertFalse(new File(filename + ".journal.old").exists());
+        FileEntitySaveAndLoader loaded = new FileEntitySaveAndLoader();
+        loaded.load(filename);
+        assertEquals(saveAndLoader.getSavedTags(), loaded.getSavedTags());
+        assertEquals(saveAndLoader.getSavedIngredients(), loaded.getSavedIngredients());
+        assertEquals(saveAndLoader.getSavedRecipes(), loaded.getSavedRecipes());
+        assertEquals(saveAndLoader.getSavedUsers(), loaded.getSavedUsers());
+    }
+
+    @Test
+    void testSyncedJournalReplay()
+            throws IOException, ClassNotFoundException, InterruptedException {
+        String filename = tempDir.resolve("entities.ser").toString();
+        FileEntitySaveAndLoader expectedSaveAndLoader =
+                new FileEntitySaveAndLoader(filename, 1000, AutosaveMode.SYNCED_JOURNAL);
+        populateStorage(expectedSaveAndLoader);
+        expectedSaveAndLoader.awaitBackgroundAutosave();
+        assertTrue(new File(filename + ".journal").exists());
+
+        FileEntitySaveAndLoader saveAndLoader =
+                new FileEntitySaveAndLoader(filename, 1000, AutosaveMode.SYNCED_JOURNAL);
+        saveAndLoader.loadAutosave();
+
+        assertEquals(expectedSaveAndLoader.getSavedTags(), saveAndLoader.getSavedTags());
+        assertEquals(
+                expectedSaveAndLoader.getSavedIngredients(), saveAndLoader.getSavedIngredients());
+        assertEquals(expectedSaveAndLoader.getSavedRecipes(), saveAndLoader.getSavedRecipes());
+        assertEquals(expectedSaveAndLoader.getSavedUsers(), saveAndLoader.getSavedUsers());
+    }
+
+    @Test
+    void testFailedJournalAppend()
+            throws IOException, ClassNotFoundException, InterruptedException {
+        String filename = tempDir.resolve("entities.ser").toString();
+        // the journal file can't be opened for appending if it's a directory
+        Files.createDirectory(tempDir.resolve("entities.ser.journal"));
+        FileEntitySaveAndLoader saveAndLoader =
+                new FileEntitySaveAndLoader(filename, 1000, AutosaveMode.JOURNAL);
+
+        Tag tag = new Tag("unjournaled tag");
+        assertThrows(UncheckedIOException.class, () -> saveAndLoader.updateTags(List.of(tag)));
+        assertTrue(saveAndLoader.tagNameExists(tag.getName()));
+        saveAndLoader.awaitBackgroundAutosave();
+
+        // the scheduled compaction wrote the update to the autosave file instead
+        FileEntitySaveAndLoader loaded =
+                new FileEntitySaveAndLoader(filename, 1000, AutosaveMode.JOURNAL);
+        loaded.loadAutosave();
+        assertEquals(saveAndLoader.getSavedTags(), loaded.getSavedTags());
+    }
+
     private static class BytesSave {
         private int numTimesCalled = 0;
         private ByteArrayOutputStream outStream = new ByteArrayOutputStream();
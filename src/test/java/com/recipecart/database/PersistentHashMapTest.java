@@ -0,0 +1,68 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class PersistentHashMapTest {
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 1000}) // 1 and 7 distinct hashes force collisions
+    void testMatchesHashMap(int numHashes) {
+        Random rand = new Random(0);
+        Map<CollidingKey, Integer> expected = new HashMap<>();
+        PersistentHashMap<CollidingKey, Integer> actual = PersistentHashMap.empty();
+        for (int i = 0; i < 5000; i++) {
+            CollidingKey key = new CollidingKey(rand.nextInt(300), numHashes);
+            if (rand.nextInt(3) == 0) {
+                expected.remove(key);
+                actual = actual.minus(key);
+            } else {
+                expected.put(key, i);
+                actual = actual.plus(key, i);
+            }
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected.get(key), actual.get(key));
+        }
+        assertEquals(expected, actual.asMap());
+    }
+
+    @Test
+    void testOldVersionsUnchanged() {
+        PersistentHashMap<String, Integer> first = PersistentHashMap.<String, Integer>empty();
+        for (int i = 0; i < 100; i++) {
+            first = first.plus("key " + i, i);
+        }
+        PersistentHashMap<String, Integer> second = first.plus("key 0", -1).minus("key 1");
+
+        assertEquals(0, first.get("key 0"));
+        assertEquals(1, first.get("key 1"));
+        assertEquals(100, first.size());
+        assertEquals(-1, second.get("key 0"));
+        assertNull(second.get("key 1"));
+        assertEquals(99, second.size());
+        assertSame(second, second.minus("not a key"));
+    }
+
+    private static class CollidingKey {
+        private final int id, numHashes;
+
+        CollidingKey(int id, int numHashes) {
+            this.id = id;
+            this.numHashes = numHashes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % numHashes;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Recipe;
+import com.recipecart.entities.Tag;
+import com.recipecart.storage.RecipeFacets;
+import com.recipecart.storage.RecipeFilter;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+public class RecipeAttributeIndexTest {
+    private static Set<String> randomIngredients(Random rand) {
+        Set<String> ingredients = new HashSet<>();
+        int numIngredients = rand.nextInt(6);
+        for (int i = 0; i < numIngredients; i++) {
+            ingredients.add("ingredient " + rand.nextInt(12));
+        }
+        return ingredients;
+    }
+
+    private static Set<String> randomTags(Random rand, int maxNumTags) {
+        Set<String> tags = new HashSet<>();
+        int numTags = rand.nextInt(maxNumTags + 1);
+        for (int i = 0; i < numTags; i++) {
+            tags.add("tag " + rand.nextInt(5));
+        }
+        return tags;
+    }
+
+    private static Integer randomOrNull(Random rand, int bound) {
+        return rand.nextInt(4) == 0 ? null : rand.nextInt(bound);
+    }
+
+    private static Recipe randomRecipe(Random rand, String name) {
+        Set<Tag> tags = new HashSet<>();
+        for (String tagName : randomTags(rand, 3)) {
+            tags.add(new Tag(tagName));
+        }
+        Map<Ingredient, Double> required = new HashMap<>();
+        for (String ingredientName : randomIngredients(rand)) {
+            required.put(new Ingredient(ingredientName, null, null), 1.0);
+        }
+        return new Recipe.Builder()
+                .setName(name)
+                .setPrepTime(randomOrNull(rand, 60))
+                .setCookTime(randomOrNull(rand, 60))
+                .setNumServings(randomOrNull(rand, 8))
+                .setAvgRating(rand.nextInt(11) / 2.0)
+                .setTags(tags)
+                .setRequiredIngredients(required)
+                .build();
+    }
+
+    private static RecipeFilter randomFilter(Random rand) {
+        return new RecipeFilter.Builder()
+                .setTagNames(randomTags(rand, 1))
+                .setMaxTotalTime(rand.nextBoolean() ? null : rand.nextInt(120))
+                .setMinNumServings(rand.nextBoolean() ? null : rand.nextInt(8))
+                .setMaxNumServings(rand.nextBoolean() ? null : rand.nextInt(8))
+                .setMinAvgRating(rand.nextBoolean() ? null : rand.nextInt(11) / 2.0)
+                .setRequiredIngredientNames(rand.nextBoolean() ? Set.of() : Set.of("ingredient 0"))
+                .setExcludedIngredientNames(rand.nextBoolean() ? Set.of() : Set.of("ingredient 1"))
+                .build();
+    }
+
+    private static RecipeAttributeIndex.Attributes ingredientsOnly(
+            Collection<String> ingredientNames) {
+        return new RecipeAttributeIndex.Attributes(
+                ingredientNames, Set.of(), null, null, null, 0);
+    }
+
+    @Test
+    void testFindCoveredMatchesScan() {
+        Random rand = new Random(0);
+        Map<String, Set<String>> recipes = new HashMap<>();
+        RecipeAttributeIndex index = new RecipeAttributeIndex();
+        for (int i = 0; i < 2000; i++) {
+            String key = "recipe " + rand.nextInt(300);
+            if (rand.nextInt(4) == 0) {
+                recipes.remove(key);
+                index.remove(key);
+            } else {
+                Set<String> ingredients = randomIngredients(rand);
+                recipes.put(key, ingredients);
+                index.put(key, ingredientsOnly(ingredients));
+            }
+        }
+
+        for (int i = 0; i < 200; i++) {
+            Set<String> owned = randomIngredients(rand);
+            int maxMissing = rand.nextInt(4);
+            Map<String, Integer> expected = new HashMap<>();
+            for (Map.Entry<String, Set<String>> recipe : recipes.entrySet()) {
+                Set<String> missing = new HashSet<>(recipe.getValue());
+                missing.removeAll(owned);
+                if (missing.size() <= maxMissing) {
+                    expected.put(recipe.getKey(), missing.size());
+                }
+            }
+            assertEquals(expected, index.findCovered(owned, maxMissing), owned.toString());
+        }
+    }
+
+    @Test
+    void testFindCovered() {
+        RecipeAttributeIndex index = new RecipeAttributeIndex();
+        index.put("toast", ingredientsOnly(List.of("bread", "butter")));
+        index.put("omelette", ingredientsOnly(List.of("egg", "butter", "cheese")));
+        index.put("water", ingredientsOnly(List.of()));
+
+        assertEquals(
+                Map.of("toast", 0, "water", 0), index.findCovered(Set.of("bread", "butter"), 0));
+        assertEquals(
+                Map.of("toast", 0, "water", 0, "omelette", 1),
+                index.findCovered(Set.of("bread", "butter", "egg"), 1));
+        assertThrows(IllegalArgumentException.class, () -> index.findCovered(Set.of(), -1));
+
+        index.put("toast", ingredientsOnly(List.of("bread", "jam")));
+        assertEquals(Map.of("water", 0), index.findCovered(Set.of("butter"), 0));
+        index.remove("water");
+        index.put("porridge", ingredientsOnly(List.of("oats")));
+        assertEquals(Map.of("porridge", 0), index.findCovered(Set.of("oats"), 0));
+        index.clear();
+        assertEquals(Map.of(), index.findCovered(Set.of("oats"), 3));
+    }
+
+    @Test
+    void testFindMatchingMatchesScan() {
+        Random rand = new Random(0);
+        Map<String, Recipe> recipes = new HashMap<>();
+        RecipeAttributeIndex index = new RecipeAttributeIndex();
+        for (int i = 0; i < 2000; i++) {
+            String key = "recipe " + rand.nextInt(300);
+            if (rand.nextInt(4) == 0) {
+                recipes.remove(key);
+                index.remove(key);
+            } else {
+                Recipe recipe = randomRecipe(rand, key);
+                recipes.put(key, recipe);
+                index.put(key, RecipeAttributeIndex.Attributes.of(recipe));
+            }
+        }
+
+        for (int i = 0; i < 200; i++) {
+            RecipeFilter filter = randomFilter(rand);
+            Set<String> candidates = new HashSet<>();
+            for (String key : recipes.keySet()) {
+                if (rand.nextBoolean()) {
+                    candidates.add(key);
+                }
+            }
+            Set<String> expected = new HashSet<>(), expectedCandidates = new HashSet<>();
+            for (Recipe recipe : recipes.values()) {
+                if (filter.matches(recipe)) {
+                    expected.add(recipe.getName());
+                    if (candidates.contains(recipe.getName())) {
+                        expectedCandidates.add(recipe.getName());
+                    }
+                }
+            }
+            assertEquals(expected, index.findMatching(null, filter), filter.toString());
+            assertEquals(
+                    expectedCandidates, index.findMatching(candidates, filter), filter.toString());
+        }
+    }
+
+    @Test
+    void testFindMatching() {
+        RecipeAttributeIndex index = new RecipeAttributeIndex();
+        index.put(
+                "toast",
+                new RecipeAttributeIndex.Attributes(
+                        List.of("bread", "butter"), List.of("breakfast"), 2, 3, 1, 4.5));
+        index.put(
+                "omelette",
+                new RecipeAttributeIndex.Attributes(
+                        List.of("egg", "butter"), List.of("breakfast"), 5, 10, 2, 3));
+        index.put(
+                "salad",
+                new RecipeAttributeIndex.Attributes(
+                        List.of("lettuce"), List.of("lunch"), 10, null, null, 4));
+
+        RecipeFilter breakfast =
+                new RecipeFilter.Builder().setTagNames(Set.of("breakfast")).build();
+        assertEquals(Set.of("toast", "omelette"), index.findMatching(null, breakfast));
+        assertEquals(Set.of("toast"), index.findMatching(Set.of("toast", "salad"), breakfast));
+        assertEquals(
+                Set.of("toast", "salad"),
+                index.findMatching(
+                        null, new RecipeFilter.Builder().setMaxTotalTime(10).build()));
+        assertEquals(
+                Set.of("omelette"),
+                index.findMatching(
+                        null,
+                        new RecipeFilter.Builder()
+                                .setMinNumServings(2)
+                                .setMaxNumServings(4)
+                                .build()));
+        assertEquals(
+                Set.of("toast", "salad"),
+                index.findMatching(null, new RecipeFilter.Builder().setMinAvgRating(4.0).build()));
+        assertEquals(
+                Set.of("omelette"),
+                index.findMatching(
+                        null,
+                        new RecipeFilter.Builder()
+                                .setRequiredIngredientNames(Set.of("butter"))
+                                .setExcludedIngredientNames(Set.of("bread"))
+                                .build()));
+        assertEquals(
+                Set.of(),
+                index.findMatching(
+                        null, new RecipeFilter.Builder().setTagNames(Set.of("dinner")).build()));
+        assertEquals(
+                Set.of("toast", "omelette", "salad"),
+                index.findMatching(null, new RecipeFilter.Builder().build()));
+
+        index.remove("toast");
+        assertEquals(Set.of("omelette"), index.findMatching(null, breakfast));
+        index.clear();
+        assertEquals(Set.of(), index.findMatching(null, new RecipeFilter.Builder().build()));
+    }
+
+    @Test
+    void testCountFacets() {
+        RecipeAttributeIndex index = new RecipeAttributeIndex();
+        index.put(
+                "toast",
+                new RecipeAttributeIndex.Attributes(
+                        List.of("bread"), List.of("breakfast", "quick"), 2, 3, 1, 4.5));
+        index.put(
+                "omelette",
+                new RecipeAttributeIndex.Attributes(
+                        List.of("egg"), List.of("breakfast"), 5, 20, 2, 3));
+        index.put(
+                "salad",
+                new RecipeAttributeIndex.Attributes(
+                        List.of("lettuce"), List.of("lunch"), null, null, null, 0));
+
+        RecipeFacets.Builder facets = new RecipeFacets.Builder();
+        index.countFacets(List.of("toast", "omelette", "nonexistent"), facets);
+        RecipeFacets counted = facets.build();
+
+        assertEquals(2, counted.getNumRecipes());
+        assertEquals(Map.of("breakfast", 2, "quick", 1), counted.getTagCounts());
+        assertEquals(Map.of(1, 1, 2, 1), counted.getNumServingsCounts());
+        assertEquals(Map.of(15, 1, 30, 2, 60, 2, 120, 2), counted.getMaxTotalTimeCounts());
+        assertEquals(Map.of(1, 2, 2, 2, 3, 2, 4, 1), counted.getMinAvgRatingCounts());
+
+        index.countFacets(List.of("salad"), facets);
+        counted = facets.build();
+        assertEquals(3, counted.getNumRecipes());
+        assertEquals(Map.of("breakfast", 2, "quick", 1, "lunch", 1), counted.getTagCounts());
+        assertEquals(Map.of(15, 1, 30, 2, 60, 2, 120, 2), counted.getMaxTotalTimeCounts());
+    }
+
+    @Test
+    void testSelectPage() {
+        Map<String, Integer> missingCounts = Map.of("c", 0, "a", 1, "b", 0, "d", 2);
+        assertEquals(
+                List.of("b", "c", "a", "d"), RecipeAttributeIndex.selectPage(missingCounts, 0, 10));
+        assertEquals(List.of("c", "a"), RecipeAttributeIndex.selectPage(missingCounts, 1, 2));
+        assertEquals(List.of(), RecipeAttributeIndex.selectPage(missingCounts, 4, 2));
+        assertEquals(List.of(), RecipeAttributeIndex.selectPage(missingCounts, 0, 0));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> RecipeAttributeIndex.selectPage(missingCounts, -1, 1));
+    }
+}
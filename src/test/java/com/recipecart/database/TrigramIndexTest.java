@@ -0,0 +1,93 @@
+/* (C)2023 */
+package com.recipecart.database;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class TrigramIndexTest {
+    private static int editDistance(String a, String b) {
+        int[][] distances = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    distances[i][j] = i + j;
+                } else {
+                    int substitution = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    distances[i][j] =
+                            Math.min(
+                                    distances[i - 1][j - 1] + substitution,
+                                    Math.min(distances[i - 1][j], distances[i][j - 1]) + 1);
+                }
+            }
+        }
+        return distances[a.length()][b.length()];
+    }
+
+    private static String randomWord(Random rand) {
+        StringBuilder word = new StringBuilder();
+        int length = 1 + rand.nextInt(9);
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + rand.nextInt(4))); // few letters, so words are often similar
+        }
+        return word.toString();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 3})
+    void testWithinEditDistanceMatchesFullComputation(int maxEdits) {
+        Random rand = new Random(maxEdits);
+        for (int i = 0; i < 5000; i++) {
+            String a = randomWord(rand), b = randomWord(rand);
+            assertEquals(
+                    editDistance(a, b) <= maxEdits,
+                    TrigramIndex.isWithinEditDistance(a, b, maxEdits),
+                    a + ", " + b);
+        }
+    }
+
+    @Test
+    void testFindSimilarMatchesScan() {
+        Random rand = new Random(0);
+        Set<String> tokens = new HashSet<>();
+        TrigramIndex index = new TrigramIndex();
+        for (int i = 0; i < 500; i++) {
+            String token = randomWord(rand);
+            tokens.add(token);
+            index.add(token);
+        }
+        for (int i = 0; i < 500; i++) {
+            String term = randomWord(rand);
+            Set<String> expected = new HashSet<>();
+            for (String token : tokens) {
+                if (editDistance(term, token) <= TrigramIndex.getMaxEdits(term)) {
+                    expected.add(token);
+                }
+            }
+            assertEquals(expected, index.findSimilar(Set.of(term)), term);
+        }
+    }
+
+    @Test
+    void testFindSimilar() {
+        TrigramIndex index = new TrigramIndex();
+        index.addAll(List.of("broccoli", "parmesan", "cheese", "pepper", "egg"));
+
+        assertEquals(Set.of("broccoli"), index.findSimilar(Set.of("brocolli")));
+        assertEquals(Set.of("parmesan", "cheese"), index.findSimilar(Set.of("PARMESEAN", "chese")));
+        assertEquals(Set.of("egg"), index.findSimilar(Set.of("eggs")));
+        assertEquals(Set.of(), index.findSimilar(Set.of("eg"))); // too short to be misspelled
+        assertEquals(Set.of(), index.findSimilar(Set.of("carrot")));
+
+        index.remove("broccoli");
+        assertEquals(Set.of(), index.findSimilar(Set.of("brocolli")));
+        index.retainAll(Set.of("pepper"));
+        assertEquals(Set.of(), index.findSimilar(Set.of("cheese")));
+        assertEquals(Set.of("pepper"), index.findSimilar(Set.of("peper")));
+        index.clear();
+        assertEquals(Set.of(), index.findSimilar(Set.of("pepper")));
+    }
+}
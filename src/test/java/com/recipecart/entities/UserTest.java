@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import com.recipecart.testutil.Presets;
 import com.recipecart.testutil.TestData;
+import com.recipecart.utils.Utils;
 import java.util.*;
 import java.util.stream.Stream;
 import org.jetbrains.annotations.NotNull;
@@ -62,12 +63,12 @@ public class UserTest {
         assertNotNull(user);
         assertNull(user.getUsername());
         assertNull(user.getEmailAddress());
-        assertNotNull(user.getAuthoredRecipes());
-        assertEquals(0, user.getAuthoredRecipes().size());
-        assertNotNull(user.getSavedRecipes());
-        assertEquals(0, user.getSavedRecipes().size());
-        assertNotNull(user.getRatedRecipes());
-        assertEquals(0, user.getRatedRecipes().size());
+        assertNotNull(user.getAuthoredRecipeNames());
+        assertEquals(0, user.getAuthoredRecipeNames().size());
+        assertNotNull(user.getSavedRecipeNames());
+        assertEquals(0, user.getSavedRecipeNames().size());
+        assertNotNull(user.getRecipeRatings());
+        assertEquals(0, user.getRecipeRatings().size());
         assertNotNull(user.getOwnedIngredients());
         assertEquals(0, user.getOwnedIngredients().size());
         assertNotNull(user.getShoppingList());
@@ -98,9 +99,9 @@ public class UserTest {
         assertNotNull(user);
         assertEquals(s1, user.getUsername());
         assertEquals(s2, user.getEmailAddress());
-        assertEquals(lr1, user.getAuthoredRecipes());
-        assertEquals(lr2, user.getSavedRecipes());
-        assertEquals(mrd1, user.getRatedRecipes());
+        assertEquals(namesOf(lr1), user.getAuthoredRecipeNames());
+        assertEquals(namesOf(lr2), user.getSavedRecipeNames());
+        assertEquals(Utils.fromRecipeMap(mrd1), user.getRecipeRatings());
         assertEquals(si1, user.getOwnedIngredients());
         assertEquals(mid1, user.getShoppingList());
     }
@@ -117,9 +118,9 @@ public class UserTest {
         assertEquals(expectedUser, actualUser);
         assertEquals(expectedUser.getUsername(), actualUser.getUsername());
         assertEquals(expectedUser.getEmailAddress(), actualUser.getEmailAddress());
-        assertEquals(expectedUser.getAuthoredRecipes(), actualUser.getAuthoredRecipes());
-        assertEquals(expectedUser.getSavedRecipes(), actualUser.getSavedRecipes());
-        assertEquals(expectedUser.getRatedRecipes(), actualUser.getRatedRecipes());
+        assertEquals(expectedUser.getAuthoredRecipeNames(), actualUser.getAuthoredRecipeNames());
+        assertEquals(expectedUser.getSavedRecipeNames(), actualUser.getSavedRecipeNames());
+        assertEquals(expectedUser.getRecipeRatings(), actualUser.getRecipeRatings());
         assertEquals(expectedUser.getOwnedIngredients(), actualUser.getOwnedIngredients());
         assertEquals(expectedUser.getShoppingList(), actualUser.getShoppingList());
         assertEquals(expectedUser.hashCode(), actualUser.hashCode());
@@ -133,6 +134,19 @@ public class UserTest {
         assertThrows(NullPointerException.class, () -> builder.setSavedRecipes(recipes));
     }
 
+    @Test
+    void testRecipeNamesNullCheck() {
+        User.Builder builder = new User.Builder();
+        List<String> names = listOfAllowNulls("recipe", null);
+        Map<String, Double> ratings = mapOfAllowNulls(null, 1.0);
+        assertThrows(NullPointerException.class, () -> builder.setAuthoredRecipeNames(null));
+        assertThrows(NullPointerException.class, () -> builder.setAuthoredRecipeNames(names));
+        assertThrows(NullPointerException.class, () -> builder.setSavedRecipeNames(null));
+        assertThrows(NullPointerException.class, () -> builder.setSavedRecipeNames(names));
+        assertThrows(NullPointerException.class, () -> builder.setRecipeRatings(null));
+        assertThrows(NullPointerException.class, () -> builder.setRecipeRatings(ratings));
+    }
+
     @ParameterizedTest
     @MethodSource("nullableRatedRecipesParams")
     void testRatedRecipesNullCheck(@Nullable Map<@Nullable Recipe, @Nullable Double> ratedRecipes) {
@@ -182,9 +196,9 @@ public class UserTest {
                         .setShoppingList(shoppingList)
                         .build();
 
-        assertEquals(authoredRecipesOriginal, user.getAuthoredRecipes());
-        assertEquals(savedRecipesOriginal, user.getSavedRecipes());
-        assertEquals(ratedRecipesOriginal, user.getRatedRecipes());
+        assertEquals(namesOf(authoredRecipesOriginal), user.getAuthoredRecipeNames());
+        assertEquals(namesOf(savedRecipesOriginal), user.getSavedRecipeNames());
+        assertEquals(Utils.fromRecipeMap(ratedRecipesOriginal), user.getRecipeRatings());
         assertEquals(ownedIngredientsOriginal, user.getOwnedIngredients());
         assertEquals(shoppingListOriginal, user.getShoppingList());
 
@@ -194,12 +208,12 @@ public class UserTest {
         ownedIngredients.clear();
         shoppingList.clear();
 
-        List<Recipe> userAuthoredRecipes = user.getAuthoredRecipes();
-        assertEquals(authoredRecipesOriginal, userAuthoredRecipes);
-        List<Recipe> userSavedRecipes = user.getSavedRecipes();
-        assertEquals(savedRecipesOriginal, userSavedRecipes);
-        Map<Recipe, Double> userRatedRecipes = user.getRatedRecipes();
-        assertEquals(ratedRecipesOriginal, userRatedRecipes);
+        Set<String> userAuthoredRecipes = user.getAuthoredRecipeNames();
+        assertEquals(namesOf(authoredRecipesOriginal), userAuthoredRecipes);
+        Set<String> userSavedRecipes = user.getSavedRecipeNames();
+        assertEquals(namesOf(savedRecipesOriginal), userSavedRecipes);
+        Map<String, Double> userRatedRecipes = user.getRecipeRatings();
+        assertEquals(Utils.fromRecipeMap(ratedRecipesOriginal), userRatedRecipes);
         Set<Ingredient> userOwnedIngredients = user.getOwnedIngredients();
         assertEquals(ownedIngredientsOriginal, userOwnedIngredients);
         Map<Ingredient, Double> userShoppingList = user.getShoppingList();
@@ -289,10 +303,71 @@ public class UserTest {
         assertNotEquals(user1, user2);
         assertNotEquals(user1.getUsername(), user2.getUsername());
         assertNotEquals(user1.getEmailAddress(), user2.getEmailAddress());
-        assertNotEquals(user1.getAuthoredRecipes(), user2.getAuthoredRecipes());
-        assertNotEquals(user1.getSavedRecipes(), user2.getSavedRecipes());
-        assertNotEquals(user1.getRatedRecipes(), user2.getRatedRecipes());
+        assertNotEquals(user1.getAuthoredRecipeNames(), user2.getAuthoredRecipeNames());
+        assertNotEquals(user1.getSavedRecipeNames(), user2.getSavedRecipeNames());
+        assertNotEquals(user1.getRecipeRatings(), user2.getRecipeRatings());
         assertNotEquals(user1.getOwnedIngredients(), user2.getOwnedIngredients());
         assertNotEquals(user1.getShoppingList(), user2.getShoppingList());
     }
+
+    @ParameterizedTest
+    @MethodSource("userParams")
+    void testRecipeNameLookups(User user) {
+        for (String name : user.getAuthoredRecipeNames()) {
+            assertTrue(user.hasAuthoredRecipe(name));
+        }
+        for (String name : user.getSavedRecipeNames()) {
+            assertTrue(user.hasSavedRecipe(name));
+        }
+        for (Map.Entry<String, Double> entry : user.getRecipeRatings().entrySet()) {
+            assertEquals(entry.getValue(), user.getRatingOf(entry.getKey()));
+        }
+
+        String unusedName = "not a recipe name";
+        assertFalse(user.hasAuthoredRecipe(unusedName));
+        assertFalse(user.hasSavedRecipe(unusedName));
+        assertNull(user.getRatingOf(unusedName));
+    }
+
+    @Test
+    void testRecipeNameLookupsIgnoreRecipeChanges() {
+        Recipe recipe = new Recipe.Builder().setName("recipe").setNumServings(1).build();
+        User user =
+                new User.Builder()
+                        .setSavedRecipes(List.of(recipe))
+                        .setRatedRecipes(Map.of(recipe, 4.5))
+                        .build();
+        Recipe changed = new Recipe.Builder(recipe).setNumServings(2).build();
+
+        assertEquals(Set.of(recipe.getName()), user.getSavedRecipeNames());
+        assertTrue(user.hasSavedRecipe(changed.getName()));
+        assertFalse(user.hasAuthoredRecipe(changed.getName()));
+        assertEquals(Double.valueOf(4.5), user.getRatingOf(changed.getName()));
+    }
+
+    @Test
+    void testRecipeNameSetters() {
+        Recipe recipe1 = Presets.recipe(0), recipe2 = Presets.recipe(1);
+        User fromRecipes =
+                new User.Builder()
+                        .setAuthoredRecipes(List.of(recipe1))
+                        .setSavedRecipes(List.of(recipe1, recipe2))
+                        .setRatedRecipes(Map.of(recipe2, 3.0))
+                        .build();
+        User fromNames =
+                new User.Builder()
+                        .setAuthoredRecipeNames(List.of(recipe1.getName()))
+                        .setSavedRecipeNames(List.of(recipe1.getName(), recipe2.getName()))
+                        .setRecipeRatings(Map.of(recipe2.getName(), 3.0))
+                        .build();
+
+        assertUsersEquals(fromRecipes, fromNames);
+        assertEquals(
+                List.of(recipe1.getName(), recipe2.getName()),
+                new ArrayList<>(fromNames.getSavedRecipeNames()));
+    }
+
+    private static Set<String> namesOf(List<Recipe> recipes) {
+        return new LinkedHashSet<>(Utils.fromRecipeList(recipes));
+    }
 }
@@ -0,0 +1,177 @@
+/* (C)2023 */
+package com.recipecart.execution;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.recipecart.database.MapEntitySaveAndLoader;
+import com.recipecart.execution.EntityCommander.ExecutorMode;
+import com.recipecart.storage.EntityStorage;
+import com.recipecart.usecases.Command;
+import com.recipecart.usecases.EntityCommand;
+import com.recipecart.utils.VirtualThreads;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public class EntityCommanderTest {
+    private static final int NUM_THREADS = 2, TIMEOUT_SECONDS = 10;
+
+    private EntityStorage storage;
+
+    @BeforeEach
+    void initStorage() {
+        MapEntitySaveAndLoader saveAndLoader = new MapEntitySaveAndLoader();
+        storage = new EntityStorage(saveAndLoader, saveAndLoader);
+    }
+
+    // virtual threads can only be tested when running on a Java runtime that supports them
+    static Stream<Arguments> getExecutorModes() {
+        return Stream.of(ExecutorMode.values())
+                .filter((mode) -> mode != ExecutorMode.VIRTUAL || VirtualThreads.isSupported())
+                .map(Arguments::of);
+    }
+
+    static Stream<Arguments> getPooledExecutorModes() {
+        return getExecutorModes().filter((args) -> args.get()[0] != ExecutorMode.DIRECT);
+    }
+
+    private static EntityCommand successfulCommand(CountDownLatch started, CountDownLatch release) {
+        return new EntityCommand() {
+            @Override
+            public void execute() {
+                started.countDown();
+                try {
+                    release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                beSuccessful();
+                setExecutionMessage(Command.OK_GENERAL);
+                finishExecuting();
+            }
+        };
+    }
+
+    @ParameterizedTest
+    @MethodSource("getExecutorModes")
+    void testExecuteAsync(ExecutorMode mode) throws InterruptedException {
+        EntityCommander commander = new EntityCommander(storage, mode, NUM_THREADS);
+        CountDownLatch released = new CountDownLatch(0);
+        EntityCommand command = successfulCommand(new CountDownLatch(1), released);
+
+        EntityCommand executed = commander.executeAsync(command).join();
+
+        assertSame(command, executed);
+        assertSame(storage, executed.getStorageSource());
+        assertTrue(executed.isFinishedExecuting());
+        assertTrue(executed.isSuccessful());
+        assertEquals(Command.OK_GENERAL, executed.getExecutionMessage());
+        assertEquals(0, commander.getQueueDepth());
+        assertEquals(0, commander.getExecutingCount());
+        assertTrue(commander.shutdown(TIMEOUT_SECONDS * 1000L));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getExecutorModes")
+    void testExecuteAsyncFailure(ExecutorMode mode) throws InterruptedException {
+        EntityCommander commander = new EntityCommander(storage, mode, NUM_THREADS);
+        EntityCommand command =
+                new EntityCommand() {
+                    @Override
+                    public void execute() {
+                        throw new IllegalStateException("command failed");
+                    }
+                };
+
+        CompletableFuture<EntityCommand> future = commander.executeAsync(command);
+
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertEquals(0, commander.getExecutingCount());
+        assertTrue(commander.shutdown(TIMEOUT_SECONDS * 1000L));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getPooledExecutorModes")
+    void testConcurrencyBoundedByThreads(ExecutorMode mode) throws InterruptedException {
+        final int numCommands = NUM_THREADS + 3;
+        EntityCommander commander = new EntityCommander(storage, mode, NUM_THREADS);
+        CountDownLatch started = new CountDownLatch(NUM_THREADS), release = new CountDownLatch(1);
+
+        List<CompletableFuture<EntityCommand>> futures = new ArrayList<>();
+        for (int i = 0; i < numCommands; i++) {
+            futures.add(commander.executeAsync(successfulCommand(started, release)));
+        }
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        assertEquals(NUM_THREADS, commander.getExecutingCount());
+        assertEquals(numCommands - NUM_THREADS, commander.getQueueDepth());
+
+        release.countDown();
+        for (CompletableFuture<EntityCommand> future : futures) {
+            assertTrue(future.join().isSuccessful());
+        }
+        assertEquals(0, commander.getQueueDepth());
+        assertTrue(commander.shutdown(TIMEOUT_SECONDS * 1000L));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getExecutorModes")
+    void testExecuteConcurrently(ExecutorMode mode) throws InterruptedException {
+        EntityCommander commander = new EntityCommander(storage, mode, NUM_THREADS);
+        CountDownLatch started = new CountDownLatch(NUM_THREADS), release = new CountDownLatch(1);
+
+        List<CompletableFuture<EntityCommand>> futures = new ArrayList<>();
+        for (int i = 0; i < NUM_THREADS; i++) {
+            futures.add(commander.executeConcurrently(successfulCommand(started, release)));
+        }
+        // even in DIRECT mode, none of the commands were executed on this thread
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(NUM_THREADS, commander.getExecutingCount());
+
+        release.countDown();
+        for (CompletableFuture<EntityCommand> future : futures) {
+            assertTrue(future.join().isSuccessful());
+        }
+        assertEquals(0, commander.getExecutingCount());
+        assertTrue(commander.shutdown(TIMEOUT_SECONDS * 1000L));
+    }
+
+    @Test
+    void testExecuteAsyncAfterShutdown() throws InterruptedException {
+        EntityCommander commander = new EntityCommander(storage, ExecutorMode.FIXED, NUM_THREADS);
+        assertTrue(commander.shutdown(TIMEOUT_SECONDS * 1000L));
+
+        CompletableFuture<EntityCommand> future =
+                commander.executeAsync(
+                        successfulCommand(new CountDownLatch(1), new CountDownLatch(0)));
+
+        assertThrows(CompletionException.class, future::join);
+        assertEquals(0, commander.getQueueDepth());
+    }
+
+    @Test
+    void testVirtualThreadsUnsupported() {
+        if (!VirtualThreads.isSupported()) {
+            assertThrows(
+                    UnsupportedOperationException.class,
+                    () -> new EntityCommander(storage, ExecutorMode.VIRTUAL, NUM_THREADS));
+        }
+    }
+
+    @Test
+    void testInvalidNumThreads() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> new EntityCommander(storage, ExecutorMode.FIXED, 0));
+    }
+}
@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
 import com.recipecart.database.MapEntitySaveAndLoader;
 import com.recipecart.entities.*;
 import com.recipecart.execution.EntityCommander;
@@ -188,6 +189,30 @@ public class HttpRequestHandlerTest {
         assertEquals(expectedRecipe, retrieval.getSecond().getRecipe());
     }
 
+    // @ParameterizedTest
+    @MethodSource("getRecipe")
+    void testGetRecipeExpanded(Recipe recipe) throws IOException {
+        storageSource.getSaver().updateIngredients(recipe.getRequiredIngredients().keySet());
+        storageSource.getSaver().updateTags(recipe.getTags());
+        storageSource.getSaver().updateRecipes(Collections.singleton(recipe));
+        String url = getFullUrl("/recipes/" + recipe.getName() + "?expand=ingredients,tags");
+
+        TwoTuple<Integer, ResponseBodies.RecipeRetrieval> retrieval =
+                performGetRequestJson(url, ResponseBodies.RecipeRetrieval.class);
+
+        assertEquals(OK, retrieval.getFirst());
+        assertEquals(
+                recipe.getRequiredIngredients().keySet(),
+                new HashSet<>(retrieval.getSecond().getIngredients()));
+        assertEquals(recipe.getTags(), new HashSet<>(retrieval.getSecond().getTags()));
+        assertNull(retrieval.getSecond().getAuthor());
+
+        TwoTuple<Integer, ResponseBodies.WithMessage> invalidRetrieval =
+                performGetRequestJson(url + ",steps", ResponseBodies.WithMessage.class);
+        assertEquals(BAD_REQUEST, invalidRetrieval.getFirst());
+        assertEquals(NOT_OK_INVALID_EXPAND, invalidRetrieval.getSecond().getMessage());
+    }
+
     // @ParameterizedTest
     @MethodSource("getUser")
     void testGetUser(User user) throws IOException {
@@ -232,6 +257,43 @@ public class HttpRequestHandlerTest {
         assertEquals(tag, retrieval.getSecond().getTag());
     }
 
+    // @ParameterizedTest
+    @MethodSource("getTag")
+    void testGetTags(Tag tag) throws IOException {
+        storageSource.getSaver().updateTags(Collections.singleton(tag));
+        String missingName = tag.getName() + "-missing";
+        String url = getFullUrl("/tags?names=" + tag.getName() + "," + missingName);
+
+        TwoTuple<Integer, ResponseBodies.TagsRetrieval> retrieval =
+                performGetRequestJson(url, ResponseBodies.TagsRetrieval.class);
+
+        assertEquals(OK, retrieval.getFirst());
+        assertEquals(GetTagsCommand.OK_SOME_TAGS_NOT_FOUND, retrieval.getSecond().getMessage());
+        assertEquals(List.of(tag), retrieval.getSecond().getRetrieved());
+        assertEquals(List.of(missingName), retrieval.getSecond().getMissing());
+    }
+
+    // @Test
+    void testSuggestTags() throws IOException {
+        storageSource.getSaver().updateTags(List.of(new Tag("Vegan"), new Tag("Vegetarian")));
+
+        TwoTuple<Integer, ResponseBodies.TagSearch> suggestion =
+                performGetRequestJson(
+                        getFullUrl("/suggest/tags?prefix=veg&limit=1"),
+                        ResponseBodies.TagSearch.class);
+        TwoTuple<Integer, ResponseBodies.WithMessage> invalidSuggestion =
+                performGetRequestJson(
+                        getFullUrl("/suggest/tags?prefix=veg&limit=0"),
+                        ResponseBodies.WithMessage.class);
+
+        assertEquals(OK, suggestion.getFirst());
+        assertEquals(SuggestTagsCommand.OK_SUGGESTIONS_FOUND, suggestion.getSecond().getMessage());
+        assertEquals(List.of(new Tag("Vegan")), suggestion.getSecond().getMatches());
+        assertEquals(BAD_REQUEST, invalidSuggestion.getFirst());
+        assertEquals(
+                SuggestTagsCommand.NOT_OK_BAD_LIMIT, invalidSuggestion.getSecond().getMessage());
+    }
+
     // @ParameterizedTest
     @MethodSource("getRecipe")
     void testCreateRecipe(Recipe recipe) throws IOException {
@@ -341,6 +403,42 @@ public class HttpRequestHandlerTest {
                         .get(0));
     }
 
+    // @ParameterizedTest
+    @MethodSource("getTag")
+    void testBatch(Tag tag) throws IOException {
+        assertNotNull(tag.getName());
+
+        String url = getFullUrl("/batch");
+        JsonObject tagCreation = new JsonObject();
+        tagCreation.addProperty("name", tag.getName());
+        RequestBodies.Batch body =
+                new RequestBodies.Batch(
+                        List.of(
+                                new RequestBodies.BatchOperation(
+                                        "get", "tag", tag.getName(), null, null),
+                                new RequestBodies.BatchOperation(
+                                        "create", "tag", null, null, tagCreation),
+                                new RequestBodies.BatchOperation(
+                                        "get", "tag", tag.getName(), null, null),
+                                new RequestBodies.BatchOperation(
+                                        "delete", "tag", tag.getName(), null, null)));
+        TwoTuple<Integer, ResponseBodies.Batch> response =
+                performPostRequestJson(url, body, ResponseBodies.Batch.class);
+
+        assertEquals(OK, response.getFirst());
+        assertEquals(OK_BATCH_EXECUTED, response.getSecond().getMessage());
+        List<ResponseBodies.BatchResult> results = response.getSecond().getResults();
+        assertEquals(4, results.size());
+        assertEquals(NOT_FOUND, results.get(0).getStatus());
+        assertEquals(CREATED, results.get(1).getStatus());
+        assertEquals(CreateTagCommand.OK_TAG_CREATED, results.get(1).getBody().getMessage());
+        assertEquals(OK, results.get(2).getStatus());
+        assertEquals(GetTagCommand.OK_TAG_RETRIEVED, results.get(2).getBody().getMessage());
+        assertEquals(BAD_REQUEST, results.get(3).getStatus());
+        assertEquals(NOT_OK_INVALID_BATCH_OPERATION, results.get(3).getBody().getMessage());
+        assertTrue(storageSource.getLoader().tagNameExists(tag.getName()));
+    }
+
     // @ParameterizedTest
     @MethodSource("getUserAndRecipe")
     void testBookmarkRecipe(User baseUser, Recipe recipe) throws IOException {
@@ -362,7 +460,7 @@ public class HttpRequestHandlerTest {
                         .getLoader()
                         .getUsersByNames(Collections.singletonList(user.getUsername()))
                         .get(0);
-        assertTrue(savedUser.getSavedRecipes().contains(recipe));
+        assertTrue(savedUser.hasSavedRecipe(recipe.getName()));
     }
 
     // @ParameterizedTest
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
 import com.recipecart.database.MapEntitySaveAndLoader;
+import com.recipecart.database.MapEntitySaveAndLoader.LockingMode;
 import com.recipecart.entities.*;
 import com.recipecart.storage.EntityStorage;
 import com.recipecart.utils.TwoTuple;
@@ -288,6 +289,16 @@ public class TestUtils {
                 () -> {
                     MapEntitySaveAndLoader saverAndLoader = new MapEntitySaveAndLoader();
                     return new EntityStorage(saverAndLoader, saverAndLoader);
+                },
+                () -> {
+                    MapEntitySaveAndLoader saverAndLoader =
+                            new MapEntitySaveAndLoader(LockingMode.STRIPED);
+                    return new EntityStorage(saverAndLoader, saverAndLoader);
+                },
+                () -> {
+                    MapEntitySaveAndLoader saverAndLoader =
+                            new MapEntitySaveAndLoader(LockingMode.COPY_ON_WRITE);
+                    return new EntityStorage(saverAndLoader, saverAndLoader);
                 });
     }
 
@@ -9,6 +9,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import com.recipecart.database.BadEntityLoader;
 import com.recipecart.database.BadEntitySaver;
+import com.recipecart.database.MapEntitySaveAndLoader;
 import com.recipecart.storage.EntitySaver;
 import com.recipecart.storage.EntityStorage;
 import com.recipecart.testutil.TestData;
@@ -83,6 +84,9 @@ public abstract class AbstractSearchCommandTest<T> {
 
     protected abstract AbstractSearchCommand<T> getSearchEntityCommand(Set<String> tokens);
 
+    protected abstract AbstractSearchCommand<T> getSearchEntityPageCommand(
+            Set<String> tokens, int offset, @Nullable Integer limit);
+
     @ParameterizedTest
     @MethodSource("getTokensParams")
     void testGetSearchTerms(Set<String> tokens) {
@@ -132,6 +136,52 @@ public abstract class AbstractSearchCommandTest<T> {
         assertSuccessfulExecution(search, expected);
     }
 
+    @ParameterizedTest
+    @MethodSource("getSearchEntities")
+    void testSearchForEntityPages(
+            EntityStorage storage, List<T> entities, Set<String> tokens, Set<T> expected) {
+        final int limit = 2;
+        addEntitiesToStorage(entities, storage.getSaver());
+
+        List<T> allMatches = new ArrayList<>();
+        Integer offset = 0;
+        while (offset != null) {
+            AbstractSearchCommand<T> search = getSearchEntityPageCommand(tokens, offset, limit);
+            search.setStorageSource(storage);
+            search.execute();
+
+            assertTrue(search.isSuccessful());
+            assertNotNull(search.getMatchingEntities());
+            assertTrue(search.getMatchingEntities().size() <= limit);
+            allMatches.addAll(search.getMatchingEntities());
+            offset = search.getNextOffset();
+        }
+
+        assertEquals(expected.size(), allMatches.size());
+        assertEquals(expected, new HashSet<>(allMatches));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getTokensParams")
+    void testInvalidPage(Set<String> tokens) {
+        MapEntitySaveAndLoader saveAndLoader = new MapEntitySaveAndLoader();
+        EntityStorage storage = new EntityStorage(saveAndLoader, saveAndLoader);
+        Object[][] invalidPages = {
+            {-1, 1}, {0, 0}, {0, AbstractSearchCommand.MAX_LIMIT + 1}, {1, null}
+        };
+
+        for (Object[] invalidPage : invalidPages) {
+            AbstractSearchCommand<T> search =
+                    getSearchEntityPageCommand(
+                            tokens, (Integer) invalidPage[0], (Integer) invalidPage[1]);
+            search.setStorageSource(storage);
+            search.execute();
+
+            assertUnsuccessfulExecution(search, search.getNotOkBadPageMessage());
+            assertNull(search.getNextOffset());
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("getTokensParams")
     void testSearchWithError(Set<String> tokens) {
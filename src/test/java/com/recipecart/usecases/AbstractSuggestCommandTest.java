@@ -0,0 +1,141 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import static com.recipecart.usecases.Command.NOT_OK_ERROR;
+import static com.recipecart.usecases.EntityCommand.NOT_OK_BAD_STORAGE;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.recipecart.database.BadEntityLoader;
+import com.recipecart.database.BadEntitySaver;
+import com.recipecart.database.MapEntitySaveAndLoader;
+import com.recipecart.storage.EntitySaver;
+import com.recipecart.storage.EntityStorage;
+import java.util.*;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public abstract class AbstractSuggestCommandTest<T> {
+    private static final List<String> NAMES = List.of("banana", "apricot", "apple pie");
+
+    private EntityStorage storage;
+
+    @BeforeEach
+    void initStorage() {
+        MapEntitySaveAndLoader saveAndLoader = new MapEntitySaveAndLoader();
+        storage = new EntityStorage(saveAndLoader, saveAndLoader);
+        List<T> entities = new ArrayList<>();
+        for (String name : NAMES) {
+            entities.add(createEntity(name));
+        }
+        addEntitiesToStorage(entities, storage.getSaver());
+    }
+
+    private AbstractSuggestCommand<T> getAndExecuteCommand(
+            @Nullable String prefix, int limit, @Nullable EntityStorage storage) {
+        AbstractSuggestCommand<T> suggest = getSuggestEntityCommand(prefix, limit);
+        if (storage != null) {
+            suggest.setStorageSource(storage);
+        }
+
+        suggest.execute();
+
+        return suggest;
+    }
+
+    private static <T> void assertUnsuccessfulExecution(
+            AbstractSuggestCommand<T> suggest, String message) {
+        assertTrue(suggest.isFinishedExecuting());
+        assertFalse(suggest.isSuccessful());
+        assertNull(suggest.getSuggestedEntities());
+        assertEquals(message, suggest.getExecutionMessage());
+    }
+
+    private void assertSuggested(AbstractSuggestCommand<T> suggest, List<String> expectedNames) {
+        assertTrue(suggest.isFinishedExecuting());
+        assertTrue(suggest.isSuccessful());
+        assertNotNull(suggest.getSuggestedEntities());
+
+        List<String> names = new ArrayList<>();
+        for (T entity : suggest.getSuggestedEntities()) {
+            names.add(getName(entity));
+        }
+        assertEquals(expectedNames, names);
+        assertEquals(
+                expectedNames.isEmpty()
+                        ? suggest.getOkNoSuggestionsFoundMessage()
+                        : suggest.getOkSuggestionsFoundMessage(),
+                suggest.getExecutionMessage());
+    }
+
+    protected abstract void addEntitiesToStorage(Collection<T> entities, EntitySaver saver);
+
+    protected abstract T createEntity(String name);
+
+    protected abstract String getName(T entity);
+
+    protected abstract AbstractSuggestCommand<T> getSuggestEntityCommand(
+            @Nullable String prefix, int limit);
+
+    @Test
+    void testSuggest() {
+        assertSuggested(getAndExecuteCommand("ap", 10, storage), List.of("apple pie", "apricot"));
+        assertSuggested(getAndExecuteCommand("AP", 1, storage), List.of("apple pie"));
+        assertSuggested(getAndExecuteCommand("apple p", 10, storage), List.of("apple pie"));
+        assertSuggested(getAndExecuteCommand("pie", 10, storage), List.of("apple pie"));
+        assertSuggested(getAndExecuteCommand("cherry", 10, storage), List.of());
+    }
+
+    @Test
+    void testGetSuggestionsBeforeExecution() {
+        AbstractSuggestCommand<T> suggest = getSuggestEntityCommand("ap", 10);
+
+        assertEquals("ap", suggest.getPrefix());
+        assertEquals(10, suggest.getLimit());
+        assertThrows(IllegalStateException.class, suggest::getSuggestedEntities);
+    }
+
+    @Test
+    void testNullStorageSource() {
+        AbstractSuggestCommand<T> suggest = getAndExecuteCommand("ap", 10, null);
+
+        assertUnsuccessfulExecution(suggest, NOT_OK_BAD_STORAGE);
+    }
+
+    @Test
+    void testInvalidPrefix() {
+        for (String invalidPrefix : Arrays.asList(null, "", "  ")) {
+            AbstractSuggestCommand<T> suggest = getAndExecuteCommand(invalidPrefix, 10, storage);
+
+            assertUnsuccessfulExecution(suggest, suggest.getNotOkBadPrefixMessage());
+        }
+    }
+
+    @Test
+    void testInvalidLimit() {
+        for (int invalidLimit : new int[] {-1, 0, AbstractSuggestCommand.MAX_LIMIT + 1}) {
+            AbstractSuggestCommand<T> suggest = getAndExecuteCommand("ap", invalidLimit, storage);
+
+            assertUnsuccessfulExecution(suggest, suggest.getNotOkBadLimitMessage());
+        }
+    }
+
+    @Test
+    void testSuggestWithError() {
+        EntityStorage badStorage = new EntityStorage(new BadEntitySaver(), new BadEntityLoader());
+        AbstractSuggestCommand<T> suggest = getAndExecuteCommand("ap", 10, badStorage);
+
+        assertUnsuccessfulExecution(suggest, NOT_OK_ERROR);
+    }
+
+    @Test
+    void testExceptionsAfterSuggestion() {
+        AbstractSuggestCommand<T> suggest = getAndExecuteCommand("ap", 10, storage);
+
+        assertThrows(IllegalStateException.class, suggest::execute);
+        assertThrows(
+                UnsupportedOperationException.class, () -> suggest.getSuggestedEntities().clear());
+    }
+}
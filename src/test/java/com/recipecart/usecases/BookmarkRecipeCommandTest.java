@@ -88,7 +88,7 @@ public class BookmarkRecipeCommandTest {
         User savedUser =
                 storage.getLoader().getUsersByNames(Collections.singletonList(username)).get(0);
 
-        assertTrue(savedUser.getSavedRecipes().contains(expected));
+        assertTrue(savedUser.hasSavedRecipe(expected.getName()));
     }
 
     private User withoutSavedRecipes(User baseUser) {
@@ -105,7 +105,7 @@ public class CreateRecipeCommandTest {
         String username = creation.getAuthorUsername();
         assertNotNull(username);
         User user = storage.getLoader().getUsersByNames(Collections.singletonList(username)).get(0);
-        assertTrue(user.getAuthoredRecipes().contains(creation));
+        assertTrue(user.hasAuthoredRecipe(creation.getName()));
     }
 
     @ParameterizedTest
@@ -389,6 +389,22 @@ public class CreateRecipeCommandTest {
         assertUnsuccessfulExecution(command, NOT_OK_ERROR);
     }
 
+    @Test
+    void testCreateRecipeWithSaveErrorReleasesName() {
+        MapEntitySaveAndLoader loader = new MapEntitySaveAndLoader();
+        loader.updateUsers(
+                Collections.singletonList(new User.Builder().setUsername("author").build()));
+        RecipeForm toAdd =
+                new RecipeForm(
+                        null, "Cookies", "author", null, null, null, null, 0, 0, null, null, null);
+        CreateRecipeCommand command =
+                createAndExecuteCommand(toAdd, new EntityStorage(new BadEntitySaver(), loader));
+
+        assertUnsuccessfulExecution(command, NOT_OK_ERROR);
+        // the name generated for the recipe that failed to save isn't reserved anymore
+        assertEquals("Cookies", loader.generateUniqueRecipeName("Cookies"));
+    }
+
     @ParameterizedTest
     @MethodSource("getStorageWithRecipe")
     void testExceptionsAfterRecipeCreation(EntityStorage storageSource, Recipe toAdd) {
@@ -49,9 +49,9 @@ public class CreateUserCommandTest extends SimpleCreateEntityCommandTest<User> {
     protected void assertGoodEntity(User baseEntity, User outputEntity) {
         assertEquals(baseEntity.getUsername(), outputEntity.getUsername());
         assertEquals(baseEntity.getEmailAddress(), outputEntity.getEmailAddress());
-        assertTrue(outputEntity.getAuthoredRecipes().isEmpty());
-        assertTrue(outputEntity.getSavedRecipes().isEmpty());
-        assertTrue(outputEntity.getRatedRecipes().isEmpty());
+        assertTrue(outputEntity.getAuthoredRecipeNames().isEmpty());
+        assertTrue(outputEntity.getSavedRecipeNames().isEmpty());
+        assertTrue(outputEntity.getRecipeRatings().isEmpty());
         assertTrue(outputEntity.getOwnedIngredients().isEmpty());
         assertTrue(outputEntity.getShoppingList().isEmpty());
     }
@@ -0,0 +1,44 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import static com.recipecart.testutil.TestUtils.generateArgumentsCombos;
+import static com.recipecart.testutil.TestUtils.getMockStorageArrayGenerators;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.storage.EntitySaver;
+import com.recipecart.testutil.TestData;
+import com.recipecart.testutil.TestUtils;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.provider.Arguments;
+
+public class GetIngredientsCommandTest extends SimpleMultiGetCommandTest<Ingredient> {
+    @Override
+    protected void addEntitiesToStorage(Collection<Ingredient> entities, EntitySaver saver) {
+        saver.updateIngredients(entities);
+    }
+
+    @Override
+    protected SimpleMultiGetCommand<Ingredient> getMultiGetCommand(List<String> names) {
+        return new GetIngredientsCommand(names);
+    }
+
+    @Override
+    protected Stream<Arguments> getEntity() {
+        return TestUtils.generateArguments(TestData::getIngredients);
+    }
+
+    @Override
+    protected Stream<Arguments> getStorageWithEntity() {
+        return generateArgumentsCombos(
+                getMockStorageArrayGenerators(),
+                Collections.singletonList(TestData::getIngredients));
+    }
+
+    @Override
+    protected String getName(Ingredient entity) {
+        return entity.getName();
+    }
+}
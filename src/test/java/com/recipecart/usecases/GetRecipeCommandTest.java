@@ -3,15 +3,19 @@ package com.recipecart.usecases;
 
 import static com.recipecart.testutil.TestUtils.generateArgumentsCombos;
 import static com.recipecart.testutil.TestUtils.getMockStorageArrayGenerators;
+import static org.junit.jupiter.api.Assertions.*;
 
 import com.recipecart.entities.Recipe;
+import com.recipecart.entities.User;
 import com.recipecart.storage.EntitySaver;
+import com.recipecart.storage.EntityStorage;
 import com.recipecart.testutil.TestData;
 import com.recipecart.testutil.TestUtils;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.*;
 import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
 
 public class GetRecipeCommandTest extends SimpleGetCommandTest<Recipe> {
     @Override
@@ -39,4 +43,45 @@ public class GetRecipeCommandTest extends SimpleGetCommandTest<Recipe> {
     protected String getName(Recipe entity) {
         return entity.getName();
     }
+
+    @ParameterizedTest
+    @MethodSource("getStorageWithEntity")
+    void testRetrieveWithExpansion(EntityStorage storage, Recipe recipe) {
+        storage.getSaver().updateIngredients(recipe.getRequiredIngredients().keySet());
+        storage.getSaver().updateTags(recipe.getTags());
+        String author = recipe.getAuthorUsername();
+        List<User> authors =
+                author != null
+                        ? List.of(new User.Builder().setUsername(author).build())
+                        : List.of();
+        storage.getSaver().updateUsers(authors);
+        storage.getSaver().updateRecipes(Collections.singleton(recipe));
+
+        GetRecipeCommand command =
+                new GetRecipeCommand(recipe.getName(), EnumSet.allOf(RecipeExpansion.Part.class));
+        command.setStorageSource(storage);
+        command.execute();
+
+        assertTrue(command.isSuccessful());
+        RecipeExpansion expansion = command.getExpansion();
+        assertNotNull(expansion);
+        assertEquals(
+                recipe.getRequiredIngredients().keySet(),
+                new HashSet<>(expansion.getIngredients()));
+        assertEquals(recipe.getTags(), new HashSet<>(expansion.getTags()));
+        assertEquals(authors, expansion.getAuthors());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageWithEntity")
+    void testRetrieveWithoutExpansion(EntityStorage storage, Recipe recipe) {
+        storage.getSaver().updateRecipes(Collections.singleton(recipe));
+
+        GetRecipeCommand command = new GetRecipeCommand(recipe.getName());
+        command.setStorageSource(storage);
+        command.execute();
+
+        assertTrue(command.isSuccessful());
+        assertNull(command.getExpansion());
+    }
 }
@@ -0,0 +1,43 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import static com.recipecart.testutil.TestUtils.generateArgumentsCombos;
+import static com.recipecart.testutil.TestUtils.getMockStorageArrayGenerators;
+
+import com.recipecart.entities.Recipe;
+import com.recipecart.storage.EntitySaver;
+import com.recipecart.testutil.TestData;
+import com.recipecart.testutil.TestUtils;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.provider.Arguments;
+
+public class GetRecipesCommandTest extends SimpleMultiGetCommandTest<Recipe> {
+    @Override
+    protected void addEntitiesToStorage(Collection<Recipe> entities, EntitySaver saver) {
+        saver.updateRecipes(entities);
+    }
+
+    @Override
+    protected SimpleMultiGetCommand<Recipe> getMultiGetCommand(List<String> names) {
+        return new GetRecipesCommand(names);
+    }
+
+    @Override
+    protected Stream<Arguments> getEntity() {
+        return TestUtils.generateArguments(TestData::getRecipes);
+    }
+
+    @Override
+    protected Stream<Arguments> getStorageWithEntity() {
+        return generateArgumentsCombos(
+                getMockStorageArrayGenerators(), Collections.singletonList(TestData::getRecipes));
+    }
+
+    @Override
+    protected String getName(Recipe entity) {
+        return entity.getName();
+    }
+}
@@ -0,0 +1,43 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import static com.recipecart.testutil.TestUtils.generateArgumentsCombos;
+import static com.recipecart.testutil.TestUtils.getMockStorageArrayGenerators;
+
+import com.recipecart.entities.Tag;
+import com.recipecart.storage.EntitySaver;
+import com.recipecart.testutil.TestData;
+import com.recipecart.testutil.TestUtils;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.provider.Arguments;
+
+public class GetTagsCommandTest extends SimpleMultiGetCommandTest<Tag> {
+    @Override
+    protected void addEntitiesToStorage(Collection<Tag> entities, EntitySaver saver) {
+        saver.updateTags(entities);
+    }
+
+    @Override
+    protected SimpleMultiGetCommand<Tag> getMultiGetCommand(List<String> names) {
+        return new GetTagsCommand(names);
+    }
+
+    @Override
+    protected Stream<Arguments> getEntity() {
+        return TestUtils.generateArguments(TestData::getTags);
+    }
+
+    @Override
+    protected Stream<Arguments> getStorageWithEntity() {
+        return generateArgumentsCombos(
+                getMockStorageArrayGenerators(), Collections.singletonList(TestData::getTags));
+    }
+
+    @Override
+    protected String getName(Tag entity) {
+        return entity.getName();
+    }
+}
@@ -0,0 +1,43 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import static com.recipecart.testutil.TestUtils.generateArgumentsCombos;
+import static com.recipecart.testutil.TestUtils.getMockStorageArrayGenerators;
+
+import com.recipecart.entities.User;
+import com.recipecart.storage.EntitySaver;
+import com.recipecart.testutil.TestData;
+import com.recipecart.testutil.TestUtils;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.provider.Arguments;
+
+public class GetUsersCommandTest extends SimpleMultiGetCommandTest<User> {
+    @Override
+    protected void addEntitiesToStorage(Collection<User> entities, EntitySaver saver) {
+        saver.updateUsers(entities);
+    }
+
+    @Override
+    protected SimpleMultiGetCommand<User> getMultiGetCommand(List<String> names) {
+        return new GetUsersCommand(names);
+    }
+
+    @Override
+    protected Stream<Arguments> getEntity() {
+        return TestUtils.generateArguments(TestData::getUsers);
+    }
+
+    @Override
+    protected Stream<Arguments> getStorageWithEntity() {
+        return generateArgumentsCombos(
+                getMockStorageArrayGenerators(), Collections.singletonList(TestData::getUsers));
+    }
+
+    @Override
+    protected String getName(User entity) {
+        return entity.getUsername();
+    }
+}
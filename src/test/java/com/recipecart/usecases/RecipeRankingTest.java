@@ -0,0 +1,98 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Recipe;
+import com.recipecart.entities.Tag;
+import java.util.*;
+import org.junit.jupiter.api.Test;
+
+public class RecipeRankingTest {
+    private static Recipe recipe(
+            String presentationName,
+            Set<Tag> tags,
+            Set<Ingredient> ingredients,
+            double avgRating,
+            int numRatings) {
+        Map<Ingredient, Double> requiredIngredients = new HashMap<>();
+        for (Ingredient ingredient : ingredients) {
+            requiredIngredients.put(ingredient, 1.0);
+        }
+        return new Recipe.Builder()
+                .setName(presentationName.toLowerCase(Locale.ROOT).replace(' ', '-'))
+                .setPresentationName(presentationName)
+                .setTags(tags)
+                .setRequiredIngredients(requiredIngredients)
+                .setAvgRating(avgRating)
+                .setNumRatings(numRatings)
+                .build();
+    }
+
+    private static Recipe recipe(String presentationName) {
+        return recipe(presentationName, Set.of(), Set.of(), 0, 0);
+    }
+
+    @Test
+    void testFieldWeights() {
+        Set<String> terms = Set.of("Cheese");
+        Recipe inName = recipe("Cheese Omelette");
+        Recipe inTags = recipe("Omelette", Set.of(new Tag("cheese")), Set.of(), 0, 0);
+        Recipe inIngredients =
+                recipe("Omelette", Set.of(), Set.of(new Ingredient("cheese", "g", null)), 0, 0);
+        Recipe nowhere = recipe("Omelette");
+
+        assertEquals(RecipeRanking.NAME_WEIGHT, RecipeRanking.score(inName, terms));
+        assertEquals(RecipeRanking.TAG_WEIGHT, RecipeRanking.score(inTags, terms));
+        assertEquals(RecipeRanking.INGREDIENT_WEIGHT, RecipeRanking.score(inIngredients, terms));
+        assertEquals(0, RecipeRanking.score(nowhere, terms));
+    }
+
+    @Test
+    void testMatchedTermsAddUp() {
+        Recipe recipe = recipe("Cheese Omelette", Set.of(new Tag("breakfast")), Set.of(), 0, 0);
+
+        assertEquals(
+                2 * RecipeRanking.NAME_WEIGHT + RecipeRanking.TAG_WEIGHT,
+                RecipeRanking.score(recipe, Set.of("cheese", "omelette", "breakfast", "toast")));
+    }
+
+    @Test
+    void testRatingsBreakTies() {
+        Set<String> terms = Set.of("omelette");
+        Recipe unrated = recipe("Plain Omelette");
+        Recipe fewRatings = recipe("Good Omelette", Set.of(), Set.of(), 5, 1);
+        Recipe manyRatings = recipe("Great Omelette", Set.of(), Set.of(), 4.5, 100);
+        Recipe betterMatch = recipe("Cheese Omelette");
+
+        assertEquals(
+                List.of(manyRatings, fewRatings, unrated),
+                RecipeRanking.selectPage(List.of(unrated, fewRatings, manyRatings), terms, 0, 3));
+        assertTrue(
+                RecipeRanking.score(manyRatings, terms)
+                        < RecipeRanking.score(betterMatch, Set.of("omelette", "cheese")));
+    }
+
+    @Test
+    void testSelectPage() {
+        Set<String> terms = Set.of("cheese", "omelette", "toast");
+        List<Recipe> recipes = new ArrayList<>();
+        recipes.add(recipe("Cheese Omelette Toast"));
+        recipes.add(recipe("Cheese Omelette"));
+        recipes.add(recipe("Cheese Toast"));
+        recipes.add(recipe("Toast"));
+        recipes.add(recipe("Omelette"));
+        List<Recipe> ranked =
+                List.of(recipes.get(0), recipes.get(1), recipes.get(2), recipes.get(4));
+        Collections.shuffle(recipes, new Random(403));
+
+        assertEquals(ranked.subList(0, 2), RecipeRanking.selectPage(recipes, terms, 0, 2));
+        assertEquals(ranked.subList(2, 4), RecipeRanking.selectPage(recipes, terms, 2, 2));
+        assertEquals(List.of(), RecipeRanking.selectPage(recipes, terms, 5, 2));
+        assertEquals(5, RecipeRanking.selectPage(recipes, terms, 0, 100).size());
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> RecipeRanking.selectPage(recipes, terms, -1, 2));
+    }
+}
@@ -0,0 +1,209 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import static com.recipecart.usecases.SearchCookableRecipesCommand.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.recipecart.database.BadEntityLoader;
+import com.recipecart.database.BadEntitySaver;
+import com.recipecart.database.MapEntitySaveAndLoader;
+import com.recipecart.entities.Ingredient;
+import com.recipecart.entities.Recipe;
+import com.recipecart.entities.User;
+import com.recipecart.storage.EntityStorage;
+import java.util.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class SearchCookableRecipesCommandTest {
+    private static final Ingredient BREAD = new Ingredient("bread", "slices", null),
+            BUTTER = new Ingredient("butter", "g", null),
+            EGG = new Ingredient("egg", "eggs", null),
+            CHEESE = new Ingredient("cheese", "g", null),
+            LETTUCE = new Ingredient("lettuce", "leaves", null),
+            TOMATO = new Ingredient("tomato", "tomatoes", null);
+    private static final String USERNAME = "cook";
+
+    private EntityStorage storage;
+
+    @BeforeEach
+    void initStorage() {
+        MapEntitySaveAndLoader saveAndLoader = new MapEntitySaveAndLoader();
+        storage = new EntityStorage(saveAndLoader, saveAndLoader);
+        storage.getSaver()
+                .updateIngredients(List.of(BREAD, BUTTER, EGG, CHEESE, LETTUCE, TOMATO));
+        storage.getSaver()
+                .updateRecipes(
+                        List.of(
+                                makeRecipe("toast", BREAD, BUTTER),
+                                makeRecipe("omelette", EGG, BUTTER, CHEESE),
+                                makeRecipe("boiled egg", EGG),
+                                makeRecipe("salad", LETTUCE, TOMATO)));
+        storage.getSaver()
+                .updateUsers(
+                        List.of(
+                                new User.Builder()
+                                        .setUsername(USERNAME)
+                                        .setOwnedIngredients(Set.of(BREAD, BUTTER, EGG))
+                                        .build()));
+    }
+
+    private static Recipe makeRecipe(String name, Ingredient... ingredients) {
+        Map<Ingredient, Double> required = new HashMap<>();
+        for (Ingredient ingredient : ingredients) {
+            required.put(ingredient, 1.0);
+        }
+        return new Recipe.Builder().setName(name).setRequiredIngredients(required).build();
+    }
+
+    private SearchCookableRecipesCommand getAndExecuteCommand(
+            String username, int maxMissing, int offset, int limit) {
+        SearchCookableRecipesCommand command =
+                new SearchCookableRecipesCommand(username, maxMissing, offset, limit);
+        command.setStorageSource(storage);
+        command.execute();
+        return command;
+    }
+
+    private static List<String> getRecipeNames(SearchCookableRecipesCommand command) {
+        List<String> names = new ArrayList<>();
+        for (Recipe recipe : Objects.requireNonNull(command.getCookableRecipes())) {
+            names.add(recipe.getName());
+        }
+        return names;
+    }
+
+    private static void assertSuccessfulExecution(
+            SearchCookableRecipesCommand command, String message) {
+        assertTrue(command.isFinishedExecuting());
+        assertTrue(command.isSuccessful());
+        assertEquals(message, command.getExecutionMessage());
+    }
+
+    private static void assertUnsuccessfulExecution(
+            SearchCookableRecipesCommand command, String message) {
+        assertTrue(command.isFinishedExecuting());
+        assertFalse(command.isSuccessful());
+        assertEquals(message, command.getExecutionMessage());
+        assertNull(command.getCookableRecipes());
+        assertNull(command.getMissingIngredients());
+        assertNull(command.getNextOffset());
+    }
+
+    @Test
+    void testState() {
+        SearchCookableRecipesCommand command =
+                new SearchCookableRecipesCommand(USERNAME, 1, 2, 3);
+
+        assertEquals(USERNAME, command.getUsername());
+        assertEquals(1, command.getMaxMissing());
+        assertEquals(2, command.getOffset());
+        assertEquals(3, command.getLimit());
+        assertThrows(IllegalStateException.class, command::getCookableRecipes);
+        assertThrows(IllegalStateException.class, command::getMissingIngredients);
+        assertThrows(IllegalStateException.class, command::getNextOffset);
+    }
+
+    @Test
+    void testSearchCookableRecipes() {
+        SearchCookableRecipesCommand command = getAndExecuteCommand(USERNAME, 0, 0, MAX_LIMIT);
+
+        assertSuccessfulExecution(command, OK_RECIPES_FOUND);
+        assertEquals(List.of("boiled egg", "toast"), getRecipeNames(command));
+        assertEquals(
+                Map.of("boiled egg", List.of(), "toast", List.of()),
+                command.getMissingIngredients());
+        assertNull(command.getNextOffset());
+    }
+
+    @Test
+    void testSearchWithMissingIngredients() {
+        SearchCookableRecipesCommand command = getAndExecuteCommand(USERNAME, 2, 0, MAX_LIMIT);
+
+        assertSuccessfulExecution(command, OK_RECIPES_FOUND);
+        assertEquals(List.of("boiled egg", "toast", "omelette", "salad"), getRecipeNames(command));
+        assertEquals(List.of(CHEESE), command.getMissingIngredients().get("omelette"));
+        assertEquals(List.of(LETTUCE, TOMATO), command.getMissingIngredients().get("salad"));
+    }
+
+    @Test
+    void testSearchPages() {
+        SearchCookableRecipesCommand firstPage = getAndExecuteCommand(USERNAME, 1, 0, 2);
+        assertSuccessfulExecution(firstPage, OK_RECIPES_FOUND);
+        assertEquals(List.of("boiled egg", "toast"), getRecipeNames(firstPage));
+        assertEquals(2, firstPage.getNextOffset());
+
+        SearchCookableRecipesCommand lastPage = getAndExecuteCommand(USERNAME, 1, 2, 2);
+        assertSuccessfulExecution(lastPage, OK_RECIPES_FOUND);
+        assertEquals(List.of("omelette"), getRecipeNames(lastPage));
+        assertNull(lastPage.getNextOffset());
+
+        SearchCookableRecipesCommand pastLastPage = getAndExecuteCommand(USERNAME, 1, 3, 2);
+        assertSuccessfulExecution(pastLastPage, OK_NO_RECIPES_FOUND);
+        assertEquals(List.of(), pastLastPage.getCookableRecipes());
+    }
+
+    @Test
+    void testNoIngredientsOwned() {
+        storage.getSaver()
+                .updateUsers(List.of(new User.Builder().setUsername("new cook").build()));
+        SearchCookableRecipesCommand command = getAndExecuteCommand("new cook", 0, 0, MAX_LIMIT);
+
+        assertSuccessfulExecution(command, OK_NO_RECIPES_FOUND);
+        assertEquals(Map.of(), command.getMissingIngredients());
+    }
+
+    @Test
+    void testNullUsername() {
+        assertUnsuccessfulExecution(getAndExecuteCommand(null, 0, 0, 1), NOT_OK_INVALID_USERNAME);
+    }
+
+    @Test
+    void testUserNotFound() {
+        assertUnsuccessfulExecution(
+                getAndExecuteCommand("nonexistent", 0, 0, 1), NOT_OK_USER_NOT_FOUND);
+    }
+
+    @Test
+    void testNegativeMaxMissing() {
+        assertUnsuccessfulExecution(
+                getAndExecuteCommand(USERNAME, -1, 0, 1), NOT_OK_BAD_MAX_MISSING);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {-1, 0, MAX_LIMIT + 1})
+    void testBadLimit(int limit) {
+        assertUnsuccessfulExecution(getAndExecuteCommand(USERNAME, 0, 0, limit), NOT_OK_BAD_PAGE);
+    }
+
+    @Test
+    void testBadOffset() {
+        assertUnsuccessfulExecution(getAndExecuteCommand(USERNAME, 0, -1, 1), NOT_OK_BAD_PAGE);
+    }
+
+    @Test
+    void testNullStorageSource() {
+        SearchCookableRecipesCommand command = new SearchCookableRecipesCommand(USERNAME, 0, 0, 1);
+        command.execute();
+
+        assertUnsuccessfulExecution(command, NOT_OK_BAD_STORAGE);
+    }
+
+    @Test
+    void testSearchWithError() {
+        SearchCookableRecipesCommand command = new SearchCookableRecipesCommand(USERNAME, 0, 0, 1);
+        command.setStorageSource(new EntityStorage(new BadEntitySaver(), new BadEntityLoader()));
+        command.execute();
+
+        assertUnsuccessfulExecution(command, NOT_OK_ERROR);
+    }
+
+    @Test
+    void testExceptionsAfterSearch() {
+        SearchCookableRecipesCommand command = getAndExecuteCommand(USERNAME, 0, 0, 1);
+
+        assertThrows(IllegalStateException.class, command::execute);
+    }
+}
@@ -2,12 +2,17 @@
 package com.recipecart.usecases;
 
 import static com.recipecart.testutil.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
 
+import com.recipecart.database.MapEntitySaveAndLoader;
 import com.recipecart.entities.Ingredient;
 import com.recipecart.storage.EntitySaver;
+import com.recipecart.storage.EntityStorage;
 import com.recipecart.testutil.TestUtils;
 import java.util.*;
 import java.util.stream.Stream;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.provider.Arguments;
 
 public class SearchIngredientsCommandTest extends AbstractSearchCommandTest<Ingredient> {
@@ -25,4 +30,28 @@ public class SearchIngredientsCommandTest extends AbstractSearchCommandTest<Ingr
     protected AbstractSearchCommand<Ingredient> getSearchEntityCommand(Set<String> tokens) {
         return new SearchIngredientsCommand(tokens);
     }
+
+    @Override
+    protected AbstractSearchCommand<Ingredient> getSearchEntityPageCommand(
+            Set<String> tokens, int offset, @Nullable Integer limit) {
+        return new SearchIngredientsCommand(tokens, offset, limit);
+    }
+
+    @Test
+    void testFuzzySearch() {
+        MapEntitySaveAndLoader saveAndLoader = new MapEntitySaveAndLoader();
+        Ingredient parmesan = new Ingredient("parmesan cheese", "g", null);
+        Ingredient cheddar = new Ingredient("cheddar", "g", null);
+        saveAndLoader.updateIngredients(List.of(parmesan, cheddar));
+
+        SearchIngredientsCommand search =
+                new SearchIngredientsCommand(Set.of("parmesean"), 0, 10, true);
+        search.setStorageSource(new EntityStorage(saveAndLoader, saveAndLoader));
+        search.execute();
+
+        assertTrue(search.isFuzzy());
+        assertTrue(search.isSuccessful());
+        assertEquals(List.of(parmesan), new ArrayList<>(search.getMatchingEntities()));
+        assertNull(search.getNextOffset());
+    }
 }
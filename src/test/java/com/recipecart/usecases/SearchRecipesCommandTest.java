@@ -2,12 +2,20 @@
 package com.recipecart.usecases;
 
 import static com.recipecart.testutil.TestUtils.*;
+import static org.junit.jupiter.api.Assertions.*;
 
+import com.recipecart.database.MapEntitySaveAndLoader;
 import com.recipecart.entities.Recipe;
+import com.recipecart.entities.Tag;
 import com.recipecart.storage.EntitySaver;
+import com.recipecart.storage.EntityStorage;
+import com.recipecart.storage.RecipeFacets;
+import com.recipecart.storage.RecipeFilter;
 import com.recipecart.testutil.TestUtils;
 import java.util.*;
 import java.util.stream.Stream;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.provider.Arguments;
 
 public class SearchRecipesCommandTest extends AbstractSearchCommandTest<Recipe> {
@@ -25,4 +33,236 @@ public class SearchRecipesCommandTest extends AbstractSearchCommandTest<Recipe>
     protected AbstractSearchCommand<Recipe> getSearchEntityCommand(Set<String> tokens) {
         return new SearchRecipesCommand(tokens);
     }
+
+    @Override
+    protected AbstractSearchCommand<Recipe> getSearchEntityPageCommand(
+            Set<String> tokens, int offset, @Nullable Integer limit) {
+        return new SearchRecipesCommand(tokens, offset, limit);
+    }
+
+    @Test
+    void testSearchByRelevance() {
+        MapEntitySaveAndLoader saveAndLoader = new MapEntitySaveAndLoader();
+        Recipe nameMatch =
+                new Recipe.Builder()
+                        .setName("cheese-omelette")
+                        .setPresentationName("Cheese Omelette")
+                        .build();
+        Recipe wellRatedTagMatch =
+                new Recipe.Builder()
+                        .setName("omelette")
+                        .setTags(Set.of(new Tag("cheese")))
+                        .setAvgRating(5)
+                        .setNumRatings(100)
+                        .build();
+        Recipe tagMatch =
+                new Recipe.Builder()
+                        .setName("breakfast-omelette")
+                        .setTags(Set.of(new Tag("cheese")))
+                        .setAvgRating(3)
+                        .setNumRatings(10)
+                        .build();
+        Recipe weakMatch = new Recipe.Builder().setName("toast").build();
+        saveAndLoader.updateRecipes(List.of(weakMatch, tagMatch, wellRatedTagMatch, nameMatch));
+        Set<String> terms = Set.of("cheese", "omelette", "breakfast-omelette", "toast");
+
+        SearchRecipesCommand firstPage =
+                new SearchRecipesCommand(
+                        terms, 0, 2, Set.of(), SearchRecipesCommand.Order.RELEVANCE);
+        firstPage.setStorageSource(new EntityStorage(saveAndLoader, saveAndLoader));
+        firstPage.execute();
+        SearchRecipesCommand secondPage =
+                new SearchRecipesCommand(
+                        terms, 2, 2, Set.of(), SearchRecipesCommand.Order.RELEVANCE);
+        secondPage.setStorageSource(new EntityStorage(saveAndLoader, saveAndLoader));
+        secondPage.execute();
+
+        assertTrue(firstPage.isSuccessful());
+        assertEquals(
+                List.of(nameMatch, wellRatedTagMatch),
+                new ArrayList<>(firstPage.getMatchingEntities()));
+        assertEquals(2, firstPage.getNextOffset());
+        assertEquals(
+                List.of(tagMatch, weakMatch), new ArrayList<>(secondPage.getMatchingEntities()));
+        assertNull(secondPage.getNextOffset());
+    }
+
+    @Test
+    void testFuzzySearch() {
+        MapEntitySaveAndLoader saveAndLoader = new MapEntitySaveAndLoader();
+        Recipe broccoliSoup =
+                new Recipe.Builder()
+                        .setName("broccoli-soup")
+                        .setPresentationName("Broccoli Cheddar Soup")
+                        .build();
+        Recipe cheddarScones =
+                new Recipe.Builder()
+                        .setName("cheddar-scones")
+                        .setPresentationName("Cheddar Scones")
+                        .build();
+        saveAndLoader.updateRecipes(List.of(broccoliSoup, cheddarScones));
+        Set<String> terms = Set.of("brocolli", "chedar");
+
+        SearchRecipesCommand exact =
+                new SearchRecipesCommand(terms, 0, null, Set.of(), SearchRecipesCommand.Order.NAME);
+        exact.setStorageSource(new EntityStorage(saveAndLoader, saveAndLoader));
+        exact.execute();
+        SearchRecipesCommand fuzzy =
+                new SearchRecipesCommand(
+                        terms, 0, null, Set.of(), SearchRecipesCommand.Order.RELEVANCE, true);
+        fuzzy.setStorageSource(new EntityStorage(saveAndLoader, saveAndLoader));
+        fuzzy.execute();
+
+        assertTrue(exact.isSuccessful());
+        assertEquals(SearchRecipesCommand.OK_NO_MATCHES_FOUND, exact.getExecutionMessage());
+        assertTrue(fuzzy.isSuccessful());
+        assertEquals(SearchRecipesCommand.OK_MATCHES_FOUND, fuzzy.getExecutionMessage());
+        // the soup matches both misspelled terms, so it ranks first
+        assertEquals(
+                List.of(broccoliSoup, cheddarScones), new ArrayList<>(fuzzy.getMatchingEntities()));
+    }
+
+    @Test
+    void testInvalidOrder() {
+        MapEntitySaveAndLoader saveAndLoader = new MapEntitySaveAndLoader();
+        SearchRecipesCommand search =
+                new SearchRecipesCommand(Set.of("cheese"), 0, null, Set.of(), null);
+        search.setStorageSource(new EntityStorage(saveAndLoader, saveAndLoader));
+
+        search.execute();
+
+        assertFalse(search.isSuccessful());
+        assertEquals(SearchRecipesCommand.NOT_OK_BAD_ORDER, search.getExecutionMessage());
+        assertNull(search.getMatchingEntities());
+    }
+
+    @Test
+    void testFilteredSearch() {
+        MapEntitySaveAndLoader saveAndLoader = new MapEntitySaveAndLoader();
+        Recipe quickOmelette =
+                new Recipe.Builder()
+                        .setName("quick-omelette")
+                        .setPresentationName("Quick Omelette")
+                        .setTags(Set.of(new Tag("breakfast")))
+                        .setPrepTime(5)
+                        .setCookTime(5)
+                        .setNumServings(1)
+                        .build();
+        Recipe slowOmelette =
+                new Recipe.Builder()
+                        .setName("slow-omelette")
+                        .setPresentationName("Slow Omelette")
+                        .setTags(Set.of(new Tag("breakfast")))
+                        .setCookTime(45)
+                        .setNumServings(2)
+                        .build();
+        Recipe pancakes =
+                new Recipe.Builder()
+                        .setName("pancakes")
+                        .setTags(Set.of(new Tag("breakfast"), new Tag("sweet")))
+                        .setCookTime(20)
+                        .setNumServings(4)
+                        .build();
+        saveAndLoader.updateRecipes(List.of(quickOmelette, slowOmelette, pancakes));
+        RecipeFilter quickBreakfast =
+                new RecipeFilter.Builder()
+                        .setTagNames(Set.of("breakfast"))
+                        .setMaxTotalTime(30)
+                        .build();
+
+        SearchRecipesCommand withTerms =
+                new SearchRecipesCommand(
+                        Set.of("omelette"),
+                        0,
+                        1,
+                        Set.of(),
+                        SearchRecipesCommand.Order.NAME,
+                        false,
+                        quickBreakfast);
+        withTerms.setStorageSource(new EntityStorage(saveAndLoader, saveAndLoader));
+        withTerms.execute();
+        SearchRecipesCommand withoutTerms =
+                new SearchRecipesCommand(
+                        null,
+                        0,
+                        null,
+                        Set.of(),
+                        SearchRecipesCommand.Order.RELEVANCE,
+                        false,
+                        quickBreakfast);
+        withoutTerms.setStorageSource(new EntityStorage(saveAndLoader, saveAndLoader));
+        withoutTerms.execute();
+
+        assertTrue(withTerms.isSuccessful());
+        assertEquals(List.of(quickOmelette), new ArrayList<>(withTerms.getMatchingEntities()));
+        assertNull(withTerms.getNextOffset());
+        assertEquals(1, withTerms.getFacets().getNumRecipes());
+        assertTrue(withoutTerms.isSuccessful());
+        assertEquals(Set.of(quickOmelette, pancakes), withoutTerms.getMatchingEntities());
+        // the facets count all the matches, so they tell how much each filter would narrow them
+        RecipeFacets facets = withoutTerms.getFacets();
+        assertEquals(2, facets.getNumRecipes());
+        assertEquals(Map.of("breakfast", 2, "sweet", 1), facets.getTagCounts());
+        assertEquals(Map.of(1, 1, 4, 1), facets.getNumServingsCounts());
+        assertEquals(Map.of(15, 1, 30, 2, 60, 2, 120, 2), facets.getMaxTotalTimeCounts());
+    }
+
+    @Test
+    void testUnfilteredSearchHasNoFacets() {
+        MapEntitySaveAndLoader saveAndLoader = new MapEntitySaveAndLoader();
+        SearchRecipesCommand search = new SearchRecipesCommand(Set.of("cheese"));
+        search.setStorageSource(new EntityStorage(saveAndLoader, saveAndLoader));
+
+        assertThrows(IllegalStateException.class, search::getFacets);
+        search.execute();
+
+        assertTrue(search.isSuccessful());
+        assertNull(search.getFilter());
+        assertNull(search.getFacets());
+    }
+
+    @Test
+    void testInvalidFilter() {
+        MapEntitySaveAndLoader saveAndLoader = new MapEntitySaveAndLoader();
+        SearchRecipesCommand search =
+                new SearchRecipesCommand(
+                        Set.of("cheese"),
+                        0,
+                        null,
+                        Set.of(),
+                        SearchRecipesCommand.Order.NAME,
+                        false,
+                        new RecipeFilter.Builder()
+                                .setMinNumServings(4)
+                                .setMaxNumServings(2)
+                                .build());
+        search.setStorageSource(new EntityStorage(saveAndLoader, saveAndLoader));
+
+        search.execute();
+
+        assertFalse(search.isSuccessful());
+        assertEquals(SearchRecipesCommand.NOT_OK_BAD_FILTER, search.getExecutionMessage());
+        assertNull(search.getMatchingEntities());
+        assertNull(search.getFacets());
+    }
+
+    @Test
+    void testEmptyFilterStillNeedsSearchTerms() {
+        MapEntitySaveAndLoader saveAndLoader = new MapEntitySaveAndLoader();
+        SearchRecipesCommand search =
+                new SearchRecipesCommand(
+                        Set.of(),
+                        0,
+                        null,
+                        Set.of(),
+                        SearchRecipesCommand.Order.NAME,
+                        false,
+                        new RecipeFilter.Builder().build());
+        search.setStorageSource(new EntityStorage(saveAndLoader, saveAndLoader));
+
+        search.execute();
+
+        assertFalse(search.isSuccessful());
+        assertEquals(SearchRecipesCommand.NOT_OK_BAD_SEARCH_TERMS, search.getExecutionMessage());
+    }
 }
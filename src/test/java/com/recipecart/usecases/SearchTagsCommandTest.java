@@ -8,6 +8,7 @@ import com.recipecart.storage.EntitySaver;
 import com.recipecart.testutil.TestUtils;
 import java.util.*;
 import java.util.stream.Stream;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.params.provider.Arguments;
 
 public class SearchTagsCommandTest extends AbstractSearchCommandTest<Tag> {
@@ -25,4 +26,10 @@ public class SearchTagsCommandTest extends AbstractSearchCommandTest<Tag> {
     protected AbstractSearchCommand<Tag> getSearchEntityCommand(Set<String> tokens) {
         return new SearchTagsCommand(tokens);
     }
+
+    @Override
+    protected AbstractSearchCommand<Tag> getSearchEntityPageCommand(
+            Set<String> tokens, int offset, @Nullable Integer limit) {
+        return new SearchTagsCommand(tokens, offset, limit);
+    }
 }
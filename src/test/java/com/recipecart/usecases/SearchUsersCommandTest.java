@@ -8,6 +8,7 @@ import com.recipecart.storage.EntitySaver;
 import com.recipecart.testutil.TestUtils;
 import java.util.*;
 import java.util.stream.Stream;
+import org.jetbrains.annotations.Nullable;
 import org.junit.jupiter.params.provider.Arguments;
 
 public class SearchUsersCommandTest extends AbstractSearchCommandTest<User> {
@@ -25,4 +26,10 @@ public class SearchUsersCommandTest extends AbstractSearchCommandTest<User> {
     protected AbstractSearchCommand<User> getSearchEntityCommand(Set<String> tokens) {
         return new SearchUsersCommand(tokens);
     }
+
+    @Override
+    protected AbstractSearchCommand<User> getSearchEntityPageCommand(
+            Set<String> tokens, int offset, @Nullable Integer limit) {
+        return new SearchUsersCommand(tokens, offset, limit);
+    }
 }
@@ -0,0 +1,158 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import static com.recipecart.usecases.Command.NOT_OK_ERROR;
+import static com.recipecart.usecases.EntityCommand.NOT_OK_BAD_STORAGE;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.recipecart.database.BadEntityLoader;
+import com.recipecart.database.BadEntitySaver;
+import com.recipecart.storage.EntitySaver;
+import com.recipecart.storage.EntityStorage;
+import java.util.*;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public abstract class SimpleMultiGetCommandTest<T> {
+    private static final String NOT_SAVED_SUFFIX = " (not saved)";
+
+    private SimpleMultiGetCommand<T> getAndExecuteCommand(
+            List<String> names, T entity, EntityStorage storage) {
+        SimpleMultiGetCommand<T> command = getMultiGetCommand(names);
+        addEntitiesToStorage(Collections.singleton(entity), storage.getSaver());
+        command.setStorageSource(storage);
+        command.execute();
+
+        return command;
+    }
+
+    private static <T> void assertUnsuccessfulExecution(
+            SimpleMultiGetCommand<T> command, String message) {
+        assertTrue(command.isFinishedExecuting());
+        assertFalse(command.isSuccessful());
+        assertNull(command.getRetrievedEntities());
+        assertNull(command.getMissingNames());
+        assertEquals(message, command.getExecutionMessage());
+    }
+
+    private static <T> void assertSuccessfulExecution(
+            SimpleMultiGetCommand<T> command, String message) {
+        assertTrue(command.isFinishedExecuting());
+        assertTrue(command.isSuccessful());
+        assertNotNull(command.getRetrievedEntities());
+        assertNotNull(command.getMissingNames());
+        assertEquals(message, command.getExecutionMessage());
+    }
+
+    protected abstract void addEntitiesToStorage(Collection<T> entity, EntitySaver saver);
+
+    protected abstract SimpleMultiGetCommand<T> getMultiGetCommand(List<String> names);
+
+    protected abstract Stream<Arguments> getEntity();
+
+    protected abstract Stream<Arguments> getStorageWithEntity();
+
+    protected abstract String getName(T entity);
+
+    @ParameterizedTest
+    @MethodSource("getEntity")
+    void testState(T entity) {
+        List<String> names = List.of(getName(entity), getName(entity) + NOT_SAVED_SUFFIX);
+        SimpleMultiGetCommand<T> command = getMultiGetCommand(names);
+
+        assertEquals(names, command.getEntityNames());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getEntity")
+    void testGetOutputsBeforeExecution(T entity) {
+        SimpleMultiGetCommand<T> command = getMultiGetCommand(List.of(getName(entity)));
+
+        assertThrows(IllegalStateException.class, command::getRetrievedEntities);
+        assertThrows(IllegalStateException.class, command::getMissingNames);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageWithEntity")
+    void testRetrieveEntities(EntityStorage storage, T entity) {
+        SimpleMultiGetCommand<T> command =
+                getAndExecuteCommand(List.of(getName(entity), getName(entity)), entity, storage);
+
+        assertSuccessfulExecution(command, command.getOkEntitiesRetrievedMessage());
+        assertEquals(List.of(entity), command.getRetrievedEntities());
+        assertEquals(List.of(), command.getMissingNames());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageWithEntity")
+    void testSomeEntitiesNotFound(EntityStorage storage, T entity) {
+        String missingName = getName(entity) + NOT_SAVED_SUFFIX;
+        SimpleMultiGetCommand<T> command =
+                getAndExecuteCommand(List.of(missingName, getName(entity)), entity, storage);
+
+        assertSuccessfulExecution(command, command.getOkSomeEntitiesNotFoundMessage());
+        assertEquals(List.of(entity), command.getRetrievedEntities());
+        assertEquals(List.of(missingName), command.getMissingNames());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageWithEntity")
+    void testNoEntitiesFound(EntityStorage storage, T entity) {
+        SimpleMultiGetCommand<T> command = getMultiGetCommand(List.of(getName(entity)));
+        command.setStorageSource(storage);
+        command.execute();
+
+        assertSuccessfulExecution(command, command.getOkSomeEntitiesNotFoundMessage());
+        assertEquals(List.of(), command.getRetrievedEntities());
+        assertEquals(List.of(getName(entity)), command.getMissingNames());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageWithEntity")
+    void testInvalidNames(EntityStorage storage, T entity) {
+        List<String> tooManyNames = new ArrayList<>();
+        for (int i = 0; i <= SimpleMultiGetCommand.MAX_NAMES; i++) {
+            tooManyNames.add(getName(entity) + i);
+        }
+        List<List<String>> invalidNamesList =
+                Arrays.asList(null, List.of(), Arrays.asList(getName(entity), null), tooManyNames);
+
+        for (List<String> invalidNames : invalidNamesList) {
+            SimpleMultiGetCommand<T> command = getAndExecuteCommand(invalidNames, entity, storage);
+
+            assertUnsuccessfulExecution(command, command.getNotOkInvalidNamesMessage());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getEntity")
+    void testNullStorageSource(T entity) {
+        SimpleMultiGetCommand<T> command = getMultiGetCommand(List.of(getName(entity)));
+        command.execute();
+
+        assertUnsuccessfulExecution(command, NOT_OK_BAD_STORAGE);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getEntity")
+    void testRetrievalWithError(T entity) {
+        SimpleMultiGetCommand<T> command = getMultiGetCommand(List.of(getName(entity)));
+        command.setStorageSource(new EntityStorage(new BadEntitySaver(), new BadEntityLoader()));
+        command.execute();
+
+        assertUnsuccessfulExecution(command, NOT_OK_ERROR);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getStorageWithEntity")
+    void testExceptionsAfterRetrieval(EntityStorage storage, T entity) {
+        SimpleMultiGetCommand<T> command =
+                getAndExecuteCommand(List.of(getName(entity)), entity, storage);
+
+        assertThrows(IllegalStateException.class, command::execute);
+    }
+}
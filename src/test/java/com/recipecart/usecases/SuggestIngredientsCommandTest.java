@@ -0,0 +1,30 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.Ingredient;
+import com.recipecart.storage.EntitySaver;
+import java.util.Collection;
+import org.jetbrains.annotations.Nullable;
+
+public class SuggestIngredientsCommandTest extends AbstractSuggestCommandTest<Ingredient> {
+    @Override
+    protected void addEntitiesToStorage(Collection<Ingredient> entities, EntitySaver saver) {
+        saver.updateIngredients(entities);
+    }
+
+    @Override
+    protected Ingredient createEntity(String name) {
+        return new Ingredient(name, "count", null);
+    }
+
+    @Override
+    protected String getName(Ingredient entity) {
+        return entity.getName();
+    }
+
+    @Override
+    protected AbstractSuggestCommand<Ingredient> getSuggestEntityCommand(
+            @Nullable String prefix, int limit) {
+        return new SuggestIngredientsCommand(prefix, limit);
+    }
+}
@@ -0,0 +1,30 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.Recipe;
+import com.recipecart.storage.EntitySaver;
+import java.util.Collection;
+import org.jetbrains.annotations.Nullable;
+
+public class SuggestRecipesCommandTest extends AbstractSuggestCommandTest<Recipe> {
+    @Override
+    protected void addEntitiesToStorage(Collection<Recipe> entities, EntitySaver saver) {
+        saver.updateRecipes(entities);
+    }
+
+    @Override
+    protected Recipe createEntity(String name) {
+        return new Recipe.Builder().setName(name).build();
+    }
+
+    @Override
+    protected String getName(Recipe entity) {
+        return entity.getName();
+    }
+
+    @Override
+    protected AbstractSuggestCommand<Recipe> getSuggestEntityCommand(
+            @Nullable String prefix, int limit) {
+        return new SuggestRecipesCommand(prefix, limit);
+    }
+}
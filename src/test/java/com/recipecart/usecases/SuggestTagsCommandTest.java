@@ -0,0 +1,30 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.Tag;
+import com.recipecart.storage.EntitySaver;
+import java.util.Collection;
+import org.jetbrains.annotations.Nullable;
+
+public class SuggestTagsCommandTest extends AbstractSuggestCommandTest<Tag> {
+    @Override
+    protected void addEntitiesToStorage(Collection<Tag> entities, EntitySaver saver) {
+        saver.updateTags(entities);
+    }
+
+    @Override
+    protected Tag createEntity(String name) {
+        return new Tag(name);
+    }
+
+    @Override
+    protected String getName(Tag entity) {
+        return entity.getName();
+    }
+
+    @Override
+    protected AbstractSuggestCommand<Tag> getSuggestEntityCommand(
+            @Nullable String prefix, int limit) {
+        return new SuggestTagsCommand(prefix, limit);
+    }
+}
@@ -0,0 +1,30 @@
+/* (C)2023 */
+package com.recipecart.usecases;
+
+import com.recipecart.entities.User;
+import com.recipecart.storage.EntitySaver;
+import java.util.Collection;
+import org.jetbrains.annotations.Nullable;
+
+public class SuggestUsersCommandTest extends AbstractSuggestCommandTest<User> {
+    @Override
+    protected void addEntitiesToStorage(Collection<User> entities, EntitySaver saver) {
+        saver.updateUsers(entities);
+    }
+
+    @Override
+    protected User createEntity(String name) {
+        return new User.Builder().setUsername(name).build();
+    }
+
+    @Override
+    protected String getName(User entity) {
+        return entity.getUsername();
+    }
+
+    @Override
+    protected AbstractSuggestCommand<User> getSuggestEntityCommand(
+            @Nullable String prefix, int limit) {
+        return new SuggestUsersCommand(prefix, limit);
+    }
+}